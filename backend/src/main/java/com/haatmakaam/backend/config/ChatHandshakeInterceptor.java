@@ -0,0 +1,90 @@
+package com.haatmakaam.backend.config;
+
+import com.haatmakaam.backend.domain.entities.User;
+import com.haatmakaam.backend.models.VerifiedToken;
+import com.haatmakaam.backend.services.JwtService;
+import com.haatmakaam.backend.services.UserCache;
+import com.haatmakaam.backend.services.chat.ChatSocketHandler;
+import com.haatmakaam.backend.services.tokens.TokenDenylist;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+/**
+ * Authenticates the chat handshake with the same access token as the REST API, taken from the
+ * Authorization header or, for browsers that cannot set headers on a WebSocket, from an
+ * {@code access_token} query parameter. Keep the latter out of access logs.
+ *
+ * The socket outlives the request, so the token's expiry travels with the session and
+ * ChatRouter closes it once the token runs out; clients reconnect with a refreshed token. A token
+ * revoked after the handshake keeps its open socket until then.
+ */
+@Component
+public class ChatHandshakeInterceptor implements HandshakeInterceptor {
+
+    private final JwtService jwtService;
+    private final TokenDenylist denylist;
+    private final UserCache userCache;
+
+    @Autowired
+    public ChatHandshakeInterceptor(JwtService jwtService, TokenDenylist denylist, UserCache userCache) {
+        this.jwtService = jwtService;
+        this.denylist = denylist;
+        this.userCache = userCache;
+    }
+
+    @Override
+    public boolean beforeHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                                   @NonNull WebSocketHandler wsHandler, @NonNull Map<String, Object> attributes) {
+        String token = bearerToken(request);
+        if (token == null) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+
+        VerifiedToken verified;
+        try {
+            verified = jwtService.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        if (denylist.isRevoked(verified.tokenId())) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        // Tokens issued before the uid claim existed are resolved through the user cache
+        Long userId = verified.userId() != null
+                ? verified.userId()
+                : userCache.find(verified.subject()).map(User::getId).orElse(null);
+        if (userId == null) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        attributes.put(ChatSocketHandler.USER_ID_ATTRIBUTE, userId);
+        attributes.put(ChatSocketHandler.EXPIRES_AT_ATTRIBUTE, verified.expiresAtMillis());
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                               @NonNull WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    private static String bearerToken(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            return header.substring(7);
+        }
+        return UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("access_token");
+    }
+}
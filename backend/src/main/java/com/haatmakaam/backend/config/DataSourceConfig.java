@@ -0,0 +1,102 @@
+package com.haatmakaam.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Connection pools, one per route.
+ *
+ * The primary pool ({@code spring.datasource.*}, sized by {@code spring.datasource.hikari.*})
+ * takes all writes. If {@code datasource.replica.url} is set, a second pool (sized by
+ * {@code datasource.replica.hikari.*}) serves read-only transactions: {@code @Transactional(readOnly = true)}
+ * methods and Spring Data's non-transactional reads. The {@link DataSource} everything injects is
+ * a lazy proxy that only picks a pool once the first statement runs, after the transaction
+ * manager has marked the connection read-only or not.
+ *
+ * {@code datasource.transaction-pooler=true} is for URLs that go through pgbouncer or Supavisor
+ * in transaction mode, where consecutive transactions may land on different server connections.
+ * Server-side prepared statements would then be missing or collide, so the driver is told to
+ * send every statement unnamed ({@code prepareThreshold=0}).
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private final Environment environment;
+    private final boolean transactionPooler;
+
+    @Autowired
+    public DataSourceConfig(
+            Environment environment,
+            @Value("${datasource.transaction-pooler:false}") boolean transactionPooler
+    ) {
+        this.environment = environment;
+        this.transactionPooler = transactionPooler;
+    }
+
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        return configure(pool, "spring.datasource.hikari", "primary");
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "datasource.replica.url")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties primary,
+            @Value("${datasource.replica.url}") String url,
+            @Value("${datasource.replica.username:}") String username,
+            @Value("${datasource.replica.password:}") String password
+    ) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setDriverClassName(primary.determineDriverClassName());
+        pool.setJdbcUrl(url);
+        // Credentials default to the primary's, as they are the same on a managed read replica
+        pool.setUsername(username.isEmpty() ? primary.determineUsername() : username);
+        pool.setPassword(password.isEmpty() ? primary.determinePassword() : password);
+        // A write routed here by mistake fails instead of silently landing on the replica
+        pool.setReadOnly(true);
+        return configure(pool, "datasource.replica.hikari", "replica");
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            @Qualifier("replicaDataSource") ObjectProvider<HikariDataSource> replicaDataSource
+    ) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        proxy.setTargetDataSource(primaryDataSource);
+        // Known defaults, so the proxy does not borrow a connection at startup to find out
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        replicaDataSource.ifAvailable(proxy::setReadOnlyDataSource);
+        proxy.afterPropertiesSet();
+        return proxy;
+    }
+
+    private HikariDataSource configure(HikariDataSource pool, String prefix, String name) {
+        Binder.get(environment).bind(prefix, Bindable.ofInstance(pool));
+        if (pool.getPoolName() == null) {
+            pool.setPoolName(name);
+        }
+        if (transactionPooler) {
+            pool.addDataSourceProperty("prepareThreshold", "0");
+        }
+        return pool;
+    }
+}
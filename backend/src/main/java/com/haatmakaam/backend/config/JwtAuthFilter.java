@@ -1,11 +1,17 @@
 package com.haatmakaam.backend.config;
 
+import com.haatmakaam.backend.models.VerifiedToken;
 import com.haatmakaam.backend.services.JwtService;
+import com.haatmakaam.backend.services.tokens.TokenDenylist;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,17 +22,39 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
+    private final TokenDenylist denylist;
     private final UserDetailsService userDetailsService;
+    private final boolean statelessAuth;
+
+    private final Timer verifyValid;
+    private final Timer verifyInvalid;
+    private final Timer verifyRevoked;
+    private final Timer principalFromClaims;
+    private final Timer principalFromDatabase;
 
     @Autowired
-    public JwtAuthFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthFilter(
+            JwtService jwtService,
+            TokenDenylist denylist,
+            UserDetailsService userDetailsService,
+            @Value("${security.jwt.stateless-auth:false}") boolean statelessAuth,
+            MeterRegistry meterRegistry
+    ) {
         this.jwtService = jwtService;
+        this.denylist = denylist;
         this.userDetailsService = userDetailsService;
+        this.statelessAuth = statelessAuth;
+        this.verifyValid = verifyTimer(meterRegistry, "valid");
+        this.verifyInvalid = verifyTimer(meterRegistry, "invalid");
+        this.verifyRevoked = verifyTimer(meterRegistry, "revoked");
+        this.principalFromClaims = principalTimer(meterRegistry, "claims");
+        this.principalFromDatabase = principalTimer(meterRegistry, "database");
     }
 
     @Override
@@ -36,32 +64,71 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail; // This is now the phone number
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt); // Extracts subject, which is our phone number
-
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        // Single parse: signature, expiry and claims are checked once per request
+        final VerifiedToken token;
+        long start = System.nanoTime();
+        try {
+            token = jwtService.verify(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            verifyInvalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            // Invalid or expired token: continue unauthenticated and let security reject it
+            filterChain.doFilter(request, response);
+            return;
+        }
+        // In memory on every node; a token that is not revoked is ruled out by the Bloom filter
+        if (denylist.isRevoked(token.tokenId())) {
+            verifyRevoked.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long verified = System.nanoTime();
+        verifyValid.record(verified - start, TimeUnit.NANOSECONDS);
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        // Stateless mode builds the principal from the claims. Tokens issued before the
+        // uid/role claims existed fall back to a database lookup until they expire.
+        UserDetails userDetails = statelessAuth ? token.toPrincipal() : null;
+        if (userDetails != null) {
+            principalFromClaims.record(System.nanoTime() - verified, TimeUnit.NANOSECONDS);
+        } else if (token.subject() != null) {
+            userDetails = this.userDetailsService.loadUserByUsername(token.subject()); // subject is the phone number
+            principalFromDatabase.record(System.nanoTime() - verified, TimeUnit.NANOSECONDS);
+        }
+        if (userDetails != null) {
+            setAuthentication(userDetails, request);
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private void setAuthentication(UserDetails userDetails, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
+
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.jwt.verify")
+                .description("Bearer token verification, including verified-token cache hits and the denylist check")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Timer principalTimer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("auth.principal.load")
+                .description("Resolving the principal for a verified token")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
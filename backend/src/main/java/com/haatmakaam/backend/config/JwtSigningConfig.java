@@ -0,0 +1,107 @@
+package com.haatmakaam.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The JWT key ring, bound from the "jwt.signing" properties. Every node of a deployment must be
+ * given the same keys.
+ *
+ * A key signs from its {@code sign-from} instant until a key with a later one takes over, and is
+ * accepted for verification until {@code verify-until} (forever if unset). To rotate without
+ * logging anyone out: add the new key with a {@code sign-from} after every node has the new
+ * configuration (ES256 keys then also appear in the JWKS for edge verifiers ahead of use), and
+ * set the old key's {@code verify-until} at least one access-token lifetime after that. A node
+ * without a key's private half or secret only verifies with it.
+ *
+ * {@code jwt.secret}, if set, is part of the ring as HS256 key "default", which also verifies
+ * tokens issued before key ids existed.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "jwt.signing")
+public class JwtSigningConfig {
+
+    private List<KeyProperties> keys = new ArrayList<>();
+
+    public List<KeyProperties> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<KeyProperties> keys) {
+        this.keys = keys;
+    }
+
+    public static class KeyProperties {
+
+        private String kid;
+        // HS256 or ES256
+        private String algorithm = "HS256";
+        // HS256: the shared secret, at least 32 bytes
+        private String secret;
+        // ES256: base64 DER or PEM, PKCS#8 private and X.509 public key on P-256
+        private String privateKey;
+        private String publicKey;
+        private Instant signFrom = Instant.EPOCH;
+        private Instant verifyUntil;
+
+        public String getKid() {
+            return kid;
+        }
+
+        public void setKid(String kid) {
+            this.kid = kid;
+        }
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(String algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+
+        public String getPrivateKey() {
+            return privateKey;
+        }
+
+        public void setPrivateKey(String privateKey) {
+            this.privateKey = privateKey;
+        }
+
+        public String getPublicKey() {
+            return publicKey;
+        }
+
+        public void setPublicKey(String publicKey) {
+            this.publicKey = publicKey;
+        }
+
+        public Instant getSignFrom() {
+            return signFrom;
+        }
+
+        public void setSignFrom(Instant signFrom) {
+            this.signFrom = signFrom;
+        }
+
+        public Instant getVerifyUntil() {
+            return verifyUntil;
+        }
+
+        public void setVerifyUntil(Instant verifyUntil) {
+            this.verifyUntil = verifyUntil;
+        }
+    }
+}
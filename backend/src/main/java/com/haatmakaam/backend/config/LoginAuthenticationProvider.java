@@ -0,0 +1,46 @@
+package com.haatmakaam.backend.config;
+
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * The phone/password check behind login, with rejections that cost no stack trace.
+ *
+ * A wrong password throws a stackless {@link BadCredentialsException}. An unknown phone number is
+ * left as the {@code UsernameNotFoundException} from the user details service (also stackless)
+ * instead of being rewrapped, and still costs a password check against a dummy hash. Login
+ * answers both the same way, so neither the response nor its timing tells them apart.
+ */
+public class LoginAuthenticationProvider extends DaoAuthenticationProvider {
+
+    public LoginAuthenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
+        super(userDetailsService);
+        setPasswordEncoder(passwordEncoder);
+        setHideUserNotFoundExceptions(false);
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails, UsernamePasswordAuthenticationToken authentication) {
+        Object credentials = authentication.getCredentials();
+        if (credentials == null || !getPasswordEncoder().matches(credentials.toString(), userDetails.getPassword())) {
+            throw new RejectedCredentials();
+        }
+    }
+
+    // One per attempt, since the provider manager records the attempt on it
+    private static final class RejectedCredentials extends BadCredentialsException {
+
+        RejectedCredentials() {
+            super("Bad credentials");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.haatmakaam.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Rate limits for the public /api/auth/** endpoints, bound from the "rate-limit" properties.
+ * Each endpoint has a per-phone and a per-client-IP limit of {@code capacity} requests per
+ * {@code period}; a request must pass both. Behind a reverse proxy, set
+ * {@code server.forward-headers-strategy} so the client IP is the real one.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitConfig {
+
+    private boolean enabled = true;
+
+    // Upper bound on tracked buckets per policy
+    private int maxTrackedKeys = 100_000;
+
+    private EndpointLimits register = new EndpointLimits(new Limit(3, Duration.ofHours(1)), new Limit(20, Duration.ofMinutes(10)));
+    private EndpointLimits login = new EndpointLimits(new Limit(10, Duration.ofMinutes(5)), new Limit(60, Duration.ofMinutes(1)));
+    private EndpointLimits verifyOtp = new EndpointLimits(new Limit(10, Duration.ofMinutes(10)), new Limit(60, Duration.ofMinutes(1)));
+    private EndpointLimits resendOtp = new EndpointLimits(new Limit(3, Duration.ofMinutes(10)), new Limit(20, Duration.ofMinutes(10)));
+
+    // Any other /api/auth/** route is limited per IP only
+    private Limit otherPerIp = new Limit(60, Duration.ofMinutes(1));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxTrackedKeys() {
+        return maxTrackedKeys;
+    }
+
+    public void setMaxTrackedKeys(int maxTrackedKeys) {
+        this.maxTrackedKeys = maxTrackedKeys;
+    }
+
+    public EndpointLimits getRegister() {
+        return register;
+    }
+
+    public void setRegister(EndpointLimits register) {
+        this.register = register;
+    }
+
+    public EndpointLimits getLogin() {
+        return login;
+    }
+
+    public void setLogin(EndpointLimits login) {
+        this.login = login;
+    }
+
+    public EndpointLimits getVerifyOtp() {
+        return verifyOtp;
+    }
+
+    public void setVerifyOtp(EndpointLimits verifyOtp) {
+        this.verifyOtp = verifyOtp;
+    }
+
+    public EndpointLimits getResendOtp() {
+        return resendOtp;
+    }
+
+    public void setResendOtp(EndpointLimits resendOtp) {
+        this.resendOtp = resendOtp;
+    }
+
+    public Limit getOtherPerIp() {
+        return otherPerIp;
+    }
+
+    public void setOtherPerIp(Limit otherPerIp) {
+        this.otherPerIp = otherPerIp;
+    }
+
+    public static class EndpointLimits {
+
+        private Limit perPhone;
+        private Limit perIp;
+
+        public EndpointLimits() {
+        }
+
+        public EndpointLimits(Limit perPhone, Limit perIp) {
+            this.perPhone = perPhone;
+            this.perIp = perIp;
+        }
+
+        public Limit getPerPhone() {
+            return perPhone;
+        }
+
+        public void setPerPhone(Limit perPhone) {
+            this.perPhone = perPhone;
+        }
+
+        public Limit getPerIp() {
+            return perIp;
+        }
+
+        public void setPerIp(Limit perIp) {
+            this.perIp = perIp;
+        }
+    }
+
+    public static class Limit {
+
+        private int capacity;
+        private Duration period;
+
+        public Limit() {
+        }
+
+        public Limit(int capacity, Duration period) {
+            this.capacity = capacity;
+            this.period = period;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Duration period) {
+            this.period = period;
+        }
+    }
+}
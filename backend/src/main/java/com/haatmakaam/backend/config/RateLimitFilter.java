@@ -0,0 +1,259 @@
+package com.haatmakaam.backend.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haatmakaam.backend.models.ErrorResponse;
+import com.haatmakaam.backend.services.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects abusive traffic on /api/auth/** before it reaches AuthenticationController, i.e. before
+ * any database lookup, BCrypt work or paid SMS. Each endpoint has its own per-client-IP and
+ * per-phone limits (see {@link RateLimitConfig}); the phone number is read from the JSON body with
+ * a streaming parser and the body is replayed to the controller unchanged.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String AUTH_PREFIX = "/api/auth/";
+    private static final int MAX_INSPECTED_BODY_BYTES = 8 * 1024;
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+    private final Map<String, EndpointLimiters> endpoints;
+    private final EndpointLimiters otherEndpoints;
+    private final List<RateLimiter> allLimiters = new ArrayList<>();
+
+    @Autowired
+    public RateLimitFilter(RateLimitConfig config, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.enabled = config.isEnabled();
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+        int maxKeys = config.getMaxTrackedKeys();
+        this.endpoints = Map.of(
+                AUTH_PREFIX + "register", limiters("register", config.getRegister(), maxKeys, meterRegistry),
+                AUTH_PREFIX + "login", limiters("login", config.getLogin(), maxKeys, meterRegistry),
+                AUTH_PREFIX + "verify-otp", limiters("verify-otp", config.getVerifyOtp(), maxKeys, meterRegistry),
+                AUTH_PREFIX + "resend-otp", limiters("resend-otp", config.getResendOtp(), maxKeys, meterRegistry)
+        );
+        this.otherEndpoints = limiters("other",
+                new RateLimitConfig.EndpointLimits(null, config.getOtherPerIp()), maxKeys, meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !path(request).startsWith(AUTH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        EndpointLimiters limiters = endpoints.getOrDefault(path(request), otherEndpoints);
+
+        long waitNanos = limiters.perIp().tryAcquire(request.getRemoteAddr());
+        if (waitNanos > 0) {
+            limiters.ipRejections().increment();
+            reject(response, waitNanos);
+            return;
+        }
+
+        HttpServletRequest forwarded = request;
+        if (limiters.perPhone() != null) {
+            CachedBodyRequest cached = CachedBodyRequest.wrap(request, MAX_INSPECTED_BODY_BYTES);
+            forwarded = cached;
+            String phone = cached.isComplete() ? extractPhone(cached.prefix()) : null;
+            if (phone != null) {
+                waitNanos = limiters.perPhone().tryAcquire(phone);
+                if (waitNanos > 0) {
+                    limiters.phoneRejections().increment();
+                    reject(response, waitNanos);
+                    return;
+                }
+            }
+        }
+        filterChain.doFilter(forwarded, response);
+    }
+
+    /**
+     * Drops fully refilled buckets so memory tracks active clients only.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        for (RateLimiter limiter : allLimiters) {
+            limiter.evictIdle();
+        }
+    }
+
+    private String extractPhone(byte[] body) {
+        // Streams through the top-level object only as far as the "phone" field
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("phone".equals(field) && value == JsonToken.VALUE_STRING) {
+                    return parser.getText().trim();
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            // Malformed JSON: the controller will reject it; the IP limit still applied
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                "Too many requests. Please try again later.",
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                LocalDateTime.now()
+        ));
+    }
+
+    private EndpointLimiters limiters(String endpoint, RateLimitConfig.EndpointLimits limits, int maxKeys, MeterRegistry registry) {
+        RateLimiter perPhone = null;
+        if (limits.getPerPhone() != null) {
+            perPhone = new RateLimiter(endpoint + ":phone", limits.getPerPhone().getCapacity(), limits.getPerPhone().getPeriod(), maxKeys);
+            allLimiters.add(perPhone);
+        }
+        RateLimiter perIp = new RateLimiter(endpoint + ":ip", limits.getPerIp().getCapacity(), limits.getPerIp().getPeriod(), maxKeys);
+        allLimiters.add(perIp);
+        return new EndpointLimiters(perPhone, perIp,
+                rejectionCounter(registry, endpoint, "phone"),
+                rejectionCounter(registry, endpoint, "ip"));
+    }
+
+    private static Counter rejectionCounter(MeterRegistry registry, String endpoint, String dimension) {
+        return Counter.builder("auth.ratelimit.rejected")
+                .description("Auth requests rejected by the rate limiter")
+                .tag("endpoint", endpoint)
+                .tag("dimension", dimension)
+                .register(registry);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private record EndpointLimiters(RateLimiter perPhone, RateLimiter perIp, Counter phoneRejections, Counter ipRejections) {
+    }
+
+    /**
+     * Buffers up to a limit of the request body so it can be inspected, then replays the buffered
+     * prefix followed by whatever was not read.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] prefix;
+        private final boolean complete;
+        private final InputStream remainder;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] prefix, boolean complete, InputStream remainder) {
+            super(request);
+            this.prefix = prefix;
+            this.complete = complete;
+            this.remainder = remainder;
+        }
+
+        static CachedBodyRequest wrap(HttpServletRequest request, int limit) throws IOException {
+            InputStream in = request.getInputStream();
+            // One byte past the limit tells a body of exactly `limit` bytes from a longer one
+            byte[] prefix = in.readNBytes(limit + 1);
+            boolean complete = prefix.length <= limit;
+            return new CachedBodyRequest(request, prefix, complete, in);
+        }
+
+        byte[] prefix() {
+            return prefix;
+        }
+
+        boolean isComplete() {
+            return complete;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            InputStream replay = complete
+                    ? new ByteArrayInputStream(prefix)
+                    : new SequenceInputStream(new ByteArrayInputStream(prefix), remainder);
+            return new ServletInputStream() {
+                private boolean finished;
+
+                @Override
+                public int read() throws IOException {
+                    int b = replay.read();
+                    finished = b == -1;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = replay.read(b, off, len);
+                    finished = n == -1;
+                    return n;
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Async reads are not supported");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
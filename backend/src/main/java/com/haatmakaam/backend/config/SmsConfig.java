@@ -0,0 +1,23 @@
+package com.haatmakaam.backend.config;
+
+import com.haatmakaam.backend.services.sms.MeteredSmsSender;
+import com.haatmakaam.backend.services.sms.SmsSender;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class SmsConfig {
+
+    /**
+     * The SmsSender everything else injects: the provider selected by {@code sms.provider},
+     * wrapped with send timers.
+     */
+    @Bean
+    @Primary
+    public MeteredSmsSender smsSender(@Qualifier(SmsSender.PROVIDER) SmsSender provider, MeterRegistry meterRegistry) {
+        return new MeteredSmsSender(provider, meterRegistry);
+    }
+}
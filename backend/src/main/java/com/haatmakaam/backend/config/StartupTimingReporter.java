@@ -0,0 +1,107 @@
+package com.haatmakaam.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs how long boot took and how much of it went to the database schema: Flyway (migrate plus
+ * checksum validation) and the JPA bootstrap, which includes Hibernate's schema validation. Both
+ * are also exported as {@code application.startup.phase} gauges, next to Spring Boot's own
+ * {@code application.ready.time}.
+ *
+ * The breakdown needs {@link BufferingApplicationStartup}, which {@code BackendApplication.main}
+ * installs. Without it only the total is logged.
+ */
+@Component
+public class StartupTimingReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimingReporter.class);
+
+    private static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+
+    private volatile long schemaMigrationMillis;
+    private volatile long jpaBootstrapMillis;
+
+    @Autowired
+    public StartupTimingReporter(MeterRegistry meterRegistry) {
+        TimeGauge.builder("application.startup.phase", this, TimeUnit.MILLISECONDS, r -> r.schemaMigrationMillis)
+                .tag("phase", "schema-migration")
+                .description("Time spent in this startup phase")
+                .register(meterRegistry);
+        TimeGauge.builder("application.startup.phase", this, TimeUnit.MILLISECONDS, r -> r.jpaBootstrapMillis)
+                .tag("phase", "jpa-bootstrap")
+                .description("Time spent in this startup phase")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        long totalMillis = event.getTimeTaken().toMillis();
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            log.info("Ready in {} ms", totalMillis);
+            return;
+        }
+
+        // Drained rather than read, so the recorded steps do not stay in memory
+        StartupTimeline timeline = startup.drainBufferedTimeline();
+        Map<String, StartupTimeline.TimelineEvent> beans = new HashMap<>();
+        Map<Long, Long> parents = new HashMap<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : timeline.getEvents()) {
+            StartupStep step = timelineEvent.getStartupStep();
+            if (step.getParentId() != null) {
+                parents.put(step.getId(), step.getParentId());
+            }
+            if (BEAN_INSTANTIATE.equals(step.getName())) {
+                for (StartupStep.Tag tag : step.getTags()) {
+                    if ("beanName".equals(tag.getKey())) {
+                        beans.put(tag.getValue(), timelineEvent);
+                    }
+                }
+            }
+        }
+
+        Duration migrations = duration(beans.get("flywayInitializer"));
+        Duration jpa = duration(beans.get("entityManagerFactory"));
+        // Flyway is forced to run before the EntityManagerFactory and is then timed inside it
+        if (nestedIn(beans.get("flywayInitializer"), beans.get("entityManagerFactory"), parents)) {
+            jpa = jpa.minus(migrations);
+        }
+
+        schemaMigrationMillis = migrations.toMillis();
+        jpaBootstrapMillis = jpa.toMillis();
+        log.info("Ready in {} ms (schema migration {} ms, JPA bootstrap {} ms)",
+                totalMillis, migrations.toMillis(), jpa.toMillis());
+    }
+
+    private static Duration duration(StartupTimeline.TimelineEvent event) {
+        return event == null ? Duration.ZERO : event.getDuration();
+    }
+
+    private static boolean nestedIn(StartupTimeline.TimelineEvent inner, StartupTimeline.TimelineEvent outer,
+                                    Map<Long, Long> parents) {
+        if (inner == null || outer == null) {
+            return false;
+        }
+        long outerId = outer.getStartupStep().getId();
+        for (Long id = parents.get(inner.getStartupStep().getId()); id != null; id = parents.get(id)) {
+            if (id == outerId) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
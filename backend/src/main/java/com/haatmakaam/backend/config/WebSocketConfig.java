@@ -0,0 +1,61 @@
+package com.haatmakaam.backend.config;
+
+import com.haatmakaam.backend.services.chat.ChatSocketHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+import java.time.Duration;
+
+/**
+ * The chat socket at {@code /ws/chat}. Authentication happens in the handshake, so SecurityConfig
+ * lets the upgrade request through.
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final ChatSocketHandler chatSocketHandler;
+    private final ChatHandshakeInterceptor chatHandshakeInterceptor;
+    private final String[] allowedOrigins;
+
+    @Autowired
+    public WebSocketConfig(
+            ChatSocketHandler chatSocketHandler,
+            ChatHandshakeInterceptor chatHandshakeInterceptor,
+            @Value("${chat.allowed-origins:*}") String[] allowedOrigins
+    ) {
+        this.chatSocketHandler = chatSocketHandler;
+        this.chatHandshakeInterceptor = chatHandshakeInterceptor;
+        this.allowedOrigins = allowedOrigins;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(chatSocketHandler, "/ws/chat")
+                .addInterceptors(chatHandshakeInterceptor)
+                .setAllowedOriginPatterns(allowedOrigins);
+    }
+
+    /**
+     * Per-socket container limits. The message buffers are allocated for every open socket, so
+     * they are sized to the largest frame a client may send rather than left at the default.
+     */
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer(
+            @Value("${chat.session.max-text-message-bytes:8192}") int maxTextMessageBytes,
+            @Value("${chat.session.idle-timeout:10m}") Duration idleTimeout
+    ) {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize(maxTextMessageBytes);
+        // Clients send text only
+        container.setMaxBinaryMessageBufferSize(1024);
+        container.setMaxSessionIdleTimeout(idleTimeout.toMillis());
+        return container;
+    }
+}
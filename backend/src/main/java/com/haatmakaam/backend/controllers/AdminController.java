@@ -0,0 +1,88 @@
+package com.haatmakaam.backend.controllers;
+
+import com.haatmakaam.backend.models.LedgerReceipt;
+import com.haatmakaam.backend.models.RatingReconcileReport;
+import com.haatmakaam.backend.models.TopUpRequest;
+import com.haatmakaam.backend.services.AuthenticationService;
+import com.haatmakaam.backend.services.ledger.LedgerService;
+import com.haatmakaam.backend.services.onboarding.ImportFormat;
+import com.haatmakaam.backend.services.onboarding.WorkerImportService;
+import com.haatmakaam.backend.services.reviews.RatingReconciler;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Admin-only operations. Access is restricted to the ADMIN role in SecurityConfig.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final WorkerImportService workerImportService;
+    private final RatingReconciler ratingReconciler;
+    private final LedgerService ledgerService;
+    private final AuthenticationService authenticationService;
+
+    @Autowired
+    public AdminController(WorkerImportService workerImportService, RatingReconciler ratingReconciler,
+                           LedgerService ledgerService, AuthenticationService authenticationService) {
+        this.workerImportService = workerImportService;
+        this.ratingReconciler = ratingReconciler;
+        this.ledgerService = ledgerService;
+        this.authenticationService = authenticationService;
+    }
+
+    /**
+     * Bulk-registers workers from a CSV or NDJSON body. The body is streamed rather than bound,
+     * and the per-row report is streamed back as NDJSON while the import runs.
+     */
+    @PostMapping(value = "/workers/import", consumes = {"text/csv", "application/x-ndjson"})
+    public void importWorkers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ImportFormat format = ImportFormat.fromContentType(request.getContentType());
+        response.setContentType(ImportFormat.NDJSON.mediaType());
+        response.setCharacterEncoding("UTF-8");
+        workerImportService.importWorkers(request.getReader(), format, response.getWriter());
+    }
+
+    /**
+     * Runs the rating reconciliation now instead of waiting for its schedule, and reports the
+     * workers whose aggregates had drifted from their reviews.
+     */
+    @PostMapping("/ratings/reconcile")
+    public ResponseEntity<RatingReconcileReport> reconcileRatings() {
+        return ResponseEntity.ok(ratingReconciler.reconcile());
+    }
+
+    /**
+     * Credits a payment confirmed at eSewa or Khalti to the user's wallet: 201 when posted, 200
+     * when that payment was already credited.
+     */
+    @PostMapping("/wallet/top-ups")
+    public ResponseEntity<LedgerReceipt> topUp(@RequestBody TopUpRequest request) {
+        if (request.userId() == null || request.amount() == null) {
+            throw new IllegalArgumentException("User and amount are required.");
+        }
+        LedgerReceipt receipt = ledgerService.topUp(request.userId(), request.gateway(), request.amount(), request.paymentId());
+        return ResponseEntity.status(receipt.replayed() ? HttpStatus.OK : HttpStatus.CREATED).body(receipt);
+    }
+
+    /**
+     * Signs a user out of every login: refresh tokens stop working at once, and access tokens
+     * are denied on every node within moments.
+     */
+    @PostMapping("/users/{userId}/sessions/revoke")
+    public ResponseEntity<?> revokeSessions(@PathVariable long userId) {
+        int revoked = authenticationService.revokeSessions(userId);
+        return ResponseEntity.ok("Revoked " + revoked + " sessions.");
+    }
+}
@@ -3,7 +3,9 @@ package com.haatmakaam.backend.controllers;
 import com.haatmakaam.backend.models.LoginRequest;
 import com.haatmakaam.backend.models.LoginResponse;
 import com.haatmakaam.backend.models.OtpVerificationRequest;
+import com.haatmakaam.backend.models.RefreshRequest;
 import com.haatmakaam.backend.models.RegisterRequest;
+import com.haatmakaam.backend.models.ResendOtpRequest;
 import com.haatmakaam.backend.services.AuthenticationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -29,6 +31,12 @@ public class AuthenticationController {
         return ResponseEntity.ok("User registered successfully. Please check your phone for OTP.");
     }
 
+    @PostMapping("/resend-otp")
+    public ResponseEntity<?> resendOtp(@RequestBody ResendOtpRequest request) {
+        authenticationService.resendOtp(request);
+        return ResponseEntity.ok("A new OTP has been sent to your phone.");
+    }
+
     @PostMapping("/verify-otp")
     public ResponseEntity<?> verifyOtp(@RequestBody OtpVerificationRequest request) {
         if (authenticationService.verifyOtp(request)) {
@@ -41,4 +49,15 @@ public class AuthenticationController {
     public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest request) {
         return ResponseEntity.ok(authenticationService.login(request));
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@RequestBody RefreshRequest request) {
+        return ResponseEntity.ok(authenticationService.refresh(request));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody RefreshRequest request) {
+        authenticationService.logout(request);
+        return ResponseEntity.ok("Logged out.");
+    }
 }
\ No newline at end of file
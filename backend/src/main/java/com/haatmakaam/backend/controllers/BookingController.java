@@ -0,0 +1,80 @@
+package com.haatmakaam.backend.controllers;
+
+import com.haatmakaam.backend.models.BookingRequest;
+import com.haatmakaam.backend.models.BookingResponse;
+import com.haatmakaam.backend.models.ReviewRequest;
+import com.haatmakaam.backend.models.ReviewResponse;
+import com.haatmakaam.backend.services.UserCache;
+import com.haatmakaam.backend.services.booking.BookingService;
+import com.haatmakaam.backend.services.reviews.ReviewService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Bookings. Any signed-in user can book a worker; confirm and complete are for the booked worker,
+ * cancel for either party, and review for the customer once the booking is completed. A booking
+ * that someone else already holds is answered with 409, as is a second review.
+ */
+@RestController
+@RequestMapping("/api/bookings")
+public class BookingController {
+
+    private final BookingService bookingService;
+    private final ReviewService reviewService;
+    private final UserCache userCache;
+
+    @Autowired
+    public BookingController(BookingService bookingService, ReviewService reviewService, UserCache userCache) {
+        this.bookingService = bookingService;
+        this.reviewService = reviewService;
+        this.userCache = userCache;
+    }
+
+    @PostMapping
+    public ResponseEntity<BookingResponse> book(@AuthenticationPrincipal UserDetails principal,
+                                                @RequestBody BookingRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(bookingService.book(userCache.getCurrentUserId(principal), request));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BookingResponse> getBooking(@AuthenticationPrincipal UserDetails principal,
+                                                      @PathVariable long id) {
+        return ResponseEntity.ok(bookingService.getBooking(id, userCache.getCurrentUserId(principal)));
+    }
+
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<BookingResponse> confirm(@AuthenticationPrincipal UserDetails principal,
+                                                   @PathVariable long id) {
+        return ResponseEntity.ok(bookingService.confirm(id, userCache.getCurrentUserId(principal)));
+    }
+
+    @PostMapping("/{id}/complete")
+    public ResponseEntity<BookingResponse> complete(@AuthenticationPrincipal UserDetails principal,
+                                                    @PathVariable long id) {
+        return ResponseEntity.ok(bookingService.complete(id, userCache.getCurrentUserId(principal)));
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<BookingResponse> cancel(@AuthenticationPrincipal UserDetails principal,
+                                                  @PathVariable long id) {
+        return ResponseEntity.ok(bookingService.cancel(id, userCache.getCurrentUserId(principal)));
+    }
+
+    @PostMapping("/{id}/review")
+    public ResponseEntity<ReviewResponse> review(@AuthenticationPrincipal UserDetails principal,
+                                                 @PathVariable long id,
+                                                 @RequestBody ReviewRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(reviewService.submit(userCache.getCurrentUserId(principal), id, request));
+    }
+}
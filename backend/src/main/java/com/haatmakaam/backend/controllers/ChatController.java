@@ -0,0 +1,45 @@
+package com.haatmakaam.backend.controllers;
+
+import com.haatmakaam.backend.models.ChatHistoryPage;
+import com.haatmakaam.backend.services.UserCache;
+import com.haatmakaam.backend.services.chat.ChatService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Chat history. Messages themselves are sent and received over the {@code /ws/chat} socket.
+ */
+@RestController
+@RequestMapping("/api/chat")
+public class ChatController {
+
+    private final ChatService chatService;
+    private final UserCache userCache;
+
+    @Autowired
+    public ChatController(ChatService chatService, UserCache userCache) {
+        this.chatService = chatService;
+        this.userCache = userCache;
+    }
+
+    /**
+     * The conversation with another user, newest first, e.g. {@code /api/chat/42/messages?limit=50},
+     * then {@code &cursor=} the previous page's {@code nextCursor} for older messages.
+     */
+    @GetMapping("/{userId}/messages")
+    public ResponseEntity<ChatHistoryPage> history(
+            @AuthenticationPrincipal UserDetails principal,
+            @PathVariable long userId,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor
+    ) {
+        return ResponseEntity.ok(chatService.history(userCache.getCurrentUserId(principal), userId, limit, cursor));
+    }
+}
@@ -0,0 +1,85 @@
+package com.haatmakaam.backend.controllers;
+
+import com.haatmakaam.backend.domain.enums.Skill;
+import com.haatmakaam.backend.models.JobRequest;
+import com.haatmakaam.backend.models.JobResponse;
+import com.haatmakaam.backend.services.UserCache;
+import com.haatmakaam.backend.services.jobs.JobFeedCache;
+import com.haatmakaam.backend.services.jobs.JobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Job postings and the worker feed. Posting is restricted to the USER role in SecurityConfig;
+ * reading is open to any signed-in user.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    private final JobService jobService;
+    private final UserCache userCache;
+
+    @Autowired
+    public JobController(JobService jobService, UserCache userCache) {
+        this.jobService = jobService;
+        this.userCache = userCache;
+    }
+
+    @PostMapping
+    public ResponseEntity<JobResponse> post(@AuthenticationPrincipal UserDetails principal,
+                                            @RequestBody JobRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(jobService.post(userCache.getCurrentUserId(principal), request));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<JobResponse> getJob(@PathVariable long id) {
+        return ResponseEntity.ok(jobService.getJob(id));
+    }
+
+    @PostMapping("/{id}/close")
+    public ResponseEntity<JobResponse> close(@AuthenticationPrincipal UserDetails principal, @PathVariable long id) {
+        return ResponseEntity.ok(jobService.close(id, userCache.getCurrentUserId(principal)));
+    }
+
+    /**
+     * Open jobs near the location, newest first, e.g.
+     * {@code /api/jobs/feed?lat=27.7172&lon=85.3240&skill=PLUMBER&limit=20}, then
+     * {@code &cursor=} the previous page's {@code nextCursor}. Clients polling the feed should
+     * send back the ETag as If-None-Match: an unchanged feed is answered with 304 and no body.
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<byte[]> feed(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(required = false) Skill skill,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request
+    ) {
+        JobFeedCache.Page page = jobService.feed(lat, lon, skill, limit, cursor);
+        // Sets ETag and Last-Modified, and the 304 status if the client's copy is current
+        if (request.checkNotModified(page.etag(), page.lastModified())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                // Private: the feed sits behind authentication. No-cache: revalidate on every poll.
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(page.body());
+    }
+}
@@ -0,0 +1,34 @@
+package com.haatmakaam.backend.controllers;
+
+import com.haatmakaam.backend.services.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The public half of the ES256 signing keys, for gateways and other services that verify access
+ * tokens themselves. HS256 keys are never published.
+ */
+@RestController
+public class JwksController {
+
+    // Short enough that a key added for rotation is picked up well before it starts signing
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+
+    private final JwtKeyRing keyRing;
+
+    @Autowired
+    public JwksController(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(keyRing.jwks(System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.haatmakaam.backend.controllers;
+
+import com.haatmakaam.backend.models.NotificationResponse;
+import com.haatmakaam.backend.services.UserCache;
+import com.haatmakaam.backend.services.notifications.NotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * The current user's in-app notifications.
+ */
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    private final NotificationService notificationService;
+    private final UserCache userCache;
+
+    @Autowired
+    public NotificationController(NotificationService notificationService, UserCache userCache) {
+        this.notificationService = notificationService;
+        this.userCache = userCache;
+    }
+
+    /**
+     * Newest first, e.g. {@code /api/notifications?limit=20}, then {@code &before=} the last
+     * {@code notificationId} of the previous page for older ones.
+     */
+    @GetMapping
+    public ResponseEntity<List<NotificationResponse>> inbox(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) Long before
+    ) {
+        return ResponseEntity.ok(notificationService.inbox(userCache.getCurrentUserId(principal), limit, before));
+    }
+}
@@ -0,0 +1,43 @@
+package com.haatmakaam.backend.controllers;
+
+import com.haatmakaam.backend.models.WalletResponse;
+import com.haatmakaam.backend.services.UserCache;
+import com.haatmakaam.backend.services.ledger.LedgerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * The current user's wallet.
+ */
+@RestController
+@RequestMapping("/api/wallet")
+public class WalletController {
+
+    private final LedgerService ledgerService;
+    private final UserCache userCache;
+
+    @Autowired
+    public WalletController(LedgerService ledgerService, UserCache userCache) {
+        this.ledgerService = ledgerService;
+        this.userCache = userCache;
+    }
+
+    /**
+     * Balance and statement, newest first, e.g. {@code /api/wallet?limit=20}, then {@code &before=}
+     * the last {@code entryId} of the previous page for older entries.
+     */
+    @GetMapping
+    public ResponseEntity<WalletResponse> wallet(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) Long before
+    ) {
+        return ResponseEntity.ok(ledgerService.wallet(userCache.getCurrentUserId(principal), limit, before));
+    }
+}
@@ -0,0 +1,89 @@
+package com.haatmakaam.backend.controllers;
+
+import com.haatmakaam.backend.domain.entities.WeeklyAvailability;
+import com.haatmakaam.backend.domain.enums.Skill;
+import com.haatmakaam.backend.models.AvailabilityResponse;
+import com.haatmakaam.backend.models.AvailabilityUpdateRequest;
+import com.haatmakaam.backend.models.NearbyWorker;
+import com.haatmakaam.backend.models.WorkerProfileRequest;
+import com.haatmakaam.backend.models.WorkerProfileResponse;
+import com.haatmakaam.backend.services.UserCache;
+import com.haatmakaam.backend.services.matching.WorkerProfileService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.DayOfWeek;
+import java.util.List;
+
+/**
+ * Worker profiles and nearby search. The /me endpoints are restricted to the WORKER role in
+ * SecurityConfig; search is open to any signed-in user.
+ */
+@RestController
+@RequestMapping("/api/workers")
+public class WorkerController {
+
+    private final WorkerProfileService workerProfileService;
+    private final UserCache userCache;
+
+    @Autowired
+    public WorkerController(WorkerProfileService workerProfileService, UserCache userCache) {
+        this.workerProfileService = workerProfileService;
+        this.userCache = userCache;
+    }
+
+    @GetMapping("/me/profile")
+    public ResponseEntity<WorkerProfileResponse> getProfile(@AuthenticationPrincipal UserDetails principal) {
+        return ResponseEntity.of(workerProfileService.getProfile(userCache.getCurrentUserId(principal)));
+    }
+
+    @PutMapping("/me/profile")
+    public ResponseEntity<WorkerProfileResponse> saveProfile(@AuthenticationPrincipal UserDetails principal,
+                                                             @RequestBody WorkerProfileRequest request) {
+        return ResponseEntity.ok(workerProfileService.saveProfile(userCache.getCurrentUserId(principal), request));
+    }
+
+    @GetMapping("/me/availability")
+    public ResponseEntity<AvailabilityResponse> getAvailability(@AuthenticationPrincipal UserDetails principal) {
+        return ResponseEntity.of(workerProfileService.getAvailability(userCache.getCurrentUserId(principal)));
+    }
+
+    /**
+     * Adds and removes free hours; hours not mentioned are left as they are.
+     */
+    @PatchMapping("/me/availability")
+    public ResponseEntity<AvailabilityResponse> updateAvailability(@AuthenticationPrincipal UserDetails principal,
+                                                                   @RequestBody AvailabilityUpdateRequest request) {
+        return ResponseEntity.ok(workerProfileService.updateAvailability(userCache.getCurrentUserId(principal), request));
+    }
+
+    /**
+     * Best rated active workers with the skill within the radius, e.g.
+     * {@code /api/workers/nearby?skill=PLUMBER&lat=27.7172&lon=85.3240&radiusKm=5&limit=10}.
+     * With {@code day}, {@code from} and {@code to} (hours, end exclusive) only workers free for
+     * that whole window are returned.
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyWorker>> findNearby(
+            @RequestParam Skill skill,
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) DayOfWeek day,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "24") int to
+    ) {
+        WeeklyAvailability window = day == null ? WeeklyAvailability.none() : WeeklyAvailability.ofHours(day, from, to);
+        return ResponseEntity.ok(workerProfileService.findNearby(skill, lat, lon, radiusKm, limit, window));
+    }
+}
@@ -0,0 +1,52 @@
+package com.haatmakaam.backend.domain.entities;
+
+import com.haatmakaam.backend.domain.enums.BookingStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A customer's booking of a worker for whole hours. The hours themselves are rows in
+ * {@code booking_slots}, whose primary key makes a second booking of the same worker-hour fail.
+ * Status changes go through conditional updates in BookingRepository, never through dirty checking.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "bookings")
+public class Booking {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "worker_id", nullable = false)
+    private Long workerId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    // Local time of the marketplace (booking.zone), on the hour
+    @Column(name = "starts_at", nullable = false)
+    private LocalDateTime startsAt;
+
+    @Column(nullable = false)
+    private int hours;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private BookingStatus status;
+
+    // Set while PENDING: the booking is cancelled if not confirmed by then
+    @Column(name = "hold_expires_at")
+    private LocalDateTime holdExpiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,34 @@
+package com.haatmakaam.backend.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A direct message from one user to another. Inserted in batches by ChatMessageWriter after it
+ * was delivered, with an id the sending node allocated; read here for conversation history only.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "chat_messages")
+public class ChatMessage {
+
+    // Assigned by ChatService from a block of chat_messages_seq, never generated on insert
+    @Id
+    private Long id;
+
+    @Column(name = "sender_id", nullable = false)
+    private Long senderId;
+
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+
+    @Column(nullable = false, length = 1000)
+    private String body;
+
+    @Column(name = "sent_at", nullable = false)
+    private LocalDateTime sentAt;
+}
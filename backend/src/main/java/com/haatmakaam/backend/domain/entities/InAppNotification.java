@@ -0,0 +1,39 @@
+package com.haatmakaam.backend.domain.entities;
+
+import com.haatmakaam.backend.domain.enums.NotificationKind;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a user's in-app inbox. Inserted in batches by InAppNotificationChannel; read here
+ * for the inbox only.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "notifications")
+public class InAppNotification {
+
+    // From notifications_seq in the insert, never generated by Hibernate
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private NotificationKind kind;
+
+    @Column(nullable = false, length = 500)
+    private String body;
+
+    @Column(nullable = false)
+    private int events;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,61 @@
+package com.haatmakaam.backend.domain.entities;
+
+import com.haatmakaam.backend.domain.enums.JobStatus;
+import com.haatmakaam.backend.domain.enums.Skill;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A customer's request for a worker with a given skill at a given place. Workers find open jobs
+ * through the job feed, which pages by (created_at, id) within a few areas around them.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "jobs")
+public class Job {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "jobs_seq")
+    @SequenceGenerator(name = "jobs_seq", sequenceName = "jobs_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Skill skill;
+
+    @Column(nullable = false, length = 120)
+    private String title;
+
+    @Column(length = 2000)
+    private String description;
+
+    @Column(nullable = false)
+    private double latitude;
+
+    @Column(nullable = false)
+    private double longitude;
+
+    // Feed area of the location, see JobFeedCache.areaOf
+    @Column(nullable = false)
+    private long area;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private JobStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+}
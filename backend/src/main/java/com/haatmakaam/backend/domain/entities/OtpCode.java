@@ -0,0 +1,35 @@
+package com.haatmakaam.backend.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pending OTP for the Postgres-backed OTP store (multi-node setups).
+ * Rows are written and consumed with single-statement SQL by JdbcOtpStore; the mapping exists so
+ * the table is part of the schema.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "otp_codes")
+public class OtpCode {
+
+    @Id
+    @Column(name = "phone_number")
+    private String phoneNumber;
+
+    @Column(nullable = false, length = 6)
+    private String code;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "issued_at", nullable = false)
+    private LocalDateTime issuedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,63 @@
+package com.haatmakaam.backend.domain.entities;
+
+import com.haatmakaam.backend.domain.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An OTP SMS waiting to be sent. Rows are written in the same transaction as the change that
+ * triggered them and drained asynchronously by OtpOutboxDispatcher. The body holds the code, so
+ * it is cleared once the message is SENT or DEAD, and settled rows are purged after a retention.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "otp_outbox")
+public class OtpOutboxMessage {
+
+    // Sequence rather than IDENTITY so bulk enqueues are sent as one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "otp_outbox_seq")
+    @SequenceGenerator(name = "otp_outbox_seq", sequenceName = "otp_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "phone_number", nullable = false)
+    private String phoneNumber;
+
+    @Column(name = "body")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "provider_message_id")
+    private String providerMessageId;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    public OtpOutboxMessage(String phoneNumber, String body, LocalDateTime now) {
+        this.phoneNumber = phoneNumber;
+        this.body = body;
+        this.status = OutboxStatus.PENDING;
+        this.attempts = 0;
+        this.nextAttemptAt = now;
+        this.createdAt = now;
+    }
+}
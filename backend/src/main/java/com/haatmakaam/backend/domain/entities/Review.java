@@ -0,0 +1,42 @@
+package com.haatmakaam.backend.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A customer's rating of a completed booking, at most one per booking. Its worker's running
+ * aggregates on {@code worker_profiles} are updated in the same transaction by ReviewService.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "reviews")
+public class Review {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reviews_seq")
+    @SequenceGenerator(name = "reviews_seq", sequenceName = "reviews_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(name = "worker_id", nullable = false)
+    private Long workerId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    // 1 to 5 stars
+    @Column(nullable = false)
+    private short rating;
+
+    @Column(length = 1000)
+    private String comment;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -4,12 +4,13 @@ import com.haatmakaam.backend.domain.enums.UserRole;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
@@ -20,8 +21,13 @@ import java.util.List;
 @Table(name = "users")
 public class User implements UserDetails {
 
+    public static final int ID_BLOCK_SIZE = 50;
+
+    // Pooled sequence: Hibernate reserves 50 ids per round trip and can batch inserts,
+    // which IDENTITY rules out. Bulk imports take blocks from the same sequence.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = ID_BLOCK_SIZE)
     private Long id;
 
     @Column(name = "full_name", nullable = false)
@@ -36,16 +42,17 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private boolean verified;
 
-    @Column(name = "otp")
-    private String otp;
-
-    @Column(name = "otp_generated_time")
-    private LocalDateTime otpGeneratedTime;
-
     @Enumerated(EnumType.STRING)
     @Column(name = "user_role", nullable = false) 
     private UserRole role;
 
+    // Only workers have one. Never loaded with the user (the build enhances entities for this),
+    // so the per-request user lookup does not pay for it; touch it only inside a transaction.
+    @OneToOne(mappedBy = "user", fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private WorkerProfile workerProfile;
+
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -0,0 +1,131 @@
+package com.haatmakaam.backend.domain.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+
+/**
+ * The hours of a week a worker takes jobs, as a 168-bit set in three {@code long} words: bit
+ * {@code h} is hour {@code h} counted from Monday 00:00 local time, so word 0 covers Monday to
+ * mid-Wednesday, word 1 on to Friday evening and word 2 the rest (its top 24 bits stay clear).
+ *
+ * The same words are the database columns and what the spatial index holds, so checking a
+ * worker against a requested window is three AND-and-compare operations. Instances are immutable.
+ *
+ * The build enhances this class for dirty tracking, which records the owning entity on each
+ * instance, so instances are never shared between entities. Hibernate also skips enhancing a class
+ * with an {@code is}/{@code get} method that matches no field, hence no {@code isEmpty()}.
+ */
+@Embeddable
+public class WeeklyAvailability {
+
+    public static final int HOURS_PER_DAY = 24;
+    public static final int HOURS_PER_WEEK = 7 * HOURS_PER_DAY;
+    public static final int WORDS = 3;
+
+    @Column(name = "availability_0", nullable = false)
+    private long word0;
+
+    @Column(name = "availability_1", nullable = false)
+    private long word1;
+
+    @Column(name = "availability_2", nullable = false)
+    private long word2;
+
+    protected WeeklyAvailability() {
+    }
+
+    private WeeklyAvailability(long word0, long word1, long word2) {
+        this.word0 = word0;
+        this.word1 = word1;
+        this.word2 = word2;
+    }
+
+    public static WeeklyAvailability none() {
+        return new WeeklyAvailability(0, 0, 0);
+    }
+
+    public static WeeklyAvailability ofWords(long word0, long word1, long word2) {
+        if (word2 >>> (HOURS_PER_WEEK - 2 * Long.SIZE) != 0) {
+            throw new IllegalArgumentException("Availability has bits beyond the end of the week");
+        }
+        return new WeeklyAvailability(word0, word1, word2);
+    }
+
+    /**
+     * Hours {@code fromHour} (inclusive) to {@code toHour} (exclusive) of one day, e.g. 9 to 17.
+     */
+    public static WeeklyAvailability ofHours(DayOfWeek day, int fromHour, int toHour) {
+        if (day == null || fromHour < 0 || toHour > HOURS_PER_DAY || fromHour >= toHour) {
+            throw new IllegalArgumentException("Hours must be a day with 0 <= from < to <= 24.");
+        }
+        long[] words = new long[WORDS];
+        for (int hour = hourOfWeek(day, fromHour); hour < hourOfWeek(day, 0) + toHour; hour++) {
+            words[hour >>> 6] |= 1L << hour;
+        }
+        return new WeeklyAvailability(words[0], words[1], words[2]);
+    }
+
+    public static int hourOfWeek(DayOfWeek day, int hour) {
+        return (day.getValue() - 1) * HOURS_PER_DAY + hour;
+    }
+
+    public long word(int index) {
+        return switch (index) {
+            case 0 -> word0;
+            case 1 -> word1;
+            case 2 -> word2;
+            default -> throw new IndexOutOfBoundsException(index);
+        };
+    }
+
+    public boolean hasNoHours() {
+        return (word0 | word1 | word2) == 0;
+    }
+
+    public boolean isFree(int hourOfWeek) {
+        return (word(hourOfWeek >>> 6) & (1L << hourOfWeek)) != 0;
+    }
+
+    /**
+     * True if every hour of {@code window} is free here.
+     */
+    public boolean covers(WeeklyAvailability window) {
+        return covers(word0, word1, word2, window);
+    }
+
+    /**
+     * {@link #covers} on raw words, for callers that keep them unboxed.
+     */
+    public static boolean covers(long word0, long word1, long word2, WeeklyAvailability window) {
+        // One comparison rather than three: about half of all workers fail a typical window, and
+        // short-circuiting would give the branch predictor three coin flips per worker
+        return ((~word0 & window.word0) | (~word1 & window.word1) | (~word2 & window.word2)) == 0;
+    }
+
+    public WeeklyAvailability union(WeeklyAvailability other) {
+        return new WeeklyAvailability(word0 | other.word0, word1 | other.word1, word2 | other.word2);
+    }
+
+    public WeeklyAvailability minus(WeeklyAvailability other) {
+        return new WeeklyAvailability(word0 & ~other.word0, word1 & ~other.word1, word2 & ~other.word2);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof WeeklyAvailability other
+                && word0 == other.word0 && word1 == other.word1 && word2 == other.word2;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(new long[]{word0, word1, word2});
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WeeklyAvailability[%016x %016x %010x]", word0, word1, word2);
+    }
+}
@@ -0,0 +1,64 @@
+package com.haatmakaam.backend.domain.entities;
+
+import com.haatmakaam.backend.domain.enums.Skill;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * What a customer needs to find a worker: where they are, what they do and how well they do it.
+ * Shares its primary key with the worker's {@link User} row.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "worker_profiles")
+public class WorkerProfile {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+
+    @Column(nullable = false)
+    private double latitude;
+
+    @Column(nullable = false)
+    private double longitude;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "worker_skills", joinColumns = @JoinColumn(name = "user_id"))
+    @Enumerated(EnumType.STRING)
+    @Column(name = "skill", nullable = false, length = 32)
+    private Set<Skill> skills = new HashSet<>();
+
+    // Taking jobs right now; inactive workers are kept but never matched
+    @Column(nullable = false)
+    private boolean active;
+
+    @Embedded
+    private WeeklyAvailability availability = WeeklyAvailability.none();
+
+    // Maintained by ReviewService under the row lock, never written through the entity, so a
+    // profile save cannot overwrite a review that committed after the profile was read
+    @Column(nullable = false, insertable = false, updatable = false)
+    private double rating;
+
+    @Column(name = "rating_count", nullable = false, insertable = false, updatable = false)
+    private int ratingCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
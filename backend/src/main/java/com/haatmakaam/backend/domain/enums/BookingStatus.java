@@ -0,0 +1,14 @@
+package com.haatmakaam.backend.domain.enums;
+
+/**
+ * Lifecycle of a booking.
+ * PENDING holds the worker's hours until the worker confirms or the hold expires. CONFIRMED keeps
+ * them, COMPLETED is terminal after the job, and CANCELLED (by either side, or by hold expiry) is
+ * terminal and frees the hours.
+ */
+public enum BookingStatus {
+    PENDING,
+    CONFIRMED,
+    COMPLETED,
+    CANCELLED
+}
@@ -0,0 +1,9 @@
+package com.haatmakaam.backend.domain.enums;
+
+/**
+ * Lifecycle of a job posting. OPEN jobs appear in the feed of nearby workers; CLOSED is terminal.
+ */
+public enum JobStatus {
+    OPEN,
+    CLOSED
+}
@@ -0,0 +1,16 @@
+package com.haatmakaam.backend.domain.enums;
+
+/**
+ * A ledger account's purpose. Each user has at most one WALLET, which may never go negative; the
+ * others are the platform's own, one each, and hold whatever the wallets do not.
+ */
+public enum LedgerAccountKind {
+    WALLET,
+    PLATFORM_FEES,
+    ESEWA_CLEARING,
+    KHALTI_CLEARING;
+
+    public boolean isWallet() {
+        return this == WALLET;
+    }
+}
@@ -0,0 +1,11 @@
+package com.haatmakaam.backend.domain.enums;
+
+/**
+ * Why money moved: into a wallet from a payment gateway, from a customer's wallet to a worker's
+ * for a booking, or out of a wallet to the gateway.
+ */
+public enum LedgerTransactionKind {
+    TOP_UP,
+    SETTLEMENT,
+    PAYOUT
+}
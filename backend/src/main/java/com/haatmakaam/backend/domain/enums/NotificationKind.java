@@ -0,0 +1,11 @@
+package com.haatmakaam.backend.domain.enums;
+
+/**
+ * What a notification is about. Events of one kind for one user are coalesced into a single
+ * notification, and the kind decides which channels carry it.
+ */
+public enum NotificationKind {
+    JOB_NEARBY,
+    BOOKING_UPDATE,
+    REVIEW_RECEIVED
+}
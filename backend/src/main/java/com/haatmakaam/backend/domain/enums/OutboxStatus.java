@@ -0,0 +1,13 @@
+package com.haatmakaam.backend.domain.enums;
+
+/**
+ * Lifecycle of a queued outbound message.
+ * PENDING rows are due for (re)sending, SENDING rows are leased by a dispatcher and return to
+ * the queue if their lease runs out, SENT is terminal success and DEAD is terminal failure.
+ */
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    DEAD
+}
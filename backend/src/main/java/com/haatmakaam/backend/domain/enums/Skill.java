@@ -0,0 +1,15 @@
+package com.haatmakaam.backend.domain.enums;
+
+/**
+ * Trades a worker can be hired for. A worker lists one or more; customers search by exactly one.
+ */
+public enum Skill {
+    PLUMBER,
+    ELECTRICIAN,
+    CARPENTER,
+    PAINTER,
+    MASON,
+    CLEANER,
+    MECHANIC,
+    GARDENER
+}
@@ -6,6 +6,7 @@ package com.haatmakaam.backend.domain.enums;
  * Using an enum ensures type safety, meaning you can't accidentally assign an invalid role.
  */
 public enum UserRole {
-   USER,
+    USER,
+    WORKER,
     ADMIN
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.haatmakaam.backend.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * An expected rejection of a login, OTP or refresh attempt. These are most of the auth traffic
+ * during credential stuffing, so there is one preallocated instance per {@link Reason}, without a
+ * stack trace, and the message never names the phone number. Obtain one with {@link #of}.
+ */
+public final class AuthFailureException extends RuntimeException {
+
+    public enum Reason {
+        BAD_CREDENTIALS(HttpStatus.UNAUTHORIZED, "Invalid phone number or password."),
+        NOT_VERIFIED(HttpStatus.BAD_REQUEST, "User is not verified. Please verify your OTP first."),
+        INVALID_OTP(HttpStatus.BAD_REQUEST, "The OTP provided is invalid or has expired."),
+        TOO_MANY_OTP_ATTEMPTS(HttpStatus.BAD_REQUEST, "Too many incorrect attempts. Please request a new OTP."),
+        INVALID_REFRESH_TOKEN(HttpStatus.BAD_REQUEST, "The refresh token is invalid or has expired.");
+
+        private final HttpStatus status;
+        private final String message;
+        private final AuthFailureException exception;
+
+        Reason(HttpStatus status, String message) {
+            this.status = status;
+            this.message = message;
+            this.exception = new AuthFailureException(this);
+        }
+
+        public HttpStatus status() {
+            return status;
+        }
+
+        public String message() {
+            return message;
+        }
+    }
+
+    private final Reason reason;
+
+    private AuthFailureException(Reason reason) {
+        // Shared between threads, so neither a stack trace nor suppressed exceptions are recorded
+        super(reason.message, null, false, false);
+        this.reason = reason;
+    }
+
+    public static AuthFailureException of(Reason reason) {
+        return reason.exception;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
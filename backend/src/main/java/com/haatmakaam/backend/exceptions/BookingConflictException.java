@@ -0,0 +1,11 @@
+package com.haatmakaam.backend.exceptions;
+
+/**
+ * Thrown when a booking cannot be made or changed because of its current state, e.g. another
+ * booking already holds one of its hours. Mapped to 409 Conflict.
+ */
+public class BookingConflictException extends RuntimeException {
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
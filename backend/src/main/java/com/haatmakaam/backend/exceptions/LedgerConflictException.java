@@ -0,0 +1,11 @@
+package com.haatmakaam.backend.exceptions;
+
+/**
+ * Thrown when a posting cannot be made: the wallet it debits has too little in it, or its
+ * idempotency key was already used for a different posting. Mapped to 409 Conflict.
+ */
+public class LedgerConflictException extends RuntimeException {
+    public LedgerConflictException(String message) {
+        super(message);
+    }
+}
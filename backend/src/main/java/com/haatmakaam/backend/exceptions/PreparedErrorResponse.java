@@ -0,0 +1,50 @@
+package com.haatmakaam.backend.exceptions;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.haatmakaam.backend.models.ErrorResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * A fixed {@link ErrorResponse} written to JSON once, for errors sent at flood rates. Only the
+ * timestamp changes, and it is kept to the second, so the body is rebuilt at most once a second
+ * and every other response reuses the same bytes.
+ */
+final class PreparedErrorResponse {
+
+    private final HttpStatus status;
+    private final String prefix;
+    private volatile Rendered rendered = new Rendered(-1, null);
+
+    PreparedErrorResponse(HttpStatus status, String message) {
+        this.status = status;
+        // Field order and formats as Jackson writes the record
+        this.prefix = "{\"message\":\"" + new String(JsonStringEncoder.getInstance().quoteAsString(message))
+                + "\",\"status\":" + status.value() + ",\"timestamp\":\"";
+    }
+
+    ResponseEntity<byte[]> toResponseEntity() {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body());
+    }
+
+    private byte[] body() {
+        long second = System.currentTimeMillis() / 1000;
+        Rendered current = rendered;
+        if (current.second() != second) {
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            String json = prefix + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(now) + "\"}";
+            current = new Rendered(second, json.getBytes(StandardCharsets.UTF_8));
+            rendered = current;
+        }
+        return current.body();
+    }
+
+    private record Rendered(long second, byte[] body) {
+    }
+}
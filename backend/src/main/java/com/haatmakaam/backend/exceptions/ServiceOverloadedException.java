@@ -0,0 +1,19 @@
+package com.haatmakaam.backend.exceptions;
+
+/**
+ * Thrown when a bounded resource (e.g. the password-hashing bulkhead) is saturated and the request
+ * is shed instead of queued. Mapped to 503 Service Unavailable with a Retry-After header.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package com.haatmakaam.backend.exceptions;
+
+/**
+ * Raised by an SmsSender when a message could not be handed to the provider.
+ * Permanent failures (e.g. an invalid destination number) are not worth retrying.
+ */
+public class SmsSendException extends RuntimeException {
+
+    private final boolean permanent;
+
+    public SmsSendException(String message, boolean permanent, Throwable cause) {
+        super(message, cause);
+        this.permanent = permanent;
+    }
+
+    public boolean isPermanent() {
+        return permanent;
+    }
+}
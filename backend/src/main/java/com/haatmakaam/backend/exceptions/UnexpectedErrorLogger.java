@@ -0,0 +1,111 @@
+package com.haatmakaam.backend.exceptions;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs errors no handler expected, off the request thread and at most {@code maxPerSecond} a
+ * second. A failing dependency can make every request throw; writing each stack trace
+ * synchronously would then slow every request down to the speed of the log. Entries over the
+ * limit, or that find the queue full, are only counted, and the next logged entry says how many
+ * were dropped.
+ *
+ * Entries carry the exception type, the request and the dropped count as key-value pairs, which
+ * a structured log format ({@code logging.structured.format.console}) writes as fields.
+ */
+@Component
+public class UnexpectedErrorLogger {
+
+    private static final Logger log = LoggerFactory.getLogger(UnexpectedErrorLogger.class);
+
+    private final int maxPerSecond;
+    private final ThreadPoolExecutor writer;
+
+    // The second the count below belongs to
+    private final AtomicLong window = new AtomicLong();
+    private final AtomicInteger loggedInWindow = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+
+    private final Counter logged;
+    private final Counter suppressed;
+
+    @Autowired
+    public UnexpectedErrorLogger(
+            @Value("${errors.log.max-per-second:10}") int maxPerSecond,
+            @Value("${errors.log.queue-capacity:256}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        this.maxPerSecond = maxPerSecond;
+        this.writer = new ThreadPoolExecutor(
+                1, 1,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "error-log");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.logged = Counter.builder("errors.unexpected")
+                .description("Unexpected errors answered with 500, by whether they were logged")
+                .tag("logged", "true")
+                .register(meterRegistry);
+        this.suppressed = Counter.builder("errors.unexpected")
+                .description("Unexpected errors answered with 500, by whether they were logged")
+                .tag("logged", "false")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the error for logging, unless this second's allowance is used up.
+     */
+    public void report(Throwable error, String request) {
+        long second = System.currentTimeMillis() / 1000;
+        long current = window.get();
+        if (current != second && window.compareAndSet(current, second)) {
+            loggedInWindow.set(0);
+        }
+        if (loggedInWindow.incrementAndGet() > maxPerSecond) {
+            drop();
+            return;
+        }
+        long droppedBefore = dropped.sumThenReset();
+        try {
+            writer.execute(() -> log.atError()
+                    .setCause(error)
+                    .addKeyValue("exception", error.getClass().getName())
+                    .addKeyValue("request", request)
+                    .addKeyValue("dropped", droppedBefore)
+                    .log("Unexpected error handling {}", request));
+            logged.increment();
+        } catch (RejectedExecutionException e) {
+            // Queue full: the writer is behind, so this one is dropped too
+            dropped.add(droppedBefore);
+            drop();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+    }
+
+    private void drop() {
+        dropped.increment();
+        suppressed.increment();
+    }
+}
@@ -0,0 +1,14 @@
+package com.haatmakaam.backend.models;
+
+import java.util.UUID;
+
+/**
+ * A freshly signed access token with the id and expiry it carries, so they can be recorded
+ * without parsing it again.
+ */
+public record AccessToken(
+    String token,
+    UUID tokenId,
+    long expiresAtMillis
+) {
+}
@@ -0,0 +1,36 @@
+package com.haatmakaam.backend.models;
+
+import com.haatmakaam.backend.domain.enums.UserRole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lightweight principal built from verified JWT claims alone.
+ * Used in stateless mode so protected requests never need a database lookup.
+ */
+public record AuthenticatedUser(
+    Long id,
+    String phoneNumber,
+    UserRole role
+) implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        // Never carried in a token
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return phoneNumber;
+    }
+}
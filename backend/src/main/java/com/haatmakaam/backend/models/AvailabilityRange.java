@@ -0,0 +1,9 @@
+package com.haatmakaam.backend.models;
+
+import java.time.DayOfWeek;
+
+/**
+ * Hours {@code fromHour} (inclusive) to {@code toHour} (exclusive) of one weekday, local time.
+ */
+public record AvailabilityRange(DayOfWeek day, int fromHour, int toHour) {
+}
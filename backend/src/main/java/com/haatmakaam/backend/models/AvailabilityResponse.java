@@ -0,0 +1,9 @@
+package com.haatmakaam.backend.models;
+
+import java.util.List;
+
+/**
+ * A worker's free hours as ranges in week order, one or more per day.
+ */
+public record AvailabilityResponse(List<AvailabilityRange> free) {
+}
@@ -0,0 +1,13 @@
+package com.haatmakaam.backend.models;
+
+import java.util.List;
+
+/**
+ * Incremental change to a worker's weekly availability: {@code add} is applied first, then
+ * {@code remove}. Hours mentioned in neither keep their current state.
+ */
+public record AvailabilityUpdateRequest(
+    List<AvailabilityRange> add,
+    List<AvailabilityRange> remove
+) {
+}
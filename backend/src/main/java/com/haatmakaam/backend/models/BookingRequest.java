@@ -0,0 +1,13 @@
+package com.haatmakaam.backend.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Books {@code hours} whole hours of a worker from {@code startsAt}, local time of the marketplace.
+ */
+public record BookingRequest(
+    Long workerId,
+    LocalDateTime startsAt,
+    Integer hours
+) {
+}
@@ -0,0 +1,17 @@
+package com.haatmakaam.backend.models;
+
+import com.haatmakaam.backend.domain.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+public record BookingResponse(
+    long bookingId,
+    long workerId,
+    long customerId,
+    LocalDateTime startsAt,
+    int hours,
+    BookingStatus status,
+    LocalDateTime holdExpiresAt,
+    LocalDateTime updatedAt
+) {
+}
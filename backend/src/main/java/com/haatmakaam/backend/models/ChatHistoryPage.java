@@ -0,0 +1,13 @@
+package com.haatmakaam.backend.models;
+
+import java.util.List;
+
+/**
+ * One page of a conversation, newest first. {@code nextCursor} fetches older messages and is null
+ * on the last page.
+ */
+public record ChatHistoryPage(
+    List<ChatMessageResponse> messages,
+    String nextCursor
+) {
+}
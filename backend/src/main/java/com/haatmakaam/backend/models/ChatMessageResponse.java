@@ -0,0 +1,15 @@
+package com.haatmakaam.backend.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * A chat message as delivered over the socket and listed in history.
+ */
+public record ChatMessageResponse(
+    long messageId,
+    long senderId,
+    long recipientId,
+    String body,
+    LocalDateTime sentAt
+) {
+}
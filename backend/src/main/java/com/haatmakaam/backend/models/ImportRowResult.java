@@ -0,0 +1,14 @@
+package com.haatmakaam.backend.models;
+
+/**
+ * One line of the bulk import report, written as soon as the row's chunk has been committed.
+ */
+public record ImportRowResult(int line, String phone, Status status, String message) {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID,
+        FAILED
+    }
+}
@@ -0,0 +1,7 @@
+package com.haatmakaam.backend.models;
+
+/**
+ * Final line of the bulk import report.
+ */
+public record ImportSummary(long created, long duplicates, long invalid, long failed) {
+}
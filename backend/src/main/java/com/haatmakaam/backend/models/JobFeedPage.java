@@ -0,0 +1,13 @@
+package com.haatmakaam.backend.models;
+
+import java.util.List;
+
+/**
+ * One page of the job feed, newest first. {@code nextCursor} fetches the following page and is
+ * null on the last one.
+ */
+public record JobFeedPage(
+    List<JobSummary> jobs,
+    String nextCursor
+) {
+}
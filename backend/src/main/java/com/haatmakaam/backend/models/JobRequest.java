@@ -0,0 +1,12 @@
+package com.haatmakaam.backend.models;
+
+import com.haatmakaam.backend.domain.enums.Skill;
+
+public record JobRequest(
+    Skill skill,
+    String title,
+    String description,
+    Double latitude,
+    Double longitude
+) {
+}
@@ -0,0 +1,20 @@
+package com.haatmakaam.backend.models;
+
+import com.haatmakaam.backend.domain.enums.JobStatus;
+import com.haatmakaam.backend.domain.enums.Skill;
+
+import java.time.LocalDateTime;
+
+public record JobResponse(
+    long jobId,
+    long customerId,
+    Skill skill,
+    String title,
+    String description,
+    double latitude,
+    double longitude,
+    JobStatus status,
+    LocalDateTime createdAt,
+    LocalDateTime closedAt
+) {
+}
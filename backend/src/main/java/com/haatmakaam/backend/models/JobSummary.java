@@ -0,0 +1,19 @@
+package com.haatmakaam.backend.models;
+
+import com.haatmakaam.backend.domain.enums.Skill;
+
+import java.time.LocalDateTime;
+
+/**
+ * A job as listed in the feed. Carries no distance: feed pages are shared by every worker in an
+ * area, so clients compute it from the coordinates.
+ */
+public record JobSummary(
+    long jobId,
+    Skill skill,
+    String title,
+    double latitude,
+    double longitude,
+    LocalDateTime createdAt
+) {
+}
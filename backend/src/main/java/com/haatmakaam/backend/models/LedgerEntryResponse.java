@@ -0,0 +1,18 @@
+package com.haatmakaam.backend.models;
+
+import com.haatmakaam.backend.domain.enums.LedgerTransactionKind;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of a wallet statement: negative when money left the wallet.
+ */
+public record LedgerEntryResponse(
+    long entryId,
+    long transactionId,
+    LedgerTransactionKind kind,
+    String reference,
+    long amount,
+    LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,20 @@
+package com.haatmakaam.backend.models;
+
+import com.haatmakaam.backend.domain.enums.LedgerTransactionKind;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed ledger transaction. {@code replayed} is true when the idempotency key had already
+ * been posted and this is that earlier transaction, with nothing posted again.
+ */
+public record LedgerReceipt(
+    long transactionId,
+    String idempotencyKey,
+    LedgerTransactionKind kind,
+    long debitAccountId,
+    long amount,
+    LocalDateTime createdAt,
+    boolean replayed
+) {
+}
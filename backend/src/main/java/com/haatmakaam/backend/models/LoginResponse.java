@@ -1,7 +1,12 @@
 package com.haatmakaam.backend.models;
 
 /**
- * Model for the successful login response, containing the JWT.
+ * Model for the successful login and refresh responses: a short-lived access token (JWT), the
+ * seconds until it expires, and the single-use refresh token that obtains the next pair.
  */
-public record LoginResponse(String token) {
-}
\ No newline at end of file
+public record LoginResponse(
+    String token,
+    long expiresIn,
+    String refreshToken
+) {
+}
@@ -0,0 +1,10 @@
+package com.haatmakaam.backend.models;
+
+/**
+ * One match from a nearby search. Only the distance is given, never the worker's coordinates.
+ * {@code rating} is the plain average of {@code ratingCount} reviews; results are ranked by the
+ * smoothed {@code score}, and {@code recentScore} weighs recent reviews more.
+ */
+public record NearbyWorker(long workerId, double distanceKm, double rating, int ratingCount, double score,
+                           double recentScore) {
+}
@@ -0,0 +1,17 @@
+package com.haatmakaam.backend.models;
+
+import com.haatmakaam.backend.domain.enums.NotificationKind;
+
+import java.time.LocalDateTime;
+
+/**
+ * An inbox entry. {@code events} is above 1 when several events were coalesced into it.
+ */
+public record NotificationResponse(
+    long notificationId,
+    NotificationKind kind,
+    String body,
+    int events,
+    LocalDateTime createdAt
+) {
+}
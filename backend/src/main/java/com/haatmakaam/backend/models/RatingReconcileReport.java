@@ -0,0 +1,16 @@
+package com.haatmakaam.backend.models;
+
+import java.util.List;
+
+/**
+ * Outcome of one pass of the rating reconciler. Drifted workers had aggregates that disagreed
+ * with their reviews; refreshed ones only had scores gone stale, e.g. as their reviews aged.
+ * Both were rewritten. At most the first 100 drifted ids are listed.
+ */
+public record RatingReconcileReport(
+    int workersChecked,
+    int drifted,
+    int refreshed,
+    List<Long> driftedWorkerIds
+) {
+}
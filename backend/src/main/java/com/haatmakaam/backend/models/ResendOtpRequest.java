@@ -0,0 +1,6 @@
+package com.haatmakaam.backend.models;
+
+public record ResendOtpRequest(
+    String phone
+) {
+}
@@ -0,0 +1,10 @@
+package com.haatmakaam.backend.models;
+
+/**
+ * Rates a completed booking from 1 to 5 stars, optionally with a comment.
+ */
+public record ReviewRequest(
+    Integer rating,
+    String comment
+) {
+}
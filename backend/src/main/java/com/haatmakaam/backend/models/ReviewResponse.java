@@ -0,0 +1,14 @@
+package com.haatmakaam.backend.models;
+
+import java.time.LocalDateTime;
+
+public record ReviewResponse(
+    long reviewId,
+    long bookingId,
+    long workerId,
+    long customerId,
+    int rating,
+    String comment,
+    LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,13 @@
+package com.haatmakaam.backend.models;
+
+/**
+ * A payment confirmed at a gateway, to be credited to the user's wallet. {@code paymentId} is the
+ * gateway's id for it and makes crediting it again a no-op.
+ */
+public record TopUpRequest(
+    Long userId,
+    String gateway,
+    Long amount,
+    String paymentId
+) {
+}
@@ -0,0 +1,34 @@
+package com.haatmakaam.backend.models;
+
+import com.haatmakaam.backend.domain.enums.UserRole;
+
+import java.util.UUID;
+
+/**
+ * Immutable result of verifying a JWT once: signature checked, expiry checked, claims extracted.
+ * {@code userId} and {@code role} are null for tokens issued before those claims existed, and
+ * {@code tokenId} (the jti) for tokens issued before they could be revoked.
+ */
+public record VerifiedToken(
+    String subject,
+    Long userId,
+    UserRole role,
+    UUID tokenId,
+    long issuedAtMillis,
+    long expiresAtMillis
+) {
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+
+    /**
+     * Builds a principal from the claims alone, or returns null if the token predates the uid/role claims.
+     */
+    public AuthenticatedUser toPrincipal() {
+        if (userId == null || role == null) {
+            return null;
+        }
+        return new AuthenticatedUser(userId, subject, role);
+    }
+}
@@ -0,0 +1,14 @@
+package com.haatmakaam.backend.models;
+
+import java.util.List;
+
+/**
+ * A wallet's balance in paisa and its latest entries, newest first. Pass the last
+ * {@code entryId} as {@code before} for older ones.
+ */
+public record WalletResponse(
+    long accountId,
+    long balance,
+    List<LedgerEntryResponse> entries
+) {
+}
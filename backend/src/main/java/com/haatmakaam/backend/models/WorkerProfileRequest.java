@@ -0,0 +1,13 @@
+package com.haatmakaam.backend.models;
+
+import com.haatmakaam.backend.domain.enums.Skill;
+
+import java.util.Set;
+
+public record WorkerProfileRequest(
+    Double latitude,
+    Double longitude,
+    Set<Skill> skills,
+    Boolean active
+) {
+}
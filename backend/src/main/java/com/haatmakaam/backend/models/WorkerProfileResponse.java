@@ -0,0 +1,18 @@
+package com.haatmakaam.backend.models;
+
+import com.haatmakaam.backend.domain.enums.Skill;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+public record WorkerProfileResponse(
+    long workerId,
+    double latitude,
+    double longitude,
+    Set<Skill> skills,
+    boolean active,
+    double rating,
+    int ratingCount,
+    LocalDateTime updatedAt
+) {
+}
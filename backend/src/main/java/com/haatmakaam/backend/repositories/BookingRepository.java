@@ -0,0 +1,61 @@
+package com.haatmakaam.backend.repositories;
+
+import com.haatmakaam.backend.domain.entities.Booking;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Every status change is a single conditional UPDATE that names the state it leaves, so two
+ * racing changes to one booking cannot both succeed. Each returns the number of rows changed.
+ */
+@Repository
+@Transactional(readOnly = true)
+public interface BookingRepository extends JpaRepository<Booking, Long> {
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE Booking b
+            SET b.status = com.haatmakaam.backend.domain.enums.BookingStatus.CONFIRMED,
+                b.holdExpiresAt = null, b.updatedAt = :now
+            WHERE b.id = :id AND b.workerId = :workerId
+              AND b.status = com.haatmakaam.backend.domain.enums.BookingStatus.PENDING
+              AND b.holdExpiresAt > :now
+            """)
+    int confirm(@Param("id") long id, @Param("workerId") long workerId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE Booking b
+            SET b.status = com.haatmakaam.backend.domain.enums.BookingStatus.COMPLETED, b.updatedAt = :now
+            WHERE b.id = :id AND b.workerId = :workerId
+              AND b.status = com.haatmakaam.backend.domain.enums.BookingStatus.CONFIRMED
+              AND b.startsAt <= :now
+            """)
+    int complete(@Param("id") long id, @Param("workerId") long workerId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE Booking b
+            SET b.status = com.haatmakaam.backend.domain.enums.BookingStatus.CANCELLED,
+                b.holdExpiresAt = null, b.updatedAt = :now
+            WHERE b.id = :id AND (b.workerId = :userId OR b.customerId = :userId)
+              AND b.status IN (com.haatmakaam.backend.domain.enums.BookingStatus.PENDING,
+                               com.haatmakaam.backend.domain.enums.BookingStatus.CONFIRMED)
+            """)
+    int cancel(@Param("id") long id, @Param("userId") long userId, @Param("now") LocalDateTime now);
+
+    // Frees the booking's hours for others
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM booking_slots WHERE booking_id = :bookingId", nativeQuery = true)
+    int deleteSlots(@Param("bookingId") long bookingId);
+}
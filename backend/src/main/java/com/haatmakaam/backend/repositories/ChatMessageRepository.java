@@ -0,0 +1,36 @@
+package com.haatmakaam.backend.repositories;
+
+import com.haatmakaam.backend.domain.entities.ChatMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Native so the predicates match chat_messages_conversation_idx expression for expression
+@Repository
+@Transactional(readOnly = true)
+public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
+
+    @Query(value = """
+            SELECT * FROM chat_messages
+            WHERE LEAST(sender_id, recipient_id) = :low AND GREATEST(sender_id, recipient_id) = :high
+            ORDER BY sent_at DESC, id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ChatMessage> findLatest(@Param("low") long low, @Param("high") long high, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT * FROM chat_messages
+            WHERE LEAST(sender_id, recipient_id) = :low AND GREATEST(sender_id, recipient_id) = :high
+              AND (sent_at, id) < (:sentAt, :id)
+            ORDER BY sent_at DESC, id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ChatMessage> findBefore(@Param("low") long low, @Param("high") long high,
+                                 @Param("sentAt") LocalDateTime sentAt, @Param("id") long id,
+                                 @Param("limit") int limit);
+}
@@ -0,0 +1,25 @@
+package com.haatmakaam.backend.repositories;
+
+import com.haatmakaam.backend.domain.entities.InAppNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Both read notifications_user_id_idx in order and stop after the limit
+@Repository
+@Transactional(readOnly = true)
+public interface InAppNotificationRepository extends JpaRepository<InAppNotification, Long> {
+
+    @Query(value = "SELECT * FROM notifications WHERE user_id = :userId ORDER BY id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<InAppNotification> findLatest(@Param("userId") long userId, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM notifications WHERE user_id = :userId AND id < :before ORDER BY id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<InAppNotification> findBefore(@Param("userId") long userId, @Param("before") long before,
+                                       @Param("limit") int limit);
+}
@@ -0,0 +1,28 @@
+package com.haatmakaam.backend.repositories;
+
+import com.haatmakaam.backend.domain.entities.Job;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+@Transactional(readOnly = true)
+public interface JobRepository extends JpaRepository<Job, Long> {
+
+    // Conditional on the job still being open, so a double close reports 0 rows
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE Job j
+            SET j.status = com.haatmakaam.backend.domain.enums.JobStatus.CLOSED,
+                j.closedAt = :now, j.updatedAt = :now
+            WHERE j.id = :id AND j.customerId = :customerId
+              AND j.status = com.haatmakaam.backend.domain.enums.JobStatus.OPEN
+            """)
+    int close(@Param("id") long id, @Param("customerId") long customerId, @Param("now") LocalDateTime now);
+}
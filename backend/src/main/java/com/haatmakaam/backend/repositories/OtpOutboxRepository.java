@@ -0,0 +1,62 @@
+package com.haatmakaam.backend.repositories;
+
+import com.haatmakaam.backend.domain.entities.OtpOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OtpOutboxRepository extends JpaRepository<OtpOutboxMessage, Long> {
+
+    // Locks a batch of due messages. SKIP LOCKED lets several nodes drain the outbox without
+    // blocking on, or double-sending, each other's rows. SENDING rows whose lease ran out are retried.
+    @Query(value = """
+            SELECT * FROM otp_outbox
+            WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OtpOutboxMessage> lockDueBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // The updates below only apply to the claim that made the attempt: a send that outlived its
+    // lease may have been claimed and settled again, and must not overwrite that outcome
+
+    @Modifying
+    @Query("update OtpOutboxMessage m set m.status = com.haatmakaam.backend.domain.enums.OutboxStatus.SENT, "
+            + "m.body = null, m.sentAt = :sentAt, m.providerMessageId = :providerMessageId, m.lastError = null "
+            + "where m.id = :id and m.status = com.haatmakaam.backend.domain.enums.OutboxStatus.SENDING "
+            + "and m.attempts = :attempts")
+    int markSent(@Param("id") Long id, @Param("attempts") int attempts,
+                 @Param("providerMessageId") String providerMessageId, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("update OtpOutboxMessage m set m.status = com.haatmakaam.backend.domain.enums.OutboxStatus.PENDING, "
+            + "m.nextAttemptAt = :nextAttemptAt, m.lastError = :error "
+            + "where m.id = :id and m.status = com.haatmakaam.backend.domain.enums.OutboxStatus.SENDING "
+            + "and m.attempts = :attempts")
+    int reschedule(@Param("id") Long id, @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    @Modifying
+    @Query("update OtpOutboxMessage m set m.status = com.haatmakaam.backend.domain.enums.OutboxStatus.DEAD, "
+            + "m.body = null, m.lastError = :error "
+            + "where m.id = :id and m.status = com.haatmakaam.backend.domain.enums.OutboxStatus.SENDING "
+            + "and m.attempts = :attempts")
+    int markDead(@Param("id") Long id, @Param("attempts") int attempts, @Param("error") String error);
+
+    // One batch of the retention purge; a bounded delete keeps each transaction short
+    @Modifying
+    @Query(value = """
+            DELETE FROM otp_outbox
+            WHERE id IN (SELECT id FROM otp_outbox
+                         WHERE status IN ('SENT', 'DEAD') AND created_at < :cutoff
+                         LIMIT :limit)
+            """, nativeQuery = true)
+    int purgeSettledBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
@@ -2,13 +2,33 @@ package com.haatmakaam.backend.repositories;
 
 import com.haatmakaam.backend.domain.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
-import java.util.UUID;
 
+// Lookups run read-only, so outside a write transaction they are served by the read replica
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+@Transactional(readOnly = true)
+public interface UserRepository extends JpaRepository<User, Long> {
     // Find a user by their phone number
     Optional<User> findByPhoneNumber(String phoneNumber);
+
+    boolean existsByPhoneNumber(String phoneNumber);
+
+    boolean existsByPhoneNumberAndVerifiedFalse(String phoneNumber);
+
+    // Flips the verified flag without loading the row
+    @Modifying
+    @Transactional
+    @Query("update User u set u.verified = true where u.phoneNumber = :phoneNumber")
+    int markVerified(@Param("phoneNumber") String phoneNumber);
+
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :password where u.phoneNumber = :phoneNumber")
+    int updatePassword(@Param("phoneNumber") String phoneNumber, @Param("password") String password);
 }
@@ -0,0 +1,33 @@
+package com.haatmakaam.backend.repositories;
+
+import com.haatmakaam.backend.domain.entities.WorkerProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+@Transactional(readOnly = true)
+public interface WorkerProfileRepository extends JpaRepository<WorkerProfile, Long> {
+
+    // Sets then clears availability bits in place, so concurrent edits to different hours both
+    // survive. Native because JPQL has no bitwise operators.
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE worker_profiles
+            SET availability_0 = (availability_0 | :add0) & ~CAST(:remove0 AS bigint),
+                availability_1 = (availability_1 | :add1) & ~CAST(:remove1 AS bigint),
+                availability_2 = (availability_2 | :add2) & ~CAST(:remove2 AS bigint),
+                updated_at = :updatedAt
+            WHERE user_id = :userId
+            """, nativeQuery = true)
+    int updateAvailability(@Param("userId") long userId,
+                           @Param("add0") long add0, @Param("add1") long add1, @Param("add2") long add2,
+                           @Param("remove0") long remove0, @Param("remove1") long remove1, @Param("remove2") long remove2,
+                           @Param("updatedAt") LocalDateTime updatedAt);
+}
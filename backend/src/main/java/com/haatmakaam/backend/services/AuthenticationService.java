@@ -2,30 +2,53 @@ package com.haatmakaam.backend.services;
 
 import com.haatmakaam.backend.domain.entities.User;
 import com.haatmakaam.backend.domain.enums.UserRole;
+import com.haatmakaam.backend.exceptions.AuthFailureException;
 import com.haatmakaam.backend.exceptions.UserNotFoundException;
+import com.haatmakaam.backend.models.AccessToken;
 import com.haatmakaam.backend.models.LoginRequest;
 import com.haatmakaam.backend.models.LoginResponse;
 import com.haatmakaam.backend.models.OtpVerificationRequest;
+import com.haatmakaam.backend.models.RefreshRequest;
 import com.haatmakaam.backend.models.RegisterRequest;
+import com.haatmakaam.backend.models.ResendOtpRequest;
 import com.haatmakaam.backend.repositories.UserRepository;
+import com.haatmakaam.backend.services.otp.OtpStore;
+import com.haatmakaam.backend.services.tokens.RefreshTokenStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.text.DecimalFormat;
-import java.time.LocalDateTime;
-import java.util.Random;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
 
 @Service
 public class AuthenticationService {
 
+    private static final int REFRESH_TOKEN_BYTES = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final OtpService otpService;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final UserCache userCache;
+    private final OtpStore otpStore;
+    private final RefreshTokenStore refreshTokenStore;
+    private final long refreshTokenValidityMillis;
 
     @Autowired
     public AuthenticationService(
@@ -33,20 +56,29 @@ public class AuthenticationService {
             PasswordEncoder passwordEncoder,
             OtpService otpService,
             AuthenticationManager authenticationManager,
-            JwtService jwtService
+            JwtService jwtService,
+            UserCache userCache,
+            OtpStore otpStore,
+            RefreshTokenStore refreshTokenStore,
+            @Value("${jwt.refresh-token.ttl:30d}") Duration refreshTokenTtl
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.otpService = otpService;
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
+        this.userCache = userCache;
+        this.otpStore = otpStore;
+        this.refreshTokenStore = refreshTokenStore;
+        this.refreshTokenValidityMillis = refreshTokenTtl.toMillis();
     }
 
+    @Transactional
     public User register(RegisterRequest request) {
         // Optional: Check if user already exists
-        userRepository.findByPhoneNumber(request.phone()).ifPresent(u -> {
-            throw new IllegalArgumentException("User with phone number " + request.phone() + " already exists.");
-        });
+        if (userRepository.existsByPhoneNumber(request.phone())) {
+            throw new IllegalArgumentException("A user with this phone number already exists.");
+        }
 
         User user = new User();
         user.setFullName(request.name());
@@ -54,41 +86,143 @@ public class AuthenticationService {
         user.setPassword(passwordEncoder.encode(request.password()));
         user.setRole(UserRole.valueOf(request.role().toUpperCase()));
         user.setVerified(false);
-
-        String otp = new DecimalFormat("000000").format(new Random().nextInt(999999));
-        user.setOtp(otp);
-        user.setOtpGeneratedTime(LocalDateTime.now());
         User savedUser = userRepository.save(user);
-        otpService.sendOtp(savedUser.getPhoneNumber(), otp);
+        // Like every write to users, so no node keeps serving an older row for this number
+        userCache.invalidate(savedUser.getPhoneNumber());
+
+        // Any code already stored for the number belongs to no user: the store is not rolled back with
+        // a registration that failed after issuing, and otp_codes rows can outlive their user. It
+        // must not hold back this user's first code.
+        String otp = otpStore.issue(savedUser.getPhoneNumber(), true);
+        // Queued in this transaction and sent by the outbox dispatcher, never on the request thread
+        otpService.enqueueOtp(savedUser.getPhoneNumber(), otp);
         return savedUser;
     }
 
+    @Transactional
+    public void resendOtp(ResendOtpRequest request) {
+        if (!userRepository.existsByPhoneNumberAndVerifiedFalse(request.phone())) {
+            throw new IllegalArgumentException("No unverified user is registered with this phone number.");
+        }
+        String otp = otpStore.issue(request.phone());
+        if (otp == null) {
+            throw new IllegalArgumentException("An OTP was sent recently. Please wait before requesting another.");
+        }
+        otpService.enqueueOtp(request.phone(), otp);
+    }
+
+    // A rejected code still commits, or the JDBC store's attempt count would be rolled back with it
+    @Transactional(noRollbackFor = AuthFailureException.class)
     public boolean verifyOtp(OtpVerificationRequest request) {
-        User user = userRepository.findByPhoneNumber(request.phone())
-                .orElseThrow(() -> new UserNotFoundException("User not found with phone: " + request.phone()));
-
-        if (user.getOtp().equals(request.otp()) &&
-            user.getOtpGeneratedTime().plusMinutes(10).isAfter(LocalDateTime.now())) {
-            user.setVerified(true);
-            userRepository.save(user);
-            return true;
+        // The code lives in the OTP store; users is only touched to flip the verified flag
+        OtpStore.VerifyOutcome outcome = otpStore.verify(request.phone(), request.otp());
+        switch (outcome) {
+            case VERIFIED -> {
+                if (userRepository.markVerified(request.phone()) == 0) {
+                    throw new UserNotFoundException("User not found.");
+                }
+                // The verified flag changed, so any cached copy is stale on every node
+                userCache.invalidate(request.phone());
+                return true;
+            }
+            case TOO_MANY_ATTEMPTS -> throw AuthFailureException.of(AuthFailureException.Reason.TOO_MANY_OTP_ATTEMPTS);
+            default -> throw AuthFailureException.of(AuthFailureException.Reason.INVALID_OTP);
         }
-        // Throw a specific error for invalid OTP
-        throw new IllegalArgumentException("The OTP provided is invalid or has expired.");
     }
 
     public LoginResponse login(LoginRequest request) {
-        authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(request.phone(), request.password())
-        );
-        User user = userRepository.findByPhoneNumber(request.phone())
-            .orElseThrow(() -> new UserNotFoundException("Authenticated user not found with phone: " + request.phone()));
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(request.phone(), request.password())
+            );
+        } catch (AuthenticationException e) {
+            // Unknown number and wrong password alike, see LoginAuthenticationProvider
+            throw AuthFailureException.of(AuthFailureException.Reason.BAD_CREDENTIALS);
+        }
+        // The provider already loaded the user (through UserCache) to check the password
+        User user = userCache.getCurrentUser((UserDetails) authentication.getPrincipal());
 
         if (!user.isVerified()) {
-            throw new IllegalArgumentException("User is not verified. Please verify your OTP first.");
+            throw AuthFailureException.of(AuthFailureException.Reason.NOT_VERIFIED);
+        }
+
+        AccessToken accessToken = jwtService.issue(user);
+        String refreshToken = newRefreshToken();
+        refreshTokenStore.create(user.getId(), refreshRecord(refreshToken, UUID.randomUUID(), accessToken));
+        return response(accessToken, refreshToken);
+    }
+
+    /**
+     * Trades a refresh token for a new access token and its successor refresh token. Each refresh
+     * token works once; presenting one again signs out every session of that login.
+     */
+    public LoginResponse refresh(RefreshRequest request) {
+        RefreshTokenStore.Consumption consumption = refreshTokenStore.consume(hash(request));
+        if (consumption.outcome() != RefreshTokenStore.ConsumeOutcome.CONSUMED) {
+            throw AuthFailureException.of(AuthFailureException.Reason.INVALID_REFRESH_TOKEN);
         }
+        // By id rather than through the cache, so a role change or deletion is picked up here
+        User user = userRepository.findById(consumption.userId())
+                .filter(User::isVerified)
+                .orElseThrow(() -> AuthFailureException.of(AuthFailureException.Reason.INVALID_REFRESH_TOKEN));
 
-        String jwt = jwtService.generateToken(user);
-        return new LoginResponse(jwt);
+        AccessToken accessToken = jwtService.issue(user);
+        String refreshToken = newRefreshToken();
+        if (!refreshTokenStore.extend(refreshRecord(refreshToken, consumption.familyId(), accessToken))) {
+            throw AuthFailureException.of(AuthFailureException.Reason.INVALID_REFRESH_TOKEN);
+        }
+        return response(accessToken, refreshToken);
+    }
+
+    /**
+     * Ends the login the refresh token belongs to: its refresh tokens stop working and its
+     * access tokens are denied on every node. Unknown tokens are ignored.
+     */
+    public void logout(RefreshRequest request) {
+        refreshTokenStore.revokeFamily(hash(request));
+    }
+
+    /**
+     * Signs the user out everywhere.
+     * @return the number of logins ended
+     */
+    public int revokeSessions(long userId) {
+        return refreshTokenStore.revokeUser(userId);
+    }
+
+    private RefreshTokenStore.RefreshToken refreshRecord(String refreshToken, UUID familyId, AccessToken accessToken) {
+        return new RefreshTokenStore.RefreshToken(
+                hash(refreshToken),
+                familyId,
+                accessToken.tokenId(),
+                accessToken.expiresAtMillis(),
+                System.currentTimeMillis() + refreshTokenValidityMillis);
+    }
+
+    private LoginResponse response(AccessToken accessToken, String refreshToken) {
+        return new LoginResponse(accessToken.token(), jwtService.accessTokenTtl().toSeconds(), refreshToken);
+    }
+
+    private static String newRefreshToken() {
+        byte[] bytes = new byte[REFRESH_TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static byte[] hash(RefreshRequest request) {
+        if (request.refreshToken() == null || request.refreshToken().isBlank()) {
+            throw new IllegalArgumentException("A refresh token is required.");
+        }
+        return hash(request.refreshToken());
+    }
+
+    // Refresh tokens are random, so an unsalted hash is enough to keep them out of the database
+    private static byte[] hash(String refreshToken) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
\ No newline at end of file
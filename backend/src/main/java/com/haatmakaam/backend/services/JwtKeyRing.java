@@ -0,0 +1,200 @@
+package com.haatmakaam.backend.services;
+
+import com.haatmakaam.backend.config.JwtSigningConfig;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every key a token may be signed or verified with, parsed once at startup and looked up by kid.
+ *
+ * Signing picks the key with the latest {@code sign-from} that has passed; verification is a map
+ * lookup on the token's kid, so a ring of any size costs the same per request as a single key.
+ * Tokens without a kid were issued before the ring existed and resolve to the "default" key made
+ * from {@code jwt.secret}. See {@link JwtSigningConfig} for rotating keys.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    public static final String DEFAULT_KID = "default";
+
+    private static final int ES256_COORDINATE_BYTES = 32;
+
+    private final Map<String, RingKey> byKid;
+    // Keys that can sign, latest sign-from first
+    private final RingKey[] signers;
+
+    @Autowired
+    public JwtKeyRing(JwtSigningConfig config, @Value("${jwt.secret:}") String secret) {
+        this(config.getKeys(), secret);
+    }
+
+    /**
+     * A ring of the given keys, plus the "default" HS256 key if {@code secret} is not blank.
+     */
+    public JwtKeyRing(List<JwtSigningConfig.KeyProperties> keys, String secret) {
+        Map<String, RingKey> ring = new HashMap<>();
+        if (secret != null && !secret.isBlank()) {
+            Key key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            ring.put(DEFAULT_KID, new RingKey(DEFAULT_KID, SignatureAlgorithm.HS256, key, key, Instant.EPOCH, null));
+        }
+        for (JwtSigningConfig.KeyProperties properties : keys) {
+            RingKey key = parse(properties);
+            if (ring.put(key.kid(), key) != null) {
+                throw new IllegalStateException("JWT key id " + key.kid() + " is configured twice");
+            }
+        }
+        this.byKid = Map.copyOf(ring);
+        this.signers = ring.values().stream()
+                .filter(key -> key.signingKey() != null)
+                .sorted(Comparator.comparing(RingKey::signFrom).reversed())
+                .toArray(RingKey[]::new);
+        if (signers.length == 0) {
+            throw new IllegalStateException("No JWT signing key: set jwt.secret or jwt.signing.keys");
+        }
+        log.info("JWT key ring: {} keys, signing with {}", byKid.size(), signer(System.currentTimeMillis()).kid());
+    }
+
+    /**
+     * The key new tokens are signed with at this moment.
+     */
+    public RingKey signer(long nowMillis) {
+        for (RingKey key : signers) {
+            if (key.signFrom().toEpochMilli() <= nowMillis) {
+                return key;
+            }
+        }
+        throw new IllegalStateException("No JWT signing key is active yet");
+    }
+
+    /**
+     * The key to check a token's signature with.
+     *
+     * @throws SignatureException if the kid is unknown, retired, or belongs to another algorithm
+     */
+    public Key verificationKey(String kid, String algorithm, long nowMillis) {
+        RingKey key = byKid.get(kid != null ? kid : DEFAULT_KID);
+        if (key == null) {
+            throw new SignatureException("Unknown JWT key id");
+        }
+        if (key.verifyUntil() != null && key.verifyUntil().toEpochMilli() <= nowMillis) {
+            throw new SignatureException("JWT key " + key.kid() + " is retired");
+        }
+        // A token names its own algorithm; only the one its key was configured for is accepted
+        if (!key.algorithm().getValue().equals(algorithm)) {
+            throw new SignatureException("JWT key " + key.kid() + " does not use " + algorithm);
+        }
+        return key.verificationKey();
+    }
+
+    /**
+     * Public keys still accepted for verification, as a JWK set. HMAC keys are secret and never
+     * listed. Keys not yet signing are included, so verifiers have them before the first token.
+     */
+    public Map<String, Object> jwks(long nowMillis) {
+        List<Map<String, Object>> published = new ArrayList<>();
+        byKid.values().stream()
+                .filter(key -> key.verificationKey() instanceof ECPublicKey)
+                .filter(key -> key.verifyUntil() == null || key.verifyUntil().toEpochMilli() > nowMillis)
+                .sorted(Comparator.comparing(RingKey::signFrom).reversed())
+                .forEach(key -> published.add(jwk(key)));
+        return Map.of("keys", published);
+    }
+
+    private static Map<String, Object> jwk(RingKey key) {
+        ECPublicKey publicKey = (ECPublicKey) key.verificationKey();
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("kid", key.kid());
+        jwk.put("use", "sig");
+        jwk.put("alg", key.algorithm().getValue());
+        jwk.put("x", coordinate(publicKey.getW().getAffineX()));
+        jwk.put("y", coordinate(publicKey.getW().getAffineY()));
+        return jwk;
+    }
+
+    // Fixed width, unsigned, big-endian, as RFC 7518 requires
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[ES256_COORDINATE_BYTES];
+        int length = Math.min(bytes.length, ES256_COORDINATE_BYTES);
+        System.arraycopy(bytes, bytes.length - length, fixed, ES256_COORDINATE_BYTES - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    private static RingKey parse(JwtSigningConfig.KeyProperties properties) {
+        String kid = properties.getKid();
+        if (kid == null || kid.isBlank() || DEFAULT_KID.equals(kid)) {
+            throw new IllegalStateException("Every jwt.signing key needs a kid other than \"" + DEFAULT_KID + "\"");
+        }
+        SignatureAlgorithm algorithm = SignatureAlgorithm.forName(properties.getAlgorithm());
+        try {
+            return switch (algorithm) {
+                case HS256 -> {
+                    if (properties.getSecret() == null) {
+                        throw new IllegalStateException("JWT key " + kid + " needs a secret");
+                    }
+                    Key key = Keys.hmacShaKeyFor(properties.getSecret().getBytes(StandardCharsets.UTF_8));
+                    yield new RingKey(kid, algorithm, key, key, properties.getSignFrom(), properties.getVerifyUntil());
+                }
+                case ES256 -> {
+                    if (properties.getPublicKey() == null) {
+                        throw new IllegalStateException("JWT key " + kid + " needs a public key");
+                    }
+                    KeyFactory factory = KeyFactory.getInstance("EC");
+                    PublicKey publicKey = factory.generatePublic(new X509EncodedKeySpec(der(properties.getPublicKey())));
+                    PrivateKey privateKey = properties.getPrivateKey() == null ? null
+                            : factory.generatePrivate(new PKCS8EncodedKeySpec(der(properties.getPrivateKey())));
+                    yield new RingKey(kid, algorithm, privateKey, publicKey, properties.getSignFrom(), properties.getVerifyUntil());
+                }
+                default -> throw new IllegalStateException("JWT key " + kid + ": only HS256 and ES256 are supported");
+            };
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("JWT key " + kid + " could not be read", e);
+        }
+    }
+
+    // Accepts bare base64 or PEM
+    private static byte[] der(String encoded) {
+        String base64 = Arrays.stream(encoded.split("\\R"))
+                .filter(line -> !line.startsWith("-----"))
+                .reduce("", String::concat)
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    /**
+     * One key of the ring. {@code signingKey} is null on nodes that only verify with it.
+     */
+    public record RingKey(String kid, SignatureAlgorithm algorithm, Key signingKey, Key verificationKey,
+                          Instant signFrom, Instant verifyUntil) {
+    }
+}
@@ -1,91 +1,253 @@
 package com.haatmakaam.backend.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.haatmakaam.backend.domain.entities.User;
+import com.haatmakaam.backend.domain.enums.UserRole;
+import com.haatmakaam.backend.models.AccessToken;
+import com.haatmakaam.backend.models.VerifiedToken;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
-public class JwtService {
+public class JwtService implements MeterBinder {
+
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+
+    // Built once: deriving the key and building the parser per call dominated the old request path.
+    // Keys are resolved by the token's kid from the ring, which parsed them all at startup.
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
+    // Short, because an access token is only revocable through the denylist until it expires
+    private final long accessTokenValidityMillis;
+
+    // Verified tokens keyed by SHA-256 digest; null when the cache is disabled
+    private final Cache<TokenDigest, VerifiedToken> verifiedTokens;
+    private final MessageDigest digestPrototype;
+
+    @Autowired
+    public JwtService(
+            JwtKeyRing keyRing,
+            @Value("${jwt.verified-cache.max-size:10000}") long verifiedCacheMaxSize,
+            @Value("${jwt.access-token.ttl:15m}") Duration accessTokenTtl
+    ) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(new KeyRingResolver(keyRing)).build();
+        this.accessTokenValidityMillis = accessTokenTtl.toMillis();
+        this.verifiedTokens = verifiedCacheMaxSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(verifiedCacheMaxSize)
+                        .expireAfter(new UntilTokenExpiry())
+                        .recordStats()
+                        .build()
+                : null;
+        try {
+            this.digestPrototype = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    /**
+     * A service signing and verifying with the single HS256 key {@code secretKey}, as before key ids.
+     */
+    public JwtService(String secretKey, long verifiedCacheMaxSize, Duration accessTokenTtl) {
+        this(new JwtKeyRing(List.of(), secretKey), verifiedCacheMaxSize, accessTokenTtl);
+    }
 
-    private static final long JWT_VALIDITY_MS = 24 * 60 * 60 * 1000; // 24 hours
+    /**
+     * Publishes hit/miss/eviction counts of the verified-token cache (bound automatically by Spring).
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (verifiedTokens != null) {
+            CaffeineCacheMetrics.monitor(registry, verifiedTokens, "jwt.verified-tokens");
+        }
+    }
 
-    // --- NEW: Methods for parsing the token ---
+    // --- Methods for parsing the token ---
+
+    /**
+     * Verifies the token once and returns its claims as an immutable value.
+     * Tokens resent by the same client are served from the verified-token cache without
+     * repeating the signature check. Throws a JwtException if the token is invalid or expired.
+     */
+    public VerifiedToken verify(String token) {
+        if (verifiedTokens == null) {
+            return parse(token);
+        }
+
+        TokenDigest digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !cached.isExpired(System.currentTimeMillis())) {
+            return cached;
+        }
+
+        // Expired tokens are rejected here by the parser, so they are never cached
+        VerifiedToken verified = parse(token);
+        verifiedTokens.put(digest, verified);
+        return verified;
+    }
 
     /**
      * Extracts the username (phone number) from the JWT.
      */
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     /**
      * Extracts the expiration date from the JWT.
      */
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return new Date(verify(token).expiresAtMillis());
     }
 
-    /**
-     * A generic method to extract any claim from the token.
-     */
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    private VerifiedToken parse(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Date issuedAt = claims.getIssuedAt();
+        String tokenId = claims.getId();
+        return new VerifiedToken(
+                claims.getSubject(),
+                userId != null ? userId.longValue() : null,
+                role != null ? UserRole.valueOf(role) : null,
+                tokenId != null ? UUID.fromString(tokenId) : null,
+                issuedAt != null ? issuedAt.getTime() : 0L,
+                claims.getExpiration().getTime()
+        );
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody();
+    private TokenDigest digest(String token) {
+        MessageDigest md;
+        try {
+            md = (MessageDigest) digestPrototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest is not cloneable", e);
+        }
+        ByteBuffer hash = ByteBuffer.wrap(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
     }
 
-    // --- NEW: Methods for validating the token ---
-
-    /**
-     * Checks if the token is expired.
-     */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
+    // --- Methods for validating the token ---
 
     /**
      * The main validation method. Checks if the token belongs to the user and is not expired.
      */
     public Boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final VerifiedToken verified = verify(token);
+        return verified.subject().equals(userDetails.getUsername())
+                && !verified.isExpired(System.currentTimeMillis());
     }
 
-    // --- EXISTING: Methods for generating the token ---
+    // --- Methods for generating the token ---
 
     public String generateToken(UserDetails userDetails) {
-        Map<String, Object> claims = new HashMap<>();
-        // You can add extra claims here if needed, e.g., roles
-        return createToken(claims, userDetails.getUsername());
+        return issue(userDetails).token();
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
+    /**
+     * Signs a new access token with a random id (jti), by which it can later be denylisted, using
+     * the ring's current key and naming it in the kid header.
+     */
+    public AccessToken issue(UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        // Role and id let JwtAuthFilter authenticate from the token alone in stateless mode
+        if (userDetails instanceof User user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole().name());
+        }
+        UUID tokenId = UUID.randomUUID();
+        long now = System.currentTimeMillis();
+        long expiresAt = now + accessTokenValidityMillis;
+        JwtKeyRing.RingKey signer = keyRing.signer(now);
+        String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signer.kid())
                 .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + JWT_VALIDITY_MS))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setId(tokenId.toString())
+                .setSubject(userDetails.getUsername())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(expiresAt))
+                .signWith(signer.signingKey(), signer.algorithm())
                 .compact();
+        return new AccessToken(token, tokenId, expiresAt);
+    }
+
+    /**
+     * How long an access token stays valid after it is issued.
+     */
+    public Duration accessTokenTtl() {
+        return Duration.ofMillis(accessTokenValidityMillis);
     }
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+    /**
+     * Looks up the key named by the token's kid. The parser then checks the signature with it.
+     */
+    private static final class KeyRingResolver extends SigningKeyResolverAdapter {
+
+        private final JwtKeyRing keyRing;
+
+        KeyRingResolver(JwtKeyRing keyRing) {
+            this.keyRing = keyRing;
+        }
+
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            return keyRing.verificationKey(header.getKeyId(), header.getAlgorithm(), System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Full SHA-256 of a bearer token; the cache never has to hold the token string itself.
+     */
+    private record TokenDigest(long h0, long h1, long h2, long h3) {
+    }
+
+    /**
+     * Evicts a cached verification exactly when the token itself expires.
+     */
+    private static final class UntilTokenExpiry implements Expiry<TokenDigest, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,72 +1,70 @@
 // Specifies the package for service classes, which contain the core business logic of the application.
 package com.haatmakaam.backend.services;
 
-// Imports the TwilioConfig class to get access to Twilio credentials.
-import com.haatmakaam.backend.config.TwilioConfig;
-// Imports the main Twilio SDK class, which is needed to initialize the library.
-import com.twilio.Twilio;
-// Imports the Message class, used to create and send an SMS.
-import com.twilio.rest.api.v2010.account.Message;
-// Imports the PhoneNumber class, which represents a valid phone number for the Twilio API.
-import com.twilio.type.PhoneNumber;
+// Imports the outbox entity and repository used to queue OTP messages durably.
+import com.haatmakaam.backend.domain.entities.OtpOutboxMessage;
+import com.haatmakaam.backend.repositories.OtpOutboxRepository;
 // Imports Spring's @Autowired annotation for automatic dependency injection.
 import org.springframework.beans.factory.annotation.Autowired;
 // Imports Spring's @Service annotation to declare this class as a business service.
 import org.springframework.stereotype.Service;
+// Imports the transaction annotations used to tie queued OTPs to the caller's transaction.
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
-// Imports Jakarta's @PostConstruct annotation, used for lifecycle callback methods.
-import jakarta.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
- * A service dedicated to handling OTP (One-Time Password) operations.
- * It uses the Twilio SDK to send OTP codes via SMS to users' phones.
- * This service is a key component for user verification and two-factor authentication flows.
+ * A service dedicated to handling OTP (One-Time Password) delivery.
+ * OTPs are not sent on the request thread: they are written to an outbox table in the caller's
+ * transaction and sent asynchronously by OtpOutboxDispatcher through the configured SmsSender.
+ * Other user-facing messages go through NotificationService, which may coalesce and drop them;
+ * OTPs stay here because they must be delivered exactly as issued.
  */
 @Service // Declares this class as a Spring service, making it eligible for component scanning and dependency injection.
 public class OtpService {
 
-    // A final variable to hold the injected Twilio configuration. 'final' ensures it's initialized once.
-    private final TwilioConfig twilioConfig;
+    // Repository for the outbox table that the background dispatcher drains.
+    private final OtpOutboxRepository outboxRepository;
 
     /**
      * Constructor for OtpService.
-     * @param twilioConfig An instance of TwilioConfig, automatically provided by Spring's dependency injection framework.
-     *                     This is the recommended way to inject dependencies (constructor injection).
+     * @param outboxRepository The outbox repository, provided by Spring's dependency injection framework.
      */
-    @Autowired // Marks the constructor for Spring to automatically inject the required TwilioConfig bean.
-    public OtpService(TwilioConfig twilioConfig) {
-        this.twilioConfig = twilioConfig;
+    @Autowired // Marks the constructor for Spring to automatically inject the required beans.
+    public OtpService(OtpOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
     }
 
     /**
-     * An initialization method that runs automatically after the service has been constructed and its dependencies have been injected.
-     * It uses the credentials from TwilioConfig to initialize the Twilio SDK, making it ready for use.
-     * This ensures that the SDK is initialized only once when the application starts up.
+     * Queues an OTP SMS in the caller's transaction. The message is only sent if that transaction
+     * commits, and a failing SMS provider can no longer stall the request.
+     * @param userPhone The destination phone number, in E.164 format (e.g., "+9779849042183").
+     * @param otp The 6-digit OTP string to be sent in the message.
      */
-    @PostConstruct // This annotation ensures that this method is executed after dependency injection is done to perform any initialization.
-    public void initTwilio() {
-        // Initializes the Twilio client with the Account SID and Auth Token from the configuration.
-        Twilio.init(twilioConfig.getAccountSid(), twilioConfig.getAuthToken());
+    @Transactional(propagation = Propagation.MANDATORY) // Must join the transaction that saved the user.
+    public void enqueueOtp(String userPhone, String otp) {
+        outboxRepository.save(new OtpOutboxMessage(userPhone, messageBody(otp), LocalDateTime.now()));
     }
 
     /**
-     * Sends a given OTP code to a specified user's phone number.
-     * @param userPhone The destination phone number, which should be in E.164 format (e.g., "+9779849042183").
-     * @param otp The 6-digit OTP string to be sent in the message.
-     * @return The unique message SID returned by Twilio upon successful sending, which can be used for logging or tracking.
+     * Queues OTP SMS for many numbers at once, in the caller's transaction. The outbox uses a
+     * pooled sequence, so Hibernate writes the rows as JDBC batches.
+     * @param otpsByPhone OTP codes keyed by destination phone number.
      */
-    public String sendOtp(String userPhone, String otp) {
-        // Defines the body of the SMS message. Personalizing it with your app name is good practice.
-        String messageBody = "Your HaatMaKaam OTP code is: " + otp;
-
-        // Uses the Twilio SDK's Message.creator to build and send the SMS.
-        Message message = Message.creator(
-            new PhoneNumber(userPhone),                      // The recipient's phone number.
-            new PhoneNumber(twilioConfig.getPhoneNumber()),  // Your Twilio phone number (the sender).
-            messageBody                                      // The text of the message.
-        ).create(); // The create() method sends the API request to Twilio.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueOtps(Map<String, String> otpsByPhone) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OtpOutboxMessage> messages = new ArrayList<>(otpsByPhone.size());
+        otpsByPhone.forEach((phone, otp) -> messages.add(new OtpOutboxMessage(phone, messageBody(otp), now)));
+        outboxRepository.saveAll(messages);
+    }
 
-        // Returns the unique identifier (SID) of the message.
-        return message.getSid();
+    // Defines the body of the SMS message. Personalizing it with your app name is good practice.
+    static String messageBody(String otp) {
+        return "Your HaatMaKaam OTP code is: " + otp;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,173 @@
+package com.haatmakaam.backend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.haatmakaam.backend.domain.entities.User;
+import com.haatmakaam.backend.exceptions.UserNotFoundException;
+import com.haatmakaam.backend.models.AuthenticatedUser;
+import com.haatmakaam.backend.repositories.UserRepository;
+import com.haatmakaam.backend.services.cluster.PgNotificationBus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived, size-bounded, per-node cache of full {@link User} entities keyed by phone number.
+ * It backs {@link UserDetailsServiceImpl}, so the password check at login and the per-request
+ * principal load in {@code JwtAuthFilter} share one lookup.
+ *
+ * Changes go through {@link #invalidate}: the local entry is dropped once the writing transaction
+ * commits, and a notification on {@value #INVALIDATION_CHANNEL} evicts the entry on every other
+ * node. If a node's listener loses its connection it clears the whole cache on reconnect.
+ * A reader racing a commit can still re-cache the old row, so {@code user-cache.ttl} bounds how
+ * long a stale entry can live. Cached entities are shared between requests and must be treated
+ * as read-only.
+ *
+ * Misses are read-only lookups, so with a read replica configured they go to the replica. A replica
+ * that lags could hand back the row from before a write and have it cached for the full TTL, so
+ * for {@code user-cache.primary-read-window} after an invalidation that phone number is loaded
+ * from the primary instead.
+ */
+@Service
+public class UserCache implements MeterBinder {
+
+    static final String INVALIDATION_CHANNEL = "user_cache_invalidation";
+
+    private final UserRepository userRepository;
+    private final PgNotificationBus notificationBus;
+    private final TransactionTemplate primaryReads;
+    private final long primaryReadWindowNanos;
+    private final Cache<String, User> cache;
+    // Phone numbers invalidated within the primary-read window
+    private final Cache<String, Boolean> recentlyChanged;
+    private volatile long primaryReadsUntil;
+
+    @Autowired
+    public UserCache(
+            UserRepository userRepository,
+            PgNotificationBus notificationBus,
+            TransactionTemplate transactionTemplate,
+            @Value("${user-cache.max-size:10000}") long maxSize,
+            @Value("${user-cache.ttl:30s}") Duration ttl,
+            @Value("${user-cache.primary-read-window:5s}") Duration primaryReadWindow
+    ) {
+        this.userRepository = userRepository;
+        this.notificationBus = notificationBus;
+        this.primaryReads = transactionTemplate;
+        this.primaryReadWindowNanos = primaryReadWindow.toNanos();
+        this.primaryReadsUntil = System.nanoTime();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.recentlyChanged = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(primaryReadWindow)
+                .build();
+        if (notificationBus != null) {
+            notificationBus.subscribe(INVALIDATION_CHANNEL, this::evict, this::evictAll);
+        }
+    }
+
+    /**
+     * Node-local cache without cross-node invalidation, for single-instance use and benchmarks.
+     */
+    public UserCache(UserRepository userRepository, long maxSize, Duration ttl) {
+        this(userRepository, null, null, maxSize, ttl, Duration.ZERO);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "users");
+    }
+
+    /**
+     * Returns the user for the given phone number, loading it from the database on a miss.
+     */
+    public User get(String phoneNumber) {
+        return find(phoneNumber).orElseThrow(() -> new UserNotFoundException("User not found."));
+    }
+
+    /**
+     * Like {@link #get}, but empty when no such user exists. Absent users are not cached.
+     */
+    public Optional<User> find(String phoneNumber) {
+        return Optional.ofNullable(cache.get(phoneNumber, this::load));
+    }
+
+    private User load(String phoneNumber) {
+        boolean mustSeeLatestWrite = primaryReads != null
+                && (recentlyChanged.getIfPresent(phoneNumber) != null || System.nanoTime() - primaryReadsUntil < 0);
+        if (mustSeeLatestWrite) {
+            // A read-write transaction is routed to the primary
+            return primaryReads.execute(status -> userRepository.findByPhoneNumber(phoneNumber).orElse(null));
+        }
+        return userRepository.findByPhoneNumber(phoneNumber).orElse(null);
+    }
+
+    /**
+     * Resolves the full entity for an authenticated principal. If the principal already is the
+     * entity (database-backed authentication) it is returned as is.
+     */
+    public User getCurrentUser(UserDetails principal) {
+        if (principal instanceof User user) {
+            return user;
+        }
+        return get(principal.getUsername());
+    }
+
+    /**
+     * The user id of an authenticated principal, without a lookup when the principal carries it.
+     */
+    public long getCurrentUserId(UserDetails principal) {
+        if (principal instanceof AuthenticatedUser user) {
+            return user.id();
+        }
+        return getCurrentUser(principal).getId();
+    }
+
+    /**
+     * Invalidates a phone number on every node. Call from the transaction that changes the user.
+     * Inside a transaction the local entry is dropped after commit and the notification is only
+     * delivered on commit; a rollback leaves the caches untouched.
+     */
+    public void invalidate(String phoneNumber) {
+        if (notificationBus != null) {
+            notificationBus.publish(INVALIDATION_CHANNEL, phoneNumber);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(phoneNumber);
+                }
+            });
+        } else {
+            evict(phoneNumber);
+        }
+    }
+
+    private void evict(String phoneNumber) {
+        if (primaryReadWindowNanos > 0) {
+            recentlyChanged.put(phoneNumber, Boolean.TRUE);
+        }
+        cache.invalidate(phoneNumber);
+    }
+
+    private void evictAll() {
+        // Missed notifications could be for any number
+        primaryReadsUntil = System.nanoTime() + primaryReadWindowNanos;
+        cache.invalidateAll();
+    }
+}
@@ -1,25 +1,61 @@
 package com.haatmakaam.backend.services;
 
+import com.haatmakaam.backend.domain.entities.User;
 import com.haatmakaam.backend.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Autowired
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, UserCache userCache) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
     }
 
+    /**
+     * Served from {@link UserCache}: the login password check and the per-request principal load
+     * in {@code JwtAuthFilter} hit the database only on a miss.
+     */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByPhoneNumber(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with phone number: " + username));
+        return userCache.find(username)
+                .orElseThrow(UnknownUserException::new);
     }
-}
\ No newline at end of file
+
+    /**
+     * Stores a re-hashed password after a successful login when the BCrypt cost has been raised.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        userCache.invalidate(user.getUsername());
+        if (user instanceof User entity) {
+            entity.setPassword(newPassword);
+        }
+        return user;
+    }
+
+    // Thrown for every login attempt on an unregistered number, so without a stack trace or the number
+    private static final class UnknownUserException extends UsernameNotFoundException {
+
+        UnknownUserException() {
+            super("User not found.");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
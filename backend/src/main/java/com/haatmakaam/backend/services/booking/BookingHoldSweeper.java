@@ -0,0 +1,113 @@
+package com.haatmakaam.backend.services.booking;
+
+import com.haatmakaam.backend.domain.enums.NotificationKind;
+import com.haatmakaam.backend.services.notifications.NotificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cancels PENDING bookings whose hold expired without the worker confirming, and frees their
+ * hours. Rows are taken with SKIP LOCKED, so every node can run this; a booking being confirmed
+ * or cancelled at the same moment is skipped and, if still pending, picked up next round. The
+ * customer is told once the cancellation has committed.
+ */
+@Component
+public class BookingHoldSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingHoldSweeper.class);
+
+    private static final String EXPIRE_SQL = """
+            WITH expired AS (
+                SELECT id FROM bookings
+                WHERE status = 'PENDING' AND hold_expires_at <= ?
+                ORDER BY hold_expires_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE bookings b
+            SET status = 'CANCELLED', hold_expires_at = NULL, updated_at = ?
+            FROM expired
+            WHERE b.id = expired.id
+            RETURNING b.id, b.worker_id, b.customer_id, b.starts_at, b.hours
+            """;
+
+    private static final String DELETE_SLOTS_SQL = "DELETE FROM booking_slots WHERE booking_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SlotClaimTable claims;
+    private final BookingService bookingService;
+    private final NotificationService notificationService;
+    private final int batchSize;
+    private final Counter expired;
+
+    @Autowired
+    public BookingHoldSweeper(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            SlotClaimTable claims,
+            BookingService bookingService,
+            NotificationService notificationService,
+            MeterRegistry meterRegistry,
+            @Value("${booking.sweep-batch-size:500}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.claims = claims;
+        this.bookingService = bookingService;
+        this.notificationService = notificationService;
+        this.batchSize = batchSize;
+        this.expired = Counter.builder("booking.holds.expired")
+                .description("Pending bookings cancelled because their hold expired")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.sweep-interval-ms:30000}")
+    public void sweep() {
+        LocalDateTime now = bookingService.now();
+        int swept;
+        do {
+            Integer count = transactionTemplate.execute(status -> expireBatch(now));
+            swept = count == null ? 0 : count;
+            if (swept > 0) {
+                expired.increment(swept);
+                log.debug("Cancelled {} bookings with expired holds", swept);
+            }
+        } while (swept == batchSize);
+        // Hours already begun can no longer be booked, so their claims are dead weight
+        claims.evictBefore(BookingService.slotHour(now));
+    }
+
+    private int expireBatch(LocalDateTime now) {
+        Timestamp at = Timestamp.valueOf(now);
+        List<ExpiredBooking> rows = jdbcTemplate.query(EXPIRE_SQL, (rs, rowNum) -> new ExpiredBooking(
+                rs.getLong("id"),
+                rs.getLong("worker_id"),
+                rs.getLong("customer_id"),
+                rs.getTimestamp("starts_at").toLocalDateTime(),
+                rs.getInt("hours")), at, batchSize, at);
+        for (ExpiredBooking booking : rows) {
+            jdbcTemplate.update(DELETE_SLOTS_SQL, booking.id());
+            claims.releaseEverywhere(booking.workerId(), BookingService.slotHour(booking.startsAt()), booking.hours());
+            notificationService.notify(booking.customerId(), NotificationKind.BOOKING_UPDATE,
+                    "Your booking request for " + BookingService.when(booking.startsAt())
+                            + " expired before the worker confirmed it.");
+        }
+        return rows.size();
+    }
+
+    private record ExpiredBooking(long id, long workerId, long customerId, LocalDateTime startsAt, int hours) {
+    }
+}
@@ -0,0 +1,295 @@
+package com.haatmakaam.backend.services.booking;
+
+import com.haatmakaam.backend.domain.entities.Booking;
+import com.haatmakaam.backend.domain.entities.WeeklyAvailability;
+import com.haatmakaam.backend.domain.enums.BookingStatus;
+import com.haatmakaam.backend.domain.enums.NotificationKind;
+import com.haatmakaam.backend.exceptions.BookingConflictException;
+import com.haatmakaam.backend.exceptions.BookingNotFoundException;
+import com.haatmakaam.backend.models.BookingRequest;
+import com.haatmakaam.backend.models.BookingResponse;
+import com.haatmakaam.backend.repositories.BookingRepository;
+import com.haatmakaam.backend.services.matching.WorkerSpatialIndex;
+import com.haatmakaam.backend.services.notifications.NotificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Books workers by the hour.
+ *
+ * A new booking first claims its hours in this node's {@link SlotClaimTable}; of many requests
+ * racing for an hour, the losers are turned away there without touching the database. The winner
+ * inserts the booking and one {@code booking_slots} row per hour, whose primary key rejects an
+ * hour already booked through another node. The booking starts PENDING with a hold: unless the
+ * worker confirms it within {@code booking.hold}, {@link BookingHoldSweeper} cancels it and frees
+ * its hours.
+ *
+ * PENDING -> CONFIRMED -> COMPLETED, and PENDING or CONFIRMED -> CANCELLED. All times are local
+ * to {@code booking.zone}. Each change notifies the other party once it has committed.
+ */
+@Service
+public class BookingService {
+
+    private static final String INSERT_SLOT_SQL =
+            "INSERT INTO booking_slots (worker_id, slot_start, booking_id) VALUES (?, ?, ?)";
+
+    private static final DateTimeFormatter WHEN = DateTimeFormatter.ofPattern("d MMM HH:mm");
+
+    private final BookingRepository bookingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SlotClaimTable claims;
+    private final WorkerSpatialIndex workerIndex;
+    private final NotificationService notificationService;
+    private final ZoneId zone;
+    private final Duration hold;
+    private final int maxHours;
+    private final Duration maxAdvance;
+    private final Counter booked;
+    private final Counter conflictInMemory;
+    private final Counter conflictInDatabase;
+    private final Counter unavailable;
+
+    @Autowired
+    public BookingService(
+            BookingRepository bookingRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            SlotClaimTable claims,
+            WorkerSpatialIndex workerIndex,
+            NotificationService notificationService,
+            MeterRegistry meterRegistry,
+            @Value("${booking.zone:Asia/Kathmandu}") ZoneId zone,
+            @Value("${booking.hold:15m}") Duration hold,
+            @Value("${booking.max-hours:8}") int maxHours,
+            @Value("${booking.max-advance:90d}") Duration maxAdvance
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.claims = claims;
+        this.workerIndex = workerIndex;
+        this.notificationService = notificationService;
+        this.zone = zone;
+        this.hold = hold;
+        this.maxHours = maxHours;
+        this.maxAdvance = maxAdvance;
+        this.booked = attempts(meterRegistry, "booked");
+        this.conflictInMemory = attempts(meterRegistry, "conflict_memory");
+        this.conflictInDatabase = attempts(meterRegistry, "conflict_database");
+        this.unavailable = attempts(meterRegistry, "unavailable");
+    }
+
+    /**
+     * Books the worker for the customer as PENDING, or throws {@link BookingConflictException} if
+     * any of the hours is taken or outside the worker's weekly availability.
+     */
+    public BookingResponse book(long customerId, BookingRequest request) {
+        LocalDateTime now = now();
+        validate(customerId, request, now);
+        long workerId = request.workerId();
+        int hours = request.hours();
+        LocalDateTime startsAt = request.startsAt();
+
+        if (!workerIndex.isAvailable(workerId, window(startsAt, hours))) {
+            unavailable.increment();
+            throw new BookingConflictException("The worker is not available at that time.");
+        }
+
+        long firstHour = slotHour(startsAt);
+        long token = claims.newToken();
+        if (!claims.claim(workerId, firstHour, hours, token)) {
+            conflictInMemory.increment();
+            throw new BookingConflictException("The worker is already booked at that time.");
+        }
+        try {
+            Booking saved = transactionTemplate.execute(status -> insert(customerId, workerId, startsAt, hours, now));
+            booked.increment();
+            notificationService.notify(workerId, NotificationKind.BOOKING_UPDATE,
+                    "New booking request for " + when(saved.getStartsAt()) + ". Confirm it before it expires.");
+            return toResponse(saved);
+        } catch (DuplicateKeyException e) {
+            claims.release(workerId, firstHour, hours, token);
+            conflictInDatabase.increment();
+            throw new BookingConflictException("The worker is already booked at that time.");
+        } catch (RuntimeException e) {
+            claims.release(workerId, firstHour, hours, token);
+            throw e;
+        }
+    }
+
+    /**
+     * The booking, if the user is its worker or its customer.
+     */
+    @Transactional(readOnly = true)
+    public BookingResponse getBooking(long bookingId, long userId) {
+        return toResponse(findForParty(bookingId, userId));
+    }
+
+    /**
+     * The worker accepts a PENDING booking before its hold expires.
+     */
+    @Transactional
+    public BookingResponse confirm(long bookingId, long workerId) {
+        if (bookingRepository.confirm(bookingId, workerId, now()) == 0) {
+            Booking booking = findForWorker(bookingId, workerId);
+            throw new BookingConflictException(booking.getStatus() == BookingStatus.PENDING
+                    ? "The hold on this booking has expired."
+                    : "Only pending bookings can be confirmed.");
+        }
+        Booking booking = findForWorker(bookingId, workerId);
+        notificationService.notify(booking.getCustomerId(), NotificationKind.BOOKING_UPDATE,
+                "Your booking for " + when(booking.getStartsAt()) + " is confirmed.");
+        return toResponse(booking);
+    }
+
+    /**
+     * The worker marks a CONFIRMED booking done, once it has started.
+     */
+    @Transactional
+    public BookingResponse complete(long bookingId, long workerId) {
+        if (bookingRepository.complete(bookingId, workerId, now()) == 0) {
+            Booking booking = findForWorker(bookingId, workerId);
+            throw new BookingConflictException(booking.getStatus() == BookingStatus.CONFIRMED
+                    ? "The booking has not started yet."
+                    : "Only confirmed bookings can be completed.");
+        }
+        Booking booking = findForWorker(bookingId, workerId);
+        notificationService.notify(booking.getCustomerId(), NotificationKind.BOOKING_UPDATE,
+                "Your booking for " + when(booking.getStartsAt()) + " is complete. You can now review it.");
+        return toResponse(booking);
+    }
+
+    /**
+     * Either party cancels a PENDING or CONFIRMED booking; its hours become bookable again.
+     */
+    @Transactional
+    public BookingResponse cancel(long bookingId, long userId) {
+        if (bookingRepository.cancel(bookingId, userId, now()) == 0) {
+            findForParty(bookingId, userId);
+            throw new BookingConflictException("Only pending or confirmed bookings can be cancelled.");
+        }
+        Booking booking = findForParty(bookingId, userId);
+        bookingRepository.deleteSlots(bookingId);
+        claims.releaseEverywhere(booking.getWorkerId(), slotHour(booking.getStartsAt()), booking.getHours());
+        long otherParty = booking.getWorkerId() == userId ? booking.getCustomerId() : booking.getWorkerId();
+        notificationService.notify(otherParty, NotificationKind.BOOKING_UPDATE,
+                "The booking for " + when(booking.getStartsAt()) + " was cancelled.");
+        return toResponse(booking);
+    }
+
+    LocalDateTime now() {
+        return LocalDateTime.now(zone);
+    }
+
+    /**
+     * The key of a slot in {@link SlotClaimTable}: hours since 1970-01-01T00:00 local time.
+     */
+    static long slotHour(LocalDateTime slotStart) {
+        return slotStart.toEpochSecond(ZoneOffset.UTC) / 3600;
+    }
+
+    /**
+     * A booking's start as notifications show it, e.g. "3 Nov 14:00".
+     */
+    static String when(LocalDateTime startsAt) {
+        return WHEN.format(startsAt);
+    }
+
+    private Booking insert(long customerId, long workerId, LocalDateTime startsAt, int hours, LocalDateTime now) {
+        Booking booking = new Booking();
+        booking.setWorkerId(workerId);
+        booking.setCustomerId(customerId);
+        booking.setStartsAt(startsAt);
+        booking.setHours(hours);
+        booking.setStatus(BookingStatus.PENDING);
+        booking.setHoldExpiresAt(now.plus(hold));
+        booking.setCreatedAt(now);
+        booking.setUpdatedAt(now);
+        Booking saved = bookingRepository.saveAndFlush(booking);
+
+        List<Object[]> slots = new ArrayList<>(hours);
+        for (int i = 0; i < hours; i++) {
+            slots.add(new Object[]{workerId, Timestamp.valueOf(startsAt.plusHours(i)), saved.getId()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SLOT_SQL, slots);
+        return saved;
+    }
+
+    private void validate(long customerId, BookingRequest request, LocalDateTime now) {
+        if (request.workerId() == null || request.startsAt() == null || request.hours() == null) {
+            throw new IllegalArgumentException("Worker, start time and hours are required.");
+        }
+        if (request.workerId() == customerId) {
+            throw new IllegalArgumentException("You cannot book yourself.");
+        }
+        if (request.hours() < 1 || request.hours() > maxHours) {
+            throw new IllegalArgumentException("Hours must be between 1 and " + maxHours + ".");
+        }
+        LocalDateTime startsAt = request.startsAt();
+        if (!startsAt.equals(startsAt.truncatedTo(ChronoUnit.HOURS))) {
+            throw new IllegalArgumentException("Bookings start on the hour.");
+        }
+        if (!startsAt.isAfter(now) || startsAt.isAfter(now.plus(maxAdvance))) {
+            throw new IllegalArgumentException("Bookings must start in the future and within " + maxAdvance.toDays() + " days.");
+        }
+    }
+
+    // The hours of the booking as a weekly window, wrapping past midnight if needed
+    private static WeeklyAvailability window(LocalDateTime startsAt, int hours) {
+        WeeklyAvailability window = WeeklyAvailability.none();
+        for (int i = 0; i < hours; i++) {
+            LocalDateTime slot = startsAt.plusHours(i);
+            window = window.union(WeeklyAvailability.ofHours(slot.getDayOfWeek(), slot.getHour(), slot.getHour() + 1));
+        }
+        return window;
+    }
+
+    private Booking findForParty(long bookingId, long userId) {
+        return bookingRepository.findById(bookingId)
+                .filter(b -> b.getWorkerId() == userId || b.getCustomerId() == userId)
+                .orElseThrow(() -> new BookingNotFoundException("Booking not found."));
+    }
+
+    private Booking findForWorker(long bookingId, long workerId) {
+        return bookingRepository.findById(bookingId)
+                .filter(b -> b.getWorkerId() == workerId)
+                .orElseThrow(() -> new BookingNotFoundException("Booking not found."));
+    }
+
+    private static Counter attempts(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("booking.attempts")
+                .description("Booking attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static BookingResponse toResponse(Booking booking) {
+        return new BookingResponse(
+                booking.getId(),
+                booking.getWorkerId(),
+                booking.getCustomerId(),
+                booking.getStartsAt(),
+                booking.getHours(),
+                booking.getStatus(),
+                booking.getHoldExpiresAt(),
+                booking.getUpdatedAt());
+    }
+}
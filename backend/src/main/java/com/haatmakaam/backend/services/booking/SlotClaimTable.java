@@ -0,0 +1,166 @@
+package com.haatmakaam.backend.services.booking;
+
+import com.haatmakaam.backend.services.cluster.PgNotificationBus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This node's claims on worker-hours, so that of many requests racing for the same hour only one
+ * goes on to the database and the rest are turned away in memory.
+ *
+ * A claim is one {@code putIfAbsent} of the caller's token under the worker-hour, which in a
+ * {@link ConcurrentHashMap} is a CAS into an empty bin: uncontended hours never share a lock, and
+ * racing callers for one hour resolve to exactly one winner. A booking over several hours claims
+ * them in ascending order and gives back what it took if one is already held, so nobody waits.
+ *
+ * Claims are advisory. Requests on other nodes, and anything booked before this node started,
+ * are only stopped by the {@code booking_slots} primary key, and a claim left behind by a crash or
+ * a missed notification only costs an unnecessary rejection until the slot is in the past. When a
+ * booking gives its hours up, {@link #releaseEverywhere} drops the claims on every node.
+ */
+@Component
+public class SlotClaimTable implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotClaimTable.class);
+
+    static final String RELEASE_CHANNEL = "booking_slots_released";
+
+    // Worker id in the high 40 bits, hour in the low 24: hours since 1970 fit until the year 3883
+    private static final int HOUR_BITS = 24;
+    private static final long MAX_WORKER_ID = (1L << (Long.SIZE - 1 - HOUR_BITS)) - 1;
+
+    private final ConcurrentHashMap<Long, Long> claims = new ConcurrentHashMap<>();
+    private final AtomicLong tokens = new AtomicLong();
+    private final PgNotificationBus notificationBus;
+    private final boolean enabled;
+
+    @Autowired
+    public SlotClaimTable(
+            PgNotificationBus notificationBus,
+            @Value("${booking.claims.enabled:true}") boolean enabled
+    ) {
+        this.notificationBus = notificationBus;
+        this.enabled = enabled;
+        if (notificationBus != null) {
+            notificationBus.subscribe(RELEASE_CHANNEL, this::onRelease, this::clear);
+        }
+    }
+
+    /**
+     * Node-local table without cross-node release, for single-instance use and stress tests.
+     */
+    public SlotClaimTable() {
+        this(null, true);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("booking.slot.claims", claims, ConcurrentHashMap::size)
+                .description("Worker-hours claimed in this node's slot table")
+                .register(registry);
+    }
+
+    /**
+     * A token that identifies one booking attempt's claims.
+     */
+    public long newToken() {
+        return tokens.incrementAndGet();
+    }
+
+    /**
+     * Claims {@code hours} consecutive hours from {@code firstHour} (hours since the epoch) for
+     * the token. All or nothing: on conflict, hours already taken are released again.
+     */
+    public boolean claim(long workerId, long firstHour, int hours, long token) {
+        if (!enabled) {
+            return true;
+        }
+        for (int i = 0; i < hours; i++) {
+            Long holder = claims.putIfAbsent(key(workerId, firstHour + i), token);
+            if (holder != null && holder != token) {
+                release(workerId, firstHour, i, token);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gives back hours claimed with this token, e.g. after the database rejected the booking.
+     * Hours since claimed by someone else are left alone.
+     */
+    public void release(long workerId, long firstHour, int hours, long token) {
+        for (int i = 0; i < hours; i++) {
+            claims.remove(key(workerId, firstHour + i), token);
+        }
+    }
+
+    /**
+     * Drops the claims on these hours on every node. Call from the transaction that frees them:
+     * nodes act once it commits, and nothing happens on rollback.
+     */
+    public void releaseEverywhere(long workerId, long firstHour, int hours) {
+        if (notificationBus != null) {
+            notificationBus.publish(RELEASE_CHANNEL, workerId + ":" + firstHour + ":" + hours);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    forget(workerId, firstHour, hours);
+                }
+            });
+        } else {
+            forget(workerId, firstHour, hours);
+        }
+    }
+
+    /**
+     * Drops claims on hours before {@code hour}; nobody can book those any more.
+     */
+    public void evictBefore(long hour) {
+        claims.keySet().removeIf(key -> (key & ((1L << HOUR_BITS) - 1)) < hour);
+    }
+
+    public int size() {
+        return claims.size();
+    }
+
+    private void forget(long workerId, long firstHour, int hours) {
+        for (int i = 0; i < hours; i++) {
+            claims.remove(key(workerId, firstHour + i));
+        }
+    }
+
+    private void onRelease(String payload) {
+        String[] parts = payload.split(":");
+        try {
+            forget(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Integer.parseInt(parts[2]));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed {} notification", RELEASE_CHANNEL);
+        }
+    }
+
+    // Releases may have been missed; the database still guards every slot
+    private void clear() {
+        claims.clear();
+    }
+
+    private static long key(long workerId, long hour) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID || hour < 0 || hour >= 1L << HOUR_BITS) {
+            throw new IllegalArgumentException("Worker id or hour out of range for a slot key");
+        }
+        return workerId << HOUR_BITS | hour;
+    }
+}
@@ -0,0 +1,225 @@
+package com.haatmakaam.backend.services.chat;
+
+import com.haatmakaam.backend.models.ChatMessageResponse;
+import com.haatmakaam.backend.services.cluster.PgNotificationBus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists chat messages behind their delivery, many per transaction.
+ *
+ * Sending only appends to a bounded queue. One writer thread takes what has accumulated, waiting
+ * up to {@code chat.writer.linger} for a fuller batch, and inserts it with one JDBC batch; the same
+ * transaction announces the batch to the other nodes, so they deliver exactly what was committed.
+ * Under load batches grow on their own while the previous one commits.
+ *
+ * The price is durability: messages still queued when the node dies are lost, although they were
+ * acknowledged and possibly delivered. A full queue means the database is not keeping up, and new
+ * messages are refused rather than piling up in memory. A failed batch is retried with backoff;
+ * a batch rejected for its content (a recipient deleted meanwhile) is written row by row and the
+ * offending rows are dropped.
+ */
+@Component
+public class ChatMessageWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatMessageWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO chat_messages (id, sender_id, recipient_id, body, sent_at) VALUES (?, ?, ?, ?, ?)";
+
+    // pg_notify rejects payloads of 8000 bytes or more
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(30);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PgNotificationBus notificationBus;
+    private final ChatRouter router;
+    private final BlockingQueue<ChatMessageResponse> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter persisted;
+    private final Counter dropped;
+
+    @Autowired
+    public ChatMessageWriter(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            PgNotificationBus notificationBus,
+            ChatRouter router,
+            MeterRegistry meterRegistry,
+            @Value("${chat.writer.queue-capacity:50000}") int queueCapacity,
+            @Value("${chat.writer.batch-size:500}") int batchSize,
+            @Value("${chat.writer.linger:10ms}") Duration linger
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.notificationBus = notificationBus;
+        this.router = router;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.batchTimer = Timer.builder("chat.writer.batch")
+                .description("Inserting and announcing one batch of chat messages")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("chat.writer.batch.size")
+                .description("Chat messages per write-behind batch")
+                .register(meterRegistry);
+        this.persisted = Counter.builder("chat.messages.persisted")
+                .description("Chat messages written to the database")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("chat.messages.dropped")
+                .description("Accepted chat messages the database rejected")
+                .register(meterRegistry);
+        Gauge.builder("chat.writer.queue", queue, BlockingQueue::size)
+                .description("Chat messages accepted but not yet written")
+                .register(meterRegistry);
+        this.writerThread = new Thread(this::run, "chat-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queues a message for writing.
+     *
+     * @return false if the queue is full or the writer has stopped
+     */
+    public boolean offer(ChatMessageResponse message) {
+        return running && queue.offer(message);
+    }
+
+    private void run() {
+        List<ChatMessageResponse> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ChatMessageResponse first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize && running) {
+                    long remaining = deadline - System.nanoTime();
+                    ChatMessageResponse next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            writeWithRetry(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeWithRetry(List<ChatMessageResponse> batch) {
+        long backoffMillis = 500;
+        while (true) {
+            try {
+                batchTimer.record(() -> write(batch));
+                persisted.increment(batch.size());
+                batchSizes.record(batch.size());
+                return;
+            } catch (DataIntegrityViolationException e) {
+                writeOneByOne(batch);
+                return;
+            } catch (RuntimeException e) {
+                // Includes failing to get a connection at all
+                if (!running) {
+                    log.error("Dropping {} chat messages on shutdown, the database is unavailable: {}",
+                            batch.size(), e.getMessage());
+                    dropped.increment(batch.size());
+                    return;
+                }
+                log.warn("Chat batch of {} failed, retrying in {} ms: {}", batch.size(), backoffMillis, e.getMessage());
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, MAX_RETRY_BACKOFF.toMillis());
+            }
+        }
+    }
+
+    private void write(List<ChatMessageResponse> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, message) -> {
+                ps.setLong(1, message.messageId());
+                ps.setLong(2, message.senderId());
+                ps.setLong(3, message.recipientId());
+                ps.setString(4, message.body());
+                ps.setTimestamp(5, Timestamp.valueOf(message.sentAt()));
+            });
+            announce(batch);
+        });
+    }
+
+    private void writeOneByOne(List<ChatMessageResponse> batch) {
+        for (ChatMessageResponse message : batch) {
+            try {
+                write(List.of(message));
+                persisted.increment();
+            } catch (RuntimeException e) {
+                log.warn("Dropping chat message {}: {}", message.messageId(), e.getMessage());
+                dropped.increment();
+            }
+        }
+    }
+
+    // Delivered to the other nodes when the insert commits
+    private void announce(List<ChatMessageResponse> batch) {
+        for (String payload : router.batchPayloads(batch, MAX_PAYLOAD_BYTES)) {
+            notificationBus.publish(ChatRouter.CHANNEL, payload);
+        }
+    }
+
+    /**
+     * Writes what is still queued before the connection pool closes. Sockets are already closed
+     * by then, so nothing new arrives.
+     */
+    @PreDestroy
+    public void shutdown() {
+        // The writer sees the flag within a poll, writes what is left and exits
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.error("Chat writer stopped with {} messages unwritten", queue.size());
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.haatmakaam.backend.services.chat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haatmakaam.backend.models.ChatMessageResponse;
+import com.haatmakaam.backend.services.cluster.PgNotificationBus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes chat frames to the sockets open on this node.
+ *
+ * Sessions are kept per user, as a user may be connected from several devices. A message is
+ * serialized once and queued on the recipient's sessions and on the sender's other sessions; the
+ * writes happen on the delivery executor (see {@link ChatSession}), never on the sender's thread.
+ *
+ * Users connected to other nodes get the message from {@link ChatMessageWriter}, which announces
+ * every persisted batch on {@link #CHANNEL}; each node delivers the batches of the others. That
+ * path is as late as the write-behind, and a node that was not listening misses them: its users
+ * see those messages in history.
+ */
+@Component
+public class ChatRouter implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatRouter.class);
+
+    static final String CHANNEL = "chat_messages";
+
+    private final ObjectMapper objectMapper;
+    private final int queueCapacity;
+    private final ExecutorService deliveryPool;
+    // Identifies this node's own batches, which it already delivered, on the channel
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<Long, Set<ChatSession>> sessionsByUser = new ConcurrentHashMap<>();
+    private final Map<String, ChatSession> sessionsById = new ConcurrentHashMap<>();
+    private final Counter delivered;
+    private final Counter dropped;
+    private final Counter slowConsumers;
+
+    @Autowired
+    public ChatRouter(
+            ObjectMapper objectMapper,
+            PgNotificationBus notificationBus,
+            MeterRegistry meterRegistry,
+            @Value("${chat.session.queue-capacity:256}") int queueCapacity,
+            @Value("${chat.delivery.threads:16}") int deliveryThreads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.objectMapper = objectMapper;
+        this.queueCapacity = queueCapacity;
+        // A write blocked on a stalled client holds its thread until the send timeout
+        this.deliveryPool = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("chat-delivery-", 1).factory())
+                : Executors.newFixedThreadPool(deliveryThreads, new DeliveryThreadFactory());
+        this.delivered = Counter.builder("chat.frames.delivered")
+                .description("Chat frames queued for an open socket on this node")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("chat.frames.dropped")
+                .description("Chat frames dropped because their socket was closing or fell behind")
+                .register(meterRegistry);
+        this.slowConsumers = Counter.builder("chat.sessions.slow_consumer")
+                .description("Chat sockets closed for falling too far behind on outbound frames")
+                .register(meterRegistry);
+        if (notificationBus != null) {
+            notificationBus.subscribe(CHANNEL, this::onBatch, () -> { });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("chat.sessions", sessionsById, Map::size)
+                .description("Chat sockets open on this node")
+                .register(registry);
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    void register(WebSocketSession socket, long userId, long expiresAtMillis) {
+        ChatSession session = new ChatSession(socket, userId, expiresAtMillis, queueCapacity, deliveryPool, slowConsumers);
+        sessionsById.put(socket.getId(), session);
+        sessionsByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(session);
+    }
+
+    void unregister(WebSocketSession socket) {
+        ChatSession session = sessionsById.remove(socket.getId());
+        if (session == null) {
+            return;
+        }
+        sessionsByUser.computeIfPresent(session.userId(), (id, sessions) -> {
+            sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    /**
+     * Sends a frame to one socket, such as an ack or an error for what it sent.
+     */
+    void reply(WebSocketSession socket, Object frame) {
+        ChatSession session = sessionsById.get(socket.getId());
+        if (session != null) {
+            enqueue(session, serialize(frame));
+        }
+    }
+
+    void close(WebSocketSession socket, CloseStatus status) {
+        ChatSession session = sessionsById.get(socket.getId());
+        if (session != null) {
+            session.close(status);
+        }
+    }
+
+    /**
+     * Delivers a message to the recipient's sockets on this node and to the sender's, except the
+     * socket it was sent from.
+     */
+    void deliver(ChatMessageResponse message, String fromSessionId) {
+        TextMessage frame = serialize(MessageFrame.of(message));
+        deliverTo(message.recipientId(), frame, null);
+        if (message.senderId() != message.recipientId()) {
+            deliverTo(message.senderId(), frame, fromSessionId);
+        }
+    }
+
+    /**
+     * The payloads announcing a persisted batch to the other nodes, each a {@link Batch} of at
+     * most {@code maxBytes} in UTF-8. Every message is serialized once.
+     */
+    List<String> batchPayloads(List<ChatMessageResponse> messages, int maxBytes) {
+        String prefix = "{\"node\":\"" + nodeId + "\",\"messages\":[";
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(prefix);
+        int bytes = prefix.length() + 2;
+        for (ChatMessageResponse message : messages) {
+            String json;
+            try {
+                json = objectMapper.writeValueAsString(message);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Chat message is not serializable", e);
+            }
+            int messageBytes = json.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (payload.length() > prefix.length() && bytes + messageBytes > maxBytes) {
+                payloads.add(payload.append("]}").toString());
+                payload = new StringBuilder(prefix);
+                bytes = prefix.length() + 2;
+            }
+            if (payload.length() > prefix.length()) {
+                payload.append(',');
+            }
+            payload.append(json);
+            bytes += messageBytes;
+        }
+        if (payload.length() > prefix.length()) {
+            payloads.add(payload.append("]}").toString());
+        }
+        return payloads;
+    }
+
+    private void onBatch(String payload) {
+        Batch batch;
+        try {
+            batch = objectMapper.readValue(payload, Batch.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable chat batch: {}", e.getOriginalMessage());
+            return;
+        }
+        if (nodeId.equals(batch.node()) || sessionsByUser.isEmpty()) {
+            return;
+        }
+        for (ChatMessageResponse message : batch.messages()) {
+            if (sessionsByUser.containsKey(message.recipientId()) || sessionsByUser.containsKey(message.senderId())) {
+                deliver(message, null);
+            }
+        }
+    }
+
+    /**
+     * Closes sockets whose token expired since the handshake; the client reconnects with a new one.
+     */
+    @Scheduled(fixedDelayString = "${chat.session.expiry-check-interval-ms:60000}")
+    public void closeExpiredSessions() {
+        long now = System.currentTimeMillis();
+        for (ChatSession session : sessionsById.values()) {
+            if (session.isExpired(now)) {
+                session.close(CloseStatus.POLICY_VIOLATION.withReason("Token expired"));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deliveryPool.shutdown();
+    }
+
+    private void deliverTo(long userId, TextMessage frame, String exceptSessionId) {
+        Set<ChatSession> sessions = sessionsByUser.get(userId);
+        if (sessions == null) {
+            return;
+        }
+        for (ChatSession session : sessions) {
+            if (!session.id().equals(exceptSessionId)) {
+                enqueue(session, frame);
+            }
+        }
+    }
+
+    private void enqueue(ChatSession session, TextMessage frame) {
+        if (session.enqueue(frame)) {
+            delivered.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private TextMessage serialize(Object frame) {
+        try {
+            return new TextMessage(objectMapper.writeValueAsBytes(frame));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Chat frame is not serializable", e);
+        }
+    }
+
+    /**
+     * Server-to-client frame carrying a message.
+     */
+    record MessageFrame(String type, long messageId, long senderId, long recipientId, String body,
+                        LocalDateTime sentAt) {
+
+        static MessageFrame of(ChatMessageResponse message) {
+            return new MessageFrame("message", message.messageId(), message.senderId(), message.recipientId(),
+                    message.body(), message.sentAt());
+        }
+    }
+
+    record Batch(String node, List<ChatMessageResponse> messages) {
+    }
+
+    private static final class DeliveryThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "chat-delivery-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
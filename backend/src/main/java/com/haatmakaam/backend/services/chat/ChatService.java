@@ -0,0 +1,251 @@
+package com.haatmakaam.backend.services.chat;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.haatmakaam.backend.domain.entities.ChatMessage;
+import com.haatmakaam.backend.exceptions.ServiceOverloadedException;
+import com.haatmakaam.backend.models.ChatHistoryPage;
+import com.haatmakaam.backend.models.ChatMessageResponse;
+import com.haatmakaam.backend.repositories.ChatMessageRepository;
+import com.haatmakaam.backend.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Direct messages between users: accepting a message from a socket, and conversation history.
+ *
+ * A message is delivered to the sockets on this node as soon as it is accepted and written by
+ * {@link ChatMessageWriter} shortly after, so sending costs no database round trip. Its id comes
+ * from a block of {@value #ID_BLOCK} taken from {@code chat_messages_seq} at a time. The next
+ * block is fetched in the background once half of the current one is used, so a sender only waits
+ * for the database if ids run out faster than a {@code nextval} round trip.
+ */
+@Service
+public class ChatService implements MeterBinder {
+
+    // Must match the INCREMENT BY of chat_messages_seq
+    static final int ID_BLOCK = 100;
+    // Ids left in the current block when the next one is fetched
+    private static final int PREFETCH_AT = ID_BLOCK / 2;
+    private static final int MAX_BODY_LENGTH = 1000;
+
+    private final ChatRouter router;
+    private final ChatMessageWriter writer;
+    private final ChatMessageRepository chatMessageRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxHistoryLimit;
+    // Recipients known to exist, so a message is not rejected by the foreign key after it was delivered
+    private final Cache<Long, Boolean> knownUsers;
+
+    // Guards the three fields below and is only held for in-memory work; a ReentrantLock rather
+    // than synchronized so a waiting virtual thread unmounts instead of pinning its carrier
+    private final ReentrantLock idLock = new ReentrantLock();
+    private final ExecutorService idFetcher;
+    private long nextId;
+    private long idLimit;
+    private CompletableFuture<Long> nextBlock;
+
+    @Autowired
+    public ChatService(
+            ChatRouter router,
+            ChatMessageWriter writer,
+            ChatMessageRepository chatMessageRepository,
+            UserRepository userRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${chat.history.max-limit:100}") int maxHistoryLimit,
+            @Value("${chat.known-users.max-size:100000}") long knownUsersMaxSize
+    ) {
+        this.router = router;
+        this.writer = writer;
+        this.chatMessageRepository = chatMessageRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.maxHistoryLimit = maxHistoryLimit;
+        this.knownUsers = Caffeine.newBuilder()
+                .maximumSize(knownUsersMaxSize)
+                .recordStats()
+                .build();
+        this.idFetcher = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "chat-ids");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, knownUsers, "chat_known_users");
+    }
+
+    /**
+     * Accepts a message and delivers it to the recipient's and the sender's other sockets on this
+     * node; other nodes deliver it once it is written.
+     *
+     * @param fromSessionId the socket it was sent from, which gets an ack instead of the message
+     */
+    public ChatMessageResponse send(long senderId, long recipientId, String body, String fromSessionId) {
+        if (body == null || body.isBlank() || body.length() > MAX_BODY_LENGTH) {
+            throw new IllegalArgumentException("Message body is required and at most " + MAX_BODY_LENGTH + " characters.");
+        }
+        if (recipientId == senderId) {
+            throw new IllegalArgumentException("Cannot send a message to yourself.");
+        }
+        if (!userExists(recipientId)) {
+            throw new IllegalArgumentException("Unknown recipient.");
+        }
+
+        // At the column's precision, so history cursors compare equal to what was stored
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        ChatMessageResponse message = new ChatMessageResponse(nextId(), senderId, recipientId, body, now);
+        if (!writer.offer(message)) {
+            throw new ServiceOverloadedException("Chat is busy, try again shortly.", 1);
+        }
+        router.deliver(message, fromSessionId);
+        return message;
+    }
+
+    /**
+     * The conversation between two users, newest first; pass the previous page's
+     * {@code nextCursor} to continue. Messages sent in the last moments may not be written yet.
+     */
+    public ChatHistoryPage history(long userId, long otherUserId, int limit, String cursor) {
+        if (limit < 1 || limit > maxHistoryLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxHistoryLimit + ".");
+        }
+        long low = Math.min(userId, otherUserId);
+        long high = Math.max(userId, otherUserId);
+        List<ChatMessage> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = chatMessageRepository.findLatest(low, high, limit);
+        } else {
+            Cursor after = Cursor.decode(cursor);
+            rows = chatMessageRepository.findBefore(low, high, after.sentAt(), after.id(), limit);
+        }
+        List<ChatMessageResponse> messages = rows.stream().map(ChatService::toResponse).toList();
+        String nextCursor = null;
+        if (messages.size() == limit) {
+            ChatMessageResponse last = messages.get(messages.size() - 1);
+            nextCursor = new Cursor(last.sentAt(), last.messageId()).encode();
+        }
+        return new ChatHistoryPage(messages, nextCursor);
+    }
+
+    private boolean userExists(long userId) {
+        if (knownUsers.getIfPresent(userId) != null) {
+            return true;
+        }
+        // Absent ids are not cached, so a user who just registered is found on the next try
+        if (userRepository.existsById(userId)) {
+            knownUsers.put(userId, Boolean.TRUE);
+            return true;
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        idFetcher.shutdownNow();
+    }
+
+    private long nextId() {
+        while (true) {
+            CompletableFuture<Long> pending;
+            idLock.lock();
+            try {
+                if (nextId == idLimit && nextBlock != null && nextBlock.isDone()) {
+                    CompletableFuture<Long> fetched = nextBlock;
+                    // A failed fetch is reported to this sender; the next one starts another
+                    nextBlock = null;
+                    long first = join(fetched);
+                    nextId = first;
+                    idLimit = first + ID_BLOCK;
+                }
+                if (nextId < idLimit) {
+                    long id = nextId++;
+                    if (nextBlock == null && idLimit - nextId <= PREFETCH_AT) {
+                        nextBlock = fetchBlock();
+                    }
+                    return id;
+                }
+                if (nextBlock == null) {
+                    nextBlock = fetchBlock();
+                }
+                pending = nextBlock;
+            } finally {
+                idLock.unlock();
+            }
+            // Out of ids: wait for the fetch without holding the lock, then take the block under it
+            pending.exceptionally(e -> null).join();
+        }
+    }
+
+    private CompletableFuture<Long> fetchBlock() {
+        // Read-write, so it runs on the primary
+        return CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT nextval('chat_messages_seq')", Long.class)), idFetcher);
+    }
+
+    private static long join(CompletableFuture<Long> block) {
+        try {
+            return block.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private static ChatMessageResponse toResponse(ChatMessage message) {
+        return new ChatMessageResponse(
+                message.getId(),
+                message.getSenderId(),
+                message.getRecipientId(),
+                message.getBody(),
+                message.getSentAt());
+    }
+
+    /**
+     * Position in a conversation: the (sent_at, id) of the oldest message seen. Opaque to clients.
+     */
+    record Cursor(LocalDateTime sentAt, long id) {
+
+        String encode() {
+            long micros = sentAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + sentAt.getNano() / 1_000;
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((micros + ":" + id).getBytes(StandardCharsets.US_ASCII));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split(":");
+                long micros = Long.parseLong(parts[0]);
+                LocalDateTime sentAt = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                        (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+                return new Cursor(sentAt, Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+        }
+    }
+}
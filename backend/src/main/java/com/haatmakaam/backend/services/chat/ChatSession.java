@@ -0,0 +1,135 @@
+package com.haatmakaam.backend.services.chat;
+
+import io.micrometer.core.instrument.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One open chat socket and its outbound queue.
+ *
+ * Whoever has a frame for the session only appends it and, if no drain is scheduled, schedules
+ * one on the delivery executor; that drain is the only thread writing to the socket, so senders
+ * never wait on a slow network. The queue is bounded: a client that falls {@code capacity} frames
+ * behind is disconnected as a slow consumer rather than buffered without limit, and reconnects
+ * to catch up from history.
+ */
+final class ChatSession {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatSession.class);
+
+    private final WebSocketSession socket;
+    private final long userId;
+    private final long expiresAtMillis;
+    private final int capacity;
+    private final Executor executor;
+    private final Counter slowConsumers;
+    private final Queue<TextMessage> outbound = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile CloseStatus closing;
+
+    ChatSession(WebSocketSession socket, long userId, long expiresAtMillis, int capacity, Executor executor,
+                Counter slowConsumers) {
+        this.socket = socket;
+        this.userId = userId;
+        this.expiresAtMillis = expiresAtMillis;
+        this.capacity = capacity;
+        this.executor = executor;
+        this.slowConsumers = slowConsumers;
+    }
+
+    String id() {
+        return socket.getId();
+    }
+
+    long userId() {
+        return userId;
+    }
+
+    boolean isExpired(long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+
+    /**
+     * Queues a frame for this socket.
+     *
+     * @return false if the session is closing or just overflowed, in which case the frame is dropped
+     */
+    boolean enqueue(TextMessage frame) {
+        if (closing != null) {
+            return false;
+        }
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            if (closing == null) {
+                slowConsumers.increment();
+            }
+            close(CloseStatus.SESSION_NOT_RELIABLE.withReason("Slow consumer"));
+            return false;
+        }
+        outbound.add(frame);
+        scheduleDrain();
+        return true;
+    }
+
+    /**
+     * Closes the socket from the drain, after the frame being written (if any) went out.
+     * Frames still queued are dropped.
+     */
+    void close(CloseStatus status) {
+        if (closing == null) {
+            closing = status;
+            scheduleDrain();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        do {
+            TextMessage frame;
+            while (closing == null && (frame = outbound.poll()) != null) {
+                queued.decrementAndGet();
+                try {
+                    socket.sendMessage(frame);
+                } catch (IOException | RuntimeException e) {
+                    // Also how a send that exceeded the container's send timeout ends
+                    log.debug("Chat session {} send failed: {}", socket.getId(), e.toString());
+                    closing = CloseStatus.SESSION_NOT_RELIABLE;
+                }
+            }
+            if (closing != null) {
+                outbound.clear();
+                closeSocket();
+                return;
+            }
+            draining.set(false);
+            // A frame or close that arrived after the checks above but before the flag was cleared
+        } while ((closing != null || !outbound.isEmpty()) && draining.compareAndSet(false, true));
+    }
+
+    private void closeSocket() {
+        if (!socket.isOpen()) {
+            return;
+        }
+        try {
+            socket.close(closing);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Chat session {} close failed: {}", socket.getId(), e.toString());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.haatmakaam.backend.services.chat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haatmakaam.backend.exceptions.ServiceOverloadedException;
+import com.haatmakaam.backend.models.ChatMessageResponse;
+import jakarta.websocket.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * The {@code /ws/chat} endpoint. The handshake was authenticated by {@link ChatHandshakeInterceptor},
+ * which left the user id and token expiry in the session attributes.
+ *
+ * Client frames are {@code {"type":"send","recipientId":42,"body":"...","clientId":"c1"}}. The
+ * sender gets {@code {"type":"ack","clientId":"c1","messageId":..,"sentAt":..}} or
+ * {@code {"type":"error","clientId":"c1","error":"..."}} back, and recipients get
+ * {@code {"type":"message",...}} frames. Frames from one socket are handled one at a time.
+ */
+@Component
+public class ChatSocketHandler extends TextWebSocketHandler {
+
+    public static final String USER_ID_ATTRIBUTE = "chat.userId";
+    public static final String EXPIRES_AT_ATTRIBUTE = "chat.expiresAt";
+
+    // Tomcat's limit on a blocking write, which is how ChatSession writes
+    private static final String BLOCKING_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    private final ChatService chatService;
+    private final ChatRouter router;
+    private final ObjectMapper objectMapper;
+    private final long sendTimeoutMillis;
+
+    @Autowired
+    public ChatSocketHandler(
+            ChatService chatService,
+            ChatRouter router,
+            ObjectMapper objectMapper,
+            @Value("${chat.session.send-timeout:10s}") Duration sendTimeout
+    ) {
+        this.chatService = chatService;
+        this.router = router;
+        this.objectMapper = objectMapper;
+        this.sendTimeoutMillis = sendTimeout.toMillis();
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        // Bounds how long a stalled client can hold a delivery thread before it is dropped
+        if (session instanceof NativeWebSocketSession nativeSession
+                && nativeSession.getNativeSession() instanceof Session socket) {
+            socket.getUserProperties().put(BLOCKING_SEND_TIMEOUT, sendTimeoutMillis);
+        }
+        router.register(session, userId(session), (Long) session.getAttributes().get(EXPIRES_AT_ATTRIBUTE));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        if ((Long) session.getAttributes().get(EXPIRES_AT_ATTRIBUTE) <= System.currentTimeMillis()) {
+            router.close(session, CloseStatus.POLICY_VIOLATION.withReason("Token expired"));
+            return;
+        }
+
+        ClientFrame frame;
+        try {
+            frame = objectMapper.readValue(message.getPayload(), ClientFrame.class);
+        } catch (IOException e) {
+            router.reply(session, new ErrorFrame("error", null, "Malformed frame."));
+            return;
+        }
+        if (!"send".equals(frame.type()) || frame.recipientId() == null) {
+            router.reply(session, new ErrorFrame("error", frame.clientId(), "Expected a send frame with a recipientId."));
+            return;
+        }
+
+        try {
+            ChatMessageResponse sent = chatService.send(userId(session), frame.recipientId(), frame.body(), session.getId());
+            router.reply(session, new AckFrame("ack", frame.clientId(), sent.messageId(), sent.sentAt()));
+        } catch (IllegalArgumentException | ServiceOverloadedException e) {
+            router.reply(session, new ErrorFrame("error", frame.clientId(), e.getMessage()));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        router.unregister(session);
+    }
+
+    private static long userId(WebSocketSession session) {
+        return (Long) session.getAttributes().get(USER_ID_ATTRIBUTE);
+    }
+
+    record ClientFrame(String type, Long recipientId, String body, String clientId) {
+    }
+
+    record AckFrame(String type, String clientId, long messageId, LocalDateTime sentAt) {
+    }
+
+    record ErrorFrame(String type, String clientId, String error) {
+    }
+}
@@ -0,0 +1,307 @@
+package com.haatmakaam.backend.services.cluster;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Node-to-node broadcasts over Postgres LISTEN/NOTIFY, so several backend instances can keep
+ * local state (caches) consistent without an extra message broker.
+ *
+ * {@link #publish} runs {@code pg_notify} on the caller's pooled connection. Postgres delivers the
+ * notification when that transaction commits and drops it on rollback, so listeners never see a
+ * change that did not happen. Every node, including the publisher, receives it.
+ *
+ * Listening needs a session that stays open, which a transaction-mode pooler (such as the
+ * Supabase pooler on port 6543) does not provide. The listener therefore opens its own connection
+ * outside Hikari, to {@code pg.notify.url} (a direct or session-mode URL) if set. Notifications sent
+ * while that connection is down are lost; after reconnecting, every subscriber's resync callback
+ * runs so it can drop whatever it may have missed.
+ *
+ * The listener starts with the first subscription rather than with the lifecycle, so a bean that
+ * loads its state at construction can {@link #awaitListening} first and not miss changes made
+ * while it loads.
+ */
+@Component
+public class PgNotificationBus implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PgNotificationBus.class);
+
+    // Channels are interpolated into LISTEN, which takes no bind parameters
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Duration pollTimeout;
+    private final Duration keepaliveInterval;
+    private final Duration maxReconnectBackoff;
+    private final Counter received;
+    private final Counter reconnects;
+
+    private final Map<String, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private volatile boolean subscriptionsChanged;
+    private final Set<String> activeChannels = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    @Autowired
+    public PgNotificationBus(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${pg.notify.enabled:true}") boolean enabled,
+            @Value("${pg.notify.url:${spring.datasource.url}}") String url,
+            @Value("${pg.notify.username:${spring.datasource.username}}") String username,
+            @Value("${pg.notify.password:${spring.datasource.password:}}") String password,
+            @Value("${pg.notify.poll-timeout:500ms}") Duration pollTimeout,
+            @Value("${pg.notify.keepalive-interval:30s}") Duration keepaliveInterval,
+            @Value("${pg.notify.max-reconnect-backoff:30s}") Duration maxReconnectBackoff
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollTimeout = pollTimeout;
+        this.keepaliveInterval = keepaliveInterval;
+        this.maxReconnectBackoff = maxReconnectBackoff;
+        this.received = Counter.builder("pg.notify.received")
+                .description("Notifications delivered to this node's listener")
+                .register(meterRegistry);
+        this.reconnects = Counter.builder("pg.notify.reconnects")
+                .description("Times the listener connection was re-established after a failure")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers a handler for a channel. Handlers run on the listener thread and must be quick.
+     *
+     * @param onNotification receives the payload of every notification on the channel
+     * @param onResync       runs after the listener reconnected, when notifications may have been missed
+     */
+    public void subscribe(String channel, Consumer<String> onNotification, Runnable onResync) {
+        requireValidChannel(channel);
+        subscriptions.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>())
+                .add(new Subscription(onNotification, onResync));
+        subscriptionsChanged = true;
+        start();
+    }
+
+    /**
+     * Waits until this node is listening on the channel, so that anything committed from now on
+     * reaches the channel's handlers. Returns immediately when notifications are disabled.
+     *
+     * @return false if the listener did not get there within the timeout
+     */
+    public boolean awaitListening(String channel, Duration timeout) {
+        if (!enabled) {
+            return true;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (activeChannels) {
+            while (!activeChannels.contains(channel)) {
+                long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+                if (remainingMillis <= 0) {
+                    return false;
+                }
+                try {
+                    activeChannels.wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Sends a notification to every node. Inside a transaction it is delivered on commit.
+     */
+    public void publish(String channel, String payload) {
+        if (!enabled) {
+            return;
+        }
+        requireValidChannel(channel);
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> { }, channel, payload);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        if (!enabled) {
+            log.info("pg.notify.enabled=false: cross-node notifications are off, state stays node-local");
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "pg-notify-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        Thread thread = listenerThread;
+        if (thread != null) {
+            try {
+                // Exits after the current poll returns
+                thread.join(pollTimeout.toMillis() * 2 + 1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            listenerThread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean connectedBefore = false;
+        long backoffMillis = 500;
+        while (running) {
+            try (Connection connection = openConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                Set<String> listening = new HashSet<>();
+                subscriptionsChanged = true;
+                long lastCheck = System.nanoTime();
+                boolean resynced = false;
+
+                while (running) {
+                    if (subscriptionsChanged) {
+                        subscriptionsChanged = false;
+                        listenToNewChannels(connection, listening);
+                    }
+                    if (connectedBefore && !resynced) {
+                        // Only once LISTEN is active, so nothing can slip in between resync and listening
+                        reconnects.increment();
+                        resyncAll();
+                        log.info("pg notification listener reconnected");
+                    }
+                    resynced = true;
+                    backoffMillis = 500;
+
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getName(), notification.getParameter());
+                        }
+                        lastCheck = System.nanoTime();
+                    } else if (System.nanoTime() - lastCheck > keepaliveInterval.toNanos()) {
+                        // A silently dropped socket only shows up once something is sent over it
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                        lastCheck = System.nanoTime();
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                activeChannels.clear();
+                if (!running) {
+                    break;
+                }
+                log.warn("pg notification listener connection failed, retrying in {} ms: {}", backoffMillis, e.toString());
+                sleep(backoffMillis);
+                backoffMillis = Math.min(backoffMillis * 2, maxReconnectBackoff.toMillis());
+            }
+            connectedBefore = true;
+        }
+    }
+
+    private Connection openConnection() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", username);
+        if (password != null && !password.isEmpty()) {
+            properties.setProperty("password", password);
+        }
+        properties.setProperty("tcpKeepAlive", "true");
+        properties.setProperty("ApplicationName", "haatmakaam-pg-notify");
+        Connection connection = DriverManager.getConnection(url, properties);
+        connection.setAutoCommit(true);
+        return connection;
+    }
+
+    private void listenToNewChannels(Connection connection, Set<String> listening) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String channel : subscriptions.keySet()) {
+                if (listening.add(channel)) {
+                    statement.execute("LISTEN " + channel);
+                }
+            }
+        }
+        synchronized (activeChannels) {
+            activeChannels.addAll(listening);
+            activeChannels.notifyAll();
+        }
+    }
+
+    private void dispatch(String channel, String payload) {
+        received.increment();
+        for (Subscription subscription : subscriptions.getOrDefault(channel, List.of())) {
+            try {
+                subscription.onNotification().accept(payload);
+            } catch (RuntimeException e) {
+                log.warn("Handler for pg notification channel {} failed", channel, e);
+            }
+        }
+    }
+
+    private void resyncAll() {
+        for (Map.Entry<String, List<Subscription>> entry : subscriptions.entrySet()) {
+            for (Subscription subscription : entry.getValue()) {
+                try {
+                    subscription.onResync().run();
+                } catch (RuntimeException e) {
+                    log.warn("Resync for pg notification channel {} failed", entry.getKey(), e);
+                }
+            }
+        }
+    }
+
+    private static void requireValidChannel(String channel) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel name: " + channel);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Subscription(Consumer<String> onNotification, Runnable onResync) {
+    }
+}
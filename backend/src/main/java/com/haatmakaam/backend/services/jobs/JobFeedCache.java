@@ -0,0 +1,347 @@
+package com.haatmakaam.backend.services.jobs;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.haatmakaam.backend.domain.enums.Skill;
+import com.haatmakaam.backend.models.JobFeedPage;
+import com.haatmakaam.backend.models.JobSummary;
+import com.haatmakaam.backend.services.cluster.PgNotificationBus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serialized job feed pages, per node, ready to write to the response with their ETag and
+ * Last-Modified.
+ *
+ * The world is cut into {@link #AREA_DEGREES} squares and a feed covers the 3x3 areas around the
+ * worker, so every worker in an area shares the same pages. A page is read with a keyset seek on
+ * (created_at, id), serialized once and kept until a job in one of its nine areas is posted or
+ * closed. {@link #jobChanged} announces that on {@value #CHANNEL}, and each node then marks the
+ * nine feeds that show the area as changed. Entries are stamped from one counter before their
+ * query runs, so a page read while a change commits is never served after the change arrives.
+ *
+ * After a change, that feed is read from the primary for {@code jobs.feed.primary-read-window}
+ * in case the replica has not replayed the job yet. The TTL bounds anything a lost notification
+ * leaves behind; a listener that reconnects drops everything.
+ */
+@Component
+public class JobFeedCache implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(JobFeedCache.class);
+
+    static final String CHANNEL = "job_feed";
+
+    // Stored in jobs.area: changing it means recomputing that column
+    static final double AREA_DEGREES = 0.05;
+
+    private static final int AREAS = 9;
+    private static final String PAGE_COLUMNS = "SELECT id, skill, title, latitude, longitude, created_at FROM jobs";
+    private static final String PAGE_ORDER = " ORDER BY created_at DESC, id DESC LIMIT ?";
+    private static final String LAST_MODIFIED_SQL =
+            "SELECT max(updated_at) FROM jobs WHERE area IN (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Indexed by (skill filter ? 1 : 0) + (cursor ? 2 : 0)
+    private static final String[] PAGE_SQL = {
+            pageSql(false, false), pageSql(true, false), pageSql(false, true), pageSql(true, true)};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate replicaReads;
+    private final TransactionTemplate primaryReads;
+    private final ObjectMapper objectMapper;
+    private final PgNotificationBus notificationBus;
+    private final Duration primaryReadWindow;
+    private final Cache<FeedKey, Entry> pages;
+    // Per feed centre: the stamp and time of the last change to any of its areas
+    private final Cache<Long, Change> changes;
+    private final AtomicLong stamps = new AtomicLong();
+    private volatile long clearedAtStamp;
+    private volatile long primaryReadsUntil;
+
+    @Autowired
+    public JobFeedCache(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            PgNotificationBus notificationBus,
+            @Value("${jobs.feed.cache.max-size:5000}") long maxSize,
+            @Value("${jobs.feed.cache.ttl:5m}") Duration ttl,
+            @Value("${jobs.feed.primary-read-window:5s}") Duration primaryReadWindow
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.replicaReads = new TransactionTemplate(transactionManager);
+        this.replicaReads.setReadOnly(true);
+        this.primaryReads = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.notificationBus = notificationBus;
+        this.primaryReadWindow = primaryReadWindow;
+        this.primaryReadsUntil = System.nanoTime();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // A change older than the TTL can only concern pages that have expired anyway
+        this.changes = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+        notificationBus.subscribe(CHANNEL, this::onNotification, this::clear);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, pages, "job_feed");
+    }
+
+    /**
+     * The feed area containing a location.
+     */
+    public static long areaOf(double latitude, double longitude) {
+        return areaKey(areaIndex(latitude), areaIndex(longitude));
+    }
+
+    /**
+     * A page of open jobs around the location, newest first, starting after {@code after} (null
+     * for the first page).
+     */
+    public Page page(double latitude, double longitude, Skill skill, Cursor after, int limit) {
+        FeedKey key = new FeedKey(areaOf(latitude, longitude), skill, after, limit);
+        Entry entry = pages.get(key, this::load);
+        if (!isCurrent(entry, key.centre())) {
+            pages.asMap().remove(key, entry);
+            entry = pages.get(key, this::load);
+        }
+        return entry.page();
+    }
+
+    /**
+     * Announces that a job in {@code area} was posted or closed. Call from the writing
+     * transaction: every node drops the affected pages once it commits, and nothing happens on
+     * rollback.
+     */
+    public void jobChanged(long area) {
+        notificationBus.publish(CHANNEL, Long.toString(area));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markChanged(area);
+                }
+            });
+        } else {
+            markChanged(area);
+        }
+    }
+
+    private Entry load(FeedKey key) {
+        // Taken before reading, so a change that commits during the read makes this entry stale
+        long stamp = stamps.get();
+        Object[] areas = neighbourhood(key.centre());
+        Change change = changes.getIfPresent(key.centre());
+        long now = System.nanoTime();
+        boolean mustSeeLatestWrite = now - primaryReadsUntil < 0
+                || (change != null && now - change.atNanos() < primaryReadWindow.toNanos());
+        TransactionTemplate reads = mustSeeLatestWrite ? primaryReads : replicaReads;
+        Page page = reads.execute(status -> {
+            LocalDateTime lastModified = jdbcTemplate.queryForObject(LAST_MODIFIED_SQL, LocalDateTime.class, areas);
+            List<JobSummary> jobs = queryPage(areas, key);
+            return render(jobs, key.limit(), lastModified);
+        });
+        return new Entry(page, stamp);
+    }
+
+    private List<JobSummary> queryPage(Object[] areas, FeedKey key) {
+        List<Object> args = new ArrayList<>(AREAS * 5 + 1);
+        for (Object area : areas) {
+            args.add(area);
+            if (key.skill() != null) {
+                args.add(key.skill().name());
+            }
+            if (key.after() != null) {
+                args.add(Timestamp.valueOf(key.after().createdAt()));
+                args.add(key.after().id());
+            }
+            args.add(key.limit());
+        }
+        args.add(key.limit());
+        String sql = PAGE_SQL[(key.skill() != null ? 1 : 0) + (key.after() != null ? 2 : 0)];
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new JobSummary(
+                rs.getLong("id"),
+                Skill.valueOf(rs.getString("skill")),
+                rs.getString("title"),
+                rs.getDouble("latitude"),
+                rs.getDouble("longitude"),
+                rs.getTimestamp("created_at").toLocalDateTime()), args.toArray());
+    }
+
+    /**
+     * One branch per area, each a seek into jobs_feed_idx that stops after {@code limit} rows,
+     * merged in feed order. With a single {@code area IN (...)} Postgres would instead read every
+     * open job of the nine areas and sort them.
+     */
+    private static String pageSql(boolean bySkill, boolean afterCursor) {
+        StringBuilder branch = new StringBuilder("(" + PAGE_COLUMNS + " WHERE status = 'OPEN' AND area = ?");
+        if (bySkill) {
+            branch.append(" AND skill = ?");
+        }
+        if (afterCursor) {
+            // A row comparison, so the seek is a single index condition
+            branch.append(" AND (created_at, id) < (?, ?)");
+        }
+        branch.append(PAGE_ORDER).append(")");
+        StringBuilder sql = new StringBuilder("SELECT * FROM (");
+        for (int i = 0; i < AREAS; i++) {
+            sql.append(i == 0 ? "" : " UNION ALL ").append(branch);
+        }
+        return sql.append(") page").append(PAGE_ORDER).toString();
+    }
+
+    private Page render(List<JobSummary> jobs, int limit, LocalDateTime lastModified) {
+        String nextCursor = null;
+        if (jobs.size() == limit) {
+            JobSummary last = jobs.get(jobs.size() - 1);
+            nextCursor = new Cursor(last.createdAt(), last.jobId()).encode();
+        }
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(new JobFeedPage(jobs, nextCursor));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize a job feed page", e);
+        }
+        // Written with LocalDateTime.now(), i.e. in the server's zone
+        long lastModifiedMillis = lastModified == null
+                ? -1
+                : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new Page(body, etag(body), lastModifiedMillis);
+    }
+
+    private boolean isCurrent(Entry entry, long centre) {
+        if (entry.stamp() < clearedAtStamp) {
+            return false;
+        }
+        Change change = changes.getIfPresent(centre);
+        return change == null || entry.stamp() >= change.stamp();
+    }
+
+    private void onNotification(String payload) {
+        long area;
+        try {
+            area = Long.parseLong(payload);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed {} notification", CHANNEL);
+            return;
+        }
+        markChanged(area);
+    }
+
+    // Every feed whose 3x3 block includes the area
+    private void markChanged(long area) {
+        long nowNanos = System.nanoTime();
+        for (Object centre : neighbourhood(area)) {
+            changes.put((Long) centre, new Change(stamps.incrementAndGet(), nowNanos));
+        }
+    }
+
+    // Notifications may have been missed, for any area
+    private void clear() {
+        primaryReadsUntil = System.nanoTime() + primaryReadWindow.toNanos();
+        clearedAtStamp = stamps.incrementAndGet();
+        pages.invalidateAll();
+    }
+
+    private static Object[] neighbourhood(long area) {
+        int latIndex = (int) (area >> 32);
+        int lonIndex = (int) area;
+        Object[] areas = new Object[AREAS];
+        int i = 0;
+        for (int dLat = -1; dLat <= 1; dLat++) {
+            for (int dLon = -1; dLon <= 1; dLon++) {
+                areas[i++] = areaKey(latIndex + dLat, lonIndex + dLon);
+            }
+        }
+        return areas;
+    }
+
+    private static int areaIndex(double degrees) {
+        return (int) Math.floor(degrees / AREA_DEGREES);
+    }
+
+    private static long areaKey(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A serialized page with its validators; {@code lastModified} is -1 for an area without jobs.
+     */
+    public record Page(byte[] body, String etag, long lastModified) {
+    }
+
+    /**
+     * Position in the feed: the (created_at, id) of the last job seen. Opaque to clients.
+     */
+    public record Cursor(LocalDateTime createdAt, long id) {
+
+        String encode() {
+            long micros = createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + createdAt.getNano() / 1_000;
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((micros + ":" + id).getBytes(StandardCharsets.US_ASCII));
+        }
+
+        public static Cursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split(":");
+                long micros = Long.parseLong(parts[0]);
+                LocalDateTime createdAt = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                        (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+                return new Cursor(createdAt, Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+        }
+    }
+
+    private record FeedKey(long centre, Skill skill, Cursor after, int limit) {
+    }
+
+    private record Entry(Page page, long stamp) {
+    }
+
+    private record Change(long stamp, long atNanos) {
+    }
+}
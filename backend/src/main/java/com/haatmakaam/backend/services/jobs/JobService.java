@@ -0,0 +1,159 @@
+package com.haatmakaam.backend.services.jobs;
+
+import com.haatmakaam.backend.domain.entities.Job;
+import com.haatmakaam.backend.domain.entities.WeeklyAvailability;
+import com.haatmakaam.backend.domain.enums.JobStatus;
+import com.haatmakaam.backend.domain.enums.NotificationKind;
+import com.haatmakaam.backend.domain.enums.Skill;
+import com.haatmakaam.backend.exceptions.JobNotFoundException;
+import com.haatmakaam.backend.models.JobRequest;
+import com.haatmakaam.backend.models.JobResponse;
+import com.haatmakaam.backend.models.NearbyWorker;
+import com.haatmakaam.backend.repositories.JobRepository;
+import com.haatmakaam.backend.services.matching.WorkerSpatialIndex;
+import com.haatmakaam.backend.services.notifications.NotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Job postings: customers post and close them, workers read them through {@link JobFeedCache}.
+ * A new job is announced to the best matching workers around it, found in the worker index.
+ */
+@Service
+public class JobService {
+
+    private static final int MAX_TITLE_LENGTH = 120;
+    private static final int MAX_DESCRIPTION_LENGTH = 2000;
+
+    private final JobRepository jobRepository;
+    private final JobFeedCache feedCache;
+    private final WorkerSpatialIndex workerIndex;
+    private final NotificationService notificationService;
+    private final int maxLimit;
+    private final double notifyRadiusKm;
+    private final int maxNotified;
+
+    @Autowired
+    public JobService(
+            JobRepository jobRepository,
+            JobFeedCache feedCache,
+            WorkerSpatialIndex workerIndex,
+            NotificationService notificationService,
+            @Value("${jobs.feed.max-limit:50}") int maxLimit,
+            @Value("${notifications.jobs.radius-km:5}") double notifyRadiusKm,
+            @Value("${notifications.jobs.max-recipients:200}") int maxNotified
+    ) {
+        this.jobRepository = jobRepository;
+        this.feedCache = feedCache;
+        this.workerIndex = workerIndex;
+        this.notificationService = notificationService;
+        this.maxLimit = maxLimit;
+        this.notifyRadiusKm = notifyRadiusKm;
+        this.maxNotified = maxNotified;
+    }
+
+    @Transactional
+    public JobResponse post(long customerId, JobRequest request) {
+        if (request.skill() == null) {
+            throw new IllegalArgumentException("Skill is required.");
+        }
+        if (request.title() == null || request.title().isBlank() || request.title().length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("Title is required and at most " + MAX_TITLE_LENGTH + " characters.");
+        }
+        if (request.description() != null && request.description().length() > MAX_DESCRIPTION_LENGTH) {
+            throw new IllegalArgumentException("Description must be at most " + MAX_DESCRIPTION_LENGTH + " characters.");
+        }
+        if (request.latitude() == null || request.longitude() == null) {
+            throw new IllegalArgumentException("Latitude and longitude are required.");
+        }
+        requireCoordinates(request.latitude(), request.longitude());
+
+        // At the column's precision, so the feed cursor compares equal to what was stored
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Job job = new Job();
+        job.setCustomerId(customerId);
+        job.setSkill(request.skill());
+        job.setTitle(request.title().strip());
+        job.setDescription(request.description());
+        job.setLatitude(request.latitude());
+        job.setLongitude(request.longitude());
+        job.setArea(JobFeedCache.areaOf(request.latitude(), request.longitude()));
+        job.setStatus(JobStatus.OPEN);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        Job saved = jobRepository.save(job);
+        feedCache.jobChanged(saved.getArea());
+        announce(saved);
+        return toResponse(saved);
+    }
+
+    public JobResponse getJob(long jobId) {
+        return jobRepository.findById(jobId)
+                .map(JobService::toResponse)
+                .orElseThrow(() -> new JobNotFoundException("Job not found."));
+    }
+
+    /**
+     * Closes the customer's own job. Closing a closed job changes nothing.
+     */
+    @Transactional
+    public JobResponse close(long jobId, long customerId) {
+        boolean closed = jobRepository.close(jobId, customerId, LocalDateTime.now()) > 0;
+        Job job = jobRepository.findById(jobId)
+                .filter(j -> j.getCustomerId() == customerId)
+                .orElseThrow(() -> new JobNotFoundException("Job not found."));
+        if (closed) {
+            feedCache.jobChanged(job.getArea());
+        }
+        return toResponse(job);
+    }
+
+    /**
+     * Open jobs around the location, newest first; pass the previous page's {@code nextCursor}
+     * to continue.
+     */
+    public JobFeedCache.Page feed(double latitude, double longitude, Skill skill, int limit, String cursor) {
+        requireCoordinates(latitude, longitude);
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxLimit + ".");
+        }
+        JobFeedCache.Cursor after = cursor == null || cursor.isEmpty() ? null : JobFeedCache.Cursor.decode(cursor);
+        return feedCache.page(latitude, longitude, skill, after, limit);
+    }
+
+    // Sent after commit; a worker told of several jobs within the window gets one summary
+    private void announce(Job job) {
+        String body = "New " + job.getSkill().name().toLowerCase() + " job near you: " + job.getTitle();
+        for (NearbyWorker worker : workerIndex.nearest(job.getSkill(), job.getLatitude(), job.getLongitude(),
+                notifyRadiusKm, maxNotified, WeeklyAvailability.none())) {
+            if (worker.workerId() != job.getCustomerId()) {
+                notificationService.notify(worker.workerId(), NotificationKind.JOB_NEARBY, body);
+            }
+        }
+    }
+
+    private static void requireCoordinates(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Latitude must be within [-90, 90] and longitude within [-180, 180].");
+        }
+    }
+
+    private static JobResponse toResponse(Job job) {
+        return new JobResponse(
+                job.getId(),
+                job.getCustomerId(),
+                job.getSkill(),
+                job.getTitle(),
+                job.getDescription(),
+                job.getLatitude(),
+                job.getLongitude(),
+                job.getStatus(),
+                job.getCreatedAt(),
+                job.getClosedAt());
+    }
+}
@@ -0,0 +1,214 @@
+package com.haatmakaam.backend.services.ledger;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.haatmakaam.backend.domain.enums.LedgerAccountKind;
+import com.haatmakaam.backend.domain.enums.LedgerTransactionKind;
+import com.haatmakaam.backend.exceptions.ServiceOverloadedException;
+import com.haatmakaam.backend.models.LedgerReceipt;
+import com.haatmakaam.backend.models.WalletResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Wallets and the ledger behind them.
+ *
+ * Balances are never updated in place by the request that moves them. Every posting is appended
+ * to the ledger as a transaction and its entries, and goes to the {@link LedgerStripe} that owns
+ * the account it debits, chosen by account id among {@code ledger.stripes}. Each stripe posts in
+ * order and commits many postings at once, so postings against one busy wallet queue in memory
+ * instead of on its row lock, and cost one commit per batch instead of one each. The platform's
+ * own accounts keep no balance row at all.
+ *
+ * Callers wait for their posting to commit. The idempotency key makes a retry safe whatever
+ * happened to the first attempt: a key already posted returns the first transaction, marked
+ * replayed.
+ */
+@Service
+public class LedgerService {
+
+    public static final long PLATFORM_FEES = 1;
+    public static final long ESEWA_CLEARING = 2;
+    public static final long KHALTI_CLEARING = 3;
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final int MAX_REFERENCE_LENGTH = 100;
+
+    private final LedgerStore store;
+    private final LedgerStripe[] stripes;
+    private final Cache<Long, Long> walletsByUser;
+    private final Duration postTimeout;
+    private final Duration shutdownTimeout;
+    private final int maxStatementLimit;
+
+    @Autowired
+    public LedgerService(
+            LedgerStore store,
+            MeterRegistry meterRegistry,
+            @Value("${ledger.stripes:4}") int stripeCount,
+            @Value("${ledger.queue-capacity:10000}") int queueCapacity,
+            @Value("${ledger.batch-size:200}") int batchSize,
+            @Value("${ledger.linger:0ms}") Duration linger,
+            @Value("${ledger.balance-cache.max-size:10000}") int maxCachedBalances,
+            @Value("${ledger.post-timeout:10s}") Duration postTimeout,
+            @Value("${ledger.shutdown-timeout:30s}") Duration shutdownTimeout,
+            @Value("${ledger.statement.max-limit:100}") int maxStatementLimit
+    ) {
+        this.store = store;
+        // Account kinds never change
+        Cache<Long, LedgerAccountKind> accountKinds = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .build();
+        this.stripes = new LedgerStripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new LedgerStripe(i, store, accountKinds, queueCapacity, batchSize, linger, maxCachedBalances,
+                    meterRegistry);
+        }
+        this.walletsByUser = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .build();
+        this.postTimeout = postTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+        this.maxStatementLimit = maxStatementLimit;
+    }
+
+    /**
+     * Posts the transaction and waits for it to commit. Throws {@link
+     * com.haatmakaam.backend.exceptions.LedgerConflictException} if a wallet would go negative or
+     * the key was used for a different posting, and {@link ServiceOverloadedException} if the
+     * ledger is too far behind; the posting may still commit then, so retry with the same key.
+     */
+    public LedgerReceipt post(Posting posting) {
+        try {
+            return postAsync(posting).get(postTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ServiceOverloadedException("The ledger is busy, please retry.", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while posting", e);
+        }
+    }
+
+    /**
+     * Posts the transaction; the future completes when it has committed or was refused.
+     */
+    public CompletableFuture<LedgerReceipt> postAsync(Posting posting) {
+        validate(posting);
+        CompletableFuture<LedgerReceipt> result = new CompletableFuture<>();
+        LedgerStripe stripe = stripes[(int) Math.floorMod(posting.debitAccountId(), (long) stripes.length)];
+        if (!stripe.offer(new LedgerStripe.Request(posting, result))) {
+            throw new ServiceOverloadedException("The ledger is busy, please retry.", 1);
+        }
+        return result;
+    }
+
+    /**
+     * Credits a payment confirmed at the gateway to the user's wallet. Crediting the same payment
+     * again changes nothing.
+     */
+    public LedgerReceipt topUp(long userId, String gateway, long amount, String paymentId) {
+        long clearing = switch (gateway == null ? "" : gateway.toLowerCase()) {
+            case "esewa" -> ESEWA_CLEARING;
+            case "khalti" -> KHALTI_CLEARING;
+            default -> throw new IllegalArgumentException("Gateway must be esewa or khalti.");
+        };
+        if (paymentId == null || paymentId.isBlank()) {
+            throw new IllegalArgumentException("Payment id is required.");
+        }
+        String reference = gateway.toLowerCase() + ":" + paymentId.strip();
+        return post(new Posting("top-up:" + reference, LedgerTransactionKind.TOP_UP, reference, clearing,
+                List.of(new Posting.Credit(walletOf(userId), amount))));
+    }
+
+    /**
+     * Pays a worker for a booking from the customer's wallet, less the platform's fee. Settling
+     * the same booking again changes nothing.
+     */
+    public LedgerReceipt settle(long bookingId, long customerId, long workerId, long amount, long fee) {
+        if (fee < 0 || fee >= amount) {
+            throw new IllegalArgumentException("The fee must be at least 0 and less than the amount.");
+        }
+        List<Posting.Credit> credits = new ArrayList<>(2);
+        credits.add(new Posting.Credit(walletOf(workerId), amount - fee));
+        if (fee > 0) {
+            credits.add(new Posting.Credit(PLATFORM_FEES, fee));
+        }
+        return post(new Posting("settlement:booking:" + bookingId, LedgerTransactionKind.SETTLEMENT,
+                "booking:" + bookingId, walletOf(customerId), credits));
+    }
+
+    /**
+     * The user's wallet account, opened on first use.
+     */
+    public long walletOf(long userId) {
+        return walletsByUser.get(userId, store::wallet);
+    }
+
+    /**
+     * The user's balance and latest entries. Read from the primary, so a posting shows as soon as
+     * it was confirmed to its caller.
+     */
+    public WalletResponse wallet(long userId, int limit, Long before) {
+        if (limit < 1 || limit > maxStatementLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxStatementLimit + ".");
+        }
+        long accountId = walletOf(userId);
+        return new WalletResponse(accountId, store.balance(accountId),
+                store.statement(accountId, before == null ? Long.MAX_VALUE : before, limit));
+    }
+
+    private static void validate(Posting posting) {
+        if (posting.idempotencyKey() == null || posting.idempotencyKey().isBlank()
+                || posting.idempotencyKey().length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key is required and at most " + MAX_KEY_LENGTH + " characters.");
+        }
+        if (posting.reference() != null && posting.reference().length() > MAX_REFERENCE_LENGTH) {
+            throw new IllegalArgumentException("Reference must be at most " + MAX_REFERENCE_LENGTH + " characters.");
+        }
+        if (posting.kind() == null || posting.credits().isEmpty()) {
+            throw new IllegalArgumentException("A posting needs a kind and at least one credit.");
+        }
+        Set<Long> credited = new HashSet<>();
+        for (Posting.Credit credit : posting.credits()) {
+            if (credit.amount() <= 0) {
+                throw new IllegalArgumentException("Amounts must be positive.");
+            }
+            if (credit.accountId() == posting.debitAccountId() || !credited.add(credit.accountId())) {
+                throw new IllegalArgumentException("Each account may appear in a posting once.");
+            }
+        }
+        try {
+            posting.amount();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount is too large.");
+        }
+    }
+
+    /**
+     * Posts what is queued before the connection pool closes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (LedgerStripe stripe : stripes) {
+            stripe.shutdown(shutdownTimeout);
+        }
+    }
+}
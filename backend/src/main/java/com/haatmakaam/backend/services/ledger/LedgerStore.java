@@ -0,0 +1,178 @@
+package com.haatmakaam.backend.services.ledger;
+
+import com.haatmakaam.backend.domain.enums.LedgerAccountKind;
+import com.haatmakaam.backend.domain.enums.LedgerTransactionKind;
+import com.haatmakaam.backend.exceptions.UserNotFoundException;
+import com.haatmakaam.backend.models.LedgerEntryResponse;
+import com.haatmakaam.backend.models.LedgerReceipt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ledger's SQL. Called outside any transaction, so everything here runs on the primary.
+ */
+@Component
+public class LedgerStore {
+
+    private static final String INSERT_TRANSACTION_SQL = """
+            INSERT INTO ledger_transactions (id, idempotency_key, kind, reference, debit_account_id, amount, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_ENTRY_SQL = """
+            INSERT INTO ledger_entries (id, transaction_id, account_id, amount, created_at)
+            VALUES (nextval('ledger_entries_seq'), ?, ?, ?, ?)
+            """;
+
+    private static final String MOVE_BALANCE_SQL = "UPDATE ledger_accounts SET balance = balance + ? WHERE id = ?";
+
+    private static final String COMMITTED_SQL = """
+            SELECT id, idempotency_key, kind, debit_account_id, amount, created_at
+            FROM ledger_transactions
+            WHERE idempotency_key = ANY(?)
+            """;
+
+    private static final String CREATE_WALLET_SQL = """
+            INSERT INTO ledger_accounts (id, owner_id, kind, balance, created_at)
+            VALUES (nextval('ledger_accounts_seq'), ?, 'WALLET', 0, ?)
+            ON CONFLICT (owner_id, kind) DO NOTHING
+            """;
+
+    private static final String STATEMENT_SQL = """
+            SELECT e.id, e.transaction_id, t.kind, t.reference, e.amount, e.created_at
+            FROM ledger_entries e
+            JOIN ledger_transactions t ON t.id = e.transaction_id
+            WHERE e.account_id = ? AND e.id < ?
+            ORDER BY e.id DESC
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public LedgerStore(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Inserts the transactions with their entries and moves the wallets' balances by
+     * {@code walletDeltas}, all in one transaction. The deltas are applied in the map's order, so
+     * pass them sorted by account to keep concurrent batches from deadlocking.
+     */
+    void write(List<LedgerStripe.Accepted> batch, Map<Long, Long> walletDeltas) {
+        List<Object[]> entries = new ArrayList<>(batch.size() * 3);
+        for (LedgerStripe.Accepted accepted : batch) {
+            Posting posting = accepted.posting();
+            Timestamp at = Timestamp.valueOf(accepted.createdAt());
+            entries.add(new Object[]{accepted.transactionId(), posting.debitAccountId(), -posting.amount(), at});
+            for (Posting.Credit credit : posting.credits()) {
+                entries.add(new Object[]{accepted.transactionId(), credit.accountId(), credit.amount(), at});
+            }
+        }
+        List<Object[]> moves = new ArrayList<>(walletDeltas.size());
+        walletDeltas.forEach((accountId, delta) -> moves.add(new Object[]{delta, accountId}));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, batch, batch.size(), (ps, accepted) -> {
+                Posting posting = accepted.posting();
+                ps.setLong(1, accepted.transactionId());
+                ps.setString(2, posting.idempotencyKey());
+                ps.setString(3, posting.kind().name());
+                ps.setString(4, posting.reference());
+                ps.setLong(5, posting.debitAccountId());
+                ps.setLong(6, posting.amount());
+                ps.setTimestamp(7, Timestamp.valueOf(accepted.createdAt()));
+            });
+            jdbcTemplate.batchUpdate(INSERT_ENTRY_SQL, entries);
+            if (!moves.isEmpty()) {
+                jdbcTemplate.batchUpdate(MOVE_BALANCE_SQL, moves);
+            }
+        });
+    }
+
+    /**
+     * The transactions already posted under any of the keys, by key.
+     */
+    Map<String, LedgerReceipt> committed(Collection<String> idempotencyKeys) {
+        Map<String, LedgerReceipt> committed = new HashMap<>();
+        jdbcTemplate.query(COMMITTED_SQL, rs -> {
+            committed.put(rs.getString("idempotency_key"), new LedgerReceipt(
+                    rs.getLong("id"),
+                    rs.getString("idempotency_key"),
+                    LedgerTransactionKind.valueOf(rs.getString("kind")),
+                    rs.getLong("debit_account_id"),
+                    rs.getLong("amount"),
+                    rs.getTimestamp("created_at").toLocalDateTime(),
+                    true));
+        }, (Object) idempotencyKeys.toArray(new String[0]));
+        return committed;
+    }
+
+    /**
+     * The kinds of those of the accounts that exist.
+     */
+    Map<Long, LedgerAccountKind> kinds(Collection<? extends Long> accountIds) {
+        Map<Long, LedgerAccountKind> kinds = new HashMap<>();
+        jdbcTemplate.query("SELECT id, kind FROM ledger_accounts WHERE id = ANY(?)",
+                rs -> {
+                    kinds.put(rs.getLong("id"), LedgerAccountKind.valueOf(rs.getString("kind")));
+                }, (Object) accountIds.toArray(new Long[0]));
+        return kinds;
+    }
+
+    /**
+     * The wallet's committed balance.
+     */
+    long balance(long accountId) {
+        Long balance = jdbcTemplate.queryForObject("SELECT balance FROM ledger_accounts WHERE id = ?", Long.class, accountId);
+        return balance == null ? 0 : balance;
+    }
+
+    /**
+     * The user's wallet, opened empty if the user has none yet.
+     */
+    long wallet(long userId) {
+        try {
+            jdbcTemplate.update(CREATE_WALLET_SQL, userId, Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DataIntegrityViolationException e) {
+            // ledger_accounts_owner_fkey
+            throw new UserNotFoundException("User not found.");
+        }
+        return jdbcTemplate.queryForObject("SELECT id FROM ledger_accounts WHERE owner_id = ? AND kind = 'WALLET'",
+                Long.class, userId);
+    }
+
+    /**
+     * Takes a block of transaction ids: the value returned and the ones after it, up to the
+     * sequence's increment.
+     */
+    long nextIdBlock() {
+        return jdbcTemplate.queryForObject("SELECT nextval('ledger_transactions_seq')", Long.class);
+    }
+
+    /**
+     * The account's entries with ids below {@code before}, newest first.
+     */
+    List<LedgerEntryResponse> statement(long accountId, long before, int limit) {
+        return jdbcTemplate.query(STATEMENT_SQL, (rs, rowNum) -> new LedgerEntryResponse(
+                rs.getLong("id"),
+                rs.getLong("transaction_id"),
+                LedgerTransactionKind.valueOf(rs.getString("kind")),
+                rs.getString("reference"),
+                rs.getLong("amount"),
+                rs.getTimestamp("created_at").toLocalDateTime()), accountId, before, limit);
+    }
+}
@@ -0,0 +1,360 @@
+package com.haatmakaam.backend.services.ledger;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.haatmakaam.backend.domain.enums.LedgerAccountKind;
+import com.haatmakaam.backend.exceptions.LedgerConflictException;
+import com.haatmakaam.backend.models.LedgerReceipt;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One writer of the ledger: a bounded queue and the one thread that posts everything debiting the
+ * accounts routed to it, in arrival order.
+ *
+ * The thread takes what has accumulated and handles it as one batch. It looks up the batch's
+ * idempotency keys in one query, checks each wallet it debits against its own record of that
+ * wallet's balance and sets the amount aside, and writes all that passed in one transaction: a
+ * group commit. Only this thread debits these wallets on this node, so that record needs no lock
+ * and no row is locked to check it. It only ever counts this thread's debits since it last read
+ * the balance, so credits from elsewhere make it low, never high, and a wallet that looks short is
+ * read again before a posting is refused.
+ *
+ * Another node may debit the same wallet, or post the same key, in between; the balance CHECK and
+ * the key's unique constraint then reject the batch, and it is posted again one posting at a time
+ * with the balances read afresh.
+ */
+final class LedgerStripe {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerStripe.class);
+
+    // Must match the INCREMENT BY of ledger_transactions_seq
+    static final int ID_BLOCK = 100;
+
+    private final LedgerStore store;
+    private final Cache<Long, LedgerAccountKind> accountKinds;
+    private final BlockingQueue<Request> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Map<Long, Long> balances;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    private long nextId;
+    private long idLimit;
+
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter posted;
+    private final Counter replayed;
+    private final Counter insufficient;
+    private final Counter rejected;
+    private final Counter failed;
+    private final Counter balanceReads;
+
+    LedgerStripe(int index, LedgerStore store, Cache<Long, LedgerAccountKind> accountKinds, int queueCapacity,
+                 int batchSize, Duration linger, int maxCachedBalances, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.accountKinds = accountKinds;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.balances = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > maxCachedBalances;
+            }
+        };
+        this.batchTimer = Timer.builder("ledger.batch")
+                .description("Checking and group-committing one batch of postings")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("ledger.batch.size")
+                .description("Postings per group commit")
+                .register(meterRegistry);
+        this.posted = outcome(meterRegistry, "posted");
+        this.replayed = outcome(meterRegistry, "replayed");
+        this.insufficient = outcome(meterRegistry, "insufficient");
+        this.rejected = outcome(meterRegistry, "rejected");
+        this.failed = outcome(meterRegistry, "failed");
+        this.balanceReads = Counter.builder("ledger.balance.reads")
+                .description("Wallet balances read from the database because they were unknown or looked short")
+                .register(meterRegistry);
+        Gauge.builder("ledger.queue", queue, BlockingQueue::size)
+                .description("Postings waiting for their writer, by stripe")
+                .tag("stripe", Integer.toString(index))
+                .register(meterRegistry);
+        this.writerThread = new Thread(this::run, "ledger-" + index);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queues the posting.
+     *
+     * @return false if the queue is full or the writer has stopped
+     */
+    boolean offer(Request request) {
+        return running && queue.offer(request);
+    }
+
+    private void run() {
+        List<Request> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Request first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize && running) {
+                    long remaining = deadline - System.nanoTime();
+                    Request next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                batchTimer.record(() -> post(batch, true));
+            } catch (RuntimeException e) {
+                // Only reading keys or accounts can get here; nothing was written
+                log.warn("Ledger batch of {} failed: {}", batch.size(), e.getMessage());
+                batch.forEach(request -> fail(request, e, failed));
+            }
+            batch.clear();
+        }
+    }
+
+    private void post(List<Request> batch, boolean grouped) {
+        Set<String> keys = new HashSet<>();
+        Set<Long> accountIds = new HashSet<>();
+        for (Request request : batch) {
+            keys.add(request.posting().idempotencyKey());
+            accountIds.add(request.posting().debitAccountId());
+            request.posting().credits().forEach(credit -> accountIds.add(credit.accountId()));
+        }
+        Map<String, LedgerReceipt> committed = store.committed(keys);
+        Map<Long, LedgerAccountKind> kinds = accountKinds.getAll(accountIds, store::kinds);
+
+        // At the column's precision, so a replayed receipt matches the first one
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<Accepted> accepted = new ArrayList<>(batch.size());
+        Map<String, Request> firstByKey = new HashMap<>();
+        Map<Long, Long> walletDeltas = new TreeMap<>();
+        for (Request request : batch) {
+            Posting posting = request.posting();
+            LedgerReceipt earlier = committed.get(posting.idempotencyKey());
+            if (earlier != null) {
+                replay(request, earlier);
+                continue;
+            }
+            Request first = firstByKey.putIfAbsent(posting.idempotencyKey(), request);
+            if (first != null) {
+                // The same key twice in one batch: the second gets whatever the first gets
+                first.result().whenComplete((receipt, e) -> {
+                    if (e != null) {
+                        fail(request, e, rejected);
+                    } else {
+                        replay(request, receipt);
+                    }
+                });
+                continue;
+            }
+            if (!knows(kinds, posting)) {
+                fail(request, new IllegalArgumentException("Unknown ledger account."), rejected);
+                continue;
+            }
+            long amount = posting.amount();
+            if (kinds.get(posting.debitAccountId()).isWallet()) {
+                if (!setAside(posting.debitAccountId(), amount)) {
+                    fail(request, new LedgerConflictException("Insufficient funds."), insufficient);
+                    continue;
+                }
+                walletDeltas.merge(posting.debitAccountId(), -amount, Long::sum);
+            }
+            for (Posting.Credit credit : posting.credits()) {
+                if (kinds.get(credit.accountId()).isWallet()) {
+                    walletDeltas.merge(credit.accountId(), credit.amount(), Long::sum);
+                }
+            }
+            accepted.add(new Accepted(nextId(), request, now));
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            store.write(accepted, walletDeltas);
+        } catch (DataIntegrityViolationException e) {
+            forgetBalances(accepted);
+            if (grouped && accepted.size() > 1) {
+                // Another node got in first; find out which postings it spoiled
+                for (Accepted posting : accepted) {
+                    post(List.of(posting.request()), false);
+                }
+            } else {
+                rejectedByDatabase(accepted.get(0).request(), e);
+            }
+            return;
+        } catch (RuntimeException e) {
+            forgetBalances(accepted);
+            log.warn("Ledger batch of {} could not be written: {}", accepted.size(), e.getMessage());
+            accepted.forEach(posting -> fail(posting.request(), e, failed));
+            return;
+        }
+        batchSizes.record(accepted.size());
+        posted.increment(accepted.size());
+        for (Accepted posting : accepted) {
+            Posting p = posting.posting();
+            posting.request().result().complete(new LedgerReceipt(posting.transactionId(), p.idempotencyKey(),
+                    p.kind(), p.debitAccountId(), p.amount(), posting.createdAt(), false));
+        }
+    }
+
+    // A posting written alone and refused by a constraint
+    private void rejectedByDatabase(Request request, DataIntegrityViolationException e) {
+        if (e instanceof DuplicateKeyException) {
+            String key = request.posting().idempotencyKey();
+            LedgerReceipt earlier = store.committed(List.of(key)).get(key);
+            if (earlier != null) {
+                replay(request, earlier);
+                return;
+            }
+        }
+        if (String.valueOf(e.getMessage()).contains("ledger_accounts_balance_check")) {
+            // Another node spent the money first
+            fail(request, new LedgerConflictException("Insufficient funds."), insufficient);
+        } else {
+            log.warn("Ledger posting {} was rejected: {}", request.posting().idempotencyKey(), e.getMessage());
+            fail(request, e, failed);
+        }
+    }
+
+    private boolean knows(Map<Long, LedgerAccountKind> kinds, Posting posting) {
+        if (!kinds.containsKey(posting.debitAccountId())) {
+            return false;
+        }
+        for (Posting.Credit credit : posting.credits()) {
+            if (!kinds.containsKey(credit.accountId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Takes the amount off this stripe's record of the wallet's balance, reading the balance
+     * first if it is unknown or looks too low.
+     */
+    private boolean setAside(long accountId, long amount) {
+        Long balance = balances.get(accountId);
+        if (balance == null || balance < amount) {
+            balance = store.balance(accountId);
+            balanceReads.increment();
+        }
+        if (balance < amount) {
+            balances.put(accountId, balance);
+            return false;
+        }
+        balances.put(accountId, balance - amount);
+        return true;
+    }
+
+    // Amounts set aside for a batch that was not written are wrong now; read them again next time
+    private void forgetBalances(List<Accepted> accepted) {
+        accepted.forEach(posting -> balances.remove(posting.posting().debitAccountId()));
+    }
+
+    private void replay(Request request, LedgerReceipt earlier) {
+        Posting posting = request.posting();
+        if (earlier.kind() != posting.kind() || earlier.debitAccountId() != posting.debitAccountId()
+                || earlier.amount() != posting.amount()) {
+            fail(request, new LedgerConflictException("This idempotency key was already used for a different posting."),
+                    rejected);
+            return;
+        }
+        replayed.increment();
+        request.result().complete(new LedgerReceipt(earlier.transactionId(), earlier.idempotencyKey(), earlier.kind(),
+                earlier.debitAccountId(), earlier.amount(), earlier.createdAt(), true));
+    }
+
+    private static void fail(Request request, Throwable e, Counter outcome) {
+        if (request.result().completeExceptionally(e)) {
+            outcome.increment();
+        }
+    }
+
+    private long nextId() {
+        if (nextId == idLimit) {
+            nextId = store.nextIdBlock();
+            idLimit = nextId + ID_BLOCK;
+        }
+        return nextId++;
+    }
+
+    /**
+     * Posts what is still queued. Callers are already gone by then, so nothing new arrives.
+     */
+    void shutdown(Duration timeout) {
+        running = false;
+        try {
+            writerThread.join(timeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.error("Ledger writer {} stopped with {} postings unwritten", writerThread.getName(), queue.size());
+        }
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ledger.postings")
+                .description("Postings by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A posting waiting for its writer, and where its outcome goes.
+     */
+    record Request(Posting posting, CompletableFuture<LedgerReceipt> result) {
+    }
+
+    /**
+     * A posting that passed its checks, with the id it is written under.
+     */
+    record Accepted(long transactionId, Request request, LocalDateTime createdAt) {
+
+        Posting posting() {
+            return request.posting();
+        }
+    }
+}
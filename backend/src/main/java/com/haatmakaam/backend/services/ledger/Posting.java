@@ -0,0 +1,37 @@
+package com.haatmakaam.backend.services.ledger;
+
+import com.haatmakaam.backend.domain.enums.LedgerTransactionKind;
+
+import java.util.List;
+
+/**
+ * A transaction to post: one account debited by the sum of the credits, each credit to another
+ * account. Amounts are in paisa. Posting the same {@code idempotencyKey} again posts nothing and
+ * returns the first transaction.
+ */
+public record Posting(
+    String idempotencyKey,
+    LedgerTransactionKind kind,
+    String reference,
+    long debitAccountId,
+    List<Credit> credits
+) {
+
+    public Posting {
+        credits = List.copyOf(credits);
+    }
+
+    /**
+     * The amount debited: the sum of the credits.
+     */
+    public long amount() {
+        long amount = 0;
+        for (Credit credit : credits) {
+            amount = Math.addExact(amount, credit.amount());
+        }
+        return amount;
+    }
+
+    public record Credit(long accountId, long amount) {
+    }
+}
@@ -0,0 +1,212 @@
+package com.haatmakaam.backend.services.matching;
+
+import com.haatmakaam.backend.domain.entities.WeeklyAvailability;
+import com.haatmakaam.backend.domain.enums.Skill;
+import com.haatmakaam.backend.services.cluster.PgNotificationBus;
+import com.haatmakaam.backend.services.reviews.RatingPolicy;
+import com.haatmakaam.backend.services.matching.WorkerSpatialIndex.IndexedWorker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps {@link WorkerSpatialIndex} in step with {@code worker_profiles}.
+ *
+ * The index is loaded in full while the application starts, in one streamed query. After that a
+ * change to a worker is announced with {@link #workerChanged} from the writing transaction: on
+ * commit every node, the writer included, re-reads that worker from the primary and updates or
+ * drops its entry. Re-reads of one worker are serialized, so whichever runs last saw the last
+ * commit. A node whose listener lost its connection reloads the whole index.
+ *
+ * Only active workers with at least one skill are indexed. Their rating aggregates are taken as
+ * stored, as ReviewService keeps them current; workers without reviews score the prior.
+ */
+@Component
+public class WorkerIndexMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkerIndexMaintainer.class);
+
+    static final String CHANNEL = "worker_index";
+
+    private static final String WORKER_COLUMNS = """
+            SELECT w.user_id, w.latitude, w.longitude, w.rating, w.rating_count, w.rating_score, w.recent_score,
+                   w.availability_0, w.availability_1, w.availability_2,
+                   string_agg(s.skill, ',') AS skills
+            FROM worker_profiles w
+            JOIN worker_skills s ON s.user_id = w.user_id
+            """;
+
+    private static final String LOAD_ALL_SQL = WORKER_COLUMNS + " WHERE w.active GROUP BY w.user_id";
+
+    // No row means the worker is gone, inactive or has no skills left, and is dropped from the index
+    private static final String LOAD_ONE_SQL = WORKER_COLUMNS + " WHERE w.user_id = ? AND w.active GROUP BY w.user_id";
+
+    private static final int STRIPES = 64;
+
+    private final WorkerSpatialIndex index;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate primaryReads;
+    private final PgNotificationBus notificationBus;
+    private final RatingPolicy ratingPolicy;
+    private final int fetchSize;
+    private final Duration listenTimeout;
+    private final Timer rebuildTimer;
+    private final Object[] refreshLocks = new Object[STRIPES];
+    private final Object rebuildLock = new Object();
+    // Workers changed while a rebuild is reading, re-read once it has been swapped in
+    private volatile Set<Long> changedDuringRebuild;
+
+    @Autowired
+    public WorkerIndexMaintainer(
+            WorkerSpatialIndex index,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            PgNotificationBus notificationBus,
+            RatingPolicy ratingPolicy,
+            MeterRegistry meterRegistry,
+            @Value("${matching.index.rebuild-fetch-size:5000}") int fetchSize,
+            @Value("${matching.index.listen-timeout:10s}") Duration listenTimeout
+    ) {
+        this.index = index;
+        this.jdbcTemplate = jdbcTemplate;
+        this.primaryReads = transactionTemplate;
+        this.notificationBus = notificationBus;
+        this.ratingPolicy = ratingPolicy;
+        this.fetchSize = fetchSize;
+        this.listenTimeout = listenTimeout;
+        this.rebuildTimer = Timer.builder("matching.index.rebuild")
+                .description("Time to reload the worker index from the database")
+                .register(meterRegistry);
+        for (int i = 0; i < STRIPES; i++) {
+            refreshLocks[i] = new Object();
+        }
+        notificationBus.subscribe(CHANNEL, this::onNotification, this::rebuild);
+    }
+
+    @PostConstruct
+    void loadAtStartup() {
+        // Listen first, so that a change committed while the rebuild reads is not missed
+        if (!notificationBus.awaitListening(CHANNEL, listenTimeout)) {
+            log.warn("Not yet listening on {}; the worker index is rebuilt again once the listener connects", CHANNEL);
+        }
+        rebuild();
+    }
+
+    /**
+     * Announces that a worker's profile changed. Call from the writing transaction: every node
+     * updates its index once it commits, and nothing happens on rollback.
+     */
+    public void workerChanged(long workerId) {
+        notificationBus.publish(CHANNEL, Long.toString(workerId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(workerId);
+                }
+            });
+        } else {
+            refresh(workerId);
+        }
+    }
+
+    /**
+     * Reloads the whole index. Queries are answered from the old contents until it is done.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            Set<Long> changed = ConcurrentHashMap.newKeySet();
+            changedDuringRebuild = changed;
+            try {
+                List<IndexedWorker> workers = rebuildTimer.record(this::loadAll);
+                index.replaceAll(workers);
+                log.info("Worker index rebuilt: {} active workers", workers.size());
+            } finally {
+                changedDuringRebuild = null;
+            }
+            changed.forEach(this::refresh);
+        }
+    }
+
+    private List<IndexedWorker> loadAll() {
+        List<IndexedWorker> workers = new ArrayList<>();
+        // A read-write transaction goes to the primary, and the fetch size only streams with
+        // autocommit off
+        primaryReads.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(LOAD_ALL_SQL);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (ResultSet rs) -> {
+            workers.add(map(rs));
+        }));
+        return workers;
+    }
+
+    private void onNotification(String payload) {
+        long workerId;
+        try {
+            workerId = Long.parseLong(payload);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed {} notification", CHANNEL);
+            return;
+        }
+        refresh(workerId);
+    }
+
+    private void refresh(long workerId) {
+        Set<Long> changed = changedDuringRebuild;
+        if (changed != null) {
+            changed.add(workerId);
+        }
+        synchronized (refreshLocks[(int) Math.floorMod(workerId, (long) STRIPES)]) {
+            List<IndexedWorker> rows = primaryReads.execute(status ->
+                    jdbcTemplate.query(LOAD_ONE_SQL, (rs, rowNum) -> map(rs), workerId));
+            if (rows == null || rows.isEmpty()) {
+                index.remove(workerId);
+            } else {
+                index.put(rows.get(0));
+            }
+        }
+    }
+
+    private IndexedWorker map(ResultSet rs) throws SQLException {
+        Set<Skill> skills = EnumSet.noneOf(Skill.class);
+        for (String skill : rs.getString("skills").split(",")) {
+            skills.add(Skill.valueOf(skill));
+        }
+        return new IndexedWorker(
+                rs.getLong("user_id"),
+                rs.getDouble("latitude"),
+                rs.getDouble("longitude"),
+                skills,
+                WeeklyAvailability.ofWords(rs.getLong("availability_0"), rs.getLong("availability_1"), rs.getLong("availability_2")),
+                rs.getDouble("rating"),
+                rs.getInt("rating_count"),
+                scoreOrPrior(rs, "rating_score"),
+                scoreOrPrior(rs, "recent_score"));
+    }
+
+    private double scoreOrPrior(ResultSet rs, String column) throws SQLException {
+        double score = rs.getDouble(column);
+        return rs.wasNull() ? ratingPolicy.priorMean() : score;
+    }
+}
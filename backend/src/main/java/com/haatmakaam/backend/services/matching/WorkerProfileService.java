@@ -0,0 +1,207 @@
+package com.haatmakaam.backend.services.matching;
+
+import com.haatmakaam.backend.domain.entities.User;
+import com.haatmakaam.backend.domain.entities.WeeklyAvailability;
+import com.haatmakaam.backend.domain.entities.WorkerProfile;
+import com.haatmakaam.backend.domain.enums.Skill;
+import com.haatmakaam.backend.domain.enums.UserRole;
+import com.haatmakaam.backend.exceptions.UserNotFoundException;
+import com.haatmakaam.backend.models.AvailabilityRange;
+import com.haatmakaam.backend.models.AvailabilityResponse;
+import com.haatmakaam.backend.models.AvailabilityUpdateRequest;
+import com.haatmakaam.backend.models.NearbyWorker;
+import com.haatmakaam.backend.models.WorkerProfileRequest;
+import com.haatmakaam.backend.models.WorkerProfileResponse;
+import com.haatmakaam.backend.repositories.UserRepository;
+import com.haatmakaam.backend.repositories.WorkerProfileRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Worker profiles: workers maintain their own, customers search them through the spatial index.
+ */
+@Service
+public class WorkerProfileService {
+
+    private final WorkerProfileRepository workerProfileRepository;
+    private final UserRepository userRepository;
+    private final WorkerSpatialIndex index;
+    private final WorkerIndexMaintainer indexMaintainer;
+    private final double maxRadiusKm;
+    private final int maxLimit;
+
+    @Autowired
+    public WorkerProfileService(
+            WorkerProfileRepository workerProfileRepository,
+            UserRepository userRepository,
+            WorkerSpatialIndex index,
+            WorkerIndexMaintainer indexMaintainer,
+            @Value("${matching.nearby.max-radius-km:50}") double maxRadiusKm,
+            @Value("${matching.nearby.max-limit:50}") int maxLimit
+    ) {
+        this.workerProfileRepository = workerProfileRepository;
+        this.userRepository = userRepository;
+        this.index = index;
+        this.indexMaintainer = indexMaintainer;
+        this.maxRadiusKm = maxRadiusKm;
+        this.maxLimit = maxLimit;
+    }
+
+    public Optional<WorkerProfileResponse> getProfile(long workerId) {
+        return workerProfileRepository.findById(workerId).map(WorkerProfileService::toResponse);
+    }
+
+    /**
+     * Creates or replaces the worker's profile. Fields left out of the request keep their current
+     * values; a new profile needs a location and at least one skill.
+     */
+    @Transactional
+    public WorkerProfileResponse saveProfile(long workerId, WorkerProfileRequest request) {
+        WorkerProfile profile = workerProfileRepository.findById(workerId).orElseGet(() -> newProfile(workerId));
+
+        if (request.latitude() != null || request.longitude() != null) {
+            if (request.latitude() == null || request.longitude() == null) {
+                throw new IllegalArgumentException("Latitude and longitude must be given together.");
+            }
+            requireCoordinates(request.latitude(), request.longitude());
+            profile.setLatitude(request.latitude());
+            profile.setLongitude(request.longitude());
+        } else if (profile.getUpdatedAt() == null) {
+            throw new IllegalArgumentException("Latitude and longitude are required.");
+        }
+        if (request.skills() != null) {
+            if (request.skills().isEmpty() || request.skills().contains(null)) {
+                throw new IllegalArgumentException("At least one skill is required.");
+            }
+            profile.getSkills().clear();
+            profile.getSkills().addAll(request.skills());
+        } else if (profile.getSkills().isEmpty()) {
+            throw new IllegalArgumentException("At least one skill is required.");
+        }
+        if (request.active() != null) {
+            profile.setActive(request.active());
+        }
+        profile.setUpdatedAt(LocalDateTime.now());
+
+        WorkerProfile saved = workerProfileRepository.save(profile);
+        indexMaintainer.workerChanged(workerId);
+        return toResponse(saved);
+    }
+
+    public Optional<AvailabilityResponse> getAvailability(long workerId) {
+        return workerProfileRepository.findById(workerId)
+                .map(profile -> new AvailabilityResponse(toRanges(profile.getAvailability())));
+    }
+
+    /**
+     * Adds and removes free hours in one statement, without reading the current set first.
+     */
+    @Transactional
+    public AvailabilityResponse updateAvailability(long workerId, AvailabilityUpdateRequest request) {
+        WeeklyAvailability add = toAvailability(request.add());
+        WeeklyAvailability remove = toAvailability(request.remove());
+        int updated = workerProfileRepository.updateAvailability(workerId,
+                add.word(0), add.word(1), add.word(2),
+                remove.word(0), remove.word(1), remove.word(2),
+                LocalDateTime.now());
+        if (updated == 0) {
+            throw new IllegalArgumentException("Create a worker profile first.");
+        }
+        indexMaintainer.workerChanged(workerId);
+        // Not loaded before the update in this transaction, so this reads the updated row
+        return getAvailability(workerId).orElseThrow();
+    }
+
+    /**
+     * Active workers with the skill within {@code radiusKm} of the point who are free for all of
+     * {@code window}, best rated first.
+     */
+    public List<NearbyWorker> findNearby(Skill skill, double latitude, double longitude, double radiusKm, int limit,
+                                         WeeklyAvailability window) {
+        if (skill == null) {
+            throw new IllegalArgumentException("Skill is required.");
+        }
+        requireCoordinates(latitude, longitude);
+        if (!(radiusKm > 0 && radiusKm <= maxRadiusKm)) {
+            throw new IllegalArgumentException("Radius must be greater than 0 and at most " + maxRadiusKm + " km.");
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxLimit + ".");
+        }
+        return index.nearest(skill, latitude, longitude, radiusKm, limit, window);
+    }
+
+    private static WeeklyAvailability toAvailability(List<AvailabilityRange> ranges) {
+        WeeklyAvailability availability = WeeklyAvailability.none();
+        if (ranges != null) {
+            for (AvailabilityRange range : ranges) {
+                if (range == null) {
+                    throw new IllegalArgumentException("Availability ranges must not be null.");
+                }
+                availability = availability.union(WeeklyAvailability.ofHours(range.day(), range.fromHour(), range.toHour()));
+            }
+        }
+        return availability;
+    }
+
+    // Runs of free hours, split at midnight
+    private static List<AvailabilityRange> toRanges(WeeklyAvailability availability) {
+        List<AvailabilityRange> ranges = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            int dayStart = WeeklyAvailability.hourOfWeek(day, 0);
+            int hour = 0;
+            while (hour < WeeklyAvailability.HOURS_PER_DAY) {
+                if (!availability.isFree(dayStart + hour)) {
+                    hour++;
+                    continue;
+                }
+                int from = hour;
+                while (hour < WeeklyAvailability.HOURS_PER_DAY && availability.isFree(dayStart + hour)) {
+                    hour++;
+                }
+                ranges.add(new AvailabilityRange(day, from, hour));
+            }
+        }
+        return ranges;
+    }
+
+    private WorkerProfile newProfile(long workerId) {
+        User user = userRepository.findById(workerId).orElseThrow(() -> new UserNotFoundException("User not found."));
+        if (user.getRole() != UserRole.WORKER) {
+            throw new IllegalArgumentException("Only workers can have a worker profile.");
+        }
+        WorkerProfile profile = new WorkerProfile();
+        profile.setUser(user);
+        profile.setSkills(EnumSet.noneOf(Skill.class));
+        // New profiles are searchable unless the worker says otherwise
+        profile.setActive(true);
+        return profile;
+    }
+
+    private static void requireCoordinates(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Latitude must be within [-90, 90] and longitude within [-180, 180].");
+        }
+    }
+
+    private static WorkerProfileResponse toResponse(WorkerProfile profile) {
+        return new WorkerProfileResponse(
+                profile.getUserId(),
+                profile.getLatitude(),
+                profile.getLongitude(),
+                EnumSet.copyOf(profile.getSkills()),
+                profile.isActive(),
+                profile.getRating(),
+                profile.getRatingCount(),
+                profile.getUpdatedAt());
+    }
+}
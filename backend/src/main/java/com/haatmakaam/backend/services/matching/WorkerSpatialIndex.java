@@ -0,0 +1,385 @@
+package com.haatmakaam.backend.services.matching;
+
+import com.haatmakaam.backend.domain.entities.WeeklyAvailability;
+import com.haatmakaam.backend.domain.enums.Skill;
+import com.haatmakaam.backend.models.NearbyWorker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory grid of active workers, one per skill, answering "the best rated N plumbers within
+ * R km of here who are free on Tuesday 9 to 12" without going to the database.
+ *
+ * Cells are fixed in degrees, {@code matching.index.cell-size-km} on a side at the equator. Each
+ * holds its workers as parallel arrays that are replaced whole on every change, so queries read
+ * them without locking and always see a cell either before or after a change. Changes to one
+ * cell are serialized on that cell, and changes to one worker through its entry in the
+ * placement map, which also records which cells to take the worker out of again.
+ *
+ * A query only visits the cells overlapping the search circle's bounding box, or, when that box
+ * holds more cells than the grid has occupied (near a pole the box spans every longitude), walks
+ * the occupied cells and skips those outside the box. Each worker there
+ * is first checked against the requested hours, on the three availability words held alongside
+ * the coordinates, and only then for distance. Distances use the equirectangular approximation,
+ * which at city scale is within a fraction of a percent of the great-circle distance; searches do
+ * not wrap around the antimeridian.
+ *
+ * The index only knows what it is given: {@link WorkerIndexMaintainer} decides who is in it and
+ * keeps it in step with the database.
+ */
+@Component
+public class WorkerSpatialIndex implements MeterBinder {
+
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final double cellDegrees;
+    private volatile Grids grids = new Grids();
+
+    @Autowired
+    public WorkerSpatialIndex(@Value("${matching.index.cell-size-km:1}") double cellSizeKm) {
+        if (cellSizeKm <= 0) {
+            throw new IllegalArgumentException("matching.index.cell-size-km must be positive");
+        }
+        this.cellDegrees = cellSizeKm / KM_PER_DEGREE;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("matching.index.workers", this, WorkerSpatialIndex::size)
+                .description("Active workers in this node's spatial index")
+                .register(registry);
+    }
+
+    /**
+     * A worker as the index stores it, with the rating aggregates maintained by ReviewService:
+     * the plain average and count, and the smoothed scores (the prior for a worker without reviews).
+     */
+    public record IndexedWorker(long workerId, double latitude, double longitude, Set<Skill> skills,
+                                WeeklyAvailability availability, double rating, int ratingCount,
+                                double score, double recentScore) {
+    }
+
+    /**
+     * Adds the worker, or replaces its position, skills and availability.
+     */
+    public void put(IndexedWorker worker) {
+        Grids current = grids;
+        current.placements.compute(worker.workerId(), (id, previous) -> {
+            if (previous != null) {
+                current.removeFromCells(previous);
+            }
+            current.addToCells(worker);
+            return worker;
+        });
+    }
+
+    public void remove(long workerId) {
+        Grids current = grids;
+        current.placements.computeIfPresent(workerId, (id, previous) -> {
+            current.removeFromCells(previous);
+            return null;
+        });
+    }
+
+    /**
+     * Replaces the whole contents in one step. Queries keep using the old contents until the new
+     * ones are complete; a {@link #put} or {@link #remove} that runs concurrently may be lost.
+     */
+    public void replaceAll(Collection<IndexedWorker> workers) {
+        Grids fresh = new Grids();
+        Map<Skill, Map<Long, List<IndexedWorker>>> byCell = new EnumMap<>(Skill.class);
+        for (IndexedWorker worker : workers) {
+            fresh.placements.put(worker.workerId(), worker);
+            for (Skill skill : worker.skills()) {
+                byCell.computeIfAbsent(skill, s -> new HashMap<>())
+                        .computeIfAbsent(cellKey(worker.latitude(), worker.longitude()), k -> new ArrayList<>())
+                        .add(worker);
+            }
+        }
+        byCell.forEach((skill, cells) -> cells.forEach((key, members) ->
+                fresh.bySkill.get(skill).put(key, new Cell(Slice.of(members)))));
+        grids = fresh;
+    }
+
+    public int size() {
+        return grids.placements.size();
+    }
+
+    /**
+     * Whether the worker is indexed and free for every hour of the window.
+     */
+    public boolean isAvailable(long workerId, WeeklyAvailability window) {
+        IndexedWorker worker = grids.placements.get(workerId);
+        return worker != null && worker.availability().covers(window);
+    }
+
+    /**
+     * Up to {@code limit} workers with the skill within {@code radiusKm} who are free for every
+     * hour of {@code window} ({@link WeeklyAvailability#none()} for any time), highest score first
+     * and nearest first among equal scores.
+     */
+    public List<NearbyWorker> nearest(Skill skill, double latitude, double longitude, double radiusKm, int limit,
+                                      WeeklyAvailability window) {
+        Map<Long, Cell> grid = grids.bySkill.get(skill);
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        // The box is widest in longitude on the edge closest to the pole
+        double poleward = Math.min(90, Math.abs(latitude) + latSpan);
+        double lonSpan = Math.min(180, radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(poleward)), 1e-6)));
+        // Clamped to valid coordinates, so a box that spans the whole ring covers each cell once
+        int latFrom = cellIndex(Math.max(-90, latitude - latSpan));
+        int latTo = cellIndex(Math.min(90, latitude + latSpan));
+        int lonFrom = cellIndex(Math.max(-180, longitude - lonSpan));
+        int lonTo = cellIndex(Math.min(180, longitude + lonSpan));
+
+        double kmPerLonDegree = KM_PER_DEGREE * Math.cos(Math.toRadians(latitude));
+        double radiusSquared = radiusKm * radiusKm;
+        TopK top = new TopK(limit);
+        long boxCells = (long) (latTo - latFrom + 1) * (lonTo - lonFrom + 1);
+        if (boxCells > grid.size()) {
+            for (Map.Entry<Long, Cell> entry : grid.entrySet()) {
+                long key = entry.getKey();
+                int latIndex = (int) (key >> 32);
+                int lonIndex = (int) key;
+                if (latIndex >= latFrom && latIndex <= latTo && lonIndex >= lonFrom && lonIndex <= lonTo) {
+                    scan(entry.getValue().slice, latitude, longitude, kmPerLonDegree, radiusSquared, window, top);
+                }
+            }
+        } else {
+            for (int latIndex = latFrom; latIndex <= latTo; latIndex++) {
+                for (int lonIndex = lonFrom; lonIndex <= lonTo; lonIndex++) {
+                    Cell cell = grid.get(cellKey(latIndex, lonIndex));
+                    if (cell != null) {
+                        scan(cell.slice, latitude, longitude, kmPerLonDegree, radiusSquared, window, top);
+                    }
+                }
+            }
+        }
+        return top.toList();
+    }
+
+    private static void scan(Slice slice, double latitude, double longitude, double kmPerLonDegree,
+                             double radiusSquared, WeeklyAvailability window, TopK top) {
+        for (int i = 0; i < slice.ids.length; i++) {
+            if (!WeeklyAvailability.covers(slice.availability0[i], slice.availability1[i], slice.availability2[i], window)) {
+                continue;
+            }
+            double dy = (slice.latitudes[i] - latitude) * KM_PER_DEGREE;
+            double dx = (slice.longitudes[i] - longitude) * kmPerLonDegree;
+            double distanceSquared = dx * dx + dy * dy;
+            if (distanceSquared <= radiusSquared) {
+                top.offer(slice, i, distanceSquared);
+            }
+        }
+    }
+
+    private int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return cellKey(cellIndex(latitude), cellIndex(longitude));
+    }
+
+    private static long cellKey(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+
+    private final class Grids {
+
+        final Map<Skill, Map<Long, Cell>> bySkill = new EnumMap<>(Skill.class);
+        final Map<Long, IndexedWorker> placements = new ConcurrentHashMap<>();
+
+        Grids() {
+            for (Skill skill : Skill.values()) {
+                bySkill.put(skill, new ConcurrentHashMap<>());
+            }
+        }
+
+        void addToCells(IndexedWorker worker) {
+            long key = cellKey(worker.latitude(), worker.longitude());
+            for (Skill skill : worker.skills()) {
+                bySkill.get(skill).computeIfAbsent(key, k -> new Cell(Slice.EMPTY)).add(worker);
+            }
+        }
+
+        void removeFromCells(IndexedWorker worker) {
+            long key = cellKey(worker.latitude(), worker.longitude());
+            for (Skill skill : worker.skills()) {
+                // Emptied cells are kept: dropping one could race with an add, and their
+                // number is bounded by the area workers cover
+                Cell cell = bySkill.get(skill).get(key);
+                if (cell != null) {
+                    cell.remove(worker.workerId());
+                }
+            }
+        }
+    }
+
+    private static final class Cell {
+
+        volatile Slice slice;
+
+        Cell(Slice slice) {
+            this.slice = slice;
+        }
+
+        synchronized void add(IndexedWorker worker) {
+            Slice old = slice;
+            int n = old.ids.length;
+            Slice grown = new Slice(
+                    Arrays.copyOf(old.ids, n + 1),
+                    Arrays.copyOf(old.latitudes, n + 1),
+                    Arrays.copyOf(old.longitudes, n + 1),
+                    Arrays.copyOf(old.availability0, n + 1),
+                    Arrays.copyOf(old.availability1, n + 1),
+                    Arrays.copyOf(old.availability2, n + 1),
+                    Arrays.copyOf(old.ratings, n + 1),
+                    Arrays.copyOf(old.ratingCounts, n + 1),
+                    Arrays.copyOf(old.scores, n + 1),
+                    Arrays.copyOf(old.recentScores, n + 1));
+            grown.set(n, worker);
+            slice = grown;
+        }
+
+        synchronized void remove(long workerId) {
+            Slice old = slice;
+            int n = old.ids.length;
+            int index = 0;
+            while (index < n && old.ids[index] != workerId) {
+                index++;
+            }
+            if (index == n) {
+                return;
+            }
+            // The last entry takes the removed one's place
+            Slice shrunk = new Slice(
+                    Arrays.copyOf(old.ids, n - 1),
+                    Arrays.copyOf(old.latitudes, n - 1),
+                    Arrays.copyOf(old.longitudes, n - 1),
+                    Arrays.copyOf(old.availability0, n - 1),
+                    Arrays.copyOf(old.availability1, n - 1),
+                    Arrays.copyOf(old.availability2, n - 1),
+                    Arrays.copyOf(old.ratings, n - 1),
+                    Arrays.copyOf(old.ratingCounts, n - 1),
+                    Arrays.copyOf(old.scores, n - 1),
+                    Arrays.copyOf(old.recentScores, n - 1));
+            if (index < n - 1) {
+                shrunk.ids[index] = old.ids[n - 1];
+                shrunk.latitudes[index] = old.latitudes[n - 1];
+                shrunk.longitudes[index] = old.longitudes[n - 1];
+                shrunk.availability0[index] = old.availability0[n - 1];
+                shrunk.availability1[index] = old.availability1[n - 1];
+                shrunk.availability2[index] = old.availability2[n - 1];
+                shrunk.ratings[index] = old.ratings[n - 1];
+                shrunk.ratingCounts[index] = old.ratingCounts[n - 1];
+                shrunk.scores[index] = old.scores[n - 1];
+                shrunk.recentScores[index] = old.recentScores[n - 1];
+            }
+            slice = shrunk;
+        }
+    }
+
+    private record Slice(long[] ids, double[] latitudes, double[] longitudes,
+                         long[] availability0, long[] availability1, long[] availability2,
+                         double[] ratings, int[] ratingCounts, double[] scores, double[] recentScores) {
+
+        static final Slice EMPTY = of(List.of());
+
+        static Slice of(List<IndexedWorker> workers) {
+            int n = workers.size();
+            Slice slice = new Slice(new long[n], new double[n], new double[n],
+                    new long[n], new long[n], new long[n], new double[n], new int[n], new double[n], new double[n]);
+            for (int i = 0; i < n; i++) {
+                slice.set(i, workers.get(i));
+            }
+            return slice;
+        }
+
+        void set(int index, IndexedWorker worker) {
+            ids[index] = worker.workerId();
+            latitudes[index] = worker.latitude();
+            longitudes[index] = worker.longitude();
+            availability0[index] = worker.availability().word(0);
+            availability1[index] = worker.availability().word(1);
+            availability2[index] = worker.availability().word(2);
+            ratings[index] = worker.rating();
+            ratingCounts[index] = worker.ratingCount();
+            scores[index] = worker.score();
+            recentScores[index] = worker.recentScore();
+        }
+    }
+
+    /**
+     * The best {@code limit} candidates so far, kept sorted best first. Limits are small, so
+     * insertion into an array beats a heap. Candidates are kept as positions in their slice, which
+     * never changes once published, and only turned into results at the end.
+     */
+    private static final class TopK {
+
+        private final Slice[] slices;
+        private final int[] indices;
+        private final double[] scores;
+        private final double[] distancesSquared;
+        private int size;
+
+        TopK(int limit) {
+            slices = new Slice[limit];
+            indices = new int[limit];
+            scores = new double[limit];
+            distancesSquared = new double[limit];
+        }
+
+        void offer(Slice slice, int index, double distanceSquared) {
+            double score = slice.scores[index];
+            int limit = slices.length;
+            if (size == limit && (limit == 0 || !ranksBefore(score, distanceSquared, limit - 1))) {
+                return;
+            }
+            int position = Math.min(size, limit - 1);
+            while (position > 0 && ranksBefore(score, distanceSquared, position - 1)) {
+                slices[position] = slices[position - 1];
+                indices[position] = indices[position - 1];
+                scores[position] = scores[position - 1];
+                distancesSquared[position] = distancesSquared[position - 1];
+                position--;
+            }
+            slices[position] = slice;
+            indices[position] = index;
+            scores[position] = score;
+            distancesSquared[position] = distanceSquared;
+            if (size < limit) {
+                size++;
+            }
+        }
+
+        private boolean ranksBefore(double score, double distanceSquared, int position) {
+            return score > scores[position]
+                    || (score == scores[position] && distanceSquared < distancesSquared[position]);
+        }
+
+        List<NearbyWorker> toList() {
+            List<NearbyWorker> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                Slice slice = slices[i];
+                int index = indices[i];
+                result.add(new NearbyWorker(slice.ids[index], Math.sqrt(distancesSquared[i]), slice.ratings[index],
+                        slice.ratingCounts[index], slice.scores[index], slice.recentScores[index]));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.haatmakaam.backend.services.notifications;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feeds one channel: a bounded queue, one thread that cuts it into batches, and at most
+ * {@link NotificationChannel#maxConcurrency()} batches being sent at a time.
+ *
+ * The batcher takes what has accumulated, waiting up to the linger for a fuller batch, and
+ * waits for a free send slot before cutting the next one. A slow provider therefore backs the
+ * queue up, and once it is full new notifications for that channel are dropped rather than held
+ * in memory; the other channels are unaffected.
+ */
+final class ChannelDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ChannelDispatcher.class);
+
+    private final NotificationChannel channel;
+    private final BlockingQueue<Notification> queue;
+    private final long lingerNanos;
+    private final Semaphore sendPermits;
+    private final ExecutorService senderPool;
+    private final Thread batcherThread;
+    private volatile boolean running = true;
+
+    private final Timer sendTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter dropped;
+
+    ChannelDispatcher(NotificationChannel channel, int queueCapacity, Duration linger, boolean virtualThreads,
+                      MeterRegistry meterRegistry) {
+        this.channel = channel;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.lingerNanos = linger.toNanos();
+        this.sendPermits = new Semaphore(channel.maxConcurrency());
+        String name = "notify-" + channel.type().tag() + "-";
+        this.senderPool = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name, 1).factory())
+                : Executors.newFixedThreadPool(channel.maxConcurrency(), new SenderThreadFactory(name));
+        String tag = channel.type().tag();
+        this.sendTimer = Timer.builder("notifications.send")
+                .description("One provider batch, by channel")
+                .tag("channel", tag)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("notifications.batch.size")
+                .description("Notifications per provider batch, by channel")
+                .tag("channel", tag)
+                .register(meterRegistry);
+        this.delivered = outcome(meterRegistry, tag, "delivered");
+        this.failed = outcome(meterRegistry, tag, "failed");
+        this.dropped = outcome(meterRegistry, tag, "dropped");
+        Gauge.builder("notifications.queue", queue, BlockingQueue::size)
+                .description("Notifications waiting for a batch, by channel")
+                .tag("channel", tag)
+                .register(meterRegistry);
+        this.batcherThread = new Thread(this::run, name + "batcher");
+        this.batcherThread.setDaemon(true);
+        this.batcherThread.start();
+    }
+
+    /**
+     * Queues a notification, or drops it if the channel is this far behind or stopped.
+     */
+    void offer(Notification notification) {
+        if (!running || !queue.offer(notification)) {
+            dropped.increment();
+        }
+    }
+
+    private void run() {
+        int batchSize = channel.maxBatchSize();
+        while (running || !queue.isEmpty()) {
+            List<Notification> batch = new ArrayList<>(batchSize);
+            try {
+                Notification first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize && running) {
+                    long remaining = deadline - System.nanoTime();
+                    Notification next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                sendPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            senderPool.execute(() -> {
+                try {
+                    send(batch);
+                } finally {
+                    sendPermits.release();
+                }
+            });
+        }
+    }
+
+    private void send(List<Notification> batch) {
+        batchSizes.record(batch.size());
+        long start = System.nanoTime();
+        try {
+            int sent = channel.send(batch);
+            delivered.increment(sent);
+            failed.increment(batch.size() - sent);
+        } catch (RuntimeException e) {
+            log.warn("{} notification batch of {} failed: {}", channel.type().tag(), batch.size(), e.toString());
+            failed.increment(batch.size());
+        } finally {
+            sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Sends what is still queued, waiting up to {@code timeout} for it.
+     */
+    void shutdown(Duration timeout) {
+        running = false;
+        try {
+            batcherThread.join(timeout.toMillis());
+            senderPool.shutdown();
+            senderPool.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} notification channel stopped with {} unsent", channel.type().tag(), queue.size());
+        }
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String channel, String outcome) {
+        return Counter.builder("notifications.sent")
+                .description("Notifications by channel and outcome")
+                .tag("channel", channel)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class SenderThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        SenderThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.haatmakaam.backend.services.notifications;
+
+/**
+ * The ways a notification can reach a user. Each has at most one {@link NotificationChannel}.
+ */
+public enum ChannelType {
+    SMS,
+    PUSH,
+    IN_APP;
+
+    /**
+     * Short, fixed name used as a metric tag.
+     */
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
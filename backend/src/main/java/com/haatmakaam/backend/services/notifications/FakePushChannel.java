@@ -0,0 +1,94 @@
+package com.haatmakaam.backend.services.notifications;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local push provider ({@code notifications.push.provider=fake}): nothing leaves the process.
+ * Every batch counts as one provider call that blocks for {@code notifications.push.fake.latency},
+ * and the last notification per user is kept, so throughput and coalescing can be measured
+ * offline. A real gateway is another PUSH channel selected by the same property.
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.push.provider", havingValue = "fake", matchIfMissing = true)
+public class FakePushChannel implements NotificationChannel {
+
+    private final Cache<Long, Notification> lastNotifications = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .build();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final Duration latency;
+    private final int maxBatchSize;
+    private final int maxConcurrency;
+
+    @Autowired
+    public FakePushChannel(
+            @Value("${notifications.push.fake.latency:0ms}") Duration latency,
+            @Value("${notifications.push.batch-size:500}") int maxBatchSize,
+            @Value("${notifications.push.max-concurrency:4}") int maxConcurrency
+    ) {
+        this.latency = latency;
+        this.maxBatchSize = maxBatchSize;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public ChannelType type() {
+        return ChannelType.PUSH;
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public int send(List<Notification> batch) {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while sending", e);
+            }
+        }
+        for (Notification notification : batch) {
+            lastNotifications.put(notification.userId(), notification);
+        }
+        calls.increment();
+        delivered.add(batch.size());
+        return batch.size();
+    }
+
+    /**
+     * The last notification "pushed" to a user, or null.
+     */
+    public Notification lastNotificationTo(long userId) {
+        return lastNotifications.getIfPresent(userId);
+    }
+
+    /**
+     * Provider calls made so far, one per batch.
+     */
+    public long calls() {
+        return calls.sum();
+    }
+
+    public long delivered() {
+        return delivered.sum();
+    }
+}
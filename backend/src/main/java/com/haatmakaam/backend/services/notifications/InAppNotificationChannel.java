@@ -0,0 +1,119 @@
+package com.haatmakaam.backend.services.notifications;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The in-app inbox: each batch is one JDBC batch insert into {@code notifications}, in one
+ * transaction. Entries older than {@code notifications.in-app.retention} are purged.
+ */
+@Component
+public class InAppNotificationChannel implements NotificationChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(InAppNotificationChannel.class);
+
+    private static final String INSERT_SQL = """
+            INSERT INTO notifications (id, user_id, kind, body, events, created_at)
+            VALUES (nextval('notifications_seq'), ?, ?, ?, ?, ?)
+            """;
+
+    private static final String PURGE_SQL = """
+            DELETE FROM notifications
+            WHERE id IN (SELECT id FROM notifications WHERE created_at < ? LIMIT ?)
+            """;
+
+    private static final int MAX_BODY_LENGTH = 500;
+    private static final int PURGE_BATCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int maxBatchSize;
+    private final int maxConcurrency;
+
+    @Autowired
+    public InAppNotificationChannel(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${notifications.in-app.retention:30d}") Duration retention,
+            @Value("${notifications.in-app.batch-size:500}") int maxBatchSize,
+            @Value("${notifications.in-app.max-concurrency:2}") int maxConcurrency
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+        this.maxBatchSize = maxBatchSize;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public ChannelType type() {
+        return ChannelType.IN_APP;
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public int send(List<Notification> batch) {
+        try {
+            insert(batch);
+            return batch.size();
+        } catch (DataIntegrityViolationException e) {
+            // A recipient deleted meanwhile fails the whole batch; the others go in one by one
+            int sent = 0;
+            for (Notification notification : batch) {
+                try {
+                    insert(List.of(notification));
+                    sent++;
+                } catch (DataIntegrityViolationException rejected) {
+                    log.debug("Dropping in-app notification for user {}: {}", notification.userId(), rejected.getMessage());
+                }
+            }
+            return sent;
+        }
+    }
+
+    private void insert(List<Notification> batch) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, notification) -> {
+                    ps.setLong(1, notification.userId());
+                    ps.setString(2, notification.kind().name());
+                    ps.setString(3, truncate(notification.body()));
+                    ps.setInt(4, notification.events());
+                    ps.setTimestamp(5, Timestamp.valueOf(notification.createdAt()));
+                }));
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.in-app.purge-interval-ms:3600000}")
+    public void purge() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, cutoff, PURGE_BATCH_SIZE);
+        } while (deleted == PURGE_BATCH_SIZE);
+    }
+
+    private static String truncate(String body) {
+        return body.length() <= MAX_BODY_LENGTH ? body : body.substring(0, MAX_BODY_LENGTH);
+    }
+}
@@ -0,0 +1,12 @@
+package com.haatmakaam.backend.services.notifications;
+
+import com.haatmakaam.backend.domain.enums.NotificationKind;
+
+import java.time.LocalDateTime;
+
+/**
+ * What a channel delivers: one message to one user, standing for {@code events} events of the
+ * same kind that arrived within its coalescing window, the first of them at {@code createdAt}.
+ */
+public record Notification(long userId, NotificationKind kind, String body, int events, LocalDateTime createdAt) {
+}
@@ -0,0 +1,24 @@
+package com.haatmakaam.backend.services.notifications;
+
+import java.util.List;
+
+/**
+ * A provider behind one {@link ChannelType}. NotificationService hands every channel bean
+ * batches of at most {@link #maxBatchSize()} notifications, with at most
+ * {@link #maxConcurrency()} batches in flight, on its own threads.
+ */
+public interface NotificationChannel {
+
+    ChannelType type();
+
+    int maxBatchSize();
+
+    int maxConcurrency();
+
+    /**
+     * Delivers a batch in as few provider calls as the provider allows, blocking until done.
+     *
+     * @return how many were delivered; the rest are dropped, and the channel logs why
+     */
+    int send(List<Notification> batch);
+}
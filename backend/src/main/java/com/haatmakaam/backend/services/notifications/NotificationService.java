@@ -0,0 +1,232 @@
+package com.haatmakaam.backend.services.notifications;
+
+import com.haatmakaam.backend.domain.entities.InAppNotification;
+import com.haatmakaam.backend.domain.enums.NotificationKind;
+import com.haatmakaam.backend.models.NotificationResponse;
+import com.haatmakaam.backend.repositories.InAppNotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notifies users of bookings, jobs and reviews over SMS, push and the in-app inbox.
+ *
+ * {@link #notify} never blocks on a provider. The first event of a kind for a user opens a
+ * coalescing window ({@code notifications.coalesce.*}); events of that kind for that user arriving
+ * within it only bump a count, and when it closes the user gets one notification: the event's own
+ * text if it was alone, a summary like "5 new jobs near you" otherwise. That notification goes to
+ * each channel of its kind, where a {@link ChannelDispatcher} sends it in batches under the
+ * channel's concurrency limit. Channels that are not configured are skipped.
+ *
+ * Delivery is best effort: windows live in this node's memory, so events for one user raised on
+ * different nodes are coalesced per node, and what is pending when the node dies is lost. OTPs do
+ * not come through here; they go through the durable outbox in OtpService.
+ */
+@Service
+public class NotificationService {
+
+    private static final Map<NotificationKind, Set<ChannelType>> CHANNELS = new EnumMap<>(Map.of(
+            NotificationKind.JOB_NEARBY, EnumSet.of(ChannelType.PUSH, ChannelType.IN_APP),
+            NotificationKind.BOOKING_UPDATE, EnumSet.of(ChannelType.SMS, ChannelType.PUSH, ChannelType.IN_APP),
+            NotificationKind.REVIEW_RECEIVED, EnumSet.of(ChannelType.PUSH, ChannelType.IN_APP)));
+
+    private final InAppNotificationRepository inboxRepository;
+    private final Map<ChannelType, ChannelDispatcher> dispatchers = new EnumMap<>(ChannelType.class);
+    private final Map<NotificationKind, Duration> windows = new EnumMap<>(NotificationKind.class);
+    private final Map<Key, Pending> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService windowTimer;
+    private final int maxPending;
+    private final int maxInboxLimit;
+    private final Duration shutdownTimeout;
+    private final Map<NotificationKind, Counter> events = new EnumMap<>(NotificationKind.class);
+    private final Counter overflow;
+
+    @Autowired
+    public NotificationService(
+            List<NotificationChannel> channels,
+            InAppNotificationRepository inboxRepository,
+            MeterRegistry meterRegistry,
+            @Value("${notifications.coalesce.job-nearby:60s}") Duration jobNearbyWindow,
+            @Value("${notifications.coalesce.booking-update:10s}") Duration bookingUpdateWindow,
+            @Value("${notifications.coalesce.review-received:5m}") Duration reviewReceivedWindow,
+            @Value("${notifications.coalesce.max-pending:100000}") int maxPending,
+            @Value("${notifications.queue-capacity:10000}") int queueCapacity,
+            @Value("${notifications.linger:50ms}") Duration linger,
+            @Value("${notifications.inbox.max-limit:100}") int maxInboxLimit,
+            @Value("${notifications.shutdown-timeout:10s}") Duration shutdownTimeout,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.inboxRepository = inboxRepository;
+        for (NotificationChannel channel : channels) {
+            if (dispatchers.containsKey(channel.type())) {
+                throw new IllegalStateException("More than one " + channel.type() + " notification channel");
+            }
+            dispatchers.put(channel.type(), new ChannelDispatcher(channel, queueCapacity, linger, virtualThreads, meterRegistry));
+        }
+        windows.put(NotificationKind.JOB_NEARBY, jobNearbyWindow);
+        windows.put(NotificationKind.BOOKING_UPDATE, bookingUpdateWindow);
+        windows.put(NotificationKind.REVIEW_RECEIVED, reviewReceivedWindow);
+        this.maxPending = maxPending;
+        this.maxInboxLimit = maxInboxLimit;
+        this.shutdownTimeout = shutdownTimeout;
+        this.windowTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "notify-windows");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (NotificationKind kind : NotificationKind.values()) {
+            events.put(kind, Counter.builder("notifications.events")
+                    .description("Events raised for notification, by kind")
+                    .tag("kind", kind.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.overflow = Counter.builder("notifications.coalesce.overflow")
+                .description("Events sent on their own because too many windows were open")
+                .register(meterRegistry);
+        Gauge.builder("notifications.coalesce.open", pending, Map::size)
+                .description("Coalescing windows open on this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Raises an event for the user. Inside a transaction it counts only once that commits, so a
+     * rolled back change notifies nobody.
+     */
+    public void notify(long userId, NotificationKind kind, String body) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accept(userId, kind, body);
+                }
+            });
+        } else {
+            accept(userId, kind, body);
+        }
+    }
+
+    /**
+     * The user's inbox, newest first; pass the last id seen as {@code before} to continue.
+     */
+    public List<NotificationResponse> inbox(long userId, int limit, Long before) {
+        if (limit < 1 || limit > maxInboxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxInboxLimit + ".");
+        }
+        List<InAppNotification> rows = before == null
+                ? inboxRepository.findLatest(userId, limit)
+                : inboxRepository.findBefore(userId, before, limit);
+        return rows.stream().map(NotificationService::toResponse).toList();
+    }
+
+    private void accept(long userId, NotificationKind kind, String body) {
+        events.get(kind).increment();
+        LocalDateTime now = LocalDateTime.now();
+        Duration window = windows.get(kind);
+        if (window.isZero()) {
+            dispatch(new Notification(userId, kind, body, 1, now));
+            return;
+        }
+        Key key = new Key(userId, kind);
+        boolean[] opened = new boolean[1];
+        boolean[] full = new boolean[1];
+        pending.compute(key, (k, open) -> {
+            if (open != null) {
+                open.events++;
+                return open;
+            }
+            if (pending.size() >= maxPending) {
+                full[0] = true;
+                return null;
+            }
+            opened[0] = true;
+            return new Pending(body, now);
+        });
+        if (opened[0]) {
+            windowTimer.schedule(() -> close(key), window.toMillis(), TimeUnit.MILLISECONDS);
+        } else if (full[0]) {
+            overflow.increment();
+            dispatch(new Notification(userId, kind, body, 1, now));
+        }
+    }
+
+    private void close(Key key) {
+        Pending closed = pending.remove(key);
+        if (closed != null) {
+            String body = closed.events == 1 ? closed.firstBody : summary(key.kind(), closed.events);
+            dispatch(new Notification(key.userId(), key.kind(), body, closed.events, closed.openedAt));
+        }
+    }
+
+    private void dispatch(Notification notification) {
+        for (ChannelType type : CHANNELS.get(notification.kind())) {
+            ChannelDispatcher dispatcher = dispatchers.get(type);
+            if (dispatcher != null) {
+                dispatcher.offer(notification);
+            }
+        }
+    }
+
+    private static String summary(NotificationKind kind, int events) {
+        return switch (kind) {
+            case JOB_NEARBY -> events + " new jobs near you";
+            case BOOKING_UPDATE -> events + " updates to your bookings";
+            case REVIEW_RECEIVED -> "You received " + events + " new reviews";
+        };
+    }
+
+    /**
+     * Closes every open window early and sends what is queued, before the channels' own
+     * dependencies (the connection pool) are shut down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        windowTimer.shutdownNow();
+        for (Key key : List.copyOf(pending.keySet())) {
+            close(key);
+        }
+        dispatchers.values().forEach(dispatcher -> dispatcher.shutdown(shutdownTimeout));
+    }
+
+    private static NotificationResponse toResponse(InAppNotification notification) {
+        return new NotificationResponse(
+                notification.getId(),
+                notification.getKind(),
+                notification.getBody(),
+                notification.getEvents(),
+                notification.getCreatedAt());
+    }
+
+    private record Key(long userId, NotificationKind kind) {
+    }
+
+    // Mutated only inside pending.compute, which serializes changes per key
+    private static final class Pending {
+
+        final String firstBody;
+        final LocalDateTime openedAt;
+        int events = 1;
+
+        Pending(String firstBody, LocalDateTime openedAt) {
+            this.firstBody = firstBody;
+            this.openedAt = openedAt;
+        }
+    }
+}
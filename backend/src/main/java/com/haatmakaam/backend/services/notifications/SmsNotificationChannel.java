@@ -0,0 +1,85 @@
+package com.haatmakaam.backend.services.notifications;
+
+import com.haatmakaam.backend.domain.entities.User;
+import com.haatmakaam.backend.exceptions.SmsSendException;
+import com.haatmakaam.backend.repositories.UserRepository;
+import com.haatmakaam.backend.services.sms.SmsSender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Notifications by SMS through the configured {@link SmsSender}, so {@code sms.provider=stub}
+ * covers it offline too. A batch costs one query for the recipients' numbers; the providers take
+ * one message per call, so those calls are made one after the other and
+ * {@code notifications.sms.max-concurrency} is the number of provider calls in flight.
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.sms.enabled", havingValue = "true", matchIfMissing = true)
+public class SmsNotificationChannel implements NotificationChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(SmsNotificationChannel.class);
+
+    private final SmsSender smsSender;
+    private final UserRepository userRepository;
+    private final int maxBatchSize;
+    private final int maxConcurrency;
+
+    @Autowired
+    public SmsNotificationChannel(
+            SmsSender smsSender,
+            UserRepository userRepository,
+            @Value("${notifications.sms.batch-size:20}") int maxBatchSize,
+            @Value("${notifications.sms.max-concurrency:4}") int maxConcurrency
+    ) {
+        this.smsSender = smsSender;
+        this.userRepository = userRepository;
+        this.maxBatchSize = maxBatchSize;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public ChannelType type() {
+        return ChannelType.SMS;
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public int send(List<Notification> batch) {
+        Map<Long, String> phones = new HashMap<>();
+        for (User user : userRepository.findAllById(batch.stream().map(Notification::userId).distinct().toList())) {
+            phones.put(user.getId(), user.getPhoneNumber());
+        }
+        int sent = 0;
+        for (Notification notification : batch) {
+            String phone = phones.get(notification.userId());
+            if (phone == null) {
+                continue;
+            }
+            try {
+                smsSender.send(phone, notification.body());
+                sent++;
+            } catch (SmsSendException e) {
+                // The number stays out of the log
+                log.debug("SMS notification to user {} failed: {}", notification.userId(), e.getMessage());
+            }
+        }
+        return sent;
+    }
+}
@@ -0,0 +1,37 @@
+package com.haatmakaam.backend.services.onboarding;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Input formats accepted by the bulk worker import.
+ */
+public enum ImportFormat {
+
+    /** Header row with name, phone and password columns (any order), one worker per line. */
+    CSV("text/csv"),
+
+    /** One JSON object per line: {"name": ..., "phone": ..., "password": ...}. */
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    ImportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public static ImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType parsed = MediaType.parseMediaType(contentType);
+            for (ImportFormat format : values()) {
+                if (parsed.isCompatibleWith(MediaType.parseMediaType(format.mediaType))) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+    }
+}
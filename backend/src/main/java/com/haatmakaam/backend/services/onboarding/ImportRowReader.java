@@ -0,0 +1,141 @@
+package com.haatmakaam.backend.services.onboarding;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads import rows one line at a time, so the input is never held in memory as a whole.
+ * Rows that cannot be parsed are returned with an error instead of aborting the import.
+ */
+final class ImportRowReader {
+
+    /**
+     * One input row. {@code error} is set when the line could not be parsed.
+     */
+    record ImportRow(int line, String name, String phone, String password, String error) {
+
+        static ImportRow invalid(int line, String error) {
+            return new ImportRow(line, null, null, null, error);
+        }
+    }
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+
+    private int line;
+    // CSV column positions, resolved from the header row
+    private int nameColumn = -1;
+    private int phoneColumn = -1;
+    private int passwordColumn = -1;
+
+    ImportRowReader(Reader input, ImportFormat format, ObjectMapper objectMapper) {
+        this.reader = input instanceof BufferedReader buffered ? buffered : new BufferedReader(input);
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the next row, or null at the end of the input.
+     * @throws IllegalArgumentException if the CSV header is missing a required column
+     */
+    ImportRow next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            if (format == ImportFormat.NDJSON) {
+                return fromJson(text);
+            }
+            if (phoneColumn < 0) {
+                readHeader(text);
+                continue;
+            }
+            return fromCsv(text);
+        }
+        return null;
+    }
+
+    private ImportRow fromJson(String text) {
+        try {
+            JsonNode node = objectMapper.readTree(text);
+            if (!node.isObject()) {
+                return ImportRow.invalid(line, "Expected a JSON object.");
+            }
+            return new ImportRow(line, text(node, "name"), text(node, "phone"), text(node, "password"), null);
+        } catch (JsonProcessingException e) {
+            return ImportRow.invalid(line, "Malformed JSON.");
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private void readHeader(String text) {
+        // Excel likes to prepend a byte order mark
+        List<String> columns = splitCsv(text.startsWith("\uFEFF") ? text.substring(1) : text);
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "name" -> nameColumn = i;
+                case "phone" -> phoneColumn = i;
+                case "password" -> passwordColumn = i;
+                default -> { } // extra columns are ignored
+            }
+        }
+        if (nameColumn < 0 || phoneColumn < 0 || passwordColumn < 0) {
+            throw new IllegalArgumentException("CSV header must contain name, phone and password columns.");
+        }
+    }
+
+    private ImportRow fromCsv(String text) {
+        List<String> fields = splitCsv(text);
+        int needed = Math.max(nameColumn, Math.max(phoneColumn, passwordColumn)) + 1;
+        if (fields.size() < needed) {
+            return ImportRow.invalid(line, "Expected at least " + needed + " columns.");
+        }
+        return new ImportRow(line, fields.get(nameColumn).trim(), fields.get(phoneColumn).trim(), fields.get(passwordColumn), null);
+    }
+
+    /**
+     * Splits one CSV line, honouring double quotes and "" escapes. Quoted line breaks are not supported.
+     */
+    static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,279 @@
+package com.haatmakaam.backend.services.onboarding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haatmakaam.backend.domain.entities.User;
+import com.haatmakaam.backend.domain.enums.UserRole;
+import com.haatmakaam.backend.models.ImportRowResult;
+import com.haatmakaam.backend.models.ImportRowResult.Status;
+import com.haatmakaam.backend.models.ImportSummary;
+import com.haatmakaam.backend.services.OtpService;
+import com.haatmakaam.backend.services.onboarding.ImportRowReader.ImportRow;
+import com.haatmakaam.backend.services.otp.OtpStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk onboarding of workers from partner agencies.
+ *
+ * Input is read and processed in chunks of {@code onboarding.import.chunk-size} rows. For each
+ * chunk the passwords are hashed in parallel on a bounded fork-join pool, then one transaction
+ * inserts the users as a single JDBC batch ({@code ON CONFLICT (phone_number) DO NOTHING}) and
+ * enqueues their OTPs in bulk. Report lines for the chunk are written and flushed once it has
+ * committed, so the caller sees progress and memory use stays flat regardless of input size.
+ */
+@Service
+public class WorkerImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkerImportService.class);
+
+    private static final Pattern E164 = Pattern.compile("\\+[1-9]\\d{7,14}");
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, full_name, phone_number, password, verified, user_role)"
+                    + " VALUES (?, ?, ?, ?, false, ?)"
+                    + " ON CONFLICT (phone_number) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OtpStore otpStore;
+    private final OtpService otpService;
+    private final ObjectMapper objectMapper;
+    private final PasswordEncoder passwordHasher;
+    private final ForkJoinPool hashingPool;
+    private final int chunkSize;
+
+    @Autowired
+    public WorkerImportService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            OtpStore otpStore,
+            OtpService otpService,
+            ObjectMapper objectMapper,
+            @Value("${security.password.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${onboarding.import.hashing-parallelism:0}") int hashingParallelism,
+            @Value("${onboarding.import.chunk-size:500}") int chunkSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.otpStore = otpStore;
+        this.otpService = otpService;
+        this.objectMapper = objectMapper;
+        // Hashes directly rather than through the login bulkhead: a large import would otherwise
+        // fill its queue and shed real logins. The pool size bounds how many cores an import takes.
+        this.passwordHasher = new BCryptPasswordEncoder(bcryptStrength);
+        this.hashingPool = new ForkJoinPool(hashingParallelism > 0
+                ? hashingParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports workers from {@code input} and streams one NDJSON report line per row to
+     * {@code output}, followed by a summary line.
+     */
+    public ImportSummary importWorkers(Reader input, ImportFormat format, Writer output) throws IOException {
+        ImportRowReader rows = new ImportRowReader(input, format, objectMapper);
+        long[] counts = new long[Status.values().length];
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        ImportRow row;
+        while ((row = rows.next()) != null) {
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                report(processChunk(chunk), counts, output);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            report(processChunk(chunk), counts, output);
+        }
+
+        ImportSummary summary = new ImportSummary(
+                counts[Status.CREATED.ordinal()],
+                counts[Status.DUPLICATE.ordinal()],
+                counts[Status.INVALID.ordinal()],
+                counts[Status.FAILED.ordinal()]);
+        output.write(objectMapper.writeValueAsString(Map.of("summary", summary)));
+        output.write('\n');
+        output.flush();
+        return summary;
+    }
+
+    private void report(List<ImportRowResult> results, long[] counts, Writer output) throws IOException {
+        for (ImportRowResult result : results) {
+            counts[result.status().ordinal()]++;
+            output.write(objectMapper.writeValueAsString(result));
+            output.write('\n');
+        }
+        output.flush();
+    }
+
+    private List<ImportRowResult> processChunk(List<ImportRow> chunk) {
+        ImportRowResult[] results = new ImportRowResult[chunk.size()];
+        List<Integer> validPositions = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            String problem = validate(chunk.get(i));
+            if (problem != null) {
+                results[i] = new ImportRowResult(chunk.get(i).line(), chunk.get(i).phone(), Status.INVALID, problem);
+            } else {
+                validPositions.add(i);
+            }
+        }
+
+        if (!validPositions.isEmpty()) {
+            List<ImportRow> valid = validPositions.stream().map(chunk::get).toList();
+            List<String> hashes = hash(valid);
+            boolean[] inserted;
+            try {
+                inserted = transactionTemplate.execute(status -> insert(valid, hashes));
+            } catch (DataAccessException e) {
+                log.warn("Worker import chunk of {} rows failed: {}", valid.size(), e.getMostSpecificCause().getMessage());
+                inserted = null;
+            }
+            for (int k = 0; k < valid.size(); k++) {
+                ImportRow row = valid.get(k);
+                results[validPositions.get(k)] = inserted == null
+                        ? new ImportRowResult(row.line(), row.phone(), Status.FAILED, "Database error; retry this row.")
+                        : inserted[k]
+                                ? new ImportRowResult(row.line(), row.phone(), Status.CREATED, null)
+                                : new ImportRowResult(row.line(), row.phone(), Status.DUPLICATE, "Phone number is already registered.");
+            }
+        }
+        return List.of(results);
+    }
+
+    private static String validate(ImportRow row) {
+        if (row.error() != null) {
+            return row.error();
+        }
+        if (row.name() == null || row.name().isBlank()) {
+            return "Name is required.";
+        }
+        if (row.name().length() > 255) {
+            // Would fail the whole chunk's batch at the database
+            return "Name must be at most 255 characters.";
+        }
+        if (row.phone() == null || !E164.matcher(row.phone()).matches()) {
+            return "Phone must be in E.164 format, e.g. +9779800000000.";
+        }
+        if (row.password() == null || row.password().isEmpty()) {
+            return "Password is required.";
+        }
+        return null;
+    }
+
+    private List<String> hash(List<ImportRow> rows) {
+        // A parallel stream started inside the pool runs on the pool's workers, not the common pool
+        return hashingPool.submit(() -> rows.parallelStream()
+                        .map(row -> passwordHasher.encode(row.password()))
+                        .toList())
+                .join();
+    }
+
+    /**
+     * Inserts one chunk and enqueues OTPs for the rows that were actually created.
+     * @return per-row flags, true where the row was inserted
+     */
+    private boolean[] insert(List<ImportRow> rows, List<String> hashes) {
+        long[] ids = allocateIds(rows.size());
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_USER, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ImportRow row = rows.get(i);
+                ps.setLong(1, ids[i]);
+                ps.setString(2, row.name());
+                ps.setString(3, row.phone());
+                ps.setString(4, hashes.get(i));
+                ps.setString(5, UserRole.WORKER.name());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+
+        boolean[] inserted = new boolean[rows.size()];
+        Set<Long> unknown = null;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                // Rewritten batches (reWriteBatchedInserts) do not report per-row counts
+                unknown = unknown == null ? new HashSet<>() : unknown;
+                unknown.add(ids[i]);
+            }
+            inserted[i] = counts[i] > 0;
+        }
+        if (unknown != null) {
+            Set<Long> present = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT id FROM users WHERE id = ANY(?)", Long.class, (Object) unknown.toArray(new Long[0])));
+            for (int i = 0; i < ids.length; i++) {
+                inserted[i] |= present.contains(ids[i]);
+            }
+        }
+
+        Map<String, String> otps = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (inserted[i]) {
+                String otp = otpStore.issue(rows.get(i).phone());
+                if (otp != null) {
+                    otps.put(rows.get(i).phone(), otp);
+                }
+            }
+        }
+        if (!otps.isEmpty()) {
+            otpService.enqueueOtps(otps);
+        }
+        return inserted;
+    }
+
+    /**
+     * Takes ids from users_seq in the same pooled blocks Hibernate uses: each nextval value
+     * {@code hi} reserves {@code (hi - ID_BLOCK_SIZE, hi]}, so imported and JPA-saved users never
+     * collide. Ids skipped by conflicting rows are simply unused.
+     */
+    private long[] allocateIds(int count) {
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            int blocks = (count - filled + User.ID_BLOCK_SIZE - 1) / User.ID_BLOCK_SIZE;
+            List<Long> his = jdbcTemplate.queryForList(
+                    "SELECT nextval('users_seq') FROM generate_series(1, ?)", Long.class, blocks);
+            for (long hi : his) {
+                for (long id = Math.max(1, hi - User.ID_BLOCK_SIZE + 1); id <= hi && filled < count; id++) {
+                    ids[filled++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+}
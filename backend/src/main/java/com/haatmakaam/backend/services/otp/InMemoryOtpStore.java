@@ -0,0 +1,284 @@
+package com.haatmakaam.backend.services.otp;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Single-node OTP store ({@code otp.store=memory}, the default).
+ *
+ * Entries are spread over independently locked shards. Each shard is an open-addressing table of
+ * phone number to one packed {@code long}: issue time (epoch seconds), wrong-attempt count and the
+ * code itself, so a pending OTP costs a key reference and eight bytes. Expiry is driven by a
+ * one-second time wheel with a slot per second of TTL; the sweeper only touches the slot that is
+ * due, so cleanup cost tracks the number of expiring codes rather than the table size.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    // Packed entry layout: [ issuedAt epoch seconds : 40 | attempts : 4 | code : 20 ]
+    private static final int CODE_BITS = 20;
+    private static final int ATTEMPT_BITS = 4;
+    private static final long CODE_MASK = (1L << CODE_BITS) - 1;
+    private static final long ATTEMPT_MASK = (1L << ATTEMPT_BITS) - 1;
+    private static final int ISSUED_SHIFT = CODE_BITS + ATTEMPT_BITS;
+
+    private final long ttlSeconds;
+    private final long cooldownSeconds;
+    private final int maxAttempts;
+
+    private final Shard[] shards;
+    private final int shardShift;
+
+    private final ConcurrentLinkedQueue<String>[] wheel;
+    private long sweptUpTo;
+
+    @Autowired
+    @SuppressWarnings("unchecked")
+    public InMemoryOtpStore(
+            @Value("${otp.ttl:10m}") Duration ttl,
+            @Value("${otp.max-attempts:5}") int maxAttempts,
+            @Value("${otp.resend-cooldown:60s}") Duration resendCooldown,
+            @Value("${otp.memory.shards:16}") int shardCount
+    ) {
+        if (maxAttempts < 1 || maxAttempts > ATTEMPT_MASK) {
+            throw new IllegalArgumentException("otp.max-attempts must be between 1 and " + ATTEMPT_MASK);
+        }
+        this.ttlSeconds = Math.max(1, ttl.toSeconds());
+        this.cooldownSeconds = resendCooldown.toSeconds();
+        this.maxAttempts = maxAttempts;
+
+        int shardBits = 32 - Integer.numberOfLeadingZeros(Math.max(2, shardCount) - 1);
+        this.shards = new Shard[1 << shardBits];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard();
+        }
+        this.shardShift = 32 - shardBits;
+
+        // One slot per second of TTL plus slack, so a slot is always drained before it is reused
+        this.wheel = new ConcurrentLinkedQueue[(int) ttlSeconds + 2];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.sweptUpTo = nowSeconds();
+    }
+
+    @Override
+    public String issue(String phoneNumber, boolean ignoreCooldown) {
+        int hash = hash(phoneNumber);
+        Shard shard = shardFor(hash);
+        long now = nowSeconds();
+        int code = OtpCodeGenerator.nextCode();
+
+        shard.lock.lock();
+        try {
+            int slot = shard.indexOf(phoneNumber, hash);
+            if (!ignoreCooldown && slot >= 0 && issuedAt(shard.values[slot]) + cooldownSeconds > now) {
+                return null;
+            }
+            shard.put(phoneNumber, hash, pack(now, 0, code));
+        } finally {
+            shard.lock.unlock();
+        }
+        schedule(phoneNumber, now + ttlSeconds);
+        return OtpCodeGenerator.format(code);
+    }
+
+    @Override
+    public VerifyOutcome verify(String phoneNumber, String code) {
+        int hash = hash(phoneNumber);
+        Shard shard = shardFor(hash);
+        long now = nowSeconds();
+        int submitted = OtpCodeGenerator.parse(code);
+
+        shard.lock.lock();
+        try {
+            int slot = shard.indexOf(phoneNumber, hash);
+            if (slot < 0) {
+                return VerifyOutcome.EXPIRED;
+            }
+            long entry = shard.values[slot];
+            if (issuedAt(entry) + ttlSeconds <= now) {
+                shard.removeAt(slot);
+                return VerifyOutcome.EXPIRED;
+            }
+            int attempts = attempts(entry);
+            if (attempts >= maxAttempts) {
+                return VerifyOutcome.TOO_MANY_ATTEMPTS;
+            }
+            if (submitted == code(entry)) {
+                // Single use: a verified code is gone immediately
+                shard.removeAt(slot);
+                return VerifyOutcome.VERIFIED;
+            }
+            attempts++;
+            shard.values[slot] = pack(issuedAt(entry), attempts, code(entry));
+            return attempts >= maxAttempts ? VerifyOutcome.TOO_MANY_ATTEMPTS : VerifyOutcome.MISMATCH;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Advances the time wheel, dropping every code whose TTL has passed. Runs on the single
+     * scheduler thread, so rounds never overlap.
+     */
+    @Scheduled(fixedRate = 1000)
+    public void sweepExpired() {
+        long now = nowSeconds();
+        // If the sweeper stalled for longer than a full turn, each slot is visited once
+        long from = Math.max(sweptUpTo + 1, now - wheel.length + 1);
+        List<String> due = new ArrayList<>();
+        for (long second = from; second <= now; second++) {
+            ConcurrentLinkedQueue<String> slot = wheel[(int) (second % wheel.length)];
+            String phoneNumber;
+            while ((phoneNumber = slot.poll()) != null) {
+                due.add(phoneNumber);
+            }
+        }
+        // Drain first, then process: rescheduled entries land in later slots for the next round
+        for (String phoneNumber : due) {
+            expireOrReschedule(phoneNumber, now);
+        }
+        sweptUpTo = now;
+    }
+
+    private void expireOrReschedule(String phoneNumber, long now) {
+        int hash = hash(phoneNumber);
+        Shard shard = shardFor(hash);
+        long expiresAt;
+        shard.lock.lock();
+        try {
+            int slot = shard.indexOf(phoneNumber, hash);
+            if (slot < 0) {
+                return; // already consumed
+            }
+            expiresAt = issuedAt(shard.values[slot]) + ttlSeconds;
+            if (expiresAt <= now) {
+                shard.removeAt(slot);
+                return;
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+        // Re-issued since this slot was scheduled; make sure it is still tracked for its new expiry
+        schedule(phoneNumber, expiresAt);
+    }
+
+    private void schedule(String phoneNumber, long expiresAtSecond) {
+        wheel[(int) (expiresAtSecond % wheel.length)].add(phoneNumber);
+    }
+
+    protected long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private Shard shardFor(int hash) {
+        return shards[hash >>> shardShift];
+    }
+
+    private static int hash(String key) {
+        // Fibonacci hashing: high bits pick the shard, low bits the table slot
+        return key.hashCode() * 0x9E3779B9;
+    }
+
+    private static long pack(long issuedAt, int attempts, int code) {
+        return (issuedAt << ISSUED_SHIFT) | ((long) attempts << CODE_BITS) | code;
+    }
+
+    private static long issuedAt(long entry) {
+        return entry >>> ISSUED_SHIFT;
+    }
+
+    private static int attempts(long entry) {
+        return (int) ((entry >>> CODE_BITS) & ATTEMPT_MASK);
+    }
+
+    private static int code(long entry) {
+        return (int) (entry & CODE_MASK);
+    }
+
+    /**
+     * Linear-probing table of phone number to packed entry, guarded by its lock.
+     */
+    private static final class Shard {
+
+        final ReentrantLock lock = new ReentrantLock();
+        String[] keys = new String[16];
+        long[] values = new long[16];
+        int size;
+
+        int indexOf(String key, int hash) {
+            int mask = keys.length - 1;
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                String k = keys[i];
+                if (k == null) {
+                    return -1;
+                }
+                if (k.equals(key)) {
+                    return i;
+                }
+            }
+        }
+
+        void put(String key, int hash, long value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int i = hash & mask;
+            while (keys[i] != null) {
+                if (keys[i].equals(key)) {
+                    values[i] = value;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            size++;
+        }
+
+        void removeAt(int slot) {
+            // Backward-shift deletion keeps probe sequences intact without tombstones
+            int mask = keys.length - 1;
+            int hole = slot;
+            keys[hole] = null;
+            size--;
+            for (int j = (hole + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                boolean staysPut = hole <= j
+                        ? hole < home && home <= j
+                        : hole < home || home <= j;
+                if (!staysPut) {
+                    keys[hole] = keys[j];
+                    values[hole] = values[j];
+                    keys[j] = null;
+                    hole = j;
+                }
+            }
+        }
+
+        private void resize() {
+            String[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = new String[oldKeys.length * 2];
+            values = new long[oldValues.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    put(oldKeys[i], hash(oldKeys[i]), oldValues[i]);
+                }
+            }
+        }
+    }
+}
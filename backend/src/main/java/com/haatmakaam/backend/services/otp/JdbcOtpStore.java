@@ -0,0 +1,113 @@
+package com.haatmakaam.backend.services.otp;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Postgres-backed OTP store for multi-node deployments ({@code otp.store=jdbc}).
+ *
+ * Every operation is one or two single-row statements on the {@code otp_codes} table, keyed by
+ * phone number, so concurrent nodes never need explicit locks: issuing is an upsert guarded by the
+ * cooldown, a wrong guess is an atomic attempt increment, and consumption is a conditional delete
+ * that only one caller can win.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "jdbc")
+public class JdbcOtpStore implements OtpStore {
+
+    private static final String ISSUE_SQL = """
+            INSERT INTO otp_codes (phone_number, code, attempts, issued_at, expires_at)
+            VALUES (?, ?, 0, ?, ?)
+            ON CONFLICT (phone_number) DO UPDATE
+            SET code = EXCLUDED.code, attempts = 0, issued_at = EXCLUDED.issued_at, expires_at = EXCLUDED.expires_at
+            WHERE ? OR otp_codes.issued_at <= ?
+            """;
+
+    private static final String ATTEMPT_SQL = """
+            UPDATE otp_codes SET attempts = attempts + 1
+            WHERE phone_number = ? AND expires_at > ?
+            RETURNING code, attempts
+            """;
+
+    private static final String CONSUME_SQL = "DELETE FROM otp_codes WHERE phone_number = ? AND code = ?";
+
+    private static final String PURGE_SQL = "DELETE FROM otp_codes WHERE expires_at <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration resendCooldown;
+    private final int maxAttempts;
+
+    @Autowired
+    public JdbcOtpStore(
+            JdbcTemplate jdbcTemplate,
+            @Value("${otp.ttl:10m}") Duration ttl,
+            @Value("${otp.max-attempts:5}") int maxAttempts,
+            @Value("${otp.resend-cooldown:60s}") Duration resendCooldown
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.maxAttempts = maxAttempts;
+        this.resendCooldown = resendCooldown;
+    }
+
+    @Override
+    public String issue(String phoneNumber, boolean ignoreCooldown) {
+        LocalDateTime now = LocalDateTime.now();
+        String code = OtpCodeGenerator.format(OtpCodeGenerator.nextCode());
+        int rows = jdbcTemplate.update(ISSUE_SQL,
+                phoneNumber,
+                code,
+                Timestamp.valueOf(now),
+                Timestamp.valueOf(now.plus(ttl)),
+                ignoreCooldown,
+                Timestamp.valueOf(now.minus(resendCooldown)));
+        // Unless told to ignore it, the conflict branch is skipped while the previous code is inside its cooldown
+        return rows == 1 ? code : null;
+    }
+
+    @Override
+    public VerifyOutcome verify(String phoneNumber, String code) {
+        // Every submission counts as an attempt, even the correct one. Inside a caller's transaction
+        // the increment only sticks if that transaction commits, rejection included.
+        List<PendingCode> pending = jdbcTemplate.query(ATTEMPT_SQL,
+                (rs, rowNum) -> new PendingCode(rs.getString("code"), rs.getInt("attempts")),
+                phoneNumber,
+                Timestamp.valueOf(LocalDateTime.now()));
+        if (pending.isEmpty()) {
+            return VerifyOutcome.EXPIRED;
+        }
+
+        PendingCode current = pending.get(0);
+        if (current.attempts() > maxAttempts) {
+            return VerifyOutcome.TOO_MANY_ATTEMPTS;
+        }
+        if (current.code().equals(code)) {
+            // Only one concurrent caller can delete the row, so the code is single-use across nodes
+            return jdbcTemplate.update(CONSUME_SQL, phoneNumber, code) == 1
+                    ? VerifyOutcome.VERIFIED
+                    : VerifyOutcome.EXPIRED;
+        }
+        return current.attempts() >= maxAttempts ? VerifyOutcome.TOO_MANY_ATTEMPTS : VerifyOutcome.MISMATCH;
+    }
+
+    /**
+     * Deletes expired codes. Safe to run on every node.
+     */
+    @Scheduled(fixedDelayString = "${otp.jdbc.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private record PendingCode(String code, int attempts) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.haatmakaam.backend.services.otp;
+
+import java.security.SecureRandom;
+
+/**
+ * Generates 6-digit OTP codes from one shared SecureRandom, without per-call Random or
+ * DecimalFormat allocations.
+ */
+public final class OtpCodeGenerator {
+
+    public static final int CODE_LENGTH = 6;
+    public static final int CODE_BOUND = 1_000_000;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private OtpCodeGenerator() {
+    }
+
+    public static int nextCode() {
+        return RANDOM.nextInt(CODE_BOUND);
+    }
+
+    /**
+     * Formats a code as exactly six zero-padded digits.
+     */
+    public static String format(int code) {
+        char[] digits = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + code % 10);
+            code /= 10;
+        }
+        return new String(digits);
+    }
+
+    /**
+     * Parses a submitted code, returning -1 unless it is exactly six digits.
+     */
+    public static int parse(String code) {
+        if (code == null || code.length() != CODE_LENGTH) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,217 @@
+package com.haatmakaam.backend.services.otp;
+
+import com.haatmakaam.backend.domain.entities.OtpOutboxMessage;
+import com.haatmakaam.backend.domain.enums.OutboxStatus;
+import com.haatmakaam.backend.exceptions.SmsSendException;
+import com.haatmakaam.backend.repositories.OtpOutboxRepository;
+import com.haatmakaam.backend.services.sms.SmsSender;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the OTP outbox in the background.
+ *
+ * Each round locks a batch of due rows (SKIP LOCKED, so several nodes can run this safely),
+ * leases them by marking them SENDING, then sends them on a bounded sender pool. Failed sends are
+ * rescheduled with exponential backoff and jitter until {@code otp.outbox.max-attempts} is reached,
+ * after which the row is parked as DEAD. A node that dies mid-send leaves SENDING rows behind;
+ * they become due again once the lease expires, so delivery is at-least-once.
+ *
+ * A settled (SENT or DEAD) row no longer holds the code, and is deleted after
+ * {@code otp.outbox.retention}.
+ *
+ * With {@code spring.threads.virtual.enabled=true} every send gets its own virtual thread and
+ * {@code otp.outbox.max-concurrency} is enforced with a semaphore instead of the pool size.
+ */
+@Component
+public class OtpOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OtpOutboxDispatcher.class);
+
+    private static final int PURGE_BATCH_SIZE = 5000;
+
+    private final OtpOutboxRepository outboxRepository;
+    private final SmsSender smsSender;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService senderPool;
+    private final Semaphore sendPermits;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+
+    @Autowired
+    public OtpOutboxDispatcher(
+            OtpOutboxRepository outboxRepository,
+            SmsSender smsSender,
+            TransactionTemplate transactionTemplate,
+            @Value("${otp.outbox.batch-size:50}") int batchSize,
+            @Value("${otp.outbox.max-concurrency:8}") int maxConcurrency,
+            @Value("${otp.outbox.max-attempts:5}") int maxAttempts,
+            @Value("${otp.outbox.lease:60s}") Duration lease,
+            @Value("${otp.outbox.base-backoff:2s}") Duration baseBackoff,
+            @Value("${otp.outbox.max-backoff:5m}") Duration maxBackoff,
+            @Value("${otp.outbox.retention:7d}") Duration retention,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.smsSender = smsSender;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = retention;
+        this.sendPermits = new Semaphore(maxConcurrency);
+        this.senderPool = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("otp-sender-", 1).factory())
+                : Executors.newFixedThreadPool(maxConcurrency, new SenderThreadFactory());
+    }
+
+    @Scheduled(fixedDelayString = "${otp.outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        // Keep draining while full batches come back, so a backlog clears without waiting a poll interval
+        int claimed;
+        do {
+            claimed = dispatchBatch();
+        } while (claimed == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${otp.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(status ->
+                    outboxRepository.purgeSettledBefore(cutoff, PURGE_BATCH_SIZE));
+        } while (deleted != null && deleted == PURGE_BATCH_SIZE);
+    }
+
+    private int dispatchBatch() {
+        List<OtpOutboxMessage> batch = transactionTemplate.execute(status -> claimDueBatch());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult>> inFlight = new ArrayList<>(batch.size());
+        for (OtpOutboxMessage message : batch) {
+            inFlight.add(CompletableFuture.supplyAsync(() -> send(message), senderPool));
+        }
+        List<SendResult> results = new ArrayList<>(inFlight.size());
+        for (CompletableFuture<SendResult> future : inFlight) {
+            results.add(future.join());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> record(results));
+        return batch.size();
+    }
+
+    private List<OtpOutboxMessage> claimDueBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OtpOutboxMessage> due = outboxRepository.lockDueBatch(now, batchSize);
+        for (OtpOutboxMessage message : due) {
+            // Flushed by dirty checking when the claiming transaction commits
+            message.setStatus(OutboxStatus.SENDING);
+            message.setAttempts(message.getAttempts() + 1);
+            message.setNextAttemptAt(now.plus(lease));
+        }
+        return due;
+    }
+
+    private SendResult send(OtpOutboxMessage message) {
+        // Uncontended with the fixed pool; with virtual threads this is what caps provider calls
+        sendPermits.acquireUninterruptibly();
+        try {
+            String providerId = smsSender.send(message.getPhoneNumber(), message.getBody());
+            return new SendResult(message, providerId, null, false);
+        } catch (SmsSendException e) {
+            return new SendResult(message, null, e.getMessage(), e.isPermanent());
+        } catch (RuntimeException e) {
+            return new SendResult(message, null, e.toString(), false);
+        } finally {
+            sendPermits.release();
+        }
+    }
+
+    private void record(List<SendResult> results) {
+        LocalDateTime now = LocalDateTime.now();
+        for (SendResult result : results) {
+            OtpOutboxMessage message = result.message();
+            // The attempt count this claim set; no row matches if the lease ran out and the
+            // message was claimed again, and that later claim's outcome stands
+            int attempts = message.getAttempts();
+            int updated;
+            if (result.providerId() != null) {
+                updated = outboxRepository.markSent(message.getId(), attempts, result.providerId(), now);
+            } else if (result.permanent() || attempts >= maxAttempts) {
+                updated = outboxRepository.markDead(message.getId(), attempts, truncate(result.error()));
+                if (updated > 0) {
+                    log.warn("OTP outbox message {} dead after {} attempts: {}", message.getId(), attempts, result.error());
+                }
+            } else {
+                updated = outboxRepository.reschedule(message.getId(), attempts, now.plus(backoff(attempts)),
+                        truncate(result.error()));
+            }
+            if (updated == 0) {
+                log.debug("OTP outbox message {} was claimed again while attempt {} was in flight", message.getId(), attempts);
+            }
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        // base * 2^(attempts - 1), capped, with up to 20% jitter so retries from a burst spread out
+        long millis = baseBackoff.toMillis() << Math.min(attempts - 1, 20);
+        millis = Math.min(millis, maxBackoff.toMillis());
+        long jitter = ThreadLocalRandom.current().nextLong(millis / 5 + 1);
+        return Duration.ofMillis(millis + jitter);
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= 500) {
+            return error;
+        }
+        return error.substring(0, 500);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senderPool.shutdown();
+    }
+
+    private record SendResult(OtpOutboxMessage message, String providerId, String error, boolean permanent) {
+    }
+
+    private static final class SenderThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "otp-sender-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
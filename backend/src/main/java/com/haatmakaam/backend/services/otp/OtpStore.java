@@ -0,0 +1,38 @@
+package com.haatmakaam.backend.services.otp;
+
+/**
+ * Holds pending OTP codes outside the users table.
+ *
+ * Codes expire after {@code otp.ttl}, are single-use, allow at most {@code otp.max-attempts}
+ * wrong guesses and cannot be re-issued within {@code otp.resend-cooldown} of the previous one.
+ * Select the implementation with {@code otp.store}: memory (single node) or jdbc (shared Postgres table).
+ */
+public interface OtpStore {
+
+    /**
+     * Issues a fresh code for the phone number, replacing any previous one.
+     * @return the new 6-digit code, or null if the previous code was issued within the resend cooldown
+     */
+    default String issue(String phoneNumber) {
+        return issue(phoneNumber, false);
+    }
+
+    /**
+     * Issues a fresh code for the phone number, replacing any previous one; with
+     * {@code ignoreCooldown} even one issued within the resend cooldown, and never returns null then.
+     */
+    String issue(String phoneNumber, boolean ignoreCooldown);
+
+    /**
+     * Checks a code and consumes it on success. Every call counts as an attempt.
+     */
+    VerifyOutcome verify(String phoneNumber, String code);
+
+    enum VerifyOutcome {
+        VERIFIED,
+        MISMATCH,
+        /** No code pending, or it has expired. */
+        EXPIRED,
+        TOO_MANY_ATTEMPTS
+    }
+}
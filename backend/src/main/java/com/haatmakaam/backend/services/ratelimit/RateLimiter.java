@@ -0,0 +1,117 @@
+package com.haatmakaam.backend.services.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token-bucket rate limiter for one policy (e.g. "register, per phone").
+ *
+ * Each key's bucket is a single {@link AtomicLong} holding its theoretical arrival time (the GCRA
+ * formulation of a token bucket): a request is admitted if pushing that time forward by one
+ * emission interval keeps it within {@code capacity} intervals of now. Admission is one CAS loop,
+ * with no locks and no per-request allocation. Keys are spread over independent striped maps so
+ * concurrent inserts and the idle sweep do not contend on one table.
+ *
+ * A bucket whose arrival time is in the past is full again and indistinguishable from a new one,
+ * so {@link #evictIdle()} drops it. The number of tracked keys is capped at {@code maxKeys}; beyond
+ * that, new keys are admitted without being tracked rather than locking out legitimate clients.
+ */
+public final class RateLimiter {
+
+    private static final int STRIPES = 16;
+
+    private final String name;
+    private final int capacity;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int maxKeysPerStripe;
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes = new ConcurrentHashMap[STRIPES];
+
+    /**
+     * @param capacity requests allowed in a burst, refilled evenly over {@code period}
+     */
+    public RateLimiter(String name, int capacity, Duration period, int maxKeys) {
+        if (capacity < 1 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Rate limit '" + name + "' needs a positive capacity and period");
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.intervalNanos = period.toNanos() / capacity;
+        this.toleranceNanos = intervalNanos * capacity;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Tries to take one token for the key.
+     * @return 0 if admitted, otherwise the nanoseconds until a token will be available
+     */
+    public long tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    long tryAcquire(String key, long now) {
+        ConcurrentHashMap<String, AtomicLong> stripe = stripes[stripe(key)];
+        AtomicLong bucket = stripe.get(key);
+        if (bucket == null) {
+            if (stripe.size() >= maxKeysPerStripe) {
+                return 0; // over the tracking cap: fail open for this dimension
+            }
+            bucket = stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, now) + intervalNanos;
+            long excess = newTat - now - toleranceNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have fully refilled. Returns the number of buckets removed.
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            for (var entry : stripe.entrySet()) {
+                if (entry.getValue().get() <= now && stripe.remove(entry.getKey(), entry.getValue())) {
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    public int trackedKeys() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private static int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
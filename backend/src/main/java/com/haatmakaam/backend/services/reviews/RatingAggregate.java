@@ -0,0 +1,43 @@
+package com.haatmakaam.backend.services.reviews;
+
+import java.time.LocalDateTime;
+
+/**
+ * A worker's running rating totals as stored on {@code worker_profiles}: the count and sum of all
+ * ratings, and the decayed sums of ratings and of review weights as of {@code recentAsOf} (null
+ * before the first review).
+ */
+record RatingAggregate(int count, long sum, double recentSum, double recentWeight, LocalDateTime recentAsOf) {
+
+    /**
+     * With one more review given at {@code at}. The decayed sums move forward to {@code at}; a
+     * review older than them (another node's clock) is decayed to their time instead, so the
+     * result does not depend on the order reviews arrive in.
+     */
+    RatingAggregate plus(int rating, LocalDateTime at, RatingPolicy policy) {
+        if (recentAsOf == null) {
+            return new RatingAggregate(count + 1, sum + rating, rating, 1, at);
+        }
+        if (at.isBefore(recentAsOf)) {
+            double weight = policy.decay(at, recentAsOf);
+            return new RatingAggregate(count + 1, sum + rating, recentSum + rating * weight, recentWeight + weight, recentAsOf);
+        }
+        double factor = policy.decay(recentAsOf, at);
+        return new RatingAggregate(count + 1, sum + rating, recentSum * factor + rating, recentWeight * factor + 1, at);
+    }
+
+    /**
+     * The same totals with the decayed sums restated as of {@code at}.
+     */
+    RatingAggregate decayedTo(LocalDateTime at, RatingPolicy policy) {
+        if (recentAsOf == null) {
+            return this;
+        }
+        double factor = policy.decay(recentAsOf, at);
+        return new RatingAggregate(count, sum, recentSum * factor, recentWeight * factor, at);
+    }
+
+    double average() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+}
@@ -0,0 +1,118 @@
+package com.haatmakaam.backend.services.reviews;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads and writes the rating aggregates on {@code worker_profiles}. Every change takes the
+ * worker's row lock first, with {@link #lock}, in the transaction that writes it; that lock is
+ * what keeps a review and a reconciliation of the same worker from losing each other's update.
+ */
+@Component
+public class RatingAggregateStore {
+
+    private static final String LOCK_SQL = """
+            SELECT rating_count, rating_sum, recent_sum, recent_weight, recent_as_of
+            FROM worker_profiles
+            WHERE user_id = ?
+            FOR UPDATE
+            """;
+
+    private static final String WRITE_SQL = """
+            UPDATE worker_profiles
+            SET rating_count = ?, rating_sum = ?, rating = ?, rating_score = ?,
+                recent_sum = ?, recent_weight = ?, recent_as_of = ?, recent_score = ?
+            WHERE user_id = ?
+            """;
+
+    /**
+     * A worker's totals computed from its reviews, with the decayed sums as of the first
+     * parameter; the second is the half-life in seconds. Always one row.
+     */
+    static final String RECOMPUTE_SQL = """
+            SELECT count(*) AS review_count,
+                   COALESCE(sum(rating), 0) AS review_sum,
+                   COALESCE(sum(rating * weight), 0) AS review_recent_sum,
+                   COALESCE(sum(weight), 0) AS review_recent_weight
+            FROM (
+                SELECT rating,
+                       power(0.5::float8, EXTRACT(EPOCH FROM (CAST(? AS timestamp) - created_at))::float8 / ?) AS weight
+                FROM reviews
+                WHERE worker_id = %s
+            ) decayed
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RatingPolicy policy;
+
+    @Autowired
+    public RatingAggregateStore(JdbcTemplate jdbcTemplate, RatingPolicy policy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.policy = policy;
+    }
+
+    /**
+     * Locks the worker's profile row until the surrounding transaction ends and returns its
+     * totals, or empty if the worker has no profile.
+     */
+    Optional<RatingAggregate> lock(long workerId) {
+        List<RatingAggregate> rows = jdbcTemplate.query(LOCK_SQL, (rs, rowNum) -> new RatingAggregate(
+                rs.getInt("rating_count"),
+                rs.getLong("rating_sum"),
+                rs.getDouble("recent_sum"),
+                rs.getDouble("recent_weight"),
+                toLocalDateTime(rs.getTimestamp("recent_as_of"))), workerId);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * The worker's totals from its reviews alone, with the decayed sums as of {@code asOf}.
+     */
+    RatingAggregate recompute(long workerId, LocalDateTime asOf) {
+        return jdbcTemplate.queryForObject(RECOMPUTE_SQL.formatted("?"),
+                (rs, rowNum) -> recomputed(rs, asOf),
+                Timestamp.valueOf(asOf), policy.halfLifeSeconds(), workerId);
+    }
+
+    /**
+     * Stores the totals and the scores derived from them. Call with the row locked.
+     */
+    void write(long workerId, RatingAggregate aggregate) {
+        boolean reviewed = aggregate.count() > 0;
+        jdbcTemplate.update(WRITE_SQL,
+                aggregate.count(),
+                aggregate.sum(),
+                aggregate.average(),
+                reviewed ? policy.score(aggregate.sum(), aggregate.count()) : null,
+                aggregate.recentSum(),
+                aggregate.recentWeight(),
+                aggregate.recentAsOf() == null ? null : Timestamp.valueOf(aggregate.recentAsOf()),
+                reviewed ? policy.score(aggregate.recentSum(), aggregate.recentWeight()) : null,
+                workerId);
+    }
+
+    /**
+     * Maps the columns of {@link #RECOMPUTE_SQL}.
+     */
+    static RatingAggregate recomputed(ResultSet rs, LocalDateTime asOf) throws SQLException {
+        int count = rs.getInt("review_count");
+        return new RatingAggregate(
+                count,
+                rs.getLong("review_sum"),
+                rs.getDouble("review_recent_sum"),
+                rs.getDouble("review_recent_weight"),
+                count == 0 ? null : asOf);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
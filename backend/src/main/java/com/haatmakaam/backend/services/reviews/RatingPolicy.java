@@ -0,0 +1,71 @@
+package com.haatmakaam.backend.services.reviews;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * How a worker's reviews become the scores search ranks by.
+ *
+ * A score is the average rating after adding {@code rating.prior.weight} imaginary reviews of
+ * {@code rating.prior.mean}, so a single five-star review does not put a newcomer above a worker
+ * with hundreds of good ones, and a worker without reviews ranks at the prior. The recent score
+ * is the same over reviews whose weight halves every {@code rating.recent.half-life} of age.
+ */
+@Component
+public class RatingPolicy {
+
+    private final double priorMean;
+    private final double priorWeight;
+    private final double halfLifeSeconds;
+
+    @Autowired
+    public RatingPolicy(
+            @Value("${rating.prior.mean:4.0}") double priorMean,
+            @Value("${rating.prior.weight:5}") double priorWeight,
+            @Value("${rating.recent.half-life:90d}") Duration halfLife
+    ) {
+        if (!(priorMean >= 1 && priorMean <= 5)) {
+            throw new IllegalArgumentException("rating.prior.mean must be between 1 and 5");
+        }
+        if (!(priorWeight > 0)) {
+            throw new IllegalArgumentException("rating.prior.weight must be positive");
+        }
+        if (halfLife.isNegative() || halfLife.isZero()) {
+            throw new IllegalArgumentException("rating.recent.half-life must be positive");
+        }
+        this.priorMean = priorMean;
+        this.priorWeight = priorWeight;
+        this.halfLifeSeconds = halfLife.toNanos() / 1e9;
+    }
+
+    /**
+     * The score of a worker without reviews.
+     */
+    public double priorMean() {
+        return priorMean;
+    }
+
+    /**
+     * The smoothed average of reviews whose ratings add up to {@code sum} and whose weights add
+     * up to {@code weight}; for plain counts every review weighs 1.
+     */
+    public double score(double sum, double weight) {
+        return (priorMean * priorWeight + sum) / (priorWeight + weight);
+    }
+
+    double halfLifeSeconds() {
+        return halfLifeSeconds;
+    }
+
+    /**
+     * What a weight at {@code from} is worth at {@code to}: below 1 going forward in time, above
+     * 1 going back.
+     */
+    double decay(LocalDateTime from, LocalDateTime to) {
+        return Math.pow(0.5, Duration.between(from, to).toNanos() / 1e9 / halfLifeSeconds);
+    }
+}
@@ -0,0 +1,205 @@
+package com.haatmakaam.backend.services.reviews;
+
+import com.haatmakaam.backend.models.RatingReconcileReport;
+import com.haatmakaam.backend.services.matching.WorkerIndexMaintainer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks the running rating aggregates against the reviews they were built from, and rewrites
+ * those that disagree.
+ *
+ * Workers are scanned in chunks, each one query that reads the stored totals and recomputes them
+ * from {@code reviews} in the same snapshot, so a review committing meanwhile is either in both or
+ * in neither. Totals that differ are drift: a lost or doubled update, or a review written around
+ * {@link ReviewService}. Totals that agree but whose stored scores are off by more than
+ * {@code rating.reconcile.refresh-threshold} are only stale, because reviews aged since the last
+ * one or the prior changed. Either way the worker's row is locked, recomputed from its reviews and
+ * rewritten, and the worker index is told.
+ *
+ * Every node runs this on {@code rating.reconcile.cron} unless it is set to "-"; runs on several
+ * nodes are safe, as each rewrite happens under the row lock, but only one is needed.
+ */
+@Component
+public class RatingReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingReconciler.class);
+
+    private static final String SCAN_SQL = """
+            SELECT w.user_id, w.rating_count, w.rating_sum, w.rating_score,
+                   w.recent_sum, w.recent_weight, w.recent_as_of, w.recent_score, r.*
+            FROM worker_profiles w
+            CROSS JOIN LATERAL (%s) r
+            WHERE w.user_id > ?
+            ORDER BY w.user_id
+            LIMIT ?
+            """.formatted(RatingAggregateStore.RECOMPUTE_SQL.formatted("w.user_id"));
+
+    private static final int MAX_REPORTED_IDS = 100;
+    // Recomputed decayed sums differ from running ones by rounding only
+    private static final double SUM_TOLERANCE = 1e-6;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RatingAggregateStore store;
+    private final RatingPolicy policy;
+    private final WorkerIndexMaintainer indexMaintainer;
+    private final int chunkSize;
+    private final double refreshThreshold;
+    private final Timer runTimer;
+    private final Counter drifted;
+    private final Counter refreshed;
+
+    @Autowired
+    public RatingReconciler(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            RatingAggregateStore store,
+            RatingPolicy policy,
+            WorkerIndexMaintainer indexMaintainer,
+            MeterRegistry meterRegistry,
+            @Value("${rating.reconcile.chunk-size:500}") int chunkSize,
+            @Value("${rating.reconcile.refresh-threshold:0.01}") double refreshThreshold
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.store = store;
+        this.policy = policy;
+        this.indexMaintainer = indexMaintainer;
+        this.chunkSize = chunkSize;
+        this.refreshThreshold = refreshThreshold;
+        this.runTimer = Timer.builder("rating.reconcile")
+                .description("Time to check every worker's rating aggregates against their reviews")
+                .register(meterRegistry);
+        this.drifted = rewritten(meterRegistry, "drifted");
+        this.refreshed = rewritten(meterRegistry, "refreshed");
+    }
+
+    @Scheduled(cron = "${rating.reconcile.cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * One pass over every worker profile. A second call on the same node waits for the first.
+     */
+    public synchronized RatingReconcileReport reconcile() {
+        return runTimer.record(this::pass);
+    }
+
+    private RatingReconcileReport pass() {
+        LocalDateTime now = LocalDateTime.now();
+        int checked = 0;
+        int driftCount = 0;
+        int refreshCount = 0;
+        List<Long> driftedIds = new ArrayList<>();
+        long after = Long.MIN_VALUE;
+        while (true) {
+            long from = after;
+            // Read-write, so it reads the primary
+            List<Check> chunk = transactionTemplate.execute(status -> scan(from, now));
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            for (Check check : chunk) {
+                if (check.hasDrifted(policy, now)) {
+                    rebuild(check.workerId());
+                    drifted.increment();
+                    driftCount++;
+                    if (driftedIds.size() < MAX_REPORTED_IDS) {
+                        driftedIds.add(check.workerId());
+                    }
+                } else if (check.isStale(policy, refreshThreshold)) {
+                    rebuild(check.workerId());
+                    refreshed.increment();
+                    refreshCount++;
+                }
+            }
+            checked += chunk.size();
+            after = chunk.get(chunk.size() - 1).workerId();
+        }
+        if (driftCount > 0) {
+            log.warn("Rating aggregates of {} workers disagreed with their reviews and were rebuilt, e.g. {}",
+                    driftCount, driftedIds);
+        }
+        log.info("Rating reconciliation checked {} workers: {} drifted, {} refreshed", checked, driftCount, refreshCount);
+        return new RatingReconcileReport(checked, driftCount, refreshCount, driftedIds);
+    }
+
+    private List<Check> scan(long after, LocalDateTime asOf) {
+        return jdbcTemplate.query(SCAN_SQL, (rs, rowNum) -> {
+            Timestamp recentAsOf = rs.getTimestamp("recent_as_of");
+            RatingAggregate stored = new RatingAggregate(
+                    rs.getInt("rating_count"),
+                    rs.getLong("rating_sum"),
+                    rs.getDouble("recent_sum"),
+                    rs.getDouble("recent_weight"),
+                    recentAsOf == null ? null : recentAsOf.toLocalDateTime());
+            return new Check(
+                    rs.getLong("user_id"),
+                    stored,
+                    (Double) rs.getObject("rating_score"),
+                    (Double) rs.getObject("recent_score"),
+                    RatingAggregateStore.recomputed(rs, asOf));
+        }, Timestamp.valueOf(asOf), policy.halfLifeSeconds(), after, chunkSize);
+    }
+
+    // Recomputed under the lock, so reviews committed since the scan are included
+    private void rebuild(long workerId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (store.lock(workerId).isPresent()) {
+                store.write(workerId, store.recompute(workerId, LocalDateTime.now()));
+                indexMaintainer.workerChanged(workerId);
+            }
+        });
+    }
+
+    private static Counter rewritten(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("rating.reconcile.rewritten")
+                .description("Workers whose rating aggregates the reconciler rewrote, by reason")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * One worker's stored totals and scores next to the totals recomputed from its reviews.
+     */
+    private record Check(long workerId, RatingAggregate stored, Double storedScore, Double storedRecentScore,
+                         RatingAggregate expected) {
+
+        boolean hasDrifted(RatingPolicy policy, LocalDateTime asOf) {
+            RatingAggregate current = stored.decayedTo(asOf, policy);
+            return current.count() != expected.count()
+                    || current.sum() != expected.sum()
+                    || !nearlyEqual(current.recentSum(), expected.recentSum())
+                    || !nearlyEqual(current.recentWeight(), expected.recentWeight());
+        }
+
+        boolean isStale(RatingPolicy policy, double threshold) {
+            if (expected.count() == 0) {
+                return storedScore != null || storedRecentScore != null;
+            }
+            return storedScore == null || storedRecentScore == null
+                    || Math.abs(storedScore - policy.score(expected.sum(), expected.count())) > threshold
+                    || Math.abs(storedRecentScore - policy.score(expected.recentSum(), expected.recentWeight())) > threshold;
+        }
+
+        private static boolean nearlyEqual(double a, double b) {
+            return Math.abs(a - b) <= SUM_TOLERANCE * Math.max(1, Math.max(Math.abs(a), Math.abs(b)));
+        }
+    }
+}
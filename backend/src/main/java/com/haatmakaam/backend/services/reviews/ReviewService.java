@@ -0,0 +1,141 @@
+package com.haatmakaam.backend.services.reviews;
+
+import com.haatmakaam.backend.domain.entities.Booking;
+import com.haatmakaam.backend.domain.entities.Review;
+import com.haatmakaam.backend.domain.enums.BookingStatus;
+import com.haatmakaam.backend.domain.enums.NotificationKind;
+import com.haatmakaam.backend.exceptions.BookingConflictException;
+import com.haatmakaam.backend.exceptions.BookingNotFoundException;
+import com.haatmakaam.backend.models.ReviewRequest;
+import com.haatmakaam.backend.models.ReviewResponse;
+import com.haatmakaam.backend.repositories.BookingRepository;
+import com.haatmakaam.backend.repositories.ReviewRepository;
+import com.haatmakaam.backend.services.matching.WorkerIndexMaintainer;
+import com.haatmakaam.backend.services.notifications.NotificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Reviews of completed bookings by their customers.
+ *
+ * Submitting a review also folds it into the worker's running aggregates on
+ * {@code worker_profiles} (count, sum, smoothed score and recent score, see {@link RatingPolicy})
+ * in the same transaction, under the worker's row lock, and announces the change to the worker
+ * index. Search therefore ranks on stored numbers and never aggregates reviews.
+ * {@link RatingReconciler} checks those numbers against the reviews. The worker is notified once
+ * the review has committed.
+ */
+@Service
+public class ReviewService {
+
+    private static final int MAX_COMMENT_LENGTH = 1000;
+
+    private final BookingRepository bookingRepository;
+    private final ReviewRepository reviewRepository;
+    private final RatingAggregateStore aggregateStore;
+    private final RatingPolicy policy;
+    private final WorkerIndexMaintainer indexMaintainer;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter submitted;
+
+    @Autowired
+    public ReviewService(
+            BookingRepository bookingRepository,
+            ReviewRepository reviewRepository,
+            RatingAggregateStore aggregateStore,
+            RatingPolicy policy,
+            WorkerIndexMaintainer indexMaintainer,
+            NotificationService notificationService,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.reviewRepository = reviewRepository;
+        this.aggregateStore = aggregateStore;
+        this.policy = policy;
+        this.indexMaintainer = indexMaintainer;
+        this.notificationService = notificationService;
+        this.transactionTemplate = transactionTemplate;
+        this.submitted = Counter.builder("reviews.submitted")
+                .description("Reviews stored and folded into their worker's rating")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The customer rates a COMPLETED booking, once.
+     */
+    public ReviewResponse submit(long customerId, long bookingId, ReviewRequest request) {
+        if (request.rating() == null || request.rating() < 1 || request.rating() > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5.");
+        }
+        String comment = request.comment() == null || request.comment().isBlank() ? null : request.comment().strip();
+        if (comment != null && comment.length() > MAX_COMMENT_LENGTH) {
+            throw new IllegalArgumentException("Comment must be at most " + MAX_COMMENT_LENGTH + " characters.");
+        }
+        try {
+            ReviewResponse response = transactionTemplate.execute(status ->
+                    insert(customerId, bookingId, request.rating(), comment));
+            submitted.increment();
+            return response;
+        } catch (DataIntegrityViolationException e) {
+            // The insert is batched, so a duplicate comes back as a batch failure rather than a
+            // DuplicateKeyException; only the constraint name tells it from any other violation
+            if (!String.valueOf(e.getMessage()).contains("reviews_booking_key")) {
+                throw e;
+            }
+            // A concurrent submission for the same booking won
+            throw new BookingConflictException("This booking has already been reviewed.");
+        }
+    }
+
+    private ReviewResponse insert(long customerId, long bookingId, int rating, String comment) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .filter(b -> b.getCustomerId() == customerId)
+                .orElseThrow(() -> new BookingNotFoundException("Booking not found."));
+        if (booking.getStatus() != BookingStatus.COMPLETED) {
+            throw new BookingConflictException("Only completed bookings can be reviewed.");
+        }
+        if (reviewRepository.existsByBookingId(bookingId)) {
+            throw new BookingConflictException("This booking has already been reviewed.");
+        }
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Review review = new Review();
+        review.setBookingId(bookingId);
+        review.setWorkerId(booking.getWorkerId());
+        review.setCustomerId(customerId);
+        review.setRating((short) rating);
+        review.setComment(comment);
+        review.setCreatedAt(now);
+        Review saved = reviewRepository.saveAndFlush(review);
+
+        long workerId = booking.getWorkerId();
+        // Without a profile there is nothing to rank; the reconciler catches up if one is created
+        aggregateStore.lock(workerId).ifPresent(aggregate -> {
+            aggregateStore.write(workerId, aggregate.plus(rating, now, policy));
+            indexMaintainer.workerChanged(workerId);
+        });
+        notificationService.notify(workerId, NotificationKind.REVIEW_RECEIVED,
+                "You received a " + rating + "-star review.");
+        return toResponse(saved);
+    }
+
+    private static ReviewResponse toResponse(Review review) {
+        return new ReviewResponse(
+                review.getId(),
+                review.getBookingId(),
+                review.getWorkerId(),
+                review.getCustomerId(),
+                review.getRating(),
+                review.getComment(),
+                review.getCreatedAt());
+    }
+}
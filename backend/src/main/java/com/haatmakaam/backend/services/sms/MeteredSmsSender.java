@@ -0,0 +1,56 @@
+package com.haatmakaam.backend.services.sms;
+
+import com.haatmakaam.backend.exceptions.SmsSendException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every provider call as {@code sms.send}, tagged with the provider and the outcome
+ * (sent, failed, rejected). The destination number is never used as a tag.
+ */
+public class MeteredSmsSender implements SmsSender {
+
+    private final SmsSender delegate;
+    private final Timer sent;
+    private final Timer failed;
+    private final Timer rejected;
+
+    public MeteredSmsSender(SmsSender delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.sent = timer(meterRegistry, delegate.providerName(), "sent");
+        this.failed = timer(meterRegistry, delegate.providerName(), "failed");
+        this.rejected = timer(meterRegistry, delegate.providerName(), "rejected");
+    }
+
+    @Override
+    public String send(String toPhoneNumber, String body) {
+        long start = System.nanoTime();
+        try {
+            String messageId = delegate.send(toPhoneNumber, body);
+            sent.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return messageId;
+        } catch (SmsSendException e) {
+            // Permanent rejections are not retried, so they are worth telling apart from outages
+            (e.isPermanent() ? rejected : failed).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        } catch (RuntimeException e) {
+            failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    @Override
+    public String providerName() {
+        return delegate.providerName();
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String provider, String outcome) {
+        return Timer.builder("sms.send")
+                .description("SMS provider calls")
+                .tag("provider", provider)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,25 @@
+package com.haatmakaam.backend.services.sms;
+
+/**
+ * Hands a single SMS to a provider. Implementations block until the provider has accepted or
+ * rejected the message, so callers should run them off the request thread.
+ * Select the implementation with {@code sms.provider} (twilio or stub).
+ */
+public interface SmsSender {
+
+    /**
+     * Qualifier of the provider implementation, which the primary (metered) SmsSender wraps.
+     */
+    String PROVIDER = "smsProvider";
+
+    /**
+     * Sends an SMS and returns the provider's message id.
+     * @throws com.haatmakaam.backend.exceptions.SmsSendException if the provider rejects the message
+     */
+    String send(String toPhoneNumber, String body);
+
+    /**
+     * Short, fixed provider name used as a metric tag.
+     */
+    String providerName();
+}
@@ -0,0 +1,69 @@
+package com.haatmakaam.backend.services.sms;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Local stand-in for Twilio, for development, tests and load runs ({@code sms.provider=stub}).
+ * Nothing leaves the process; the last message per number is kept so harnesses can read OTPs back.
+ * {@code sms.stub.latency} makes each send block like a provider round trip would.
+ */
+@Component
+@Qualifier(SmsSender.PROVIDER)
+@ConditionalOnProperty(name = "sms.provider", havingValue = "stub")
+public class StubSmsSender implements SmsSender {
+
+    private static final Logger log = LoggerFactory.getLogger(StubSmsSender.class);
+
+    private final Cache<String, String> lastMessages = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .build();
+
+    private final Duration latency;
+
+    public StubSmsSender() {
+        this(Duration.ZERO);
+    }
+
+    @Autowired
+    public StubSmsSender(@Value("${sms.stub.latency:0ms}") Duration latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public String send(String toPhoneNumber, String body) {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while sending", e);
+            }
+        }
+        lastMessages.put(toPhoneNumber, body);
+        log.debug("Stub SMS accepted for delivery ({} chars)", body.length());
+        return "stub-" + UUID.randomUUID();
+    }
+
+    @Override
+    public String providerName() {
+        return "stub";
+    }
+
+    /**
+     * Returns the last message "sent" to a number, or null.
+     */
+    public String lastMessageTo(String phoneNumber) {
+        return lastMessages.getIfPresent(phoneNumber);
+    }
+}
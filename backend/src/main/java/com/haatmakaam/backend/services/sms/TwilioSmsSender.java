@@ -0,0 +1,62 @@
+package com.haatmakaam.backend.services.sms;
+
+import com.haatmakaam.backend.config.TwilioConfig;
+import com.haatmakaam.backend.exceptions.SmsSendException;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.exception.ApiException;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends SMS through the Twilio REST API. This is the default provider.
+ */
+@Component
+@Qualifier(SmsSender.PROVIDER)
+@ConditionalOnProperty(name = "sms.provider", havingValue = "twilio", matchIfMissing = true)
+public class TwilioSmsSender implements SmsSender {
+
+    private final TwilioConfig twilioConfig;
+    private TwilioRestClient restClient;
+
+    @Autowired
+    public TwilioSmsSender(TwilioConfig twilioConfig) {
+        this.twilioConfig = twilioConfig;
+    }
+
+    /**
+     * Builds one client from the credentials in TwilioConfig at startup and passes it to every
+     * request, instead of the SDK's global client, which is built lazily under a class-wide lock
+     * on the first concurrent sends and can be swapped by any other {@code Twilio.init} call.
+     */
+    @PostConstruct
+    public void initTwilio() {
+        this.restClient = new TwilioRestClient.Builder(twilioConfig.getAccountSid(), twilioConfig.getAuthToken()).build();
+    }
+
+    @Override
+    public String send(String toPhoneNumber, String body) {
+        try {
+            Message message = Message.creator(
+                new PhoneNumber(toPhoneNumber),                  // The recipient's phone number.
+                new PhoneNumber(twilioConfig.getPhoneNumber()),  // Your Twilio phone number (the sender).
+                body
+            ).create(restClient); // Blocks on the HTTP call to Twilio.
+            return message.getSid();
+        } catch (ApiException e) {
+            // 4xx other than 429 means Twilio will never accept this message (bad number, blocked, ...)
+            Integer status = e.getStatusCode();
+            boolean permanent = status != null && status >= 400 && status < 500 && status != 429;
+            throw new SmsSendException("Twilio rejected the message: " + e.getMessage(), permanent, e);
+        }
+    }
+
+    @Override
+    public String providerName() {
+        return "twilio";
+    }
+}
@@ -0,0 +1,81 @@
+package com.haatmakaam.backend.services.tokens;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over token ids. "No" is definite, "maybe" has to be confirmed against
+ * the exact set. Sized for {@code capacity} ids at the given false-positive rate; past that the
+ * rate climbs, so the owner replaces it with a larger one rather than keep adding.
+ *
+ * Blocked: one hash picks a 512-bit block (a cache line) and all probe bits fall inside it, so a
+ * lookup costs one memory access instead of one per probe. That raises the false-positive rate a
+ * little at the same size, which the sizing makes up for with a quarter more bits.
+ *
+ * Bits are only ever set, by one writer at a time; readers need no lock.
+ */
+final class BloomFilter {
+
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int BLOCK_BITS = WORDS_PER_BLOCK * 64;
+    // Each probe takes 9 bits of the second hash, so at most 7 fit in 64
+    private static final int MAX_PROBES = 7;
+
+    private final AtomicLongArray words;
+    private final long blockMask;
+    private final int probes;
+    private final int capacity;
+
+    BloomFilter(int capacity, double falsePositiveRate) {
+        if (capacity < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Bloom filter needs a positive capacity and a rate between 0 and 1");
+        }
+        double optimalBits = 1.25 * -capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long wantedBlocks = (long) Math.ceil(optimalBits / BLOCK_BITS);
+        // A power of two, so picking a block is a mask rather than a division
+        long blocks = Math.max(1, Long.highestOneBit(Math.max(1, wantedBlocks) - 1) << 1);
+        this.words = new AtomicLongArray(Math.toIntExact(blocks * WORDS_PER_BLOCK));
+        this.blockMask = blocks - 1;
+        this.probes = (int) Math.max(1, Math.min(MAX_PROBES,
+                Math.round(blocks * BLOCK_BITS / (double) capacity * Math.log(2))));
+        this.capacity = capacity;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    void put(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits());
+        int base = (int) (h1 & blockMask) * WORDS_PER_BLOCK;
+        for (int i = 0; i < probes; i++) {
+            int bit = (int) (h2 >>> (i * 9)) & (BLOCK_BITS - 1);
+            int word = base + (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0) {
+                words.getAndUpdate(word, w -> w | mask);
+            }
+        }
+    }
+
+    boolean mightContain(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits());
+        int base = (int) (h1 & blockMask) * WORDS_PER_BLOCK;
+        for (int i = 0; i < probes; i++) {
+            int bit = (int) (h2 >>> (i * 9)) & (BLOCK_BITS - 1);
+            if ((words.get(base + (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Token ids are random, but the filter should not depend on how the caller made them
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
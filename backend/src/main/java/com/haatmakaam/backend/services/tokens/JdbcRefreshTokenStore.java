@@ -0,0 +1,216 @@
+package com.haatmakaam.backend.services.tokens;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Refresh tokens in Postgres ({@code refresh_tokens}, grouped by {@code refresh_token_families}).
+ *
+ * Every change to a family first locks its row, so a rotation and a revocation of the same family
+ * are serialized: a successor is either stored before the family is revoked, and revoked with it,
+ * or refused. Revocation is recorded on the family, so every token in it stops working at once,
+ * whether or not it was used yet. Each method is its own transaction on the primary.
+ */
+@Component
+public class JdbcRefreshTokenStore implements RefreshTokenStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcRefreshTokenStore.class);
+
+    private static final String CREATE_FAMILY_SQL = """
+            INSERT INTO refresh_token_families (id, user_id, created_at, expires_at) VALUES (?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_TOKEN_SQL = """
+            INSERT INTO refresh_tokens (token_hash, family_id, access_token_id, access_expires_at, created_at, expires_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String FAMILY_OF_SQL = "SELECT family_id FROM refresh_tokens WHERE token_hash = ?";
+
+    private static final String LOCK_FAMILY_SQL = """
+            SELECT user_id, revoked_at IS NOT NULL AS revoked FROM refresh_token_families WHERE id = ? FOR UPDATE
+            """;
+
+    private static final String USE_SQL = """
+            UPDATE refresh_tokens SET used_at = ? WHERE token_hash = ? AND used_at IS NULL AND expires_at > ?
+            """;
+
+    private static final String WAS_USED_SQL = """
+            SELECT used_at IS NOT NULL AND expires_at > ? FROM refresh_tokens WHERE token_hash = ?
+            """;
+
+    private static final String EXTEND_FAMILY_SQL = """
+            UPDATE refresh_token_families SET expires_at = GREATEST(expires_at, ?) WHERE id = ?
+            """;
+
+    private static final String REVOKE_FAMILY_SQL = """
+            UPDATE refresh_token_families SET revoked_at = ? WHERE id = ? AND revoked_at IS NULL
+            """;
+
+    private static final String REVOKE_USER_SQL = """
+            UPDATE refresh_token_families SET revoked_at = ? WHERE user_id = ? AND revoked_at IS NULL RETURNING id
+            """;
+
+    private static final String LIVE_ACCESS_TOKENS_SQL = """
+            SELECT access_token_id, access_expires_at FROM refresh_tokens
+            WHERE family_id = ANY(?) AND access_expires_at > ?
+            """;
+
+    private static final String PURGE_SQL = """
+            DELETE FROM refresh_token_families
+            WHERE id IN (SELECT id FROM refresh_token_families WHERE expires_at <= ? LIMIT ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TokenDenylist denylist;
+    private final int purgeChunkSize;
+
+    @Autowired
+    public JdbcRefreshTokenStore(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            TokenDenylist denylist,
+            @Value("${jwt.refresh-token.purge-chunk-size:5000}") int purgeChunkSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.denylist = denylist;
+        this.purgeChunkSize = purgeChunkSize;
+    }
+
+    @Override
+    public void create(long userId, RefreshToken token) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(CREATE_FAMILY_SQL, token.familyId(), userId, now, new Timestamp(token.expiresAtMillis()));
+            insert(token, now);
+        });
+    }
+
+    @Override
+    public Consumption consume(byte[] tokenHash) {
+        return transactionTemplate.execute(status -> {
+            UUID familyId = familyOf(tokenHash);
+            if (familyId == null) {
+                return Consumption.rejected(ConsumeOutcome.INVALID);
+            }
+            Family family = lock(familyId);
+            if (family.revoked()) {
+                return Consumption.rejected(ConsumeOutcome.INVALID);
+            }
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            if (jdbcTemplate.update(USE_SQL, now, tokenHash, now) == 1) {
+                return new Consumption(ConsumeOutcome.CONSUMED, family.userId(), familyId);
+            }
+            Boolean reused = jdbcTemplate.queryForObject(WAS_USED_SQL, Boolean.class, now, tokenHash);
+            if (!Boolean.TRUE.equals(reused)) {
+                return Consumption.rejected(ConsumeOutcome.INVALID);
+            }
+            // Whoever holds the other copy may be the attacker or the user; neither keeps the session
+            jdbcTemplate.update(REVOKE_FAMILY_SQL, now, familyId);
+            denyAccessTokens(List.of(familyId), now);
+            log.warn("Refresh token reused; revoked token family {} of user {}", familyId, family.userId());
+            return Consumption.rejected(ConsumeOutcome.REUSED);
+        });
+    }
+
+    @Override
+    public boolean extend(RefreshToken token) {
+        Boolean stored = transactionTemplate.execute(status -> {
+            if (lock(token.familyId()).revoked()) {
+                return false;
+            }
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            insert(token, now);
+            jdbcTemplate.update(EXTEND_FAMILY_SQL, new Timestamp(token.expiresAtMillis()), token.familyId());
+            return true;
+        });
+        return Boolean.TRUE.equals(stored);
+    }
+
+    @Override
+    public boolean revokeFamily(byte[] tokenHash) {
+        Boolean known = transactionTemplate.execute(status -> {
+            UUID familyId = familyOf(tokenHash);
+            if (familyId == null) {
+                return false;
+            }
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            if (jdbcTemplate.update(REVOKE_FAMILY_SQL, now, familyId) == 1) {
+                denyAccessTokens(List.of(familyId), now);
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(known);
+    }
+
+    @Override
+    public int revokeUser(long userId) {
+        Integer revoked = transactionTemplate.execute(status -> {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            List<UUID> families = jdbcTemplate.queryForList(REVOKE_USER_SQL, UUID.class, now, userId);
+            denyAccessTokens(families, now);
+            return families.size();
+        });
+        return revoked == null ? 0 : revoked;
+    }
+
+    /**
+     * Deletes families whose newest token has expired, with all their tokens.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-token.purge-interval-ms:3600000}")
+    public void purge() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis());
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, cutoff, purgeChunkSize);
+        } while (deleted == purgeChunkSize);
+    }
+
+    // The families' rows are locked already, so no successor can be added while this runs
+    private void denyAccessTokens(List<UUID> familyIds, Timestamp now) {
+        if (familyIds.isEmpty()) {
+            return;
+        }
+        List<TokenDenylist.Revocation> live = jdbcTemplate.query(LIVE_ACCESS_TOKENS_SQL,
+                (rs, rowNum) -> new TokenDenylist.Revocation(
+                        rs.getObject("access_token_id", UUID.class),
+                        rs.getTimestamp("access_expires_at").getTime()),
+                familyIds.toArray(UUID[]::new), now);
+        denylist.revoke(live);
+    }
+
+    private void insert(RefreshToken token, Timestamp now) {
+        jdbcTemplate.update(INSERT_TOKEN_SQL,
+                token.tokenHash(),
+                token.familyId(),
+                token.accessTokenId(),
+                new Timestamp(token.accessExpiresAtMillis()),
+                now,
+                new Timestamp(token.expiresAtMillis()));
+    }
+
+    private UUID familyOf(byte[] tokenHash) {
+        List<UUID> family = jdbcTemplate.queryForList(FAMILY_OF_SQL, UUID.class, (Object) tokenHash);
+        return family.isEmpty() ? null : family.get(0);
+    }
+
+    private Family lock(UUID familyId) {
+        return jdbcTemplate.queryForObject(LOCK_FAMILY_SQL,
+                (rs, rowNum) -> new Family(rs.getLong("user_id"), rs.getBoolean("revoked")), familyId);
+    }
+
+    private record Family(long userId, boolean revoked) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.haatmakaam.backend.services.tokens;
+
+import java.util.UUID;
+
+/**
+ * Holds refresh tokens, grouped into one family per login.
+ *
+ * A token is good for one refresh: {@link #consume} marks it used, and the caller then
+ * {@link #extend}s the family with its successor. A token that is presented again after it was used
+ * has leaked or been replayed, so that revokes its whole family, including the access tokens
+ * issued with it. Tokens are only ever handled as SHA-256 hashes.
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Starts a new family with its first token.
+     */
+    void create(long userId, RefreshToken token);
+
+    /**
+     * Uses up the token with this hash. Every call with a known, live token counts, even if the
+     * caller then fails to issue a successor.
+     */
+    Consumption consume(byte[] tokenHash);
+
+    /**
+     * Adds the successor of a consumed token to its family.
+     * @return false if the family was revoked meanwhile, in which case nothing is stored
+     */
+    boolean extend(RefreshToken token);
+
+    /**
+     * Revokes the family of the token with this hash, and denies its unexpired access tokens.
+     * @return false if no such token is known
+     */
+    boolean revokeFamily(byte[] tokenHash);
+
+    /**
+     * Revokes every family of the user, and denies their unexpired access tokens.
+     * @return the number of families revoked
+     */
+    int revokeUser(long userId);
+
+    /**
+     * One refresh token and the access token issued with it.
+     */
+    record RefreshToken(
+            byte[] tokenHash,
+            UUID familyId,
+            UUID accessTokenId,
+            long accessExpiresAtMillis,
+            long expiresAtMillis
+    ) {
+    }
+
+    record Consumption(ConsumeOutcome outcome, long userId, UUID familyId) {
+
+        static Consumption rejected(ConsumeOutcome outcome) {
+            return new Consumption(outcome, 0L, null);
+        }
+    }
+
+    enum ConsumeOutcome {
+        CONSUMED,
+        /** Unknown, expired, or of a revoked family. */
+        INVALID,
+        /** Used before; the family has been revoked. */
+        REUSED
+    }
+}
@@ -0,0 +1,303 @@
+package com.haatmakaam.backend.services.tokens;
+
+import com.haatmakaam.backend.services.cluster.PgNotificationBus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked access tokens, by jti, checked on every authenticated request without any I/O.
+ *
+ * {@link #isRevoked} asks a Bloom filter first; almost every token is not revoked, and for those
+ * the answer is a few bit reads. Only a "maybe" goes on to the exact set. Both hold only tokens
+ * that have not expired yet, since an expired token is rejected before it gets here, so their size
+ * tracks revocations within one access-token lifetime.
+ *
+ * The set of record is {@code revoked_tokens}. A revocation inserts its row in the caller's
+ * transaction and is applied locally once that commits; other nodes hear of it on
+ * {@value #CHANNEL}, and each node also reads rows past the highest id it has seen every
+ * {@code jwt.denylist.sync-interval-ms}, in case a notification was lost. Ids are handed out at
+ * insert but rows become visible at commit, so an id skipped over by a sync is looked for again
+ * until it shows up or {@code jwt.denylist.gap-timeout} passes (a rolled back insert never shows).
+ * After a listener reconnect, the whole set is reloaded.
+ */
+@Component
+public class TokenDenylist {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenDenylist.class);
+
+    static final String CHANNEL = "token_denylist";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO revoked_tokens (id, jti, expires_at, revoked_at)
+            VALUES (nextval('revoked_tokens_seq'), ?, ?, ?)
+            ON CONFLICT (jti) DO NOTHING
+            """;
+
+    private static final String LOAD_SQL = """
+            SELECT id, jti, expires_at FROM revoked_tokens WHERE expires_at > ? ORDER BY id
+            """;
+
+    private static final String SYNC_SQL = """
+            SELECT id, jti, expires_at FROM revoked_tokens WHERE id > ? OR id = ANY(?) ORDER BY id LIMIT ?
+            """;
+
+    private static final String PURGE_SQL = """
+            DELETE FROM revoked_tokens WHERE id IN (SELECT id FROM revoked_tokens WHERE expires_at <= ? LIMIT ?)
+            """;
+
+    // Beyond this many missing ids, a jump is treated as a reload and not tracked id by id
+    private static final int MAX_GAPS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PgNotificationBus notificationBus;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final int syncBatchSize;
+    private final long gapTimeoutNanos;
+    private final int purgeChunkSize;
+
+    private final Map<UUID, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    // Guarded by this
+    private long highestSeenId;
+    private final Map<Long, Long> gaps = new HashMap<>();
+
+    private final Counter falsePositives;
+    private final Counter missedIds;
+    private final Timer syncTimer;
+
+    @Autowired
+    public TokenDenylist(
+            JdbcTemplate jdbcTemplate,
+            PgNotificationBus notificationBus,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.denylist.expected-entries:100000}") int expectedEntries,
+            @Value("${jwt.denylist.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${jwt.denylist.sync-batch-size:1000}") int syncBatchSize,
+            @Value("${jwt.denylist.gap-timeout:30s}") Duration gapTimeout,
+            @Value("${jwt.denylist.purge-chunk-size:5000}") int purgeChunkSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationBus = notificationBus;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncBatchSize = syncBatchSize;
+        this.gapTimeoutNanos = gapTimeout.toNanos();
+        this.purgeChunkSize = purgeChunkSize;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        this.falsePositives = Counter.builder("jwt.denylist.false-positives")
+                .description("Lookups the Bloom filter passed on to the exact set for a token that was not revoked")
+                .register(meterRegistry);
+        this.missedIds = Counter.builder("jwt.denylist.gaps.expired")
+                .description("Denylist ids skipped by a sync that never showed up within the gap timeout")
+                .register(meterRegistry);
+        this.syncTimer = Timer.builder("jwt.denylist.sync")
+                .description("Reading denylist rows added since the last sync")
+                .register(meterRegistry);
+        Gauge.builder("jwt.denylist.size", revoked, Map::size)
+                .description("Revoked, unexpired access tokens held on this node")
+                .register(meterRegistry);
+        if (jdbcTemplate != null) {
+            if (notificationBus != null) {
+                notificationBus.subscribe(CHANNEL, this::onNotification, this::reload);
+                // Listening before the load, so nothing revoked meanwhile is missed
+                if (!notificationBus.awaitListening(CHANNEL, Duration.ofSeconds(10))) {
+                    log.warn("Not listening for token revocations yet; relying on the periodic sync");
+                }
+            }
+            reload();
+        }
+    }
+
+    /**
+     * Node-local denylist without a database, for single-instance use and benchmarks.
+     */
+    public TokenDenylist(int expectedEntries, double falsePositiveRate, MeterRegistry meterRegistry) {
+        this(null, null, meterRegistry, expectedEntries, falsePositiveRate, 0, Duration.ZERO, 0);
+    }
+
+    /**
+     * Whether the access token with this id was revoked. Tokens without an id predate revocation
+     * and are never denied here.
+     */
+    public boolean isRevoked(UUID tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        if (revoked.containsKey(tokenId)) {
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Revokes access tokens on every node. Call from the transaction that ends their session:
+     * the rows are written in it, and this node and the others apply them once it commits.
+     */
+    public void revoke(List<Revocation> revocations) {
+        if (revocations.isEmpty()) {
+            return;
+        }
+        if (jdbcTemplate != null) {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            jdbcTemplate.batchUpdate(INSERT_SQL, revocations, revocations.size(), (ps, revocation) -> {
+                ps.setObject(1, revocation.tokenId());
+                ps.setTimestamp(2, new Timestamp(revocation.expiresAtMillis()));
+                ps.setTimestamp(3, now);
+            });
+            if (notificationBus != null) {
+                for (Revocation revocation : revocations) {
+                    notificationBus.publish(CHANNEL, revocation.tokenId() + ":" + revocation.expiresAtMillis());
+                }
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revocations.forEach(r -> add(r.tokenId(), r.expiresAtMillis()));
+                }
+            });
+        } else {
+            revocations.forEach(r -> add(r.tokenId(), r.expiresAtMillis()));
+        }
+    }
+
+    /**
+     * Reads rows added since the last sync, and looks again for ids earlier syncs skipped.
+     */
+    @Scheduled(fixedDelayString = "${jwt.denylist.sync-interval-ms:5000}")
+    public void sync() {
+        if (jdbcTemplate == null) {
+            return;
+        }
+        syncTimer.record(this::catchUp);
+    }
+
+    private synchronized void catchUp() {
+        long now = System.currentTimeMillis();
+        long nanoNow = System.nanoTime();
+        List<Row> rows;
+        do {
+            Long[] missing = gaps.keySet().toArray(Long[]::new);
+            rows = jdbcTemplate.query(SYNC_SQL, (rs, rowNum) -> new Row(
+                    rs.getLong("id"),
+                    rs.getObject("jti", UUID.class),
+                    rs.getTimestamp("expires_at").getTime()), highestSeenId, missing, syncBatchSize);
+            for (Row row : rows) {
+                gaps.remove(row.id());
+                if (row.id() > highestSeenId) {
+                    long skipped = row.id() - highestSeenId - 1;
+                    if (skipped > 0 && gaps.size() + skipped <= MAX_GAPS) {
+                        for (long id = highestSeenId + 1; id < row.id(); id++) {
+                            gaps.put(id, nanoNow + gapTimeoutNanos);
+                        }
+                    }
+                    highestSeenId = row.id();
+                }
+                if (row.expiresAtMillis() > now) {
+                    add(row.tokenId(), row.expiresAtMillis());
+                }
+            }
+        } while (rows.size() == syncBatchSize);
+        Iterator<Long> deadlines = gaps.values().iterator();
+        while (deadlines.hasNext()) {
+            if (deadlines.next() - nanoNow < 0) {
+                deadlines.remove();
+                missedIds.increment();
+            }
+        }
+    }
+
+    /**
+     * Drops expired entries, shrinking the filter with them, and deletes their rows.
+     */
+    @Scheduled(fixedDelayString = "${jwt.denylist.prune-interval-ms:60000}")
+    public void prune() {
+        long now = System.currentTimeMillis();
+        if (revoked.values().removeIf(expiresAt -> expiresAt <= now)) {
+            rebuildFilter();
+        }
+        if (jdbcTemplate != null) {
+            Timestamp cutoff = new Timestamp(now);
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(PURGE_SQL, cutoff, purgeChunkSize);
+            } while (deleted == purgeChunkSize);
+        }
+    }
+
+    private void onNotification(String payload) {
+        int separator = payload.indexOf(':');
+        try {
+            add(UUID.fromString(payload.substring(0, separator)), Long.parseLong(payload.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed token revocation notification");
+        }
+    }
+
+    // Missed notifications could be for any token
+    private synchronized void reload() {
+        long now = System.currentTimeMillis();
+        long[] highest = {0};
+        Map<UUID, Long> loaded = new HashMap<>();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            loaded.put(rs.getObject("jti", UUID.class), rs.getTimestamp("expires_at").getTime());
+            highest[0] = rs.getLong("id");
+        }, new Timestamp(now));
+        revoked.putAll(loaded);
+        rebuildFilter();
+        highestSeenId = Math.max(highestSeenId, highest[0]);
+        gaps.clear();
+        log.info("Loaded {} revoked access tokens", loaded.size());
+    }
+
+    private synchronized void add(UUID tokenId, long expiresAtMillis) {
+        if (revoked.putIfAbsent(tokenId, expiresAtMillis) != null) {
+            return;
+        }
+        BloomFilter current = filter;
+        if (revoked.size() > current.capacity()) {
+            rebuildFilter();
+        } else {
+            current.put(tokenId);
+        }
+    }
+
+    // Entries can only be added to a Bloom filter, so pruning and growing mean a new one
+    private synchronized void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+
+    /**
+     * An access token to deny until it expires.
+     */
+    public record Revocation(UUID tokenId, long expiresAtMillis) {
+    }
+
+    private record Row(long id, UUID tokenId, long expiresAtMillis) {
+    }
+}
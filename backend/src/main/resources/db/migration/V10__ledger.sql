@@ -0,0 +1,62 @@
+-- The wallet ledger: double-entry and append-only. A transaction debits one account and credits one
+-- or more others, each leg an entry, and its entries sum to zero. Entries are never updated or
+-- deleted; a correction is a new transaction. Amounts are in paisa.
+
+CREATE SEQUENCE ledger_accounts_seq START WITH 1000 INCREMENT BY 1;
+-- Transaction ids are taken in blocks by each writer stripe, see LedgerService
+CREATE SEQUENCE ledger_transactions_seq START WITH 1 INCREMENT BY 100;
+CREATE SEQUENCE ledger_entries_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE ledger_accounts (
+    id         bigint        NOT NULL,
+    owner_id   bigint,
+    kind       varchar(32)   NOT NULL,
+    -- The running balance of a wallet, moved by each committed batch of entries. NULL for the
+    -- platform's own accounts, which may go negative and whose balance is the sum of their entries,
+    -- so the busiest accounts have no row for every settlement to lock.
+    balance    bigint,
+    created_at timestamp(6)  NOT NULL,
+    CONSTRAINT ledger_accounts_pkey PRIMARY KEY (id),
+    CONSTRAINT ledger_accounts_owner_kind_key UNIQUE (owner_id, kind),
+    CONSTRAINT ledger_accounts_owner_fkey FOREIGN KEY (owner_id) REFERENCES users (id),
+    -- The authority on overdrafts: the in-memory balances only keep doomed postings out of a batch
+    CONSTRAINT ledger_accounts_balance_check CHECK (balance >= 0)
+);
+
+-- The platform's accounts have fixed ids below the sequence's start
+INSERT INTO ledger_accounts (id, owner_id, kind, balance, created_at) VALUES
+    (1, NULL, 'PLATFORM_FEES', NULL, now()),
+    (2, NULL, 'ESEWA_CLEARING', NULL, now()),
+    (3, NULL, 'KHALTI_CLEARING', NULL, now());
+
+CREATE TABLE ledger_transactions (
+    id               bigint        NOT NULL,
+    -- Chosen by the caller, e.g. the gateway's payment id, so a retried callback posts nothing new
+    idempotency_key  varchar(100)  NOT NULL,
+    kind             varchar(32)   NOT NULL,
+    reference        varchar(100),
+    debit_account_id bigint        NOT NULL,
+    amount           bigint        NOT NULL,
+    created_at       timestamp(6)  NOT NULL,
+    CONSTRAINT ledger_transactions_pkey PRIMARY KEY (id),
+    CONSTRAINT ledger_transactions_idempotency_key UNIQUE (idempotency_key),
+    CONSTRAINT ledger_transactions_debit_account_fkey FOREIGN KEY (debit_account_id) REFERENCES ledger_accounts (id),
+    CONSTRAINT ledger_transactions_amount_check CHECK (amount > 0)
+);
+
+CREATE TABLE ledger_entries (
+    id             bigint        NOT NULL,
+    transaction_id bigint        NOT NULL,
+    account_id     bigint        NOT NULL,
+    -- Negative for the debit, positive for each credit
+    amount         bigint        NOT NULL,
+    created_at     timestamp(6)  NOT NULL,
+    CONSTRAINT ledger_entries_pkey PRIMARY KEY (id),
+    CONSTRAINT ledger_entries_transaction_fkey FOREIGN KEY (transaction_id) REFERENCES ledger_transactions (id),
+    CONSTRAINT ledger_entries_account_fkey FOREIGN KEY (account_id) REFERENCES ledger_accounts (id),
+    CONSTRAINT ledger_entries_amount_check CHECK (amount <> 0)
+);
+
+-- An account's statement, newest first, paged by id
+CREATE INDEX ledger_entries_account_id_idx ON ledger_entries (account_id, id DESC);
+CREATE INDEX ledger_entries_transaction_id_idx ON ledger_entries (transaction_id);
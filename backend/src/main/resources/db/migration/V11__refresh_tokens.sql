@@ -0,0 +1,50 @@
+-- Refresh tokens and access-token revocation.
+--
+-- Each login starts a family; every refresh marks the presented token used and adds its successor
+-- to the same family. Presenting a used token again revokes the whole family. Tokens are stored as
+-- SHA-256 hashes only, next to the id and expiry of the access token issued with them, so that
+-- revoking a family can also deny those access tokens.
+--
+-- revoked_tokens is the access-token denylist. Every node keeps it in memory and catches up by id,
+-- so ids come from a plain increment; rows are purged once the token they deny has expired.
+
+CREATE TABLE refresh_token_families (
+    id         uuid          NOT NULL,
+    user_id    bigint        NOT NULL,
+    created_at timestamp(6)  NOT NULL,
+    -- Moves forward with every rotation; the family is purged once its newest token has expired
+    expires_at timestamp(6)  NOT NULL,
+    revoked_at timestamp(6),
+    CONSTRAINT refresh_token_families_pkey PRIMARY KEY (id),
+    CONSTRAINT refresh_token_families_user_fkey FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX refresh_token_families_user_id_idx ON refresh_token_families (user_id);
+CREATE INDEX refresh_token_families_expires_at_idx ON refresh_token_families (expires_at);
+
+CREATE TABLE refresh_tokens (
+    token_hash        bytea         NOT NULL,
+    family_id         uuid          NOT NULL,
+    access_token_id   uuid          NOT NULL,
+    access_expires_at timestamp(6)  NOT NULL,
+    created_at        timestamp(6)  NOT NULL,
+    expires_at        timestamp(6)  NOT NULL,
+    used_at           timestamp(6),
+    CONSTRAINT refresh_tokens_pkey PRIMARY KEY (token_hash),
+    CONSTRAINT refresh_tokens_family_fkey FOREIGN KEY (family_id) REFERENCES refresh_token_families (id) ON DELETE CASCADE
+);
+
+CREATE INDEX refresh_tokens_family_id_idx ON refresh_tokens (family_id);
+
+CREATE SEQUENCE revoked_tokens_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE revoked_tokens (
+    id         bigint        NOT NULL,
+    jti        uuid          NOT NULL,
+    expires_at timestamp(6)  NOT NULL,
+    revoked_at timestamp(6)  NOT NULL,
+    CONSTRAINT revoked_tokens_pkey PRIMARY KEY (id),
+    CONSTRAINT revoked_tokens_jti_key UNIQUE (jti)
+);
+
+CREATE INDEX revoked_tokens_expires_at_idx ON revoked_tokens (expires_at);
@@ -0,0 +1,11 @@
+-- The outbox body is the OTP in plaintext. It is cleared once a message is SENT or DEAD, and
+-- OtpOutboxDispatcher purges settled rows after otp.outbox.retention.
+
+ALTER TABLE otp_outbox ALTER COLUMN body DROP NOT NULL;
+
+UPDATE otp_outbox SET body = NULL WHERE status IN ('SENT', 'DEAD');
+
+-- The retention purge: status IN ('SENT', 'DEAD') AND created_at < ?
+CREATE INDEX otp_outbox_settled_created_at_idx
+    ON otp_outbox (created_at)
+    WHERE status IN ('SENT', 'DEAD');
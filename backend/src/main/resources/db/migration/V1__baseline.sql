@@ -0,0 +1,59 @@
+-- Baseline: the schema as Hibernate's ddl-auto=update left it. Written to be safe on a database
+-- that update already created (every statement is IF NOT EXISTS or re-runnable), so existing
+-- deployments migrate through the same path as empty ones.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS otp_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id           bigint       NOT NULL,
+    full_name    varchar(255) NOT NULL,
+    phone_number varchar(255) NOT NULL,
+    password     varchar(255) NOT NULL,
+    verified     boolean      NOT NULL,
+    user_role    varchar(255) NOT NULL,
+    CONSTRAINT users_pkey PRIMARY KEY (id),
+    CONSTRAINT users_phone_number_key UNIQUE (phone_number)
+);
+
+-- ddl-auto=update never widened the role check when roles were added; replace it outright
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_user_role_check;
+ALTER TABLE users ADD CONSTRAINT users_user_role_check CHECK (user_role IN ('USER', 'WORKER', 'ADMIN'));
+
+CREATE TABLE IF NOT EXISTS otp_outbox (
+    id                  bigint       NOT NULL,
+    phone_number        varchar(255) NOT NULL,
+    body                varchar(255) NOT NULL,
+    status              varchar(16)  NOT NULL,
+    attempts            integer      NOT NULL,
+    next_attempt_at     timestamp(6) NOT NULL,
+    created_at          timestamp(6) NOT NULL,
+    sent_at             timestamp(6),
+    provider_message_id varchar(255),
+    last_error          varchar(500),
+    CONSTRAINT otp_outbox_pkey PRIMARY KEY (id)
+);
+
+ALTER TABLE otp_outbox DROP CONSTRAINT IF EXISTS otp_outbox_status_check;
+ALTER TABLE otp_outbox ADD CONSTRAINT otp_outbox_status_check CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'DEAD'));
+
+CREATE TABLE IF NOT EXISTS otp_codes (
+    phone_number varchar(255) NOT NULL,
+    code         varchar(6)   NOT NULL,
+    attempts     integer      NOT NULL,
+    issued_at    timestamp(6) NOT NULL,
+    expires_at   timestamp(6) NOT NULL,
+    CONSTRAINT otp_codes_pkey PRIMARY KEY (phone_number)
+);
+
+-- Rows from the IDENTITY era sit above the sequences' start. Move each sequence past them unless
+-- its next pooled block (hi - 50, hi] is already clear. Previously done on every boot.
+SELECT setval('users_seq', t.max_id + 50)
+FROM users_seq s, (SELECT MAX(id) AS max_id FROM users) t
+WHERE t.max_id IS NOT NULL
+  AND (CASE WHEN s.is_called THEN s.last_value + 50 ELSE s.last_value END) - 50 < t.max_id;
+
+SELECT setval('otp_outbox_seq', t.max_id + 50)
+FROM otp_outbox_seq s, (SELECT MAX(id) AS max_id FROM otp_outbox) t
+WHERE t.max_id IS NOT NULL
+  AND (CASE WHEN s.is_called THEN s.last_value + 50 ELSE s.last_value END) - 50 < t.max_id;
@@ -0,0 +1,22 @@
+-- Indexes for the queries the application actually runs. CONCURRENTLY keeps users and the outbox
+-- writable while they build, so Flyway runs this file outside a transaction.
+
+-- Outbox poll: status IN ('PENDING', 'SENDING') AND next_attempt_at <= now ORDER BY next_attempt_at.
+-- SENT and DEAD rows are never polled again, so leaving them out keeps the index the size of
+-- the backlog rather than of the table's whole history.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS otp_outbox_due_idx
+    ON otp_outbox (next_attempt_at)
+    WHERE status IN ('PENDING', 'SENDING');
+
+-- Resend-OTP check: phone_number = ? AND NOT verified. Only unverified users are in it, and
+-- INCLUDE (id) answers Hibernate's "select id ... fetch first 1" from the index alone.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS users_unverified_phone_idx
+    ON users (phone_number) INCLUDE (id)
+    WHERE NOT verified;
+
+-- JdbcOtpStore purge: DELETE ... WHERE expires_at <= ?
+CREATE INDEX CONCURRENTLY IF NOT EXISTS otp_codes_expires_at_idx
+    ON otp_codes (expires_at);
+
+-- Phone lookups (login, principal loads, registration, import conflicts) use the unique index
+-- behind users_phone_number_key; a second index on the same column would only slow writes.
@@ -0,0 +1,25 @@
+-- Worker profiles for matching. The in-memory spatial index is built from these tables at
+-- startup, so there is deliberately no geographic index here: nearby searches never reach SQL.
+
+CREATE TABLE worker_profiles (
+    user_id      bigint           NOT NULL,
+    latitude     double precision NOT NULL,
+    longitude    double precision NOT NULL,
+    active       boolean          NOT NULL,
+    rating       double precision NOT NULL DEFAULT 0,
+    rating_count integer          NOT NULL DEFAULT 0,
+    updated_at   timestamp(6)     NOT NULL,
+    CONSTRAINT worker_profiles_pkey PRIMARY KEY (user_id),
+    CONSTRAINT worker_profiles_user_fkey FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT worker_profiles_latitude_check CHECK (latitude BETWEEN -90 AND 90),
+    CONSTRAINT worker_profiles_longitude_check CHECK (longitude BETWEEN -180 AND 180)
+);
+
+CREATE TABLE worker_skills (
+    user_id bigint      NOT NULL,
+    skill   varchar(32) NOT NULL,
+    CONSTRAINT worker_skills_pkey PRIMARY KEY (user_id, skill),
+    CONSTRAINT worker_skills_profile_fkey FOREIGN KEY (user_id) REFERENCES worker_profiles (user_id) ON DELETE CASCADE,
+    CONSTRAINT worker_skills_skill_check CHECK (skill IN ('PLUMBER', 'ELECTRICIAN', 'CARPENTER', 'PAINTER',
+                                                          'MASON', 'CLEANER', 'MECHANIC', 'GARDENER'))
+);
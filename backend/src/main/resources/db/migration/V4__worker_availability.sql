@@ -0,0 +1,8 @@
+-- Weekly availability as a 168-bit set, one bit per hour from Monday 00:00, split over three
+-- bigint words (see WeeklyAvailability). Only the low 40 bits of the last word are used.
+
+ALTER TABLE worker_profiles
+    ADD COLUMN availability_0 bigint NOT NULL DEFAULT 0,
+    ADD COLUMN availability_1 bigint NOT NULL DEFAULT 0,
+    ADD COLUMN availability_2 bigint NOT NULL DEFAULT 0,
+    ADD CONSTRAINT worker_profiles_availability_2_check CHECK (availability_2 BETWEEN 0 AND 1099511627775);
@@ -0,0 +1,38 @@
+-- Bookings and the worker-hours they occupy. booking_slots has one row per booked hour; its
+-- primary key on (worker_id, slot_start) is what finally rules out double booking, whatever
+-- any node's in-memory claims say. Cancelled bookings delete their slot rows, so the hours
+-- can be booked again.
+
+CREATE SEQUENCE bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE bookings (
+    id              bigint       NOT NULL,
+    worker_id       bigint       NOT NULL,
+    customer_id     bigint       NOT NULL,
+    starts_at       timestamp(6) NOT NULL,
+    hours           integer      NOT NULL,
+    status          varchar(16)  NOT NULL,
+    hold_expires_at timestamp(6),
+    created_at      timestamp(6) NOT NULL,
+    updated_at      timestamp(6) NOT NULL,
+    CONSTRAINT bookings_pkey PRIMARY KEY (id),
+    CONSTRAINT bookings_worker_fkey FOREIGN KEY (worker_id) REFERENCES users (id),
+    CONSTRAINT bookings_customer_fkey FOREIGN KEY (customer_id) REFERENCES users (id),
+    CONSTRAINT bookings_hours_check CHECK (hours > 0),
+    CONSTRAINT bookings_status_check CHECK (status IN ('PENDING', 'CONFIRMED', 'COMPLETED', 'CANCELLED'))
+);
+
+CREATE INDEX bookings_worker_starts_at_idx ON bookings (worker_id, starts_at);
+CREATE INDEX bookings_customer_starts_at_idx ON bookings (customer_id, starts_at);
+-- The hold sweeper's scan
+CREATE INDEX bookings_pending_hold_idx ON bookings (hold_expires_at) WHERE status = 'PENDING';
+
+CREATE TABLE booking_slots (
+    worker_id  bigint       NOT NULL,
+    slot_start timestamp(6) NOT NULL,
+    booking_id bigint       NOT NULL,
+    CONSTRAINT booking_slots_pkey PRIMARY KEY (worker_id, slot_start),
+    CONSTRAINT booking_slots_booking_fkey FOREIGN KEY (booking_id) REFERENCES bookings (id) ON DELETE CASCADE
+);
+
+CREATE INDEX booking_slots_booking_idx ON booking_slots (booking_id);
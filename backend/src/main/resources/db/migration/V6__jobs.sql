@@ -0,0 +1,34 @@
+-- Job postings and the worker feed over them. area is the feed cell of the location (0.05 degree
+-- squares, see JobFeedCache); the feed reads the open jobs of nine neighbouring areas newest
+-- first, seeking past the last (created_at, id) seen instead of using OFFSET.
+
+CREATE SEQUENCE jobs_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE jobs (
+    id          bigint           NOT NULL,
+    customer_id bigint           NOT NULL,
+    skill       varchar(32)      NOT NULL,
+    title       varchar(120)     NOT NULL,
+    description varchar(2000),
+    latitude    double precision NOT NULL,
+    longitude   double precision NOT NULL,
+    area        bigint           NOT NULL,
+    status      varchar(16)      NOT NULL,
+    created_at  timestamp(6)     NOT NULL,
+    updated_at  timestamp(6)     NOT NULL,
+    closed_at   timestamp(6),
+    CONSTRAINT jobs_pkey PRIMARY KEY (id),
+    CONSTRAINT jobs_customer_fkey FOREIGN KEY (customer_id) REFERENCES users (id),
+    CONSTRAINT jobs_latitude_check CHECK (latitude BETWEEN -90 AND 90),
+    CONSTRAINT jobs_longitude_check CHECK (longitude BETWEEN -180 AND 180),
+    CONSTRAINT jobs_status_check CHECK (status IN ('OPEN', 'CLOSED')),
+    CONSTRAINT jobs_skill_check CHECK (skill IN ('PLUMBER', 'ELECTRICIAN', 'CARPENTER', 'PAINTER',
+                                                 'MASON', 'CLEANER', 'MECHANIC', 'GARDENER'))
+);
+
+-- The feed page: one index range per area, already in feed order, with and without a skill filter
+CREATE INDEX jobs_feed_idx ON jobs (area, created_at DESC, id DESC) WHERE status = 'OPEN';
+CREATE INDEX jobs_feed_skill_idx ON jobs (area, skill, created_at DESC, id DESC) WHERE status = 'OPEN';
+-- Last-Modified of a feed: the latest change to any job in its areas, closed ones included
+CREATE INDEX jobs_area_updated_at_idx ON jobs (area, updated_at);
+CREATE INDEX jobs_customer_created_at_idx ON jobs (customer_id, created_at);
@@ -0,0 +1,21 @@
+-- Direct messages between two users. Rows are written behind delivery in batches by
+-- ChatMessageWriter, with ids the sending node took in blocks of 100 from chat_messages_seq, so
+-- id order is only send order per node; history pages by (sent_at, id) instead.
+
+CREATE SEQUENCE chat_messages_seq START WITH 1 INCREMENT BY 100;
+
+CREATE TABLE chat_messages (
+    id           bigint        NOT NULL,
+    sender_id    bigint        NOT NULL,
+    recipient_id bigint        NOT NULL,
+    body         varchar(1000) NOT NULL,
+    sent_at      timestamp(6)  NOT NULL,
+    CONSTRAINT chat_messages_pkey PRIMARY KEY (id),
+    CONSTRAINT chat_messages_sender_fkey FOREIGN KEY (sender_id) REFERENCES users (id),
+    CONSTRAINT chat_messages_recipient_fkey FOREIGN KEY (recipient_id) REFERENCES users (id)
+);
+
+-- A conversation is the unordered pair of users; history reads one index range of it, newest first
+CREATE INDEX chat_messages_conversation_idx
+    ON chat_messages (LEAST(sender_id, recipient_id), GREATEST(sender_id, recipient_id), sent_at DESC, id DESC);
+CREATE INDEX chat_messages_recipient_sent_at_idx ON chat_messages (recipient_id, sent_at);
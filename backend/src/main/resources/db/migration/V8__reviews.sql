@@ -0,0 +1,38 @@
+-- Reviews of completed bookings, and the running rating aggregates on worker_profiles that
+-- search ranks by. A review and its worker's aggregates are written in the same transaction,
+-- so nothing ever aggregates over reviews on the read path; RatingReconciler recomputes the
+-- aggregates from here on a schedule and reports any that disagree.
+
+CREATE SEQUENCE reviews_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE reviews (
+    id          bigint        NOT NULL,
+    booking_id  bigint        NOT NULL,
+    worker_id   bigint        NOT NULL,
+    customer_id bigint        NOT NULL,
+    rating      smallint      NOT NULL,
+    comment     varchar(1000),
+    created_at  timestamp(6)  NOT NULL,
+    CONSTRAINT reviews_pkey PRIMARY KEY (id),
+    -- One review per booking, however many requests race to submit it
+    CONSTRAINT reviews_booking_key UNIQUE (booking_id),
+    CONSTRAINT reviews_booking_fkey FOREIGN KEY (booking_id) REFERENCES bookings (id),
+    CONSTRAINT reviews_worker_fkey FOREIGN KEY (worker_id) REFERENCES users (id),
+    CONSTRAINT reviews_customer_fkey FOREIGN KEY (customer_id) REFERENCES users (id),
+    CONSTRAINT reviews_rating_check CHECK (rating BETWEEN 1 AND 5)
+);
+
+-- Recomputing one worker's aggregates reads only that worker's reviews
+CREATE INDEX reviews_worker_created_at_idx ON reviews (worker_id, created_at);
+
+-- rating stays the plain average shown to users. rating_score is the smoothed score search ranks
+-- by, and recent_score the same over reviews weighted down by age: recent_sum and recent_weight
+-- are the decayed sums of ratings and of review weights as of recent_as_of. Both scores are NULL
+-- until the first review, which ranks the worker at the prior.
+ALTER TABLE worker_profiles
+    ADD COLUMN rating_sum    bigint           NOT NULL DEFAULT 0,
+    ADD COLUMN rating_score  double precision,
+    ADD COLUMN recent_sum    double precision NOT NULL DEFAULT 0,
+    ADD COLUMN recent_weight double precision NOT NULL DEFAULT 0,
+    ADD COLUMN recent_as_of  timestamp(6),
+    ADD COLUMN recent_score  double precision;
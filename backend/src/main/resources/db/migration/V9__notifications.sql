@@ -0,0 +1,23 @@
+-- In-app notifications: the inbox behind the bell icon. Rows are written in batches by
+-- InAppNotificationChannel, one per coalesced notification, and purged after a retention period.
+-- Ids come from nextval in the insert itself, so a plain increment is enough.
+
+CREATE SEQUENCE notifications_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE notifications (
+    id         bigint        NOT NULL,
+    user_id    bigint        NOT NULL,
+    kind       varchar(32)   NOT NULL,
+    body       varchar(500)  NOT NULL,
+    -- How many events this notification stands for after coalescing
+    events     integer       NOT NULL,
+    created_at timestamp(6)  NOT NULL,
+    CONSTRAINT notifications_pkey PRIMARY KEY (id),
+    CONSTRAINT notifications_user_fkey FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT notifications_events_check CHECK (events > 0)
+);
+
+-- A user's inbox, newest first, paged by id
+CREATE INDEX notifications_user_id_idx ON notifications (user_id, id DESC);
+-- The retention purge
+CREATE INDEX notifications_created_at_idx ON notifications (created_at);
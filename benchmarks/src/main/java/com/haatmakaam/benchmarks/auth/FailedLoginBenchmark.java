@@ -0,0 +1,181 @@
+package com.haatmakaam.benchmarks.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.haatmakaam.backend.config.BulkheadPasswordEncoder;
+import com.haatmakaam.backend.config.LoginAuthenticationProvider;
+import com.haatmakaam.backend.exceptions.GlobalExceptionHandler;
+import com.haatmakaam.backend.exceptions.UnexpectedErrorLogger;
+import com.haatmakaam.backend.models.LoginRequest;
+import com.haatmakaam.backend.models.OtpVerificationRequest;
+import com.haatmakaam.backend.repositories.OtpOutboxRepository;
+import com.haatmakaam.backend.repositories.UserRepository;
+import com.haatmakaam.backend.services.AuthenticationService;
+import com.haatmakaam.backend.services.OtpService;
+import com.haatmakaam.backend.services.UserCache;
+import com.haatmakaam.backend.services.UserDetailsServiceImpl;
+import com.haatmakaam.backend.services.otp.InMemoryOtpStore;
+import com.haatmakaam.benchmarks.support.Fixtures;
+import com.haatmakaam.benchmarks.support.InMemoryRefreshTokenStore;
+import com.haatmakaam.benchmarks.support.InMemoryUserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejected logins and OTP checks, from {@link AuthenticationService} through the
+ * {@link GlobalExceptionHandler} method Spring would pick to the serialized response body, as a
+ * credential-stuffing flood exercises them. The provider is the one {@code SecurityConfig} builds.
+ *
+ * The password paths still run BCrypt (against a dummy hash for unknown phones, so they take as
+ * long as a wrong password); at the minimum strength the rest of the failure path shows up. The
+ * OTP path has no hashing at all. Run with {@code -prof gc} for the allocation per attempt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FailedLoginBenchmark {
+
+    private static final String UNVERIFIED_PHONE = "+9779800000001";
+    private static final String UNKNOWN_PHONE = "+9779800000002";
+
+    @Param({"4"})
+    public int strength;
+
+    private AuthenticationService authenticationService;
+    private BulkheadPasswordEncoder passwordEncoder;
+    private UnexpectedErrorLogger errorLogger;
+    private GlobalExceptionHandler exceptionHandler;
+    private ExceptionHandlerMethodResolver handlerMethods;
+    private ObjectMapper objectMapper;
+
+    private LoginRequest wrongPassword;
+    private LoginRequest unknownPhone;
+    private LoginRequest unverified;
+    private OtpVerificationRequest wrongOtp;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BulkheadPasswordEncoder(new BCryptPasswordEncoder(strength),
+                Runtime.getRuntime().availableProcessors(), 1024, Duration.ofSeconds(30), new SimpleMeterRegistry());
+
+        UserRepository users = InMemoryUserRepository.create();
+        String hash = passwordEncoder.encode(Fixtures.PASSWORD);
+        users.save(Fixtures.user(42L, Fixtures.PHONE, hash, true));
+        users.save(Fixtures.user(43L, UNVERIFIED_PHONE, hash, false));
+
+        UserCache userCache = new UserCache(users, 10_000, Duration.ofSeconds(30));
+        LoginAuthenticationProvider provider =
+                new LoginAuthenticationProvider(new UserDetailsServiceImpl(users, userCache), passwordEncoder);
+
+        // No failure path touches OTP delivery; the outbox repository is a placeholder
+        OtpOutboxRepository outbox = (OtpOutboxRepository) Proxy.newProxyInstance(
+                OtpOutboxRepository.class.getClassLoader(),
+                new Class<?>[]{OtpOutboxRepository.class},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        authenticationService = new AuthenticationService(
+                users,
+                passwordEncoder,
+                new OtpService(outbox),
+                new ProviderManager(provider),
+                Fixtures.jwtService(10_000),
+                userCache,
+                new InMemoryOtpStore(Duration.ofMinutes(10), 5, Duration.ofSeconds(60), 16),
+                new InMemoryRefreshTokenStore(),
+                Duration.ofDays(30)
+        );
+
+        errorLogger = new UnexpectedErrorLogger(10, 256, new SimpleMeterRegistry());
+        exceptionHandler = new GlobalExceptionHandler(errorLogger);
+        handlerMethods = new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class);
+        // As Spring Boot configures it
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        wrongPassword = new LoginRequest(Fixtures.PHONE, "wrong password");
+        unknownPhone = new LoginRequest(UNKNOWN_PHONE, Fixtures.PASSWORD);
+        unverified = new LoginRequest(UNVERIFIED_PHONE, Fixtures.PASSWORD);
+        // Never issued a code, so every attempt fails the same way without counting towards a lockout
+        wrongOtp = new OtpVerificationRequest(UNKNOWN_PHONE, "123456");
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordEncoder.shutdown();
+        errorLogger.shutdown();
+    }
+
+    @Benchmark
+    public byte[] wrongPassword() throws Exception {
+        return login(wrongPassword);
+    }
+
+    @Benchmark
+    public byte[] unknownPhone() throws Exception {
+        return login(unknownPhone);
+    }
+
+    @Benchmark
+    public byte[] unverifiedUser() throws Exception {
+        return login(unverified);
+    }
+
+    @Benchmark
+    public byte[] wrongOtp() throws Exception {
+        try {
+            authenticationService.verifyOtp(wrongOtp);
+        } catch (RuntimeException e) {
+            return respond(e);
+        }
+        throw new IllegalStateException("OTP was accepted");
+    }
+
+    private byte[] login(LoginRequest request) throws Exception {
+        try {
+            authenticationService.login(request);
+        } catch (RuntimeException e) {
+            return respond(e);
+        }
+        throw new IllegalStateException("Login succeeded");
+    }
+
+    // What the DispatcherServlet does with the exception: pick the handler method, call it and
+    // write the body with the matching message converter
+    private byte[] respond(RuntimeException e) throws Exception {
+        Method method = handlerMethods.resolveMethod(e);
+        Object[] args = new Object[method.getParameterCount()];
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < args.length; i++) {
+            args[i] = types[i].isInstance(e) ? e : null;
+        }
+        Object body = ((ResponseEntity<?>) method.invoke(exceptionHandler, args)).getBody();
+        return body instanceof byte[] bytes ? bytes : objectMapper.writeValueAsBytes(body);
+    }
+}
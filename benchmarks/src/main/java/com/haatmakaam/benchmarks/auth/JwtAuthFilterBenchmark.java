@@ -0,0 +1,111 @@
+package com.haatmakaam.benchmarks.auth;
+
+import com.haatmakaam.backend.config.JwtAuthFilter;
+import com.haatmakaam.backend.domain.entities.User;
+import com.haatmakaam.backend.services.JwtService;
+import com.haatmakaam.backend.services.tokens.TokenDenylist;
+import com.haatmakaam.benchmarks.support.Fixtures;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full JwtAuthFilter pass for a protected request on a mocked servlet request: header parsing,
+ * token verification, principal resolution and SecurityContext population.
+ *
+ * {@code statelessAuth=false} resolves the principal through a UserDetailsService (an in-memory
+ * one here, so the number excludes the real database round trip); {@code true} uses claims only.
+ *
+ * {@code metrics=none} denies every meter so the filter's timers are no-ops; {@code prometheus}
+ * records into the registry used in production. The difference is the instrumentation overhead.
+ *
+ * {@code revokedTokens} preloads the denylist with other tokens' ids, so the request pays the
+ * in-memory revocation check as it would on a node that has seen that many logouts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean statelessAuth;
+
+    @Param({"10000"})
+    public long verifiedCacheSize;
+
+    @Param({"none", "prometheus"})
+    public String metrics;
+
+    @Param({"0", "100000"})
+    public int revokedTokens;
+
+    private JwtAuthFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = Fixtures.jwtService(verifiedCacheSize);
+        User user = Fixtures.user(42L, Fixtures.PHONE, "unused", true);
+        UserDetailsService users = username -> {
+            if (!user.getPhoneNumber().equals(username)) {
+                throw new UsernameNotFoundException("User not found.");
+            }
+            return user;
+        };
+        MeterRegistry registry = meterRegistry();
+        TokenDenylist denylist = new TokenDenylist(100_000, 0.01, registry);
+        for (int i = 0; i < revokedTokens; i++) {
+            denylist.revoke(List.of(new TokenDenylist.Revocation(UUID.randomUUID(), Long.MAX_VALUE)));
+        }
+        filter = new JwtAuthFilter(jwtService, denylist, users, statelessAuth, registry);
+        authorization = "Bearer " + jwtService.generateToken(user);
+    }
+
+    private MeterRegistry meterRegistry() {
+        if (metrics.equals("prometheus")) {
+            return new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        }
+        MeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(MeterFilter.deny());
+        return registry;
+    }
+
+    @Benchmark
+    public Object protectedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/test/protected");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.haatmakaam.benchmarks.auth;
+
+import com.haatmakaam.backend.config.BulkheadPasswordEncoder;
+import com.haatmakaam.backend.config.LoginAuthenticationProvider;
+import com.haatmakaam.backend.models.LoginRequest;
+import com.haatmakaam.backend.models.LoginResponse;
+import com.haatmakaam.backend.repositories.OtpOutboxRepository;
+import com.haatmakaam.backend.repositories.UserRepository;
+import com.haatmakaam.backend.services.AuthenticationService;
+import com.haatmakaam.backend.services.OtpService;
+import com.haatmakaam.backend.services.UserCache;
+import com.haatmakaam.backend.services.UserDetailsServiceImpl;
+import com.haatmakaam.backend.services.otp.InMemoryOtpStore;
+import com.haatmakaam.benchmarks.support.Fixtures;
+import com.haatmakaam.benchmarks.support.InMemoryRefreshTokenStore;
+import com.haatmakaam.benchmarks.support.InMemoryUserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link AuthenticationService#login} against an in-memory user repository: the
+ * AuthenticationManager, BCrypt through the bulkhead, the user lookup and issuing the access and
+ * refresh tokens (kept in memory here, so the insert into refresh_tokens is not included).
+ * BCrypt dominates, so compare against {@link PasswordHashingBenchmark} at the same strength.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    @Param({"10"})
+    public int strength;
+
+    private AuthenticationService authenticationService;
+    private BulkheadPasswordEncoder passwordEncoder;
+    private LoginRequest request;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BulkheadPasswordEncoder(new BCryptPasswordEncoder(strength),
+                Runtime.getRuntime().availableProcessors(), 1024, Duration.ofSeconds(30), new SimpleMeterRegistry());
+
+        UserRepository users = InMemoryUserRepository.create();
+        users.save(Fixtures.user(42L, Fixtures.PHONE, passwordEncoder.encode(Fixtures.PASSWORD), true));
+
+        UserCache userCache = new UserCache(users, 10_000, Duration.ofSeconds(30));
+        LoginAuthenticationProvider provider =
+                new LoginAuthenticationProvider(new UserDetailsServiceImpl(users, userCache), passwordEncoder);
+        AuthenticationManager authenticationManager = new ProviderManager(provider);
+
+        // Login never touches OTP delivery; the outbox repository is a placeholder
+        OtpOutboxRepository outbox = (OtpOutboxRepository) Proxy.newProxyInstance(
+                OtpOutboxRepository.class.getClassLoader(),
+                new Class<?>[]{OtpOutboxRepository.class},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        OtpService otpService = new OtpService(outbox);
+
+        authenticationService = new AuthenticationService(
+                users,
+                passwordEncoder,
+                otpService,
+                authenticationManager,
+                Fixtures.jwtService(10_000),
+                userCache,
+                new InMemoryOtpStore(Duration.ofMinutes(10), 5, Duration.ofSeconds(60), 16),
+                new InMemoryRefreshTokenStore(),
+                Duration.ofDays(30)
+        );
+        request = new LoginRequest(Fixtures.PHONE, Fixtures.PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordEncoder.shutdown();
+    }
+
+    @Benchmark
+    public LoginResponse login() {
+        return authenticationService.login(request);
+    }
+}
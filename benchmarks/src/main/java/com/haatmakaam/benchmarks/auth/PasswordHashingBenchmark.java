@@ -0,0 +1,69 @@
+package com.haatmakaam.benchmarks.auth;
+
+import com.haatmakaam.backend.config.BulkheadPasswordEncoder;
+import com.haatmakaam.benchmarks.support.Fixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt at the configured cost ({@code -p strength=N} to match security.password.bcrypt-strength),
+ * directly and through the hashing bulkhead, to show the bulkhead's hand-off overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({"10"})
+    public int strength;
+
+    private BCryptPasswordEncoder bcrypt;
+    private BulkheadPasswordEncoder bulkhead;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        bcrypt = new BCryptPasswordEncoder(strength);
+        bulkhead = new BulkheadPasswordEncoder(bcrypt, Runtime.getRuntime().availableProcessors(), 1024,
+                Duration.ofSeconds(30), new SimpleMeterRegistry());
+        hash = bcrypt.encode(Fixtures.PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        bulkhead.shutdown();
+    }
+
+    @Benchmark
+    public String encode() {
+        return bcrypt.encode(Fixtures.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return bcrypt.matches(Fixtures.PASSWORD, hash);
+    }
+
+    @Benchmark
+    public boolean matchesThroughBulkhead() {
+        return bulkhead.matches(Fixtures.PASSWORD, hash);
+    }
+}
@@ -0,0 +1,110 @@
+package com.haatmakaam.benchmarks.booking;
+
+import com.haatmakaam.backend.services.booking.SlotClaimTable;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency stress check for SlotClaimTable: many threads race to claim the same worker-hours
+ * and every hour must end up with exactly one winner. With one-hour claims every contested hour
+ * has a winner; with claims over 1 to 3 hours no hour may be won twice, and the table must hold
+ * exactly the hours the winners claimed. Also reports raw claim throughput.
+ *
+ * Run: java -cp target/benchmarks.jar com.haatmakaam.benchmarks.booking.SlotClaimStress [threads] [attemptsPerThread]
+ */
+public final class SlotClaimStress {
+
+    private static final int WORKERS = 64;
+    private static final int HOURS_PER_WORKER = 64;
+    private static final long FIRST_HOUR = 500_000;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 4;
+        int attemptsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        check("one hot slot", threads, attemptsPerThread, 1, 1, 1);
+        check("one-hour claims", threads, attemptsPerThread, WORKERS, HOURS_PER_WORKER, 1);
+        check("1-3 hour claims", threads, attemptsPerThread, WORKERS, HOURS_PER_WORKER, 3);
+        System.out.println("OK");
+    }
+
+    private static void check(String scenario, int threads, int attemptsPerThread, int workers, int hoursPerWorker,
+                              int maxHours) throws Exception {
+        SlotClaimTable table = new SlotClaimTable();
+        int slots = workers * hoursPerWorker;
+        // Token of the winning claim per slot, 0 while unclaimed
+        AtomicLongArray owners = new AtomicLongArray(slots);
+        LongAdder wins = new LongAdder();
+        LongAdder hoursWon = new LongAdder();
+        AssertionError[] failure = new AssertionError[1];
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        int worker = random.nextInt(workers);
+                        int hours = 1 + random.nextInt(maxHours);
+                        int hour = random.nextInt(hoursPerWorker - hours + 1);
+                        long token = table.newToken();
+                        if (!table.claim(worker + 1, FIRST_HOUR + hour, hours, token)) {
+                            continue;
+                        }
+                        wins.increment();
+                        hoursWon.add(hours);
+                        for (int h = 0; h < hours; h++) {
+                            int slot = worker * hoursPerWorker + hour + h;
+                            if (!owners.compareAndSet(slot, 0, token)) {
+                                synchronized (failure) {
+                                    failure[0] = new AssertionError(scenario + ": worker " + (worker + 1) + " hour "
+                                            + (hour + h) + " won by tokens " + owners.get(slot) + " and " + token);
+                                }
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsedNanos = System.nanoTime() - began;
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        int owned = 0;
+        for (int s = 0; s < slots; s++) {
+            if (owners.get(s) != 0) {
+                owned++;
+            } else if (maxHours == 1) {
+                throw new AssertionError(scenario + ": slot " + s + " has no winner");
+            }
+        }
+        if (owned != hoursWon.sum() || table.size() != owned) {
+            throw new AssertionError(scenario + ": " + hoursWon.sum() + " hours won, " + owned + " slots owned, "
+                    + table.size() + " claims in the table");
+        }
+
+        long total = (long) threads * attemptsPerThread;
+        System.out.printf("%-16s threads=%d attempts=%,d slots=%d winners=%d throughput=%,.0f ops/s%n",
+                scenario, threads, total, slots, wins.sum(), total / (elapsedNanos / 1e9));
+    }
+}
@@ -0,0 +1,64 @@
+package com.haatmakaam.benchmarks.jwt;
+
+import com.haatmakaam.backend.domain.entities.User;
+import com.haatmakaam.backend.models.VerifiedToken;
+import com.haatmakaam.backend.services.JwtService;
+import com.haatmakaam.benchmarks.support.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request token work of the original JwtService (extractUsername followed by
+ * isTokenValid, i.e. three key/parser builds and three HMAC checks) with the single-parse
+ * pipeline, with and without the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private LegacyJwtService legacy;
+    private JwtService uncached;
+    private JwtService cached;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        legacy = new LegacyJwtService(Fixtures.JWT_SECRET);
+        uncached = Fixtures.jwtService(0);
+        cached = Fixtures.jwtService(10_000);
+
+        user = Fixtures.user(42L, Fixtures.PHONE, "unused", true);
+        token = cached.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean legacyFilterPath() {
+        String username = legacy.extractUsername(token);
+        return username != null && legacy.isTokenValid(token, user);
+    }
+
+    @Benchmark
+    public VerifiedToken singleParse() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken singleParseCached() {
+        return cached.verify(token);
+    }
+}
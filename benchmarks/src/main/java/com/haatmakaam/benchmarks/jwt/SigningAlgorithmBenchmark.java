@@ -0,0 +1,157 @@
+package com.haatmakaam.benchmarks.jwt;
+
+import com.haatmakaam.backend.config.JwtSigningConfig;
+import com.haatmakaam.backend.models.AccessToken;
+import com.haatmakaam.backend.models.VerifiedToken;
+import com.haatmakaam.backend.services.JwtKeyRing;
+import com.haatmakaam.backend.services.JwtService;
+import com.haatmakaam.benchmarks.support.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access-token signing and uncached verification with each supported algorithm, through a key
+ * ring of {@code ringSize} keys (the newest one signing), so rotation overlap shows up as the
+ * difference between ring sizes. {@link Primitives} measures the bare JDK signature checks,
+ * including Ed25519, which the JWT library in use cannot sign with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SigningAlgorithmBenchmark {
+
+    @Param({"HS256", "ES256"})
+    public String algorithm;
+
+    @Param({"1", "8"})
+    public int ringSize;
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        List<JwtSigningConfig.KeyProperties> keys = new ArrayList<>();
+        for (int i = 0; i < ringSize; i++) {
+            JwtSigningConfig.KeyProperties key = new JwtSigningConfig.KeyProperties();
+            key.setKid("key-" + i);
+            key.setAlgorithm(algorithm);
+            key.setSignFrom(Instant.EPOCH.plus(Duration.ofDays(i)));
+            if ("ES256".equals(algorithm)) {
+                KeyPair pair = ecKeyPair();
+                key.setPrivateKey(Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded()));
+                key.setPublicKey(Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()));
+            } else {
+                key.setSecret(Fixtures.JWT_SECRET + i);
+            }
+            keys.add(key);
+        }
+        jwtService = new JwtService(new JwtKeyRing(keys, null), 0, Duration.ofMinutes(15));
+        token = jwtService.generateToken(Fixtures.user(42L, Fixtures.PHONE, "unused", true));
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtService.verify(token);
+    }
+
+    @Benchmark
+    public AccessToken issue() {
+        return jwtService.issue(Fixtures.user(42L, Fixtures.PHONE, "unused", true));
+    }
+
+    private static KeyPair ecKeyPair() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    /**
+     * One signature check over a token-sized input, without any JWT parsing around it.
+     */
+    @State(Scope.Benchmark)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    public static class Primitives {
+
+        private final byte[] input = ("eyJraWQiOiJrZXktMCIsImFsZyI6IkVTMjU2In0."
+                + "eyJyb2xlIjoiVVNFUiIsInVpZCI6NDIsImp0aSI6IjFmNmQ0YzBlLTk1YjItNDQ3Ny1hZTRlLTk1Y2Q2ZDJlOGQ0MSIsInN1YiI6"
+                + "Iis5Nzc5ODAwMDAwMDAwIiwiaWF0IjoxNzYwNjk0NDAwLCJleHAiOjE3NjA2OTUzMDB9").getBytes(StandardCharsets.US_ASCII);
+
+        private Mac hmac;
+        private byte[] hmacTag;
+        private Signature es256;
+        private byte[] es256Signature;
+        private Signature ed25519;
+        private byte[] ed25519Signature;
+
+        @Setup
+        public void setUp() throws GeneralSecurityException {
+            hmac = Mac.getInstance("HmacSHA256");
+            hmac.init(new SecretKeySpec(Fixtures.JWT_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            hmacTag = hmac.doFinal(input);
+
+            KeyPair ec = ecKeyPair();
+            es256 = Signature.getInstance("SHA256withECDSA");
+            es256.initSign(ec.getPrivate());
+            es256.update(input);
+            es256Signature = es256.sign();
+            es256.initVerify(ec.getPublic());
+
+            KeyPair ed = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+            ed25519 = Signature.getInstance("Ed25519");
+            ed25519.initSign(ed.getPrivate());
+            ed25519.update(input);
+            ed25519Signature = ed25519.sign();
+            ed25519.initVerify(ed.getPublic());
+        }
+
+        @Benchmark
+        public boolean hs256() {
+            return MessageDigest.isEqual(hmacTag, hmac.doFinal(input));
+        }
+
+        @Benchmark
+        public boolean es256() throws GeneralSecurityException {
+            es256.update(input);
+            return es256.verify(es256Signature);
+        }
+
+        @Benchmark
+        public boolean ed25519() throws GeneralSecurityException {
+            ed25519.update(input);
+            return ed25519.verify(ed25519Signature);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.haatmakaam.benchmarks.jwt;
+
+import com.haatmakaam.backend.services.tokens.TokenDenylist;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-request revocation check with {@code revoked} tokens on the denylist: a token that is
+ * not revoked (nearly every request, answered by the Bloom filter), one that is, and the exact set
+ * alone as the baseline the filter sits in front of. The ids cycle through more tokens than fit in
+ * cache, as live traffic would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenDenylistBenchmark {
+
+    private static final int PROBES = 1 << 16;
+
+    @Param({"1000", "100000"})
+    public int revoked;
+
+    private TokenDenylist denylist;
+    private Map<UUID, Long> exactSet;
+    private UUID[] liveIds;
+    private UUID[] revokedIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        denylist = new TokenDenylist(100_000, 0.01, new SimpleMeterRegistry());
+        exactSet = new ConcurrentHashMap<>();
+        List<TokenDenylist.Revocation> revocations = new ArrayList<>(revoked);
+        for (int i = 0; i < revoked; i++) {
+            UUID id = UUID.randomUUID();
+            revocations.add(new TokenDenylist.Revocation(id, Long.MAX_VALUE));
+            exactSet.put(id, Long.MAX_VALUE);
+        }
+        denylist.revoke(revocations);
+
+        liveIds = new UUID[PROBES];
+        revokedIds = new UUID[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            liveIds[i] = UUID.randomUUID();
+            revokedIds[i] = revocations.get(i % revoked).tokenId();
+        }
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return denylist.isRevoked(liveIds[next++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public boolean revokedToken() {
+        return denylist.isRevoked(revokedIds[next++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public boolean exactSetOnly() {
+        return exactSet.containsKey(liveIds[next++ & (PROBES - 1)]);
+    }
+}
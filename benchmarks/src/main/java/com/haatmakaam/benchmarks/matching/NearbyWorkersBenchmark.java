@@ -0,0 +1,194 @@
+package com.haatmakaam.benchmarks.matching;
+
+import com.haatmakaam.backend.domain.entities.WeeklyAvailability;
+import com.haatmakaam.backend.domain.enums.Skill;
+import com.haatmakaam.backend.models.NearbyWorker;
+import com.haatmakaam.backend.services.matching.WorkerSpatialIndex;
+import com.haatmakaam.backend.services.matching.WorkerSpatialIndex.IndexedWorker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Top 10 plumbers within 5 km" on {@link WorkerSpatialIndex} with synthetic workers spread around
+ * Kathmandu, denser towards the centre, each free for one block of hours on most days.
+ * {@code linearScan} answers the same query by checking every worker, which is what a query
+ * without a spatial index has to do. {@code gridIndexFreeTuesdayMorning} adds an availability
+ * window, and {@code availabilityScan} checks that window against every worker's bitmap alone.
+ * {@code moveWorker} measures an incremental update: one worker relocating to a nearby cell.
+ * {@code gridIndexNearPole} searches where the bounding box spans every longitude, which finds
+ * nobody here and so measures only the cells the query visits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NearbyWorkersBenchmark {
+
+    private static final double CENTER_LAT = 27.7172;
+    private static final double CENTER_LON = 85.3240;
+    private static final double KM_PER_DEGREE = 111.32;
+    private static final int QUERY_POINTS = 1024;
+
+    @Param({"100000"})
+    public int workers;
+
+    @Param({"5"})
+    public double radiusKm;
+
+    @Param({"1"})
+    public double cellSizeKm;
+
+    @Param({"10"})
+    public int limit;
+
+    private static final WeeklyAvailability TUESDAY_MORNING = WeeklyAvailability.ofHours(DayOfWeek.TUESDAY, 9, 12);
+
+    private WorkerSpatialIndex index;
+    private IndexedWorker[] all;
+    private long[] availabilityWords;
+    private double[][] queryPoints;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Skill[] skills = Skill.values();
+        all = new IndexedWorker[workers];
+        for (int i = 0; i < workers; i++) {
+            double[] point = randomPoint(random, 8);
+            Set<Skill> workerSkills = EnumSet.of(skills[random.nextInt(skills.length)]);
+            if (random.nextInt(3) == 0) {
+                workerSkills.add(skills[random.nextInt(skills.length)]);
+            }
+            double rating = Math.round((2.5 + random.nextDouble() * 2.5) * 10) / 10.0;
+            int ratingCount = random.nextInt(200);
+            // Smoothed toward 4.0 as if by five more reviews, like the default RatingPolicy
+            double score = (4.0 * 5 + rating * ratingCount) / (5 + ratingCount);
+            all[i] = new IndexedWorker(i + 1, point[0], point[1], workerSkills, randomAvailability(random),
+                    rating, ratingCount, score, score);
+        }
+        availabilityWords = new long[workers * WeeklyAvailability.WORDS];
+        for (int i = 0; i < workers; i++) {
+            for (int w = 0; w < WeeklyAvailability.WORDS; w++) {
+                availabilityWords[i * WeeklyAvailability.WORDS + w] = all[i].availability().word(w);
+            }
+        }
+        index = new WorkerSpatialIndex(cellSizeKm);
+        index.replaceAll(List.of(all));
+
+        queryPoints = new double[QUERY_POINTS][];
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            queryPoints[i] = randomPoint(random, 6);
+        }
+    }
+
+    @Benchmark
+    public List<NearbyWorker> gridIndex() {
+        double[] point = nextQueryPoint();
+        return index.nearest(Skill.PLUMBER, point[0], point[1], radiusKm, limit, WeeklyAvailability.none());
+    }
+
+    @Benchmark
+    public List<NearbyWorker> gridIndexFreeTuesdayMorning() {
+        double[] point = nextQueryPoint();
+        return index.nearest(Skill.PLUMBER, point[0], point[1], radiusKm, limit, TUESDAY_MORNING);
+    }
+
+    @Benchmark
+    public List<NearbyWorker> gridIndexNearPole() {
+        return index.nearest(Skill.PLUMBER, 89.99, 0, radiusKm, limit, WeeklyAvailability.none());
+    }
+
+    @Benchmark
+    public int availabilityScan() {
+        int free = 0;
+        for (int i = 0; i < availabilityWords.length; i += WeeklyAvailability.WORDS) {
+            if (WeeklyAvailability.covers(availabilityWords[i], availabilityWords[i + 1], availabilityWords[i + 2],
+                    TUESDAY_MORNING)) {
+                free++;
+            }
+        }
+        return free;
+    }
+
+    @Benchmark
+    public List<NearbyWorker> linearScan() {
+        double[] point = nextQueryPoint();
+        double kmPerLonDegree = KM_PER_DEGREE * Math.cos(Math.toRadians(point[0]));
+        Comparator<NearbyWorker> best = Comparator.comparingDouble(NearbyWorker::score).reversed()
+                .thenComparingDouble(NearbyWorker::distanceKm);
+        PriorityQueue<NearbyWorker> top = new PriorityQueue<>(best.reversed());
+        for (IndexedWorker worker : all) {
+            if (!worker.skills().contains(Skill.PLUMBER)) {
+                continue;
+            }
+            double dy = (worker.latitude() - point[0]) * KM_PER_DEGREE;
+            double dx = (worker.longitude() - point[1]) * kmPerLonDegree;
+            double distance = Math.sqrt(dx * dx + dy * dy);
+            if (distance <= radiusKm) {
+                top.add(new NearbyWorker(worker.workerId(), distance, worker.rating(), worker.ratingCount(),
+                        worker.score(), worker.recentScore()));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        List<NearbyWorker> result = new ArrayList<>(top);
+        result.sort(best);
+        return result;
+    }
+
+    @Benchmark
+    public void moveWorker() {
+        IndexedWorker worker = all[Math.floorMod(next++, workers)];
+        double shift = (next & 1) == 0 ? 0.01 : -0.01;
+        index.put(new IndexedWorker(worker.workerId(), worker.latitude() + shift, worker.longitude(),
+                worker.skills(), worker.availability(), worker.rating(), worker.ratingCount(), worker.score(),
+                worker.recentScore()));
+    }
+
+    private double[] nextQueryPoint() {
+        return queryPoints[next++ & (QUERY_POINTS - 1)];
+    }
+
+    // Six days a week, one block of 4 to 10 hours starting between 6:00 and 11:00
+    private static WeeklyAvailability randomAvailability(Random random) {
+        WeeklyAvailability availability = WeeklyAvailability.none();
+        DayOfWeek dayOff = DayOfWeek.of(1 + random.nextInt(7));
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day != dayOff) {
+                int from = 6 + random.nextInt(6);
+                availability = availability.union(WeeklyAvailability.ofHours(day, from, from + 4 + random.nextInt(7)));
+            }
+        }
+        return availability;
+    }
+
+    // Normally distributed around the centre, sigmaKm in each direction
+    private static double[] randomPoint(Random random, double sigmaKm) {
+        double lat = CENTER_LAT + random.nextGaussian() * sigmaKm / KM_PER_DEGREE;
+        double lon = CENTER_LON + random.nextGaussian() * sigmaKm / (KM_PER_DEGREE * Math.cos(Math.toRadians(CENTER_LAT)));
+        return new double[]{lat, lon};
+    }
+}
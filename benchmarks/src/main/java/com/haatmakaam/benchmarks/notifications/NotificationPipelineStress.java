@@ -0,0 +1,153 @@
+package com.haatmakaam.benchmarks.notifications;
+
+import com.haatmakaam.backend.domain.enums.NotificationKind;
+import com.haatmakaam.backend.services.notifications.ChannelType;
+import com.haatmakaam.backend.services.notifications.FakePushChannel;
+import com.haatmakaam.backend.services.notifications.Notification;
+import com.haatmakaam.backend.services.notifications.NotificationChannel;
+import com.haatmakaam.backend.services.notifications.NotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Offline stress check for NotificationService with the fake push provider: many threads raise
+ * "new job near you" events for a pool of users, all within one coalescing window. Every event
+ * must be accounted for exactly once in what the channels deliver, and each user must get exactly
+ * one notification per channel. Also reports event throughput, the coalescing ratio and the
+ * provider calls the batches cost.
+ *
+ * Run: java -cp target/benchmarks.jar com.haatmakaam.benchmarks.notifications.NotificationPipelineStress [threads] [users] [eventsPerUser] [pushLatencyMs]
+ */
+public final class NotificationPipelineStress {
+
+    private static final Duration WINDOW = Duration.ofSeconds(3);
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 4;
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int eventsPerUser = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        long pushLatencyMs = args.length > 3 ? Long.parseLong(args[3]) : 20;
+
+        check("coalesced", threads, users, eventsPerUser, WINDOW, pushLatencyMs);
+        check("uncoalesced", threads, Math.min(users, 2_000), eventsPerUser, Duration.ZERO, pushLatencyMs);
+        System.out.println("OK");
+    }
+
+    private static void check(String scenario, int threads, int users, int eventsPerUser, Duration window,
+                              long pushLatencyMs) throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        FakePushChannel push = new FakePushChannel(Duration.ofMillis(pushLatencyMs), 500, 4);
+        RecordingChannel inbox = new RecordingChannel();
+        long raised = (long) users * eventsPerUser;
+        int capacity = (int) Math.min(Integer.MAX_VALUE, raised + 1);
+        NotificationService service = new NotificationService(List.of(push, inbox), null, registry,
+                window, window, window, users + 1, capacity, Duration.ofMillis(50), 100,
+                Duration.ofSeconds(60), false);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long perThread = raised / threads;
+        for (int t = 0; t < threads; t++) {
+            long from = t * perThread;
+            long to = t == threads - 1 ? raised : from + perThread;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (long i = from; i < to; i++) {
+                        // Each pass over the users lands on different threads
+                        long user = 1 + i % users;
+                        service.notify(user, NotificationKind.JOB_NEARBY, "New plumbing job near you: event " + i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        done.await();
+        long raisedNanos = System.nanoTime() - began;
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+        // Let the windows close on their own before draining the channels
+        Thread.sleep(window.toMillis() + 500);
+        service.shutdown();
+        long elapsedNanos = System.nanoTime() - began;
+
+        double dropped = registry.find("notifications.sent").tag("outcome", "dropped").counters().stream()
+                .mapToDouble(c -> c.count()).sum();
+        if (dropped > 0) {
+            throw new AssertionError(scenario + ": " + (long) dropped + " notifications dropped");
+        }
+        if (inbox.events.sum() != raised) {
+            throw new AssertionError(scenario + ": " + raised + " events raised, " + inbox.events.sum() + " delivered");
+        }
+        if (push.delivered() != inbox.notifications.sum()) {
+            throw new AssertionError(scenario + ": push delivered " + push.delivered() + ", in-app "
+                    + inbox.notifications.sum());
+        }
+        if (!window.isZero()) {
+            if (inbox.byUser.size() != users || inbox.notifications.sum() != users) {
+                throw new AssertionError(scenario + ": " + inbox.notifications.sum() + " notifications for "
+                        + inbox.byUser.size() + " of " + users + " users");
+            }
+            Notification sample = push.lastNotificationTo(1);
+            if (sample == null || sample.events() != inbox.byUser.get(1L).sum()) {
+                throw new AssertionError(scenario + ": push to user 1 was " + sample);
+            }
+        }
+
+        System.out.printf("%-12s threads=%d events=%,d raise=%,.0f events/s notifications=%,d ratio=%.1f:1 "
+                        + "push calls=%,d (%.0f per call) total=%.1fs%n",
+                scenario, threads, raised, raised / (raisedNanos / 1e9), inbox.notifications.sum(),
+                (double) raised / inbox.notifications.sum(), push.calls(),
+                (double) push.delivered() / Math.max(1, push.calls()), elapsedNanos / 1e9);
+    }
+
+    /**
+     * Stands in for the in-app channel and counts what reaches it.
+     */
+    private static final class RecordingChannel implements NotificationChannel {
+
+        final LongAdder notifications = new LongAdder();
+        final LongAdder events = new LongAdder();
+        final ConcurrentHashMap<Long, LongAdder> byUser = new ConcurrentHashMap<>();
+
+        @Override
+        public ChannelType type() {
+            return ChannelType.IN_APP;
+        }
+
+        @Override
+        public int maxBatchSize() {
+            return 500;
+        }
+
+        @Override
+        public int maxConcurrency() {
+            return 2;
+        }
+
+        @Override
+        public int send(List<Notification> batch) {
+            for (Notification notification : batch) {
+                notifications.increment();
+                events.add(notification.events());
+                byUser.computeIfAbsent(notification.userId(), id -> new LongAdder()).add(notification.events());
+            }
+            return batch.size();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.haatmakaam.benchmarks.ratelimit;
+
+import com.haatmakaam.backend.services.ratelimit.RateLimiter;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency stress check for RateLimiter: many threads hammer the limiter and the number of
+ * admitted requests per key must equal the configured capacity exactly (the refill period is long
+ * enough that no token is refilled during the run). Also reports raw admission throughput.
+ *
+ * Run: java -cp target/benchmarks.jar com.haatmakaam.benchmarks.ratelimit.RateLimiterStress [threads] [attemptsPerThread]
+ */
+public final class RateLimiterStress {
+
+    private static final int CAPACITY = 100;
+    private static final int KEYS = 64;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 4;
+        int attemptsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        check("single hot key", threads, attemptsPerThread, 1);
+        check(KEYS + " keys", threads, attemptsPerThread, KEYS);
+        System.out.println("OK");
+    }
+
+    private static void check(String scenario, int threads, int attemptsPerThread, int keyCount) throws Exception {
+        RateLimiter limiter = new RateLimiter("stress", CAPACITY, Duration.ofHours(1), 1_000_000);
+        String[] keys = new String[keyCount];
+        LongAdder[] admitted = new LongAdder[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = "+97798" + String.format("%08d", i);
+            admitted[i] = new LongAdder();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        int k = (i + offset) % keyCount;
+                        if (limiter.tryAcquire(keys[k]) == 0) {
+                            admitted[k].increment();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsedNanos = System.nanoTime() - began;
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+
+        for (int k = 0; k < keyCount; k++) {
+            if (admitted[k].sum() != CAPACITY) {
+                throw new AssertionError(scenario + ": key " + keys[k] + " admitted " + admitted[k].sum() + ", expected " + CAPACITY);
+            }
+        }
+
+        long total = (long) threads * attemptsPerThread;
+        System.out.printf("%-16s threads=%d attempts=%,d admitted/key=%d throughput=%,.0f ops/s%n",
+                scenario, threads, total, CAPACITY, total / (elapsedNanos / 1e9));
+    }
+}
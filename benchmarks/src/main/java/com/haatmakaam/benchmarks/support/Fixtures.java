@@ -0,0 +1,35 @@
+package com.haatmakaam.benchmarks.support;
+
+import com.haatmakaam.backend.domain.entities.User;
+import com.haatmakaam.backend.domain.enums.UserRole;
+import com.haatmakaam.backend.services.JwtService;
+
+import java.time.Duration;
+
+/**
+ * Shared benchmark fixtures.
+ */
+public final class Fixtures {
+
+    public static final String JWT_SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long!";
+    public static final String PHONE = "+9779800000000";
+    public static final String PASSWORD = "correct horse battery staple";
+
+    private Fixtures() {
+    }
+
+    public static JwtService jwtService(long verifiedCacheSize) {
+        return new JwtService(JWT_SECRET, verifiedCacheSize, Duration.ofMinutes(15));
+    }
+
+    public static User user(long id, String phone, String passwordHash, boolean verified) {
+        User user = new User();
+        user.setId(id);
+        user.setFullName("Benchmark User");
+        user.setPhoneNumber(phone);
+        user.setPassword(passwordHash);
+        user.setRole(UserRole.USER);
+        user.setVerified(verified);
+        return user;
+    }
+}
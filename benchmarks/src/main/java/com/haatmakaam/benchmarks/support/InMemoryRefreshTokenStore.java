@@ -0,0 +1,41 @@
+package com.haatmakaam.benchmarks.support;
+
+import com.haatmakaam.backend.services.tokens.RefreshTokenStore;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map-backed RefreshTokenStore for benchmarks, so login runs without a database.
+ * Only starting a family, the one thing login does, is implemented.
+ */
+public final class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final Map<UUID, Long> familyOwners = new ConcurrentHashMap<>();
+
+    @Override
+    public void create(long userId, RefreshToken token) {
+        familyOwners.put(token.familyId(), userId);
+    }
+
+    @Override
+    public Consumption consume(byte[] tokenHash) {
+        throw new UnsupportedOperationException("consume");
+    }
+
+    @Override
+    public boolean extend(RefreshToken token) {
+        throw new UnsupportedOperationException("extend");
+    }
+
+    @Override
+    public boolean revokeFamily(byte[] tokenHash) {
+        throw new UnsupportedOperationException("revokeFamily");
+    }
+
+    @Override
+    public int revokeUser(long userId) {
+        throw new UnsupportedOperationException("revokeUser");
+    }
+}
@@ -0,0 +1,64 @@
+package com.haatmakaam.benchmarks.support;
+
+import com.haatmakaam.backend.domain.entities.User;
+import com.haatmakaam.backend.repositories.UserRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Map-backed UserRepository for benchmarks, so service code runs without a database.
+ * Only the methods the authentication paths call are implemented.
+ */
+public final class InMemoryUserRepository {
+
+    private InMemoryUserRepository() {
+    }
+
+    public static UserRepository create() {
+        Map<String, User> byPhone = new ConcurrentHashMap<>();
+        AtomicLong ids = new AtomicLong();
+        return (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByPhoneNumber" -> Optional.ofNullable(byPhone.get((String) args[0]));
+                    case "existsByPhoneNumber" -> byPhone.containsKey((String) args[0]);
+                    case "existsByPhoneNumberAndVerifiedFalse" -> {
+                        User user = byPhone.get((String) args[0]);
+                        yield user != null && !user.isVerified();
+                    }
+                    case "save" -> {
+                        User user = (User) args[0];
+                        if (user.getId() == null) {
+                            user.setId(ids.incrementAndGet());
+                        }
+                        byPhone.put(user.getPhoneNumber(), user);
+                        yield user;
+                    }
+                    case "markVerified" -> {
+                        User user = byPhone.get((String) args[0]);
+                        if (user == null) {
+                            yield 0;
+                        }
+                        user.setVerified(true);
+                        yield 1;
+                    }
+                    case "updatePassword" -> {
+                        User user = byPhone.get((String) args[0]);
+                        if (user == null) {
+                            yield 0;
+                        }
+                        user.setPassword((String) args[1]);
+                        yield 1;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryUserRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,134 @@
+package com.haatmakaam.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haatmakaam.backend.services.sms.StubSmsSender;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * One virtual user's loop: register a fresh phone number, wait for the OTP to come out of the
+ * outbox, verify it, log in, then call the protected endpoint a fixed number of times.
+ *
+ * Virtual users are closed-loop (the next request is sent when the previous one returns), so
+ * latencies are those seen by the configured concurrency, not by a fixed arrival rate.
+ */
+final class AuthScenario {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration OTP_WAIT = Duration.ofSeconds(10);
+    private static final String PASSWORD = "load-test-password";
+
+    private final HttpClient http;
+    private final URI baseUri;
+    private final StubSmsSender sms;
+    private final Metrics metrics;
+    private final int protectedPerLogin;
+    private final ObjectMapper json = new ObjectMapper();
+
+    AuthScenario(HttpClient http, URI baseUri, StubSmsSender sms, Metrics metrics, int protectedPerLogin) {
+        this.http = http;
+        this.baseUri = baseUri;
+        this.sms = sms;
+        this.metrics = metrics;
+        this.protectedPerLogin = protectedPerLogin;
+    }
+
+    void run(int userIndex, BooleanSupplier running) throws InterruptedException {
+        for (long iteration = 0; running.getAsBoolean(); iteration++) {
+            // Unique per user and iteration; the database is fresh for every run
+            String phone = String.format("+97798%03d%05d", userIndex % 1000, iteration % 100_000);
+            try {
+                iteration(phone, running);
+            } catch (StepFailed e) {
+                // Already counted against the failing endpoint; start over with a new user
+            }
+        }
+    }
+
+    private void iteration(String phone, BooleanSupplier running) throws InterruptedException, StepFailed {
+        post(Metrics.REGISTER, "/api/auth/register",
+                Map.of("name", "Load Test", "phone", phone, "password", PASSWORD, "role", "USER"));
+
+        String otp = awaitOtp(phone);
+        post(Metrics.VERIFY_OTP, "/api/auth/verify-otp", Map.of("phone", phone, "otp", otp));
+
+        HttpResponse<String> login = post(Metrics.LOGIN, "/api/auth/login", Map.of("phone", phone, "password", PASSWORD));
+        String token;
+        try {
+            token = json.readTree(login.body()).path("token").asText();
+        } catch (IOException e) {
+            throw new StepFailed();
+        }
+
+        HttpRequest protectedRequest = HttpRequest.newBuilder(baseUri.resolve("/api/test/protected"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        for (int i = 0; i < protectedPerLogin && running.getAsBoolean(); i++) {
+            send(Metrics.PROTECTED, protectedRequest);
+        }
+    }
+
+    private String awaitOtp(String phone) throws InterruptedException, StepFailed {
+        long start = System.nanoTime();
+        long deadline = start + OTP_WAIT.toNanos();
+        String message;
+        while ((message = sms.lastMessageTo(phone)) == null) {
+            if (System.nanoTime() > deadline) {
+                metrics.error(Metrics.OTP_DELIVERY, start);
+                throw new StepFailed();
+            }
+            Thread.sleep(2);
+        }
+        metrics.success(Metrics.OTP_DELIVERY, start, System.nanoTime());
+        // The code is the last six characters of the message body
+        return message.substring(message.length() - 6);
+    }
+
+    private HttpResponse<String> post(String endpoint, String path, Map<String, String> body)
+            throws InterruptedException, StepFailed {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(baseUri.resolve(path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return send(endpoint, request);
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest request) throws InterruptedException, StepFailed {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 == 2) {
+                metrics.success(endpoint, start, System.nanoTime());
+                return response;
+            }
+        } catch (IOException e) {
+            // Connection reset, timeout: counted as an error like a non-2xx status
+        }
+        metrics.error(endpoint, start);
+        throw new StepFailed();
+    }
+
+    /**
+     * Ends the current iteration. Thrown often under overload, so it carries no stack trace.
+     */
+    private static final class StepFailed extends Exception {
+        StepFailed() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.haatmakaam.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haatmakaam.backend.services.sms.StubSmsSender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Races many customers to book the same few worker-hours through {@code POST /api/bookings} and
+ * checks that every hour was booked exactly once: one 201 per slot, 409 for everyone else, and
+ * one {@code booking_slots} row per slot. Runs twice on fresh backends, with the in-memory slot
+ * claims on and with only the database constraint, and reports throughput and latency of each.
+ *
+ * <pre>
+ *   java -jar target/loadtest.jar booking-contention [--attempts=4000 --slots=4 --customers=50 --concurrency=256]
+ * </pre>
+ *
+ * Any other {@code --key=value} is passed to the backend as a Spring property.
+ */
+final class BookingContention {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration OTP_WAIT = Duration.ofSeconds(10);
+    private static final String PASSWORD = "load-test-password";
+    private static final String WORKER_PHONE = "+9779700000000";
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper json = new ObjectMapper();
+
+    private BookingContention() {
+    }
+
+    static boolean run(String[] args, PrintStream out) throws Exception {
+        int attempts = 4000;
+        int slots = 4;
+        int customers = 50;
+        int concurrency = 256;
+        Map<String, String> backendProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (key) {
+                case "attempts" -> attempts = Integer.parseInt(value);
+                case "slots" -> slots = Integer.parseInt(value);
+                case "customers" -> customers = Integer.parseInt(value);
+                case "concurrency" -> concurrency = Integer.parseInt(value);
+                default -> backendProperties.put(key, value);
+            }
+        }
+        if (slots < 1 || customers < 1 || attempts < slots) {
+            throw new IllegalArgumentException("Need at least one slot, one customer, and an attempt per slot");
+        }
+
+        // Sign-up is not what is measured here
+        backendProperties.putIfAbsent("security.password.bcrypt-strength", "4");
+
+        BookingContention contention = new BookingContention();
+        boolean passed = true;
+        for (boolean claims : new boolean[]{true, false}) {
+            Map<String, String> properties = new LinkedHashMap<>(backendProperties);
+            properties.put("booking.claims.enabled", Boolean.toString(claims));
+            passed &= contention.runOnce(properties, attempts, slots, customers, concurrency, out);
+        }
+        out.println(passed ? "OK" : "FAILED");
+        return passed;
+    }
+
+    private boolean runOnce(Map<String, String> properties, int attempts, int slots, int customers, int concurrency,
+                            PrintStream out) throws Exception {
+        try (EmbeddedBackend backend = EmbeddedBackend.start(properties, false)) {
+            URI baseUri = backend.baseUri();
+            StubSmsSender sms = backend.smsStub();
+
+            String workerToken = signUp(baseUri, sms, WORKER_PHONE, "WORKER");
+            JsonNode profile = json.readTree(send(baseUri, "PUT", "/api/workers/me/profile", workerToken,
+                    Map.of("latitude", 27.7172, "longitude", 85.3240, "skills", List.of("PLUMBER"))).body());
+            long workerId = profile.path("workerId").asLong();
+            List<Map<String, Object>> everyHour = new ArrayList<>();
+            for (DayOfWeek day : DayOfWeek.values()) {
+                everyHour.add(Map.of("day", day.name(), "fromHour", 0, "toHour", 24));
+            }
+            send(baseUri, "PATCH", "/api/workers/me/availability", workerToken, Map.of("add", everyHour));
+
+            List<String> customerTokens = signUpCustomers(baseUri, sms, customers);
+
+            ZoneId zone = ZoneId.of(properties.getOrDefault("booking.zone", "Asia/Kathmandu"));
+            LocalDateTime firstSlot = LocalDateTime.now(zone).truncatedTo(ChronoUnit.HOURS).plusDays(1);
+            byte[][] bodies = new byte[slots][];
+            for (int s = 0; s < slots; s++) {
+                bodies[s] = json.writeValueAsBytes(Map.of(
+                        "workerId", workerId, "startsAt", firstSlot.plusHours(s).toString(), "hours", 1));
+            }
+
+            AtomicIntegerArray created = new AtomicIntegerArray(slots);
+            LongAdder conflicts = new LongAdder();
+            LongAdder errors = new LongAdder();
+            Histogram latencies = new ConcurrentHistogram(3);
+            Semaphore inFlight = new Semaphore(concurrency);
+            CountDownLatch start = new CountDownLatch(1);
+            long began;
+            long elapsedNanos;
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < attempts; i++) {
+                    int slot = i % slots;
+                    HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/bookings"))
+                            .timeout(REQUEST_TIMEOUT)
+                            .header("Content-Type", "application/json")
+                            .header("Authorization", "Bearer " + customerTokens.get(i % customers))
+                            .POST(HttpRequest.BodyPublishers.ofByteArray(bodies[slot]))
+                            .build();
+                    clients.submit(() -> {
+                        start.await();
+                        inFlight.acquire();
+                        long sent = System.nanoTime();
+                        try {
+                            int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            latencies.recordValue(System.nanoTime() - sent);
+                            if (status == 201) {
+                                created.incrementAndGet(slot);
+                            } else if (status == 409) {
+                                conflicts.increment();
+                            } else {
+                                errors.increment();
+                            }
+                        } catch (IOException e) {
+                            errors.increment();
+                        } finally {
+                            inFlight.release();
+                        }
+                        return null;
+                    });
+                }
+                began = System.nanoTime();
+                start.countDown();
+                clients.shutdown();
+                clients.awaitTermination(5, TimeUnit.MINUTES);
+                elapsedNanos = System.nanoTime() - began;
+            }
+
+            boolean passed = errors.sum() == 0;
+            JdbcTemplate jdbc = backend.bean(JdbcTemplate.class);
+            for (int s = 0; s < slots; s++) {
+                Integer rows = jdbc.queryForObject(
+                        "SELECT count(*) FROM booking_slots WHERE worker_id = ? AND slot_start = ?", Integer.class,
+                        workerId, Timestamp.valueOf(firstSlot.plusHours(s)));
+                if (created.get(s) != 1 || rows == null || rows != 1) {
+                    out.printf("  slot %s: %d bookings accepted, %d slot rows%n", firstSlot.plusHours(s), created.get(s), rows);
+                    passed = false;
+                }
+            }
+            Integer bookings = jdbc.queryForObject("SELECT count(*) FROM bookings", Integer.class);
+            if (bookings == null || bookings != slots) {
+                out.printf("  %d booking rows for %d slots%n", bookings, slots);
+                passed = false;
+            }
+
+            MeterRegistry registry = backend.bean(MeterRegistry.class);
+            out.printf("claims=%-5s attempts=%,d slots=%d accepted=%d conflicts=%,d (memory %,.0f, database %,.0f) "
+                            + "errors=%d throughput=%,.0f req/s p50=%.1f ms p99=%.1f ms%n",
+                    properties.get("booking.claims.enabled"), attempts, slots, bookings, conflicts.sum(),
+                    outcome(registry, "conflict_memory"), outcome(registry, "conflict_database"),
+                    errors.sum(), attempts / (elapsedNanos / 1e9),
+                    latencies.getValueAtPercentile(50) / 1e6, latencies.getValueAtPercentile(99) / 1e6);
+            return passed;
+        }
+    }
+
+    // One at a time: sign-up is BCrypt-bound and not what this run measures
+    private List<String> signUpCustomers(URI baseUri, StubSmsSender sms, int customers) throws Exception {
+        List<String> tokens = new ArrayList<>(customers);
+        for (int i = 0; i < customers; i++) {
+            tokens.add(signUp(baseUri, sms, String.format("+97798%08d", i), "USER"));
+        }
+        return tokens;
+    }
+
+    // register -> OTP from the stub provider -> verify-otp -> login, returning the access token
+    private String signUp(URI baseUri, StubSmsSender sms, String phone, String role) throws Exception {
+        send(baseUri, "POST", "/api/auth/register", null,
+                Map.of("name", "Load Test", "phone", phone, "password", PASSWORD, "role", role));
+        long deadline = System.nanoTime() + OTP_WAIT.toNanos();
+        String message;
+        while ((message = sms.lastMessageTo(phone)) == null) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("No OTP for " + phone);
+            }
+            Thread.sleep(2);
+        }
+        send(baseUri, "POST", "/api/auth/verify-otp", null,
+                Map.of("phone", phone, "otp", message.substring(message.length() - 6)));
+        HttpResponse<String> login = send(baseUri, "POST", "/api/auth/login", null,
+                Map.of("phone", phone, "password", PASSWORD));
+        return json.readTree(login.body()).path("token").asText();
+    }
+
+    private HttpResponse<String> send(URI baseUri, String method, String path, String token, Object body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(method + " " + path + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+    private static double outcome(MeterRegistry registry, String outcome) {
+        Counter counter = registry.find("booking.attempts").tag("outcome", outcome).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
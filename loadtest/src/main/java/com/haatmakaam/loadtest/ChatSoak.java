@@ -0,0 +1,372 @@
+package com.haatmakaam.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haatmakaam.backend.domain.entities.User;
+import com.haatmakaam.backend.domain.enums.UserRole;
+import com.haatmakaam.backend.services.JwtService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Soak test of the {@code /ws/chat} socket: opens thousands of authenticated sockets from this JVM,
+ * has every client send timestamped messages to the next one, and reports delivery latency, heap
+ * per open socket and how the write-behind batched the inserts. A few extra clients stop reading
+ * and are flooded, to check they are disconnected as slow consumers while everyone else keeps
+ * getting messages. The run fails unless every message reached its recipient and its row.
+ *
+ * <pre>
+ *   java -jar target/loadtest.jar chat-soak [--connections=2000 --messages=20 --interval=1s --slow=2]
+ * </pre>
+ *
+ * Client and server share the heap, so the memory figure is an upper bound for the server's
+ * cost of a socket. Any other {@code --key=value} is passed to the backend as a Spring property.
+ */
+final class ChatSoak {
+
+    // Far above the ids the backend hands out, so the soak users never collide with real sign-ups
+    private static final long FIRST_USER_ID = 1_000_000_000L;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+    private static final int MAX_CONNECTING = 64;
+    private static final int FLOOD_PER_SLOW_CLIENT = 20_000;
+    // Near the body limit, so the flood outgrows the socket buffers between server and stalled client
+    private static final String FLOOD_PADDING = " ".repeat(900);
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final LongAdder received = new LongAdder();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    private ChatSoak() {
+    }
+
+    static boolean run(String[] args, PrintStream out) throws Exception {
+        int connections = 2000;
+        int messages = 20;
+        Duration interval = Duration.ofSeconds(1);
+        int slow = 2;
+        Map<String, String> backendProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (key) {
+                case "connections" -> connections = Integer.parseInt(value);
+                case "messages" -> messages = Integer.parseInt(value);
+                case "interval" -> interval = parseDuration(value);
+                case "slow" -> slow = Integer.parseInt(value);
+                default -> backendProperties.put(key, value);
+            }
+        }
+        if (connections < 2) {
+            throw new IllegalArgumentException("Need at least two connections");
+        }
+        return new ChatSoak().runOnce(backendProperties, connections, messages, interval, slow, out);
+    }
+
+    private boolean runOnce(Map<String, String> properties, int connections, int messages, Duration interval,
+                            int slow, PrintStream out) throws Exception {
+        try (EmbeddedBackend backend = EmbeddedBackend.start(properties, false)) {
+            URI socketUri = URI.create(backend.baseUri().toString().replaceFirst("^http", "ws") + "/ws/chat");
+            List<String> tokens = createUsers(backend, connections + slow + 1);
+
+            long heapBefore = usedHeapAfterGc();
+            List<Client> clients = connect(socketUri, tokens, 0, connections, true);
+            long heapAfter = usedHeapAfterGc();
+            out.printf("%,d sockets open, heap %,d -> %,d bytes: %,.1f KiB per socket (client and server)%n",
+                    connections, heapBefore, heapAfter, (heapAfter - heapBefore) / 1024.0 / connections);
+
+            // One unmeasured round first: JIT, recipient lookups and the first id blocks
+            sendRound(clients, 1, Duration.ZERO);
+            boolean warmedUp = awaitCount(received, connections) && awaitCount(acked, connections);
+            latencies.reset();
+            received.reset();
+            acked.reset();
+
+            long began = System.nanoTime();
+            sendRound(clients, messages, interval);
+            long expected = (long) connections * messages;
+            boolean delivered = awaitCount(received, expected) && awaitCount(acked, expected);
+            double elapsedSeconds = (System.nanoTime() - began) / 1e9;
+            long receivedBySoak = received.sum();
+            long ackedBySoak = acked.sum();
+            long errorsBySoak = errors.sum();
+            Histogram soakLatencies = latencies.copy();
+
+            boolean slowClosed = floodSlowConsumers(socketUri, tokens, connections, slow, backend, out);
+
+            MeterRegistry registry = backend.bean(MeterRegistry.class);
+            boolean written = awaitWriter(registry);
+            JdbcTemplate jdbc = backend.bean(JdbcTemplate.class);
+            Long rows = jdbc.queryForObject(
+                    "SELECT count(*) FROM chat_messages WHERE sender_id < ?", Long.class, FIRST_USER_ID + connections);
+            // Plus the warm-up round
+            long expectedRows = expected + connections;
+
+            DistributionSummary batches = registry.find("chat.writer.batch.size").summary();
+            out.printf("messages=%,d received=%,d acked=%,d errors=%d rows=%,d throughput=%,.0f msg/s "
+                            + "p50=%.1f ms p99=%.1f ms p99.9=%.1f ms max=%.1f ms%n",
+                    expected, receivedBySoak, ackedBySoak, errorsBySoak, rows == null ? 0 : rows - connections,
+                    expected / elapsedSeconds,
+                    soakLatencies.getValueAtPercentile(50) / 1e6, soakLatencies.getValueAtPercentile(99) / 1e6,
+                    soakLatencies.getValueAtPercentile(99.9) / 1e6, soakLatencies.getMaxValue() / 1e6);
+            if (batches != null) {
+                out.printf("write-behind: %,d batches, mean %.1f rows, max %.0f rows%n",
+                        batches.count(), batches.mean(), batches.max());
+            }
+
+            for (Client client : clients) {
+                client.socket.sendClose(WebSocket.NORMAL_CLOSURE, "done");
+            }
+
+            boolean passed = warmedUp && delivered && written && slowClosed && errors.sum() == 0
+                    && receivedBySoak == expected && ackedBySoak == expected && rows != null && rows == expectedRows;
+            out.println(passed ? "OK" : "FAILED");
+            return passed;
+        }
+    }
+
+    // Every client sends to the next one, so each receives exactly what its predecessor sent
+    private static void sendRound(List<Client> clients, int messages, Duration interval) {
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients.size(); i++) {
+                Client client = clients.get(i);
+                long recipientId = FIRST_USER_ID + (i + 1) % clients.size();
+                senders.submit(() -> {
+                    for (int m = 0; m < messages; m++) {
+                        client.send(recipientId, m, "");
+                        Thread.sleep(interval.toMillis());
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    /**
+     * Users inserted directly, with tokens minted by the backend's own JwtService: sign-up is not
+     * what is measured, and thousands of BCrypt hashes would dominate the run.
+     */
+    private static List<String> createUsers(EmbeddedBackend backend, int count) {
+        JdbcTemplate jdbc = backend.bean(JdbcTemplate.class);
+        JwtService jwtService = backend.bean(JwtService.class);
+        List<Object[]> rows = new ArrayList<>(count);
+        List<String> tokens = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setId(FIRST_USER_ID + i);
+            user.setFullName("Chat Soak " + i);
+            user.setPhoneNumber(String.format("+97797%08d", i));
+            user.setPassword("unused");
+            user.setVerified(true);
+            user.setRole(UserRole.USER);
+            rows.add(new Object[]{user.getId(), user.getFullName(), user.getPhoneNumber(), user.getPassword(), true,
+                    user.getRole().name()});
+            tokens.add(jwtService.generateToken(user));
+        }
+        jdbc.batchUpdate("INSERT INTO users (id, full_name, phone_number, password, verified, user_role)"
+                + " VALUES (?, ?, ?, ?, ?, ?)", rows);
+        return tokens;
+    }
+
+    // Sockets for users first .. first + count - 1, at most MAX_CONNECTING handshakes at a time
+    private List<Client> connect(URI socketUri, List<String> tokens, int first, int count, boolean reading)
+            throws Exception {
+        List<CompletableFuture<Client>> pending = new ArrayList<>(count);
+        Semaphore connecting = new Semaphore(MAX_CONNECTING);
+        for (int i = first; i < first + count; i++) {
+            connecting.acquire();
+            Client client = new Client(FIRST_USER_ID + i, reading);
+            pending.add(http.newWebSocketBuilder()
+                    .header("Authorization", "Bearer " + tokens.get(i))
+                    .connectTimeout(CONNECT_TIMEOUT)
+                    .buildAsync(socketUri, client)
+                    .whenComplete((socket, failure) -> connecting.release())
+                    .thenApply(socket -> {
+                        client.socket = socket;
+                        return client;
+                    }));
+        }
+        List<Client> clients = new ArrayList<>(count);
+        for (CompletableFuture<Client> future : pending) {
+            clients.add(future.get(CONNECT_TIMEOUT.toSeconds(), TimeUnit.SECONDS));
+        }
+        return clients;
+    }
+
+    /**
+     * Opens sockets that never read, floods them from one more client, and waits until the server
+     * dropped each of them as a slow consumer.
+     */
+    private boolean floodSlowConsumers(URI socketUri, List<String> tokens, int first, int slow, EmbeddedBackend backend,
+                                       PrintStream out) throws Exception {
+        if (slow == 0) {
+            return true;
+        }
+        Counter closed = backend.bean(MeterRegistry.class).find("chat.sessions.slow_consumer").counter();
+        double closedBefore = closed == null ? 0 : closed.count();
+        List<Client> stalled = connect(socketUri, tokens, first, slow, false);
+        Client flooder = connect(socketUri, tokens, first + slow, 1, true).get(0);
+        long sentBefore = acked.sum();
+        for (int m = 0; m < FLOOD_PER_SLOW_CLIENT; m++) {
+            for (Client target : stalled) {
+                flooder.send(target.userId, m, FLOOD_PADDING);
+            }
+            if (closed != null && closed.count() - closedBefore >= slow) {
+                break;
+            }
+        }
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while ((closed == null || closed.count() - closedBefore < slow) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        double dropped = closed == null ? 0 : closed.count() - closedBefore;
+        out.printf("slow consumers: %d stalled sockets flooded with %,d messages, %.0f closed as slow consumers%n",
+                slow, acked.sum() - sentBefore, dropped);
+        return dropped >= slow;
+    }
+
+    private static boolean awaitWriter(MeterRegistry registry) throws InterruptedException {
+        Gauge queue = registry.find("chat.writer.queue").gauge();
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (queue != null && queue.value() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        // The batch taken off the queue last may still be committing
+        Thread.sleep(500);
+        return true;
+    }
+
+    private static boolean awaitCount(LongAdder counter, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (counter.sum() < expected) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        return true;
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        return Duration.parse("PT" + value.toUpperCase());
+    }
+
+    /**
+     * One socket. Frames arrive on the client's executor; a stalled client never asks for more
+     * than the first, so the server's writes to it back up.
+     */
+    private final class Client implements WebSocket.Listener {
+
+        private final long userId;
+        private final boolean reading;
+        private final StringBuilder partial = new StringBuilder();
+        private volatile WebSocket socket;
+
+        Client(long userId, boolean reading) {
+            this.userId = userId;
+            this.reading = reading;
+        }
+
+        // The body starts with the send time; the client allows one outstanding send per socket
+        synchronized void send(long recipientId, int sequence, String padding) {
+            String frame = "{\"type\":\"send\",\"recipientId\":" + recipientId + ",\"clientId\":\"" + sequence
+                    + "\",\"body\":\"" + System.nanoTime() + padding + "\"}";
+            socket.sendText(frame, true).join();
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            webSocket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                handle(partial.toString());
+                partial.setLength(0);
+            }
+            if (reading) {
+                webSocket.request(1);
+            }
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            if (reading) {
+                errors.increment();
+            }
+        }
+
+        private void handle(String text) {
+            long now = System.nanoTime();
+            JsonNode frame;
+            try {
+                frame = json.readTree(text);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            switch (frame.path("type").asText()) {
+                case "message" -> {
+                    if (frame.path("recipientId").asLong() != userId) {
+                        errors.increment();
+                    }
+                    latencies.recordValue(Math.max(0, now - Long.parseLong(frame.path("body").asText().strip())));
+                    received.increment();
+                }
+                case "ack" -> acked.increment();
+                default -> errors.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.haatmakaam.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Compares a candidate report with a baseline and fails when an endpoint's p99 latency grew or
+ * its throughput dropped by more than the allowed fraction, or when it started returning errors.
+ *
+ * <pre>
+ *   compare baseline.json candidate.json [--max-latency-regression=0.15] [--max-throughput-drop=0.10]
+ * </pre>
+ */
+final class CompareReports {
+
+    private CompareReports() {
+    }
+
+    /**
+     * @return true when no endpoint regressed beyond the thresholds
+     */
+    static boolean run(String[] args, PrintStream out) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException(
+                    "Usage: compare baseline.json candidate.json [--max-latency-regression=0.15] [--max-throughput-drop=0.10]");
+        }
+        double maxLatencyRegression = 0.15;
+        double maxThroughputDrop = 0.10;
+        for (int i = 2; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--max-latency-regression=")) {
+                maxLatencyRegression = Double.parseDouble(arg.substring(arg.indexOf('=') + 1));
+            } else if (arg.startsWith("--max-throughput-drop=")) {
+                maxThroughputDrop = Double.parseDouble(arg.substring(arg.indexOf('=') + 1));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode baseline = mapper.readTree(Path.of(args[0]).toFile());
+        JsonNode candidate = mapper.readTree(Path.of(args[1]).toFile());
+        if (!baseline.path("options").equals(candidate.path("options"))) {
+            out.println("WARNING: the runs used different options; the comparison may not be meaningful");
+        }
+
+        boolean passed = true;
+        out.printf("%-14s %12s %12s %8s %12s %12s %8s  %s%n",
+                "endpoint", "base p99", "cand p99", "change", "base req/s", "cand req/s", "change", "verdict");
+        Iterator<Map.Entry<String, JsonNode>> endpoints = baseline.path("endpoints").fields();
+        while (endpoints.hasNext()) {
+            Map.Entry<String, JsonNode> entry = endpoints.next();
+            JsonNode base = entry.getValue();
+            JsonNode cand = candidate.path("endpoints").path(entry.getKey());
+            if (cand.isMissingNode()) {
+                out.printf("%-14s missing from candidate%n", entry.getKey());
+                passed = false;
+                continue;
+            }
+            double baseP99 = base.path("latencyMs").path("p99").asDouble();
+            double candP99 = cand.path("latencyMs").path("p99").asDouble();
+            double baseRate = base.path("throughputPerSecond").asDouble();
+            double candRate = cand.path("throughputPerSecond").asDouble();
+            double latencyChange = relativeChange(baseP99, candP99);
+            double throughputChange = relativeChange(baseRate, candRate);
+            boolean newErrors = base.path("errors").asLong() == 0 && cand.path("errors").asLong() > 0;
+
+            boolean ok = latencyChange <= maxLatencyRegression && -throughputChange <= maxThroughputDrop && !newErrors;
+            passed &= ok;
+            out.printf("%-14s %12.2f %12.2f %+7.1f%% %12.1f %12.1f %+7.1f%%  %s%n",
+                    entry.getKey(), baseP99, candP99, latencyChange * 100,
+                    baseRate, candRate, throughputChange * 100,
+                    ok ? "ok" : newErrors ? "REGRESSED (errors)" : "REGRESSED");
+        }
+        return passed;
+    }
+
+    private static double relativeChange(double base, double candidate) {
+        return base == 0 ? 0 : (candidate - base) / base;
+    }
+}
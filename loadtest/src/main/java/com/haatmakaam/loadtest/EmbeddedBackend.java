@@ -0,0 +1,237 @@
+package com.haatmakaam.loadtest;
+
+import com.haatmakaam.backend.BackendApplication;
+import com.haatmakaam.backend.services.sms.StubSmsSender;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * The real BackendApplication on a random port, backed by an embedded PostgreSQL server and the
+ * stub SMS provider. Rate limiting is off by default since every request comes from one address.
+ *
+ * With a replica, a second server is started as a streaming-replication hot standby of the first
+ * and configured as {@code datasource.replica.url}, so read-only traffic sees real replication lag.
+ */
+final class EmbeddedBackend implements AutoCloseable {
+
+    private static final String JWT_SECRET = "loadtest-secret-key-that-is-at-least-256-bits-long!";
+
+    // Not part of a base backup: server runtime state, and WAL, which the standby streams instead
+    private static final Set<String> NOT_COPIED = Set.of("postmaster.pid", "postmaster.opts", "epg-lock", "pg_wal");
+
+    private final EmbeddedPostgres postgres;
+    private final Standby standby;
+    private final ConfigurableApplicationContext context;
+    private final Map<String, String> properties;
+    private final Duration startupTime;
+
+    private EmbeddedBackend(EmbeddedPostgres postgres, Standby standby, ConfigurableApplicationContext context,
+                            Map<String, String> properties, Duration startupTime) {
+        this.postgres = postgres;
+        this.standby = standby;
+        this.context = context;
+        this.properties = properties;
+        this.startupTime = startupTime;
+    }
+
+    static EmbeddedBackend start(Map<String, String> overrides, boolean replica) throws IOException {
+        Path primaryDirectory = Files.createTempDirectory("loadtest-primary");
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+                .setDataDirectory(primaryDirectory)
+                // The default wal_level already supports a standby; keep the WAL it needs to catch up
+                .setServerConfig("wal_keep_size", "1GB")
+                .start();
+        Standby standby = null;
+        try {
+            if (replica) {
+                standby = Standby.start(postgres, primaryDirectory);
+            }
+        } catch (IOException | RuntimeException e) {
+            postgres.close();
+            throw e;
+        }
+
+        Map<String, String> properties = new LinkedHashMap<>();
+        // Replaces the 'local' profile, whose secrets and remote database are not wanted here
+        properties.put("spring.profiles.active", "loadtest");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "postgres");
+        // Direct connections; the pooler setting in application.properties is for Supabase
+        properties.put("datasource.transaction-pooler", "false");
+        if (standby != null) {
+            properties.put("datasource.replica.url", standby.postgres.getJdbcUrl("postgres", "postgres"));
+        }
+        properties.put("jwt.secret", JWT_SECRET);
+        properties.put("sms.provider", "stub");
+        properties.put("rate-limit.enabled", "false");
+        properties.put("otp.outbox.poll-interval-ms", "20");
+        // Listed explicitly so every report states which execution model it measured
+        properties.put("spring.threads.virtual.enabled", "false");
+        properties.putAll(overrides);
+
+        // Command-line arguments outrank application.properties; a repeated key would be
+        // joined rather than replaced, hence the map
+        String[] args = properties.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        try {
+            SpringApplication application = new SpringApplication(BackendApplication.class);
+            application.setApplicationStartup(new BufferingApplicationStartup(4096));
+            long startedAt = System.nanoTime();
+            ConfigurableApplicationContext context = application.run(args);
+            Duration startupTime = Duration.ofNanos(System.nanoTime() - startedAt);
+            return new EmbeddedBackend(postgres, standby, context, properties, startupTime);
+        } catch (RuntimeException e) {
+            if (standby != null) {
+                standby.close();
+            }
+            postgres.close();
+            throw e;
+        }
+    }
+
+    URI baseUri() {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return URI.create("http://localhost:" + port);
+    }
+
+    /**
+     * Wall-clock time of {@code SpringApplication.run}, from an empty database: migrations,
+     * JPA bootstrap and everything else up to a ready context.
+     */
+    Duration startupTime() {
+        return startupTime;
+    }
+
+    StubSmsSender smsStub() {
+        return context.getBean(StubSmsSender.class);
+    }
+
+    /**
+     * A bean of the running backend, e.g. its JdbcTemplate or MeterRegistry, for checks after a run.
+     */
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Effective overrides, for the report. Secrets are left out and the JDBC URL, which carries a
+     * random port, is replaced so reports from different runs compare cleanly.
+     */
+    Map<String, String> reportableProperties() {
+        Map<String, String> reportable = new LinkedHashMap<>(properties);
+        reportable.remove("jwt.secret");
+        reportable.remove("spring.datasource.password");
+        reportable.put("spring.datasource.url", "embedded-postgres");
+        reportable.computeIfPresent("datasource.replica.url", (key, url) -> "embedded-postgres-standby");
+        return reportable;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            context.close();
+        } finally {
+            try {
+                if (standby != null) {
+                    standby.close();
+                }
+            } finally {
+                postgres.close();
+            }
+        }
+    }
+
+    /**
+     * Hot standby built from a non-exclusive base backup of the primary's data directory, streaming
+     * WAL from the primary from then on.
+     */
+    private record Standby(EmbeddedPostgres postgres, Path directory) implements AutoCloseable {
+
+        static Standby start(EmbeddedPostgres primary, Path primaryDirectory) throws IOException {
+            Path directory = Files.createTempDirectory("loadtest-standby");
+            try (Connection connection = primary.getPostgresDatabase().getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("SELECT pg_start_backup('loadtest-standby', true, false)");
+                copy(primaryDirectory, directory);
+                try (ResultSet rs = statement.executeQuery("SELECT labelfile FROM pg_stop_backup(false, false)")) {
+                    rs.next();
+                    Files.writeString(directory.resolve("backup_label"), rs.getString(1));
+                }
+            } catch (SQLException e) {
+                throw new IOException("Base backup for the standby failed", e);
+            }
+            Files.createDirectories(directory.resolve("pg_wal"));
+            Files.createFile(directory.resolve("standby.signal"));
+            // Not a server option: pg_ctl would split the value at its spaces
+            Files.writeString(directory.resolve("postgresql.auto.conf"),
+                    "primary_conninfo = 'host=localhost port=" + primary.getPort() + " user=postgres'\n",
+                    StandardOpenOption.APPEND);
+
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+                    .setDataDirectory(directory)
+                    .setCleanDataDirectory(false)
+                    .setServerConfig("hot_standby", "on")
+                    .setServerConfig("hot_standby_feedback", "on")
+                    .start();
+            return new Standby(postgres, directory);
+        }
+
+        private static void copy(Path from, Path to) throws IOException {
+            try (Stream<Path> files = Files.walk(from)) {
+                files.filter(path -> from.relativize(path).getNameCount() == 0
+                                || !NOT_COPIED.contains(from.relativize(path).getName(0).toString()))
+                        .forEach(path -> {
+                            Path target = to.resolve(from.relativize(path).toString());
+                            try {
+                                if (Files.isDirectory(path)) {
+                                    Files.createDirectories(target);
+                                } else {
+                                    Files.copy(path, target);
+                                }
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                postgres.close();
+            } finally {
+                // Kept by the embedded server since it did not create the directory
+                try (Stream<Path> files = Files.walk(directory)) {
+                    for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                        Files.deleteIfExists(path);
+                    }
+                }
+            }
+        }
+    }
+}
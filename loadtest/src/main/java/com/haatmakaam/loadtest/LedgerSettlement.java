@@ -0,0 +1,222 @@
+package com.haatmakaam.loadtest;
+
+import com.haatmakaam.backend.exceptions.LedgerConflictException;
+import com.haatmakaam.backend.models.LedgerReceipt;
+import com.haatmakaam.backend.services.ledger.LedgerService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Settlement throughput on hot wallets: a few customers pay many workers at once through
+ * {@link LedgerService#settle}, every fee lands on the one platform account, and some settlements
+ * are submitted twice, as a retried gateway callback would be. Each customer can afford only part
+ * of its settlements. The run fails unless every settlement was posted at most once, a customer
+ * was refused exactly once its money ran out, and the ledger balances: every transaction's entries
+ * sum to zero and every wallet's balance is the sum of its entries.
+ *
+ * <pre>
+ *   java -jar target/loadtest.jar ledger-settlement [--settlements=20000 --customers=4 --workers=200 --concurrency=256]
+ * </pre>
+ *
+ * Runs twice on fresh backends: with the configured group commit, then with
+ * {@code ledger.batch-size=1}, one commit per posting. Any other {@code --key=value} is passed to
+ * the backend as a Spring property.
+ */
+final class LedgerSettlement {
+
+    // Far above the ids the backend hands out, like the chat soak's users
+    private static final long FIRST_USER_ID = 2_000_000_000L;
+    private static final long AMOUNT = 150_000;
+    private static final long FEE = 15_000;
+    // Every this many settlements one is also submitted a second time
+    private static final int DUPLICATE_EVERY = 10;
+
+    private LedgerSettlement() {
+    }
+
+    static boolean run(String[] args, PrintStream out) throws Exception {
+        int settlements = 20_000;
+        int customers = 4;
+        int workers = 200;
+        int concurrency = 256;
+        double funded = 0.9;
+        Map<String, String> backendProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (key) {
+                case "settlements" -> settlements = Integer.parseInt(value);
+                case "customers" -> customers = Integer.parseInt(value);
+                case "workers" -> workers = Integer.parseInt(value);
+                case "concurrency" -> concurrency = Integer.parseInt(value);
+                case "funded" -> funded = Double.parseDouble(value);
+                default -> backendProperties.put(key, value);
+            }
+        }
+        if (customers < 1 || workers < 1 || settlements < customers) {
+            throw new IllegalArgumentException("Need a customer, a worker, and a settlement per customer");
+        }
+
+        boolean passed = true;
+        for (boolean grouped : new boolean[]{true, false}) {
+            Map<String, String> properties = new LinkedHashMap<>(backendProperties);
+            if (!grouped) {
+                properties.put("ledger.batch-size", "1");
+            }
+            passed &= runOnce(properties, settlements, customers, workers, concurrency, funded, out);
+        }
+        out.println(passed ? "OK" : "FAILED");
+        return passed;
+    }
+
+    private static boolean runOnce(Map<String, String> properties, int settlements, int customers, int workers,
+                                   int concurrency, double funded, PrintStream out) throws Exception {
+        try (EmbeddedBackend backend = EmbeddedBackend.start(properties, false)) {
+            LedgerService ledger = backend.bean(LedgerService.class);
+            JdbcTemplate jdbc = backend.bean(JdbcTemplate.class);
+            createUsers(jdbc, customers + workers);
+
+            // Settlement i is paid by customer i % customers, who can afford only some of theirs
+            int[] affordable = new int[customers];
+            for (int c = 0; c < customers; c++) {
+                int owed = settlements / customers + (c < settlements % customers ? 1 : 0);
+                affordable[c] = (int) (owed * funded);
+                ledger.topUp(FIRST_USER_ID + c, "esewa", Math.max(1, affordable[c] * AMOUNT), "funding-" + c);
+            }
+            for (int w = 0; w < workers; w++) {
+                ledger.walletOf(FIRST_USER_ID + customers + w);
+            }
+
+            AtomicLongArray transactionIds = new AtomicLongArray(settlements);
+            AtomicIntegerArray postedBy = new AtomicIntegerArray(customers);
+            LongAdder posted = new LongAdder();
+            LongAdder replayed = new LongAdder();
+            LongAdder refused = new LongAdder();
+            LongAdder mismatched = new LongAdder();
+            LongAdder errors = new LongAdder();
+            Histogram latencies = new ConcurrentHistogram(3);
+            Semaphore inFlight = new Semaphore(concurrency);
+            CountDownLatch start = new CountDownLatch(1);
+            int submissions = settlements + (settlements + DUPLICATE_EVERY - 1) / DUPLICATE_EVERY;
+            long elapsedNanos;
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Integer> order = new ArrayList<>(submissions);
+                for (int i = 0; i < settlements; i++) {
+                    order.add(i);
+                    if (i % DUPLICATE_EVERY == 0) {
+                        order.add(i);
+                    }
+                }
+                for (int i : order) {
+                    int customer = i % customers;
+                    long customerId = FIRST_USER_ID + customer;
+                    long workerId = FIRST_USER_ID + customers + i % workers;
+                    clients.submit(() -> {
+                        start.await();
+                        inFlight.acquire();
+                        long sent = System.nanoTime();
+                        try {
+                            LedgerReceipt receipt = ledger.settle(i, customerId, workerId, AMOUNT, FEE);
+                            latencies.recordValue(System.nanoTime() - sent);
+                            if (receipt.replayed()) {
+                                replayed.increment();
+                            } else {
+                                posted.increment();
+                                postedBy.incrementAndGet(customer);
+                            }
+                            // Both submissions of a settlement must see the same transaction
+                            if (!transactionIds.compareAndSet(i, 0, receipt.transactionId())
+                                    && transactionIds.get(i) != receipt.transactionId()) {
+                                mismatched.increment();
+                            }
+                        } catch (LedgerConflictException e) {
+                            latencies.recordValue(System.nanoTime() - sent);
+                            refused.increment();
+                        } catch (RuntimeException e) {
+                            errors.increment();
+                        } finally {
+                            inFlight.release();
+                        }
+                        return null;
+                    });
+                }
+                long began = System.nanoTime();
+                start.countDown();
+                clients.shutdown();
+                clients.awaitTermination(5, TimeUnit.MINUTES);
+                elapsedNanos = System.nanoTime() - began;
+            }
+
+            boolean passed = errors.sum() == 0 && mismatched.sum() == 0;
+            for (int c = 0; c < customers; c++) {
+                if (postedBy.get(c) != affordable[c]) {
+                    out.printf("  customer %d could afford %d settlements but %d were posted%n",
+                            c, affordable[c], postedBy.get(c));
+                    passed = false;
+                }
+            }
+            Long rows = jdbc.queryForObject(
+                    "SELECT count(*) FROM ledger_transactions WHERE kind = 'SETTLEMENT'", Long.class);
+            Long unbalanced = jdbc.queryForObject("""
+                    SELECT count(*) FROM (
+                        SELECT transaction_id FROM ledger_entries GROUP BY transaction_id HAVING sum(amount) <> 0
+                    ) t
+                    """, Long.class);
+            Long drifted = jdbc.queryForObject("""
+                    SELECT count(*) FROM ledger_accounts a
+                    WHERE a.balance IS NOT NULL
+                      AND a.balance <> (SELECT COALESCE(sum(amount), 0) FROM ledger_entries e WHERE e.account_id = a.id)
+                    """, Long.class);
+            Long fees = jdbc.queryForObject(
+                    "SELECT COALESCE(sum(amount), 0) FROM ledger_entries WHERE account_id = ?", Long.class,
+                    LedgerService.PLATFORM_FEES);
+            if (rows == null || rows != posted.sum() || unbalanced == null || unbalanced != 0
+                    || drifted == null || drifted != 0 || fees == null || fees != posted.sum() * FEE) {
+                out.printf("  %d settlement rows for %d posted, %d unbalanced transactions, %d wallets off their "
+                        + "entries, fees %d%n", rows, posted.sum(), unbalanced, drifted, fees);
+                passed = false;
+            }
+
+            MeterRegistry registry = backend.bean(MeterRegistry.class);
+            DistributionSummary batches = registry.find("ledger.batch.size").summary();
+            out.printf("batch-size=%-4s submissions=%,d posted=%,d replayed=%,d refused=%,d errors=%d "
+                            + "throughput=%,.0f/s p50=%.1f ms p99=%.1f ms",
+                    properties.getOrDefault("ledger.batch-size", "default"), submissions, posted.sum(),
+                    replayed.sum(), refused.sum(), errors.sum(), submissions / (elapsedNanos / 1e9),
+                    latencies.getValueAtPercentile(50) / 1e6, latencies.getValueAtPercentile(99) / 1e6);
+            out.printf(batches == null ? "%n" : " commits=%,d mean batch %.1f%n",
+                    batches == null ? 0 : batches.count(), batches == null ? 0 : batches.mean());
+            return passed;
+        }
+    }
+
+    // Inserted directly: sign-up is not what is measured
+    private static void createUsers(JdbcTemplate jdbc, int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{FIRST_USER_ID + i, "Ledger " + i, String.format("+97796%08d", i), "unused", true, "USER"});
+        }
+        jdbc.batchUpdate("INSERT INTO users (id, full_name, phone_number, password, verified, user_role)"
+                + " VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,111 @@
+package com.haatmakaam.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Writes the JSON report for a run. Every endpoint carries its summary percentiles plus the full
+ * compressed HdrHistogram (base64), so runs can be re-analysed or merged later.
+ */
+final class LoadReport {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private LoadReport() {
+    }
+
+    static ObjectNode build(LoadTestOptions options, Map<String, String> backendProperties, Duration backendStartup,
+                            Metrics metrics) {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode report = mapper.createObjectNode();
+        report.put("label", options.label());
+        report.put("timestamp", Instant.now().toString());
+
+        ObjectNode environment = report.putObject("environment");
+        environment.put("javaVersion", System.getProperty("java.version"));
+        environment.put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        environment.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        environment.put("maxHeapMb", Runtime.getRuntime().maxMemory() / (1024 * 1024));
+
+        ObjectNode run = report.putObject("options");
+        run.put("users", options.users());
+        run.put("warmupSeconds", options.warmup().toSeconds());
+        run.put("durationSeconds", options.duration().toSeconds());
+        run.put("protectedPerLogin", options.protectedPerLogin());
+        run.put("replica", options.replica());
+        ObjectNode backend = run.putObject("backend");
+        backendProperties.forEach(backend::put);
+
+        // Cold start against an empty database, so it includes applying every migration
+        report.put("backendStartupMs", backendStartup.toMillis());
+        double measuredSeconds = metrics.measuredNanos() / 1e9;
+        report.put("measuredSeconds", measuredSeconds);
+
+        ObjectNode endpoints = report.putObject("endpoints");
+        for (EndpointStats stats : metrics.endpoints()) {
+            Histogram histogram = stats.latencies().copy();
+            ObjectNode endpoint = endpoints.putObject(stats.name());
+            endpoint.put("count", histogram.getTotalCount());
+            endpoint.put("errors", stats.errors());
+            endpoint.put("throughputPerSecond", histogram.getTotalCount() / measuredSeconds);
+            ObjectNode latency = endpoint.putObject("latencyMs");
+            latency.put("mean", histogram.getMean() / NANOS_PER_MILLI);
+            latency.put("p50", millis(histogram, 50.0));
+            latency.put("p90", millis(histogram, 90.0));
+            latency.put("p99", millis(histogram, 99.0));
+            latency.put("p999", millis(histogram, 99.9));
+            latency.put("max", histogram.getMaxValue() / NANOS_PER_MILLI);
+            endpoint.put("histogram", encode(histogram));
+        }
+        return report;
+    }
+
+    static void write(ObjectNode report, Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+    }
+
+    static void printSummary(ObjectNode report, PrintStream out) {
+        out.printf("backend started in %d ms%n", report.path("backendStartupMs").asLong());
+        out.printf("%-14s %10s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        report.path("endpoints").fields().forEachRemaining(entry -> {
+            var endpoint = entry.getValue();
+            var latency = endpoint.path("latencyMs");
+            out.printf("%-14s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(),
+                    endpoint.path("count").asLong(),
+                    endpoint.path("errors").asLong(),
+                    endpoint.path("throughputPerSecond").asDouble(),
+                    latency.path("p50").asDouble(),
+                    latency.path("p99").asDouble(),
+                    latency.path("p999").asDouble(),
+                    latency.path("max").asDouble());
+        });
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+}
@@ -0,0 +1,103 @@
+package com.haatmakaam.loadtest;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Entry point of the load harness.
+ *
+ * <pre>
+ *   java -jar target/loadtest.jar [--users=32 --warmup=15s --duration=60s ...]
+ *   java -jar target/loadtest.jar compare baseline.json candidate.json
+ *   java -jar target/loadtest.jar booking-contention [--attempts=4000 ...]
+ *   java -jar target/loadtest.jar chat-soak [--connections=2000 ...]
+ *   java -jar target/loadtest.jar ledger-settlement [--settlements=20000 ...]
+ *   java -jar target/loadtest.jar otp-lockout [--users=20 ...]
+ * </pre>
+ *
+ * See {@link LoadTestOptions} for the run options, {@link CompareReports} for comparisons,
+ * {@link BookingContention} for the double-booking check, {@link ChatSoak} for the chat socket,
+ * {@link LedgerSettlement} for wallet settlements and {@link OtpLockout} for the OTP attempt limit.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("compare")) {
+            boolean passed = CompareReports.run(Arrays.copyOfRange(args, 1, args.length), System.out);
+            System.exit(passed ? 0 : 1);
+        }
+        if (args.length > 0 && args[0].equals("booking-contention")) {
+            boolean passed = BookingContention.run(Arrays.copyOfRange(args, 1, args.length), System.out);
+            System.exit(passed ? 0 : 1);
+        }
+        if (args.length > 0 && args[0].equals("chat-soak")) {
+            boolean passed = ChatSoak.run(Arrays.copyOfRange(args, 1, args.length), System.out);
+            System.exit(passed ? 0 : 1);
+        }
+        if (args.length > 0 && args[0].equals("ledger-settlement")) {
+            boolean passed = LedgerSettlement.run(Arrays.copyOfRange(args, 1, args.length), System.out);
+            System.exit(passed ? 0 : 1);
+        }
+        if (args.length > 0 && args[0].equals("otp-lockout")) {
+            boolean passed = OtpLockout.run(Arrays.copyOfRange(args, 1, args.length), System.out);
+            System.exit(passed ? 0 : 1);
+        }
+
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectNode report;
+        try (EmbeddedBackend backend = EmbeddedBackend.start(options.backendProperties(), options.replica())) {
+            Metrics metrics = run(options, backend);
+            report = LoadReport.build(options, backend.reportableProperties(), backend.startupTime(), metrics);
+        }
+        LoadReport.write(report, options.report());
+        LoadReport.printSummary(report, System.out);
+        System.out.println("Report written to " + options.report().toAbsolutePath());
+        // Non-daemon threads of the HTTP client would otherwise keep the JVM alive
+        System.exit(0);
+    }
+
+    private static Metrics run(LoadTestOptions options, EmbeddedBackend backend) throws InterruptedException {
+        Metrics metrics = new Metrics();
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        AuthScenario scenario = new AuthScenario(http, backend.baseUri(), backend.smsStub(), metrics, options.protectedPerLogin());
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        // Virtual users are virtual threads, so the client side never caps concurrency
+        ExecutorService users = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < options.users(); i++) {
+            int userIndex = i;
+            users.submit(() -> {
+                scenario.run(userIndex, running::get);
+                return null;
+            });
+        }
+
+        System.out.printf("%d virtual users against %s: warming up for %ds%n",
+                options.users(), backend.baseUri(), options.warmup().toSeconds());
+        Thread.sleep(options.warmup().toMillis());
+        metrics.startMeasuring(System.nanoTime());
+        System.out.printf("Measuring for %ds%n", options.duration().toSeconds());
+        Thread.sleep(options.duration().toMillis());
+        metrics.stopMeasuring(System.nanoTime());
+
+        running.set(false);
+        users.shutdown();
+        if (!users.awaitTermination(1, TimeUnit.MINUTES)) {
+            users.shutdownNow();
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,67 @@
+package com.haatmakaam.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command-line options. Harness options are listed below; any other {@code --key=value} is passed
+ * to the backend as a Spring property, e.g. {@code --security.jwt.stateless-auth=true}.
+ *
+ * <pre>
+ *   --users=32                  concurrent virtual users
+ *   --warmup=15s                run before measuring (JIT, pools, caches); not reported
+ *   --duration=60s              measured window
+ *   --protected-per-login=20    GET /api/test/protected calls per logged-in session
+ *   --report=target/loadtest-report.json
+ *   --label=...                 free text stored in the report, e.g. the commit id
+ *   --replica=false             add a streaming-replication standby as the read replica
+ * </pre>
+ */
+record LoadTestOptions(
+        int users,
+        Duration warmup,
+        Duration duration,
+        int protectedPerLogin,
+        Path report,
+        String label,
+        boolean replica,
+        Map<String, String> backendProperties
+) {
+
+    static LoadTestOptions parse(String[] args) {
+        int users = 32;
+        Duration warmup = Duration.ofSeconds(15);
+        Duration duration = Duration.ofSeconds(60);
+        int protectedPerLogin = 20;
+        Path report = Path.of("target", "loadtest-report.json");
+        String label = "";
+        boolean replica = false;
+        Map<String, String> backendProperties = new LinkedHashMap<>();
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (key) {
+                case "users" -> users = Integer.parseInt(value);
+                case "warmup" -> warmup = DurationStyle.detectAndParse(value);
+                case "duration" -> duration = DurationStyle.detectAndParse(value);
+                case "protected-per-login" -> protectedPerLogin = Integer.parseInt(value);
+                case "report" -> report = Path.of(value);
+                case "label" -> label = value;
+                case "replica" -> replica = Boolean.parseBoolean(value);
+                default -> backendProperties.put(key, value);
+            }
+        }
+        if (users < 1) {
+            throw new IllegalArgumentException("--users must be at least 1");
+        }
+        return new LoadTestOptions(users, warmup, duration, protectedPerLogin, report, label, replica, backendProperties);
+    }
+}
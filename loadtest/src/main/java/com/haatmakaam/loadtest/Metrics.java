@@ -0,0 +1,62 @@
+package com.haatmakaam.loadtest;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-endpoint statistics for one run. Only requests that start inside the measured window are
+ * recorded, so warmup traffic and requests still in flight at the start are left out.
+ */
+final class Metrics {
+
+    static final String REGISTER = "register";
+    static final String OTP_DELIVERY = "otp-delivery";
+    static final String VERIFY_OTP = "verify-otp";
+    static final String LOGIN = "login";
+    static final String PROTECTED = "protected";
+
+    private final Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+
+    private volatile long measuringFrom = Long.MAX_VALUE;
+    private volatile long measuringUntil = Long.MAX_VALUE;
+
+    Metrics() {
+        for (String name : List.of(REGISTER, OTP_DELIVERY, VERIFY_OTP, LOGIN, PROTECTED)) {
+            endpoints.put(name, new EndpointStats(name));
+        }
+    }
+
+    void startMeasuring(long nowNanos) {
+        measuringFrom = nowNanos;
+    }
+
+    void stopMeasuring(long nowNanos) {
+        measuringUntil = nowNanos;
+    }
+
+    long measuredNanos() {
+        return measuringUntil - measuringFrom;
+    }
+
+    void success(String endpoint, long startNanos, long endNanos) {
+        if (inWindow(startNanos)) {
+            endpoints.get(endpoint).recordSuccess(endNanos - startNanos);
+        }
+    }
+
+    void error(String endpoint, long startNanos) {
+        if (inWindow(startNanos)) {
+            endpoints.get(endpoint).recordError();
+        }
+    }
+
+    Collection<EndpointStats> endpoints() {
+        return endpoints.values();
+    }
+
+    private boolean inWindow(long startNanos) {
+        return startNanos >= measuringFrom && startNanos < measuringUntil;
+    }
+}
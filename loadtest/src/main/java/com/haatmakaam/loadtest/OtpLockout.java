@@ -0,0 +1,155 @@
+package com.haatmakaam.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haatmakaam.backend.services.sms.StubSmsSender;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Checks that an OTP stops working once {@code otp.max-attempts} wrong codes were sent for it.
+ * Each user sends {@code --guesses} wrong codes at once, then the right one, which must be
+ * rejected and leave the user unverified. Runs twice on fresh backends, with the in-memory and
+ * with the Postgres OTP store.
+ *
+ * <pre>
+ *   java -jar target/loadtest.jar otp-lockout [--users=20 --guesses=20]
+ * </pre>
+ *
+ * Any other {@code --key=value} is passed to the backend as a Spring property.
+ */
+final class OtpLockout {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration OTP_WAIT = Duration.ofSeconds(10);
+    private static final String PASSWORD = "load-test-password";
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper json = new ObjectMapper();
+
+    private OtpLockout() {
+    }
+
+    static boolean run(String[] args, PrintStream out) throws Exception {
+        int users = 20;
+        int guesses = 20;
+        Map<String, String> backendProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (key) {
+                case "users" -> users = Integer.parseInt(value);
+                case "guesses" -> guesses = Integer.parseInt(value);
+                default -> backendProperties.put(key, value);
+            }
+        }
+        int maxAttempts = Integer.parseInt(backendProperties.getOrDefault("otp.max-attempts", "5"));
+        if (users < 1 || guesses < maxAttempts) {
+            throw new IllegalArgumentException("Need at least one user and otp.max-attempts guesses");
+        }
+        backendProperties.putIfAbsent("security.password.bcrypt-strength", "4");
+
+        OtpLockout lockout = new OtpLockout();
+        boolean passed = true;
+        for (String store : new String[]{"memory", "jdbc"}) {
+            Map<String, String> properties = new LinkedHashMap<>(backendProperties);
+            properties.put("otp.store", store);
+            passed &= lockout.runOnce(properties, users, guesses, out);
+        }
+        out.println(passed ? "OK" : "FAILED");
+        return passed;
+    }
+
+    private boolean runOnce(Map<String, String> properties, int users, int guesses, PrintStream out) throws Exception {
+        try (EmbeddedBackend backend = EmbeddedBackend.start(properties, false)) {
+            URI baseUri = backend.baseUri();
+            StubSmsSender sms = backend.smsStub();
+            JdbcTemplate jdbc = backend.bean(JdbcTemplate.class);
+
+            LongAdder wrongAccepted = new LongAdder();
+            int rightAccepted = 0;
+            int verified = 0;
+            for (int u = 0; u < users; u++) {
+                String phone = String.format("+97796%08d", u);
+                String code = register(baseUri, sms, phone);
+                String wrong = String.format("%06d", (Integer.parseInt(code) + 1) % 1_000_000);
+                try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                    for (int g = 0; g < guesses; g++) {
+                        clients.submit(() -> {
+                            if (verify(baseUri, phone, wrong) / 100 == 2) {
+                                wrongAccepted.increment();
+                            }
+                            return null;
+                        });
+                    }
+                    clients.shutdown();
+                    clients.awaitTermination(1, TimeUnit.MINUTES);
+                }
+                if (verify(baseUri, phone, code) / 100 == 2) {
+                    rightAccepted++;
+                }
+                Boolean isVerified = jdbc.queryForObject(
+                        "SELECT verified FROM users WHERE phone_number = ?", Boolean.class, phone);
+                if (Boolean.TRUE.equals(isVerified)) {
+                    verified++;
+                }
+            }
+
+            boolean passed = wrongAccepted.sum() == 0 && rightAccepted == 0 && verified == 0;
+            out.printf("store=%-6s users=%d guesses=%d wrong accepted=%d right code accepted after lockout=%d "
+                            + "verified=%d %s%n",
+                    properties.get("otp.store"), users, guesses, wrongAccepted.sum(), rightAccepted, verified,
+                    passed ? "ok" : "FAILED");
+            return passed;
+        }
+    }
+
+    // register -> OTP from the stub provider, returning the code
+    private String register(URI baseUri, StubSmsSender sms, String phone) throws Exception {
+        HttpResponse<String> response = post(baseUri, "/api/auth/register",
+                Map.of("name", "Load Test", "phone", phone, "password", PASSWORD, "role", "USER"));
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("register returned " + response.statusCode() + ": " + response.body());
+        }
+        long deadline = System.nanoTime() + OTP_WAIT.toNanos();
+        String message;
+        while ((message = sms.lastMessageTo(phone)) == null) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("No OTP for " + phone);
+            }
+            Thread.sleep(2);
+        }
+        return message.substring(message.length() - 6);
+    }
+
+    private int verify(URI baseUri, String phone, String otp) throws IOException, InterruptedException {
+        return post(baseUri, "/api/auth/verify-otp", Map.of("phone", phone, "otp", otp)).statusCode();
+    }
+
+    private HttpResponse<String> post(URI baseUri, String path, Object body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}